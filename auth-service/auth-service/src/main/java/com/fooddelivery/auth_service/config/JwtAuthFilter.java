@@ -1,6 +1,8 @@
 
 package com.fooddelivery.auth_service.config;
 
+import com.fooddelivery.common.security.VerifiedToken;
+import com.fooddelivery.common.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,8 +29,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final String secret;
+    private final VerifiedTokenCache<VerifiedToken> tokenCache;
+
+    public JwtAuthFilter(@Value("${jwt.secret}") String secret, VerifiedTokenCache<VerifiedToken> tokenCache) {
+        this.secret = secret;
+        this.tokenCache = tokenCache;
+    }
 
     /**
      * This method determines whether this JWT filter should be applied to the current request.
@@ -50,7 +58,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                path.startsWith("/swagger-ui/") ||    // Swagger UI resources (CSS, JS, etc.)
                path.equals("/v3/api-docs") ||       // Exact path for the main OpenAPI JSON definition
                path.startsWith("/v3/api-docs/") ||   // OpenAPI JSON sub-paths (like /v3/api-docs/swagger-config)
-               path.startsWith("/actuator/");         // Actuator endpoints (if you have them)
+               path.equals("/actuator/health") ||   // Health checks are public; other actuator endpoints need a token
+               path.startsWith("/actuator/health/");
     }
 
     @Override
@@ -59,7 +68,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         // This block will now only be executed for paths that shouldNotFilter returns 'false' for.
-        // For public paths (register, login, Swagger, Actuator), this method will be skipped entirely.
+        // For public paths (register, login, Swagger, actuator health), this method will be skipped entirely.
 
         String authHeader = request.getHeader("Authorization");
         logger.debug("Authorization header: {}", authHeader != null ? "Present" : "Missing");
@@ -73,28 +82,35 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             String token = authHeader.substring(7); // Extract the token after "Bearer "
 
-            // Parse the JWT token to get claims
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secret.getBytes()) // Use the injected secret key
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            logger.debug("JWT parsed successfully for subject: {}", claims.getSubject());
-
-            String username = claims.getSubject(); // Subject of the JWT is typically the username/email
-
-            // Extract roles claim. Assuming roles are stored as a List of strings in the 'roles' claim.
-            // Default to an empty list if no roles claim is present.
-            List<?> rolesRaw = claims.get("roles", List.class);
-            List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-            if (rolesRaw != null) {
-                authorities = rolesRaw.stream()
-                        // Ensure "ROLE_" prefix for Spring Security's role checks
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + ((String) role).toUpperCase()))
-                        .collect(Collectors.toList());
+            // Tokens seen before skip signature verification and claims parsing
+            VerifiedToken verified = tokenCache.get(token);
+            if (verified == null) {
+                // Parse the JWT token to get claims
+                Claims claims = Jwts.parserBuilder()
+                        .setSigningKey(secret.getBytes()) // Use the injected secret key
+                        .build()
+                        .parseClaimsJws(token)
+                        .getBody();
+
+                logger.debug("JWT parsed successfully for subject: {}", claims.getSubject());
+
+                // Extract roles claim. Assuming roles are stored as a List of strings in the 'roles' claim.
+                // Default to an empty list if no roles claim is present.
+                List<?> rolesRaw = claims.get("roles", List.class);
+                List<SimpleGrantedAuthority> authorities = Collections.emptyList();
+                if (rolesRaw != null) {
+                    authorities = rolesRaw.stream()
+                            // Ensure "ROLE_" prefix for Spring Security's role checks
+                            .map(role -> new SimpleGrantedAuthority("ROLE_" + ((String) role).toUpperCase()))
+                            .collect(Collectors.toList());
+                }
+                Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+                verified = tokenCache.put(token, new VerifiedToken(claims.getSubject(), authorities), expiresAt);
             }
 
+            String username = verified.username(); // Subject of the JWT is typically the username/email
+            List<SimpleGrantedAuthority> authorities = verified.authorities();
+
             // If username is present and no authentication is currently set in the context
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // Create an Authentication object
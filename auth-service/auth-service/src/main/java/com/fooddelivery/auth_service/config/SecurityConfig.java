@@ -35,7 +35,7 @@ public class SecurityConfig {
      */
     @Bean
     public WebSecurityCustomizer webSecurityCustomizer() {
-        log.info("Configuring WebSecurityCustomizer to ignore /auth/**, Swagger, Actuator, and /error paths.");
+        log.info("Configuring WebSecurityCustomizer to ignore /auth/**, Swagger, actuator health, and /error paths.");
         return (web) -> web.ignoring()
                            .requestMatchers(HttpMethod.POST, "/auth/register") // Explicitly ignore POST for registration
                            .requestMatchers(HttpMethod.POST, "/auth/login")    // Explicitly ignore POST for login
@@ -43,7 +43,8 @@ public class SecurityConfig {
                                "/swagger-ui.html",         // Ignore Swagger UI
                                "/swagger-ui/**",           // Ignore Swagger UI resources
                                "/v3/api-docs/**",          // Ignore OpenAPI documentation
-                               "/actuator/**",             // Ignore Actuator endpoints
+                               "/actuator/health",         // Ignore the health check; metrics stay secured
+                               "/actuator/health/**",
                                "/error"                    // Explicitly ignore the /error path
                            );
     }
@@ -54,6 +55,8 @@ public class SecurityConfig {
         http
                 .csrf(csrf -> csrf.disable()) // Disable CSRF for API-based authentication
                 .authorizeHttpRequests(auth -> auth
+                        // Metrics and the rest of actuator expose internals
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // All requests NOT ignored by webSecurityCustomizer will require authentication
                         .anyRequest().authenticated()
                 )
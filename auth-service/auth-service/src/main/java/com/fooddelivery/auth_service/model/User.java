@@ -14,7 +14,8 @@ import lombok.NoArgsConstructor; // Lombok: Generates no-argument constructor
 public class User {
 
     @Id // Marks this field as the primary key
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Auto-increments the ID
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq") // Pooled sequence, allows batched inserts
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50) // 50 IDs per sequence round trip
     private Long id;
 
     @Column(nullable = false) // Ensures the name column cannot be null
@@ -4,6 +4,8 @@ package com.fooddelivery.auth_service.config;
 // Removed import for com.fooddelivery.auth_service.model.User as it's not used by the filter's logic being tested
 // Removed import for com.fooddelivery.auth_service.repository.UserRepository as it's not a dependency
 
+import com.fooddelivery.common.security.VerifiedToken;
+import com.fooddelivery.common.security.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,7 +16,6 @@ import org.mockito.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.test.util.ReflectionTestUtils; // To inject @Value secret
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm; // For generating dummy JWTs
 import io.jsonwebtoken.security.Keys; // For generating strong keys
@@ -44,7 +45,6 @@ class JwtAuthFilterTest {
     @Mock private HttpServletResponse response;
     @Mock private FilterChain filterChain;
 
-    @InjectMocks // Injects mocks into JwtAuthFilter
     private JwtAuthFilter jwtAuthFilter;
 
     // Hardcoded secret for testing - must be at least 32 bytes for HS256 to prevent SignatureException
@@ -56,9 +56,8 @@ class JwtAuthFilterTest {
         MockitoAnnotations.openMocks(this);
         SecurityContextHolder.clearContext(); // Ensure SecurityContextHolder is clean before each test
 
-        // Manually inject the secret into the JwtAuthFilter instance using ReflectionTestUtils.
-        // This simulates Spring's @Value injection for unit tests where the full Spring context isn't loaded.
-        ReflectionTestUtils.setField(jwtAuthFilter, "secret", TEST_SECRET);
+        // Build the filter the way Spring does, with the test secret and the token cache turned off
+        jwtAuthFilter = new JwtAuthFilter(TEST_SECRET, new VerifiedTokenCache<>(false, 0, 900, null));
         // Derive the signing key from the secret for generating test JWTs
         signKey = Keys.hmacShaKeyFor(TEST_SECRET.getBytes());
     }
@@ -355,4 +354,34 @@ class JwtAuthFilterTest {
         verify(response, never()).setStatus(anyInt());
         // No userRepository interaction to verify
     }
+
+    /**
+     * Tests doFilterInternal with the verified-token cache enabled.
+     * The secret is rotated after the first request, so the second one can only succeed
+     * if it is served from the cache without re-verifying the signature.
+     * Expected: Both requests are authenticated with the same subject and roles.
+     */
+    @Test
+    void doFilterInternal_CachedToken_ShouldSkipVerification() throws Exception {
+        String email = "cached@example.com";
+        String validToken = generateToken(email, Collections.singletonList("USER"), TimeUnit.MINUTES.toMillis(10));
+        VerifiedTokenCache<VerifiedToken> tokenCache = new VerifiedTokenCache<>(true, 100, 900, null);
+        JwtAuthFilter cachingFilter = new JwtAuthFilter(TEST_SECRET, tokenCache);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
+        when(request.getRequestURI()).thenReturn("/protected-resource");
+
+        cachingFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+
+        // A fresh parse would now fail the signature check
+        JwtAuthFilter rotatedFilter = new JwtAuthFilter("anothertestsecretkeyforjwtsigning1234567890abcdef", tokenCache);
+        rotatedFilter.doFilterInternal(request, response, filterChain);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(email, SecurityContextHolder.getContext().getAuthentication().getName());
+        assertTrue(SecurityContextHolder.getContext().getAuthentication().getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
+        verify(filterChain, times(2)).doFilter(request, response);
+        verify(response, never()).setStatus(anyInt());
+    }
 }
@@ -0,0 +1,29 @@
+-- One-off migration for databases created while the entities still used GenerationType.IDENTITY.
+--
+-- Order, OrderOutbox, Payment, Restaurant and User now take their ids from pooled sequences
+-- (allocationSize = 50). MySQL has no native sequences, so Hibernate emulates each one with a
+-- single-row table holding next_val. ddl-auto=update creates those tables starting at 1, which
+-- would collide with ids already handed out by AUTO_INCREMENT. Run this once, with the services
+-- stopped, before starting the new versions.
+--
+-- Each sequence is seeded one full allocation block past the current max id.
+
+CREATE TABLE IF NOT EXISTS order_seq (next_val BIGINT);
+DELETE FROM order_seq;
+INSERT INTO order_seq SELECT COALESCE(MAX(id), 0) + 51 FROM `order`;
+
+CREATE TABLE IF NOT EXISTS order_outbox_seq (next_val BIGINT);
+DELETE FROM order_outbox_seq;
+INSERT INTO order_outbox_seq SELECT COALESCE(MAX(id), 0) + 51 FROM order_outbox;
+
+CREATE TABLE IF NOT EXISTS payment_seq (next_val BIGINT);
+DELETE FROM payment_seq;
+INSERT INTO payment_seq SELECT COALESCE(MAX(id), 0) + 51 FROM payments;
+
+CREATE TABLE IF NOT EXISTS restaurant_seq (next_val BIGINT);
+DELETE FROM restaurant_seq;
+INSERT INTO restaurant_seq SELECT COALESCE(MAX(id), 0) + 51 FROM restaurants;
+
+CREATE TABLE IF NOT EXISTS user_seq (next_val BIGINT);
+DELETE FROM user_seq;
+INSERT INTO user_seq SELECT COALESCE(MAX(id), 0) + 51 FROM users;
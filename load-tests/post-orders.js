@@ -0,0 +1,62 @@
+// k6 load test for POST /orders on order-service.
+//
+// Compares platform-thread and virtual-thread mode: run once per mode and compare the
+// highest arrival rate that still meets the thresholds, plus the reported p(99).
+//
+//   1. Start order-service with spring.threads.virtual.enabled=false (then =true for the second run)
+//   2. k6 run -e TOKEN=<customer JWT> -e RESTAURANT_ID=1 load-tests/post-orders.js
+//
+// The arrival rate ramps in steps (START_RPS .. MAX_RPS). Once the service falls behind, k6 reports
+// dropped_iterations and the p(99)/error-rate thresholds fail; the last stage before that is the
+// max sustainable RPS for the mode under test.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8083';
+const START_RPS = Number(__ENV.START_RPS || 50);
+const MAX_RPS = Number(__ENV.MAX_RPS || 1000);
+const STEP_RPS = Number(__ENV.STEP_RPS || 50);
+const STEP_DURATION = __ENV.STEP_DURATION || '30s';
+
+function stages() {
+  const result = [];
+  for (let rps = START_RPS; rps <= MAX_RPS; rps += STEP_RPS) {
+    result.push({ target: rps, duration: '5s' });
+    result.push({ target: rps, duration: STEP_DURATION });
+  }
+  return result;
+}
+
+export const options = {
+  scenarios: {
+    place_orders: {
+      executor: 'ramping-arrival-rate',
+      startRate: START_RPS,
+      timeUnit: '1s',
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+      stages: stages(),
+    },
+  },
+  thresholds: {
+    http_req_duration: [{ threshold: 'p(99)<1000', abortOnFail: true, delayAbortEval: '10s' }],
+    http_req_failed: [{ threshold: 'rate<0.01', abortOnFail: true, delayAbortEval: '10s' }],
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+  const body = JSON.stringify({
+    restaurantId: Number(__ENV.RESTAURANT_ID || 1),
+    totalAmount: 299.99,
+    paymentMethod: 'CARD',
+  });
+  const response = http.post(`${BASE_URL}/orders`, body, {
+    headers: {
+      'Content-Type': 'application/json',
+      Authorization: `Bearer ${__ENV.TOKEN}`,
+    },
+  });
+  check(response, { 'order placed': (r) => r.status === 201 || r.status === 202 });
+}
@@ -2,23 +2,53 @@ package com.fooddelivery.order_service;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Set;
 
 @Configuration
 public class FeignClientInterceptor implements RequestInterceptor {
 
-    @Autowired
-    private HttpServletRequest request;
+    // Token used for calls made outside of an HTTP request (e.g., the outbox dispatcher)
+    @Value("${order.feign.service-token:}")
+    private String serviceToken;
+
+    // Clients that always get the service token, even during a customer's request
+    @Value("${order.feign.service-identity-clients:payment-service}")
+    private Set<String> serviceIdentityClients = Set.of("payment-service");
 
     @Override
     public void apply(RequestTemplate template) {
-        // Grab the Authorization header from the incoming request to order-service
-        String authHeader = request.getHeader("Authorization");
+        if (hasServiceToken() && template.feignTarget() != null
+                && serviceIdentityClients.contains(template.feignTarget().name())) {
+            // payment-service scopes Idempotency-Keys by caller; a payment placed during the customer's request
+            // and retried later by the outbox or saga must look like the same caller, or it is charged twice
+            template.header("Authorization", "Bearer " + serviceToken);
+            return;
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
 
-        if (authHeader != null && !authHeader.isEmpty()) {
-            // Forward it to restaurant-service call
-            template.header("Authorization", authHeader);
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            // Grab the Authorization header from the incoming request to order-service
+            HttpServletRequest request = servletAttributes.getRequest();
+            String authHeader = request.getHeader("Authorization");
+
+            if (authHeader != null && !authHeader.isEmpty()) {
+                // Forward it to restaurant-service call
+                template.header("Authorization", authHeader);
+            }
+        } else if (hasServiceToken()) {
+            // No incoming request on this thread (background job), fall back to the configured service token
+            template.header("Authorization", "Bearer " + serviceToken);
         }
     }
+
+    private boolean hasServiceToken() {
+        return serviceToken != null && !serviceToken.isEmpty();
+    }
 }
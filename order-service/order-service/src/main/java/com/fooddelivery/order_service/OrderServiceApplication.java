@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient; // Import this for Eureka
 import org.springframework.cloud.openfeign.EnableFeignClients; // Import this for Feign Client
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient // Enables this service to register with Eureka and discover others
 @EnableFeignClients // Adds this annotation to enable Feign client scanning
+@EnableScheduling // Enables scheduled background jobs (e.g., the order outbox dispatcher)
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
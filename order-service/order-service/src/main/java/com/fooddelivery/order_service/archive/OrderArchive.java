@@ -0,0 +1,376 @@
+package com.fooddelivery.order_service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.order_service.model.Order;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for orders moved out of the order table by OrderArchivalJob.
+ *
+ * Each archival run writes one append-only segment file: orders in ascending ID order as JSON lines,
+ * compressed in blocks of order.archive.block-size orders. Every block is its own gzip member, so one
+ * block can be read without decompressing the rest. A sidecar .idx file written when the segment is
+ * sealed holds the first order ID and byte offset of each block; a lookup only inflates the one block
+ * whose ID range can hold the order. Segments without an .idx were never sealed and are ignored.
+ *
+ * Segment ID ranges can overlap, because an old order that was still open during one run is archived by
+ * a later one. With several order-service instances the directory must be shared storage; instances pick
+ * up each other's segments on the next refresh.
+ */
+@Component
+public class OrderArchive {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchive.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int INDEX_MAGIC = 0x4F524458; // "ORDX"
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int blockSize;
+    private final long refreshIntervalMs;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private volatile long lastRefresh;
+
+    public OrderArchive(ObjectMapper objectMapper,
+                        @Value("${order.archive.dir:order-archive}") String directory,
+                        @Value("${order.archive.block-size:1000}") int blockSize,
+                        @Value("${order.archive.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.blockSize = blockSize;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        refresh();
+        log.info("Order archive at {} has {} segments.", directory.toAbsolutePath(), segments.size());
+    }
+
+    /**
+     * Looks an archived order up by ID.
+     *
+     * @param id The order ID.
+     * @return The archived order, or empty if no sealed segment holds it.
+     */
+    public Optional<Order> find(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        refreshIfStale();
+        // Newest segment first: if a crashed run left an order in two segments, the later copy wins
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            int block = segment.blockFor(id);
+            if (block < 0) {
+                continue;
+            }
+            try (BufferedReader lines = segment.openBlock(block)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    Order order = objectMapper.readValue(line, Order.class);
+                    if (id.equals(order.getId())) {
+                        return Optional.of(order);
+                    }
+                    if (order.getId() > id) {
+                        break; // Blocks are sorted by ID
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive segment " + segment.file(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return The sealed segments currently known, oldest first.
+     */
+    public List<Segment> segments() {
+        refreshIfStale();
+        return List.copyOf(segments);
+    }
+
+    /**
+     * Reads every order in a segment, in ID order.
+     */
+    public void read(Segment segment, Consumer<Order> consumer) {
+        for (int block = 0; block < segment.blockCount(); block++) {
+            try (BufferedReader lines = segment.openBlock(block)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    consumer.accept(objectMapper.readValue(line, Order.class));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive segment " + segment.file(), e);
+            }
+        }
+    }
+
+    /**
+     * Starts a new segment. Orders must be appended in ascending ID order.
+     */
+    public SegmentWriter newSegment() throws IOException {
+        String prefix = "orders-" + LocalDateTime.now().format(SEGMENT_NAME);
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return new SegmentWriter(directory.resolve(prefix + String.format("-%02d", attempt) + SEGMENT_SUFFIX));
+            } catch (FileAlreadyExistsException e) {
+                if (attempt == 99) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks up segments sealed by other instances since the last look at the directory.
+     */
+    private void refreshIfStale() {
+        if (System.currentTimeMillis() - lastRefresh > refreshIntervalMs) {
+            try {
+                refresh();
+            } catch (IOException e) {
+                log.warn("Could not list order archive {}: {}", directory, e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void refresh() throws IOException {
+        lastRefresh = System.currentTimeMillis();
+        List<Path> known = segments.stream().map(Segment::file).toList();
+        List<Segment> found = new ArrayList<>();
+        try (DirectoryStream<Path> indexes = Files.newDirectoryStream(directory, "*" + INDEX_SUFFIX)) {
+            for (Path index : indexes) {
+                Path file = segmentFileOf(index);
+                if (!known.contains(file)) {
+                    found.add(Segment.load(file, index));
+                }
+            }
+        }
+        if (!found.isEmpty()) {
+            found.sort(Comparator.comparing(s -> s.file().getFileName().toString()));
+            segments.addAll(found);
+        }
+    }
+
+    private synchronized void register(Segment segment) {
+        // A refresh may already have picked it up from the directory
+        if (segments.stream().noneMatch(s -> s.file().equals(segment.file()))) {
+            segments.add(segment);
+        }
+    }
+
+    private static Path segmentFileOf(Path index) {
+        String name = index.getFileName().toString();
+        return index.resolveSibling(name.substring(0, name.length() - INDEX_SUFFIX.length()) + SEGMENT_SUFFIX);
+    }
+
+    private static Path indexFileOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return segment.resolveSibling(name.substring(0, name.length() - SEGMENT_SUFFIX.length()) + INDEX_SUFFIX);
+    }
+
+    /**
+     * A sealed segment and its sparse block index.
+     *
+     * @param blockFirstIds ID of the first order in each block, ascending.
+     * @param blockOffsets  Byte offset of each block in the file; the last entry is the file length.
+     */
+    public record Segment(Path file, long orderCount, long maxId, long[] blockFirstIds, long[] blockOffsets) {
+
+        int blockCount() {
+            return blockFirstIds.length;
+        }
+
+        /**
+         * @return The only block that can hold the order, or -1 if the ID is outside this segment.
+         */
+        int blockFor(long id) {
+            if (blockFirstIds.length == 0 || id < blockFirstIds[0] || id > maxId) {
+                return -1;
+            }
+            int found = Arrays.binarySearch(blockFirstIds, id);
+            return found >= 0 ? found : -found - 2;
+        }
+
+        BufferedReader openBlock(int block) throws IOException {
+            long start = blockOffsets[block];
+            long length = blockOffsets[block + 1] - start;
+            ByteBuffer compressed = ByteBuffer.allocate(Math.toIntExact(length));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (compressed.hasRemaining()) {
+                    if (channel.read(compressed, start + compressed.position()) < 0) {
+                        throw new IOException("Archive segment " + file + " is truncated.");
+                    }
+                }
+            }
+            InputStream inflated = new GZIPInputStream(new ByteArrayInputStream(compressed.array()));
+            return new BufferedReader(new InputStreamReader(inflated, StandardCharsets.UTF_8));
+        }
+
+        static Segment load(Path file, Path index) throws IOException {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(index))) {
+                if (in.readInt() != INDEX_MAGIC) {
+                    throw new IOException("Not an order archive index: " + index);
+                }
+                long orderCount = in.readLong();
+                long maxId = in.readLong();
+                int blocks = in.readInt();
+                long[] firstIds = new long[blocks];
+                long[] offsets = new long[blocks + 1];
+                for (int i = 0; i < blocks; i++) {
+                    firstIds[i] = in.readLong();
+                    offsets[i] = in.readLong();
+                }
+                offsets[blocks] = in.readLong();
+                return new Segment(file, orderCount, maxId, firstIds, offsets);
+            }
+        }
+    }
+
+    /**
+     * Appends orders to a new segment. Nothing is visible to lookups until {@link #seal()} succeeds;
+     * {@link #close()} without sealing discards the partial file.
+     */
+    public final class SegmentWriter implements AutoCloseable {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final List<Long> firstIds = new ArrayList<>();
+        private final List<Long> offsets = new ArrayList<>();
+        private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+        private int ordersInBlock;
+        private long orderCount;
+        private long lastId = Long.MIN_VALUE;
+        private boolean sealed;
+
+        private SegmentWriter(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        public void append(Order order) throws IOException {
+            if (order.getId() <= lastId) {
+                throw new IllegalArgumentException("Orders must be appended in ascending ID order.");
+            }
+            if (ordersInBlock == 0) {
+                firstIds.add(order.getId());
+            }
+            block.write(objectMapper.writeValueAsBytes(order));
+            block.write('\n');
+            lastId = order.getId();
+            orderCount++;
+            if (++ordersInBlock == blockSize) {
+                flushBlock();
+            }
+        }
+
+        public long orderCount() {
+            return orderCount;
+        }
+
+        /**
+         * Forces the segment to disk, writes its index and makes it visible to lookups.
+         */
+        public Segment seal() throws IOException {
+            if (ordersInBlock > 0) {
+                flushBlock();
+            }
+            channel.force(true);
+            long length = channel.position();
+            channel.close();
+
+            Path index = indexFileOf(file);
+            Path tmp = index.resolveSibling(index.getFileName() + ".tmp");
+            try (FileChannel indexChannel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(indexChannel)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeLong(orderCount);
+                out.writeLong(lastId);
+                out.writeInt(firstIds.size());
+                for (int i = 0; i < firstIds.size(); i++) {
+                    out.writeLong(firstIds.get(i));
+                    out.writeLong(offsets.get(i));
+                }
+                out.writeLong(length);
+                out.flush();
+                indexChannel.force(true);
+            }
+            // The .idx appearing is what seals the segment
+            Files.move(tmp, index, StandardCopyOption.ATOMIC_MOVE);
+            sealed = true;
+
+            long[] firstIdArray = firstIds.stream().mapToLong(Long::longValue).toArray();
+            long[] offsetArray = new long[offsets.size() + 1];
+            for (int i = 0; i < offsets.size(); i++) {
+                offsetArray[i] = offsets.get(i);
+            }
+            offsetArray[offsets.size()] = length;
+            Segment segment = new Segment(file, orderCount, lastId, firstIdArray, offsetArray);
+            register(segment);
+            return segment;
+        }
+
+        private void flushBlock() throws IOException {
+            offsets.add(channel.position());
+            OutputStream target = Channels.newOutputStream(channel); // Not closed: that would close the channel
+            GZIPOutputStream gzip = new GZIPOutputStream(target, 64 * 1024);
+            block.writeTo(gzip);
+            gzip.finish();
+            gzip.flush();
+            block.reset();
+            ordersInBlock = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!sealed) {
+                channel.close();
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.fooddelivery.order_service.config;
 
 import com.fooddelivery.order_service.security.JwtFilter;
+import com.fooddelivery.order_service.security.JwtPrincipal;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer; // <--- NEW IMPORT
+import org.springframework.security.core.Authentication;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.function.Supplier;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -28,7 +34,9 @@ public class SecurityConfig {
         return (web) -> web.ignoring().requestMatchers(
             "/swagger-ui.html",
             "/v3/api-docs/**",
-            "/swagger-ui/**"
+            "/swagger-ui/**",
+            "/actuator/health",
+            "/actuator/health/**"
         );
     }
 
@@ -39,6 +47,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // --- REMOVED permitAll() for swagger paths here as they are ignored by WebSecurityCustomizer ---
                         .requestMatchers("/orders/**").authenticated()
+                        // Metrics and the rest of actuator expose internals; only health is public
+                        .requestMatchers("/actuator/**").access(SecurityConfig::adminOnly)
                         .anyRequest().authenticated() // --- CHANGED FROM permitAll() ---
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
@@ -48,4 +58,9 @@ public class SecurityConfig {
                 .anonymous(AbstractHttpConfigurer::disable) // --- NEW LINE ---
                 .build();
     }
+
+    // Admin tokens may carry the role in either the "role" or the "roles" claim, so check the principal itself
+    private static AuthorizationDecision adminOnly(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return new AuthorizationDecision(authentication.get().getPrincipal() instanceof JwtPrincipal principal && principal.isAdmin());
+    }
 }
\ No newline at end of file
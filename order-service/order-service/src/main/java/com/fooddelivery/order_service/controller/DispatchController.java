@@ -0,0 +1,82 @@
+package com.fooddelivery.order_service.controller;
+
+import com.fooddelivery.order_service.dispatch.CourierAssignment;
+import com.fooddelivery.order_service.dispatch.DispatchService;
+import com.fooddelivery.order_service.dto.CourierLocationUpdate;
+import com.fooddelivery.order_service.security.JwtPrincipal;
+import com.fooddelivery.order_service.service.OrderService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/dispatch")
+public class DispatchController {
+
+    private final DispatchService dispatchService;
+    private final OrderService orderService;
+
+    public DispatchController(DispatchService dispatchService, OrderService orderService) {
+        this.dispatchService = dispatchService;
+        this.orderService = orderService;
+    }
+
+    // ✅ Courier app position report; only the courier themselves (with the COURIER role) or an admin may move them
+    @PutMapping("/couriers/{courierId}/location")
+    public ResponseEntity<?> updateCourierLocation(@PathVariable Long courierId,
+                                                   @RequestBody CourierLocationUpdate update,
+                                                   @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!isSelfOrAdmin(principal, courierId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only couriers can report a location, and only their own.");
+        }
+        if (update.getLatitude() == null || update.getLongitude() == null
+                || Math.abs(update.getLatitude()) > 90 || Math.abs(update.getLongitude()) > 180) {
+            return ResponseEntity.badRequest().body("latitude must be within [-90, 90] and longitude within [-180, 180].");
+        }
+        dispatchService.updateCourier(courierId, update.getLatitude(), update.getLongitude(), update.isAvailable());
+        return ResponseEntity.noContent().build();
+    }
+
+    // ✅ Courier goes off shift and stops receiving orders
+    @DeleteMapping("/couriers/{courierId}")
+    public ResponseEntity<?> removeCourier(@PathVariable Long courierId, @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!isSelfOrAdmin(principal, courierId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only couriers can end a shift, and only their own.");
+        }
+        dispatchService.removeCourier(courierId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ✅ Which courier is coming for an order, if one has been assigned yet: for the customer, the courier or an admin
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<?> getAssignment(@PathVariable Long orderId, @AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Optional<CourierAssignment> assignment = dispatchService.getAssignment(orderId);
+        if (!principal.isAdmin() && !isAssignedCourier(principal, assignment) && !ownsOrder(principal, orderId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only the customer, the assigned courier or an admin can see this order's courier.");
+        }
+        return assignment
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static boolean isSelfOrAdmin(JwtPrincipal principal, Long courierId) {
+        return principal != null
+                && (principal.isAdmin() || (principal.hasRole("COURIER") && courierId.equals(principal.userId())));
+    }
+
+    private static boolean isAssignedCourier(JwtPrincipal principal, Optional<CourierAssignment> assignment) {
+        return principal.userId() != null && principal.hasRole("COURIER")
+                && assignment.map(a -> principal.userId().equals(a.courierId())).orElse(false);
+    }
+
+    private boolean ownsOrder(JwtPrincipal principal, Long orderId) {
+        return principal.userId() != null
+                && orderService.getOrderById(orderId).map(order -> principal.userId().equals(order.getCustomerId())).orElse(false);
+    }
+}
@@ -2,58 +2,359 @@
 
 package com.fooddelivery.order_service.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
+import com.fooddelivery.common.idempotency.IdempotencyService;
+import com.fooddelivery.order_service.dto.BulkStatusUpdateRequest;
+import com.fooddelivery.order_service.dto.EnrichedOrder;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
 import com.fooddelivery.order_service.model.Order;
-import com.fooddelivery.order_service.security.JwtUtil;
+import com.fooddelivery.order_service.ratelimit.OrderRateLimiter;
+import com.fooddelivery.order_service.schedule.ScheduledOrderService;
+import com.fooddelivery.order_service.security.JwtPrincipal;
+import com.fooddelivery.order_service.service.OrderEventBroker;
+import com.fooddelivery.order_service.service.OrderIntakeService;
+import com.fooddelivery.order_service.service.OrderSagaOrchestrator;
 import com.fooddelivery.order_service.service.OrderService;
-import jakarta.servlet.http.HttpServletRequest;
+import com.fooddelivery.order_service.service.OrderStatsService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.ErrorResponseException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_STATS_HOURS = 24 * 30;
+    private static final String NDJSON = "application/x-ndjson";
+
     private final OrderService orderService;
-    private final JwtUtil jwtUtil;
+    private final OrderIntakeService orderIntakeService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final OrderEventBroker orderEventBroker;
+    private final OrderStatsService orderStatsService;
+    private final ScheduledOrderService scheduledOrderService;
+    private final OrderRateLimiter orderRateLimiter;
+    private final OrderSagaOrchestrator orderSagaOrchestrator;
+
+    // "sync" places the order and calls payment inline; "async" accepts it and lets the outbox dispatcher pay;
+    // "saga" accepts it and lets OrderSagaOrchestrator validate, pay and confirm it step by step
+    private final boolean asyncIntake;
+    private final boolean sagaIntake;
+
+    // Retry-After sent with 503s while a downstream circuit breaker is open
+    @Value("${order.unavailable.retry-after-seconds:10}")
+    private long retryAfterSeconds;
 
     @Autowired
-    public OrderController(OrderService orderService, JwtUtil jwtUtil) {
+    public OrderController(OrderService orderService,
+                           OrderIntakeService orderIntakeService,
+                           IdempotencyService idempotencyService,
+                           ObjectMapper objectMapper,
+                           OrderEventBroker orderEventBroker,
+                           OrderStatsService orderStatsService,
+                           ScheduledOrderService scheduledOrderService,
+                           OrderRateLimiter orderRateLimiter,
+                           OrderSagaOrchestrator orderSagaOrchestrator,
+                           @Value("${order.intake.mode:sync}") String intakeMode) {
         this.orderService = orderService;
-        this.jwtUtil = jwtUtil;
+        this.orderIntakeService = orderIntakeService;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.orderEventBroker = orderEventBroker;
+        this.orderStatsService = orderStatsService;
+        this.scheduledOrderService = scheduledOrderService;
+        this.orderRateLimiter = orderRateLimiter;
+        this.orderSagaOrchestrator = orderSagaOrchestrator;
+        this.asyncIntake = "async".equalsIgnoreCase(intakeMode);
+        this.sagaIntake = "saga".equalsIgnoreCase(intakeMode);
     }
 
     @PostMapping
-    public ResponseEntity<?> placeOrder(@RequestBody Order order, HttpServletRequest request) {
-        try {
-            // ✅ Extract JWT token from header
-            String tokenHeader = request.getHeader("Authorization");
-            if (tokenHeader == null || !tokenHeader.startsWith("Bearer ")) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header.");
+    public ResponseEntity<?> placeOrder(@RequestBody Order order, @AuthenticationPrincipal JwtPrincipal principal,
+                                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        // ✅ Claims were verified once by JwtFilter
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header.");
+        }
+        // ✅ Double-clicks and gateway retries with the same Idempotency-Key get the first response back,
+        // without taking a rate-limit token
+        return idempotencyService.execute("orders:" + principal.userId(), idempotencyKey, order, () -> {
+            // ✅ Floods are turned away before any restaurant lookup, payment call or insert
+            long retryAfter = orderRateLimiter.tryAcquire(principal, Collections.singletonList(order.getRestaurantId()));
+            if (retryAfter > 0) {
+                return tooManyRequests(retryAfter);
             }
+            return placeOrderFor(order, principal.userId());
+        });
+    }
 
-            String token = tokenHeader.substring(7); // Remove "Bearer "
-            Long customerId = jwtUtil.extractCustomerId(token);
-            order.setCustomerId(customerId); // ✅ Inject extracted customer ID
+    private ResponseEntity<?> placeOrderFor(Order order, Long customerId) {
+        try {
+            order.setCustomerId(customerId); // ✅ Inject customer ID from the token
+            order.setVersion(null); // ✅ Versions start on insert
 
             // ✅ Validate required fields
             if (order.getRestaurantId() == null || order.getTotalAmount() == null || order.getPaymentMethod() == null) {
                 return ResponseEntity.badRequest().body("Missing required fields: restaurantId, totalAmount, or paymentMethod.");
             }
 
+            if (order.getScheduledFor() != null) {
+                // ✅ Future-dated: stored now, restaurant check and payment happen when it's due
+                return ResponseEntity.status(HttpStatus.CREATED).body(scheduledOrderService.schedule(order));
+            }
+
+            if (sagaIntake) {
+                // ✅ Accept now, the saga validates the restaurant and pays in the background
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(orderSagaOrchestrator.start(order));
+            }
+
+            if (asyncIntake) {
+                // ✅ Accept now, initiate payment in the background
+                Order acceptedOrder = orderIntakeService.acceptOrder(order);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(acceptedOrder);
+            }
+
             Order savedOrder = orderService.placeOrder(order);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedOrder);
 
+        } catch (DependencyUnavailableException e) {
+            // ✅ restaurant-service is shedding load: fail fast and tell the client when to retry
+            return serviceUnavailable(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error placing order: " + e.getMessage());
         }
     }
 
+    // ✅ Bulk placement for catering and partner integrations: one batched insert for the whole list
+    @PostMapping("/batch")
+    public ResponseEntity<?> placeOrders(@RequestBody List<Order> orders, @AuthenticationPrincipal JwtPrincipal principal) {
+        try {
+            if (principal == null || principal.userId() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header.");
+            }
+            if (orders == null || orders.isEmpty() || orders.size() > MAX_BATCH_SIZE) {
+                return ResponseEntity.badRequest().body("A batch must contain between 1 and " + MAX_BATCH_SIZE + " orders.");
+            }
+            // ✅ Every order in the batch takes a token, from the caller and from its restaurant
+            long retryAfter;
+            try {
+                retryAfter = orderRateLimiter.tryAcquire(principal, orders.stream().map(Order::getRestaurantId).toList());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage()); // ✅ Bigger than the limit allows at all
+            }
+            if (retryAfter > 0) {
+                return tooManyRequests(retryAfter);
+            }
+
+            Long customerId = principal.userId();
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                if (order.getRestaurantId() == null || order.getTotalAmount() == null || order.getPaymentMethod() == null) {
+                    return ResponseEntity.badRequest().body("Order at index " + i
+                            + " is missing required fields: restaurantId, totalAmount, or paymentMethod.");
+                }
+                if (order.getScheduledFor() != null) {
+                    return ResponseEntity.badRequest().body("Order at index " + i
+                            + " has scheduledFor; scheduled orders must be placed one at a time.");
+                }
+                order.setId(null); // ✅ IDs always come from the sequence
+                order.setVersion(null);
+                order.setCustomerId(customerId);
+            }
+
+            if (sagaIntake) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(orderSagaOrchestrator.startAll(orders));
+            }
+            if (asyncIntake) {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(orderIntakeService.acceptOrders(orders));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(orderService.placeOrders(orders));
+
+        } catch (DependencyUnavailableException e) {
+            // ✅ restaurant-service is shedding load: fail fast and tell the client when to retry
+            return serviceUnavailable(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error placing orders: " + e.getMessage());
+        }
+    }
+
+    // ✅ Keyset-paginated listing: newest first, next page via ?cursor=<X-Next-Cursor>
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<List<Order>> getAllOrders(@RequestParam(required = false) Long cursor,
+                                                    @RequestParam(required = false) Integer limit) {
+        int pageSize = pageSize(limit);
+        List<Order> page = orderService.getOrdersPage(cursor, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            // A full page means there may be more; the client passes this back as ?cursor=
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // ✅ Admin listing with restaurant name and cuisine: the whole page's restaurants are resolved in one batch lookup
+    @GetMapping(params = "include=restaurant")
+    public ResponseEntity<?> getAllOrdersWithRestaurants(@RequestParam(required = false) Long cursor,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null || !principal.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins can list orders with restaurant details.");
+        }
+        int pageSize = pageSize(limit);
+        List<EnrichedOrder> page = orderService.getEnrichedOrdersPage(cursor, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getOrder().getId()));
+        }
+        return response.body(page);
+    }
+
+    // ✅ Order history of the authenticated customer, newest first
+    @GetMapping("/mine")
+    public ResponseEntity<?> getMyOrders(@RequestParam(required = false) Long cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         @AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null || principal.userId() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header.");
+        }
+        Long customerId = principal.userId();
+
+        int pageSize = pageSize(limit);
+        List<Order> page = orderService.getOrdersForCustomer(customerId, cursor, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    // ✅ Orders of one restaurant placed in [from, to), newest first (admins and the restaurant's owner only)
+    @GetMapping("/restaurant/{restaurantId}")
+    public ResponseEntity<?> getRestaurantOrders(@PathVariable Long restaurantId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @AuthenticationPrincipal JwtPrincipal principal) {
+        try {
+            if (principal == null || (!principal.isAdmin() && !orderService.isRestaurantOwner(restaurantId, principal.userId()))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins and the restaurant's owner can list its orders.");
+            }
+        } catch (DependencyUnavailableException e) {
+            // ✅ Ownership can't be checked while restaurant-service is shedding load
+            return serviceUnavailable(e);
+        }
+        LocalDateTime cursorTime = null;
+        Long cursorId = null;
+        if (cursor != null) {
+            // Cursor format: <orderTime>_<id> of the last order on the previous page
+            int separator = cursor.lastIndexOf('_');
+            try {
+                cursorTime = LocalDateTime.parse(cursor.substring(0, separator));
+                cursorId = Long.valueOf(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor: " + cursor);
+            }
+        }
+
+        int pageSize = pageSize(limit);
+        List<Order> page = orderService.getOrdersForRestaurant(restaurantId, from, to, cursorTime, cursorId, pageSize);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            Order last = page.get(page.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, last.getOrderTime() + "_" + last.getId());
+        }
+        return response.body(page);
+    }
+
+    // ✅ Streaming export: one JSON order per line, memory stays flat at any table size (admins only)
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null || !principal.isAdmin()) {
+            // Thrown rather than returned: the body type has to stay StreamingResponseBody for the stream to be written
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Order exports are only available to admins.");
+        }
+        StreamingResponseBody body = outputStream -> {
+            // Don't flush after every row; let the servlet output buffer batch the writes
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                orderService.streamAllOrders(order -> {
+                    try {
+                        writer.writeValue(generator, order);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    // ✅ Live order changes as Server-Sent Events: customers get their own orders, admins get everything.
+    // Reconnecting with Last-Event-ID resumes where the stream left off.
+    // Spring MVC only streams the emitter when it is declared as ResponseEntity<SseEmitter>, so errors are thrown.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderEvents(@AuthenticationPrincipal JwtPrincipal principal,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                        HttpServletResponse response) {
+        if (principal == null || (!principal.isAdmin() && principal.userId() == null)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid Authorization header.");
+        }
+        try {
+            SseEmitter emitter = orderEventBroker.subscribe(principal.isAdmin() ? null : principal.userId(), lastEventId);
+            // ✅ Keep reverse proxies from buffering the stream; set on the servlet response so it goes out
+            // even before the first event (ResponseEntity headers wait for the first write)
+            response.setHeader("X-Accel-Buffering", "no");
+            return ResponseEntity.ok(emitter);
+        } catch (IllegalStateException e) {
+            // ResponseStatusException can't carry headers; its base class can
+            ErrorResponseException unavailable = new ErrorResponseException(HttpStatus.SERVICE_UNAVAILABLE);
+            unavailable.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            unavailable.getBody().setDetail(e.getMessage());
+            throw unavailable;
+        }
+    }
+
+    // ✅ Admin dashboard figures from the in-memory read model: no table scan per request
+    @GetMapping("/stats")
+    public ResponseEntity<?> getOrderStats(@RequestParam(required = false) Integer hours,
+                                           @RequestParam(required = false) Integer top,
+                                           @AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null || !principal.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Order stats are only available to admins.");
+        }
+        int hourCount = (hours == null || hours <= 0) ? 24 : Math.min(hours, MAX_STATS_HOURS);
+        return ResponseEntity.ok(orderStatsService.getStats(hourCount, pageSize(top)));
     }
 
     @GetMapping("/{id}")
@@ -63,11 +364,20 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // ✅ Send back the version from the last read; a stale one gets 409 instead of overwriting someone else's change.
+    // Status changes go through PUT /orders/{id}/status.
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(@PathVariable Long id, @RequestBody Order order) {
-        return orderService.updateOrder(id, order)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> updateOrder(@PathVariable Long id, @RequestBody Order order) {
+        try {
+            return orderService.updateOrder(id, order)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Order " + id + " was modified by another request. Reload it and try again.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -76,12 +386,50 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
-    // ✅ New: Update only status
+    // ✅ New: Update only status (one conditional UPDATE, validated against the order lifecycle)
     @PutMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestParam String status) {
-        return orderService.updateOrderStatus(id, status)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, @RequestParam String status) {
+        try {
+            return orderService.updateOrderStatus(id, status)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
-}
 
+    // ✅ Bulk status move, e.g. mark a courier run DISPATCHED: one batched UPDATE for the whole list (admins only)
+    @PutMapping("/status")
+    public ResponseEntity<?> updateOrderStatuses(@RequestBody BulkStatusUpdateRequest request,
+                                                 @AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null || !principal.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins can update order statuses in bulk.");
+        }
+        if (request.getIds() == null || request.getIds().isEmpty() || request.getIds().size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("A status update must list between 1 and " + MAX_BATCH_SIZE + " order IDs.");
+        }
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatuses(request.getIds(), request.getStatus()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private static int pageSize(Integer limit) {
+        return (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static ResponseEntity<String> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Too many orders. Please retry in " + retryAfterSeconds + " seconds.");
+    }
+
+    private ResponseEntity<String> serviceUnavailable(DependencyUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(e.getDependency() + " is temporarily unavailable. Please retry shortly.");
+    }
+}
@@ -0,0 +1,47 @@
+package com.fooddelivery.order_service.controller;
+
+import com.fooddelivery.order_service.feign.CachingRestaurantServiceClient;
+import com.fooddelivery.order_service.security.JwtPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Internal endpoints used by restaurant-service to push cache invalidations
+ * whenever a restaurant is updated or deleted. Only admin and service tokens may call them;
+ * restaurant-service forwards the admin token of the update, or its own configured token.
+ */
+@RestController
+@RequestMapping("/internal/restaurant-cache")
+public class RestaurantCacheController {
+
+    private final CachingRestaurantServiceClient restaurantCache;
+
+    public RestaurantCacheController(CachingRestaurantServiceClient restaurantCache) {
+        this.restaurantCache = restaurantCache;
+    }
+
+    @PostMapping("/{restaurantId}/invalidate")
+    public ResponseEntity<Void> invalidate(@PathVariable Long restaurantId,
+                                           @AuthenticationPrincipal JwtPrincipal principal) {
+        if (!mayInvalidate(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        restaurantCache.invalidate(restaurantId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/invalidate")
+    public ResponseEntity<Void> invalidateAll(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (!mayInvalidate(principal)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        restaurantCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static boolean mayInvalidate(JwtPrincipal principal) {
+        return principal != null && (principal.isAdmin() || principal.isService());
+    }
+}
@@ -0,0 +1,14 @@
+package com.fooddelivery.order_service.dispatch;
+
+import java.time.Instant;
+
+/**
+ * A courier matched to an order by DispatchService. Held until the order is delivered or cancelled.
+ *
+ * @param orderId    The order to pick up.
+ * @param courierId  The courier assigned to it.
+ * @param distanceKm How far the courier was from the restaurant when assigned.
+ * @param assignedAt When the match was made.
+ */
+public record CourierAssignment(Long orderId, Long courierId, double distanceKm, Instant assignedAt) {
+}
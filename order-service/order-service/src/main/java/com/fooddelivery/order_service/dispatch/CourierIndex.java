@@ -0,0 +1,229 @@
+package com.fooddelivery.order_service.dispatch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live courier positions in an in-memory grid of order.dispatch.cell-size-degrees square cells.
+ *
+ * Each courier is one immutable Courier record in a ConcurrentHashMap and its ID sits in the set of
+ * the cell it is in. Position updates and claims swap the record with compare-and-set and retry on
+ * conflict, so thousands of couriers can report in concurrently without a shared lock and readers
+ * never block. A courier can briefly be listed in its old cell as well during a move; lookups
+ * re-check the record, so the only effect is a wasted comparison.
+ *
+ * Nearest-courier lookups scan rings of cells outwards from the pickup point and stop as soon as
+ * no unscanned cell can hold anyone closer than the best courier found.
+ */
+@Component
+public class CourierIndex {
+
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final double cellDegrees;
+    private final Map<Long, Courier> couriers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public CourierIndex(@Value("${order.dispatch.cell-size-degrees:0.01}") double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * A courier as last reported.
+     *
+     * @param onShift Whether the courier is taking orders at all.
+     * @param busy    Whether the courier has been assigned an order that isn't delivered yet.
+     */
+    public record Courier(long courierId, double latitude, double longitude, long cell, boolean onShift, boolean busy) {
+
+        public boolean available() {
+            return onShift && !busy;
+        }
+
+        Courier withBusy(boolean busy) {
+            return new Courier(courierId, latitude, longitude, cell, onShift, busy);
+        }
+    }
+
+    /**
+     * A courier claimed for an order.
+     *
+     * @param distanceKm Great-circle distance from the courier to the pickup point.
+     */
+    public record Match(long courierId, double distanceKm) {
+    }
+
+    /**
+     * Records a courier's position and shift status. An assigned courier stays busy until released.
+     */
+    public void update(long courierId, double latitude, double longitude, boolean onShift) {
+        long cell = cellOf(latitude, longitude);
+        while (true) {
+            Courier previous = couriers.get(courierId);
+            Courier next = new Courier(courierId, latitude, longitude, cell, onShift, previous != null && previous.busy());
+            boolean swapped = previous == null
+                    ? couriers.putIfAbsent(courierId, next) == null
+                    : couriers.replace(courierId, previous, next);
+            if (swapped) {
+                if (previous == null || previous.cell() != cell) {
+                    joinCell(cell, courierId);
+                    if (previous != null) {
+                        leaveCell(previous.cell(), courierId);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops a courier who went off shift.
+     */
+    public void remove(long courierId) {
+        Courier previous = couriers.remove(courierId);
+        if (previous != null) {
+            leaveCell(previous.cell(), courierId);
+        }
+    }
+
+    /**
+     * Makes an assigned courier available again.
+     *
+     * @return false if the courier is unknown (e.g. went off shift meanwhile).
+     */
+    public boolean release(long courierId) {
+        while (true) {
+            Courier current = couriers.get(courierId);
+            if (current == null) {
+                return false;
+            }
+            if (!current.busy() || couriers.replace(courierId, current, current.withBusy(false))) {
+                return true;
+            }
+        }
+    }
+
+    public Optional<Courier> get(long courierId) {
+        return Optional.ofNullable(couriers.get(courierId));
+    }
+
+    public int size() {
+        return couriers.size();
+    }
+
+    public long availableCount() {
+        return couriers.values().stream().filter(Courier::available).count();
+    }
+
+    /**
+     * Finds the available courier closest to the pickup point and marks them busy in one step, so two
+     * concurrent lookups never get the same courier.
+     *
+     * @param maxDistanceKm Couriers further away than this are not considered.
+     * @return The claimed courier, or empty if nobody available is within range.
+     */
+    public Optional<Match> claimNearest(double latitude, double longitude, double maxDistanceKm) {
+        long centre = cellOf(latitude, longitude);
+        int centreRow = (int) (centre >>> 32);
+        int centreCol = (int) centre;
+        // Every point in ring r + 1 is at least r cell widths away from anywhere in the centre cell
+        double cosLatitude = Math.max(Math.cos(Math.toRadians(Math.min(Math.abs(latitude) + cellDegrees, 90))), 0.01);
+        double ringKm = cellDegrees * KM_PER_DEGREE * cosLatitude;
+        int maxRing = (int) Math.ceil(maxDistanceKm / ringKm) + 1;
+
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingDouble(Candidate::distanceKm));
+        for (int ring = 0; ring <= maxRing; ring++) {
+            scanRing(centreRow, centreCol, ring, latitude, longitude, maxDistanceKm, candidates);
+            double settled = ring == maxRing ? Double.MAX_VALUE : ring * ringKm;
+            while (!candidates.isEmpty() && candidates.peek().distanceKm() <= settled) {
+                Candidate candidate = candidates.poll();
+                Courier courier = candidate.courier();
+                if (couriers.replace(courier.courierId(), courier, courier.withBusy(true))) {
+                    return Optional.of(new Match(courier.courierId(), candidate.distanceKm()));
+                }
+                // Moved, claimed or went off shift since the scan; re-check its current record
+                Courier current = couriers.get(courier.courierId());
+                if (current != null && current.available() && current.cell() == courier.cell()) {
+                    double distanceKm = distanceKm(latitude, longitude, current.latitude(), current.longitude());
+                    if (distanceKm <= maxDistanceKm) {
+                        candidates.add(new Candidate(current, distanceKm));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void scanRing(int centreRow, int centreCol, int ring, double latitude, double longitude,
+                          double maxDistanceKm, PriorityQueue<Candidate> candidates) {
+        for (int row = centreRow - ring; row <= centreRow + ring; row++) {
+            boolean edgeRow = row == centreRow - ring || row == centreRow + ring;
+            int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+            for (int col = centreCol - ring; col <= centreCol + ring; col += step) {
+                long cell = cellKey(row, col);
+                Set<Long> members = cells.get(cell);
+                if (members == null) {
+                    continue;
+                }
+                for (Long courierId : members) {
+                    Courier courier = couriers.get(courierId);
+                    if (courier == null || !courier.available() || courier.cell() != cell) {
+                        continue;
+                    }
+                    double distanceKm = distanceKm(latitude, longitude, courier.latitude(), courier.longitude());
+                    if (distanceKm <= maxDistanceKm) {
+                        candidates.add(new Candidate(courier, distanceKm));
+                    }
+                }
+            }
+        }
+    }
+
+    // Cell sets are only modified inside compute, so an emptied set is never dropped while a courier joins it
+    private void joinCell(long cell, long courierId) {
+        cells.compute(cell, (key, members) -> {
+            Set<Long> joined = members != null ? members : ConcurrentHashMap.newKeySet();
+            joined.add(courierId);
+            return joined;
+        });
+    }
+
+    private void leaveCell(long cell, long courierId) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(courierId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    long cellOf(double latitude, double longitude) {
+        int row = (int) Math.floor((latitude + 90) / cellDegrees);
+        int col = (int) Math.floor((longitude + 180) / cellDegrees);
+        return cellKey(row, col);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Haversine distance between two points in kilometres.
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private record Candidate(Courier courier, double distanceKm) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.fooddelivery.order_service.dispatch;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.RestaurantServiceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assigns paid orders to the nearest available courier.
+ *
+ * Every committed OrderChangedEvent that leaves an order paid but not yet assigned queues it. Every
+ * order.dispatch.round-interval-ms a round takes up to order.dispatch.batch-size queued orders, looks
+ * up all of their restaurants with one batch call, and gives each order, oldest first, the closest
+ * available courier within order.dispatch.max-distance-km of the restaurant (see CourierIndex).
+ * Orders nobody could take wait for the next round. Delivered, cancelled and deleted orders free
+ * their courier again.
+ *
+ * An assignment doesn't change the order's status; the courier moves it to DISPATCHED on pickup as
+ * before. Queue and assignments live in memory on the instance that handled the order, so dispatch
+ * should run on one instance only (order.dispatch.enabled=false on the others).
+ *
+ * Published metrics: dispatch.assignment.latency (queued to assigned), dispatch.round.duration,
+ * dispatch.orders{result=assigned|unroutable}, dispatch.pending and dispatch.couriers.available.
+ */
+@Service
+public class DispatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    // Paid and not picked up yet
+    private static final Set<String> DISPATCHABLE_STATUSES = Set.of("PAYMENT_INITIATED", "CONFIRMED", "PREPARING");
+    private static final Set<String> FINISHED_STATUSES = Set.of("DELIVERED", "CANCELLED");
+
+    private final CourierIndex courierIndex;
+    private final RestaurantServiceClient restaurantServiceClient;
+    private final Timer assignmentLatency;
+    private final Timer roundDuration;
+    private final Counter assignedOrders;
+    private final Counter unroutableOrders;
+
+    @Value("${order.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.dispatch.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.dispatch.max-distance-km:10}")
+    private double maxDistanceKm;
+
+    private final Queue<PendingOrder> pending = new ConcurrentLinkedQueue<>();
+    // The queue entry of every order still waiting; an order that finished while queued is skipped when dequeued
+    private final Map<Long, PendingOrder> waiting = new ConcurrentHashMap<>();
+    private final Map<Long, CourierAssignment> assignments = new ConcurrentHashMap<>();
+
+    public DispatchService(CourierIndex courierIndex,
+                           RestaurantServiceClient restaurantServiceClient,
+                           MeterRegistry meterRegistry) {
+        this.courierIndex = courierIndex;
+        this.restaurantServiceClient = restaurantServiceClient;
+        this.assignmentLatency = Timer.builder("dispatch.assignment.latency")
+                .description("Time from an order becoming dispatchable to a courier being assigned")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.roundDuration = Timer.builder("dispatch.round.duration")
+                .description("Time spent in one batched assignment round")
+                .register(meterRegistry);
+        this.assignedOrders = Counter.builder("dispatch.orders").tag("result", "assigned").register(meterRegistry);
+        this.unroutableOrders = Counter.builder("dispatch.orders").tag("result", "unroutable").register(meterRegistry);
+        Gauge.builder("dispatch.pending", waiting, Map::size)
+                .description("Paid orders waiting for a courier")
+                .register(meterRegistry);
+        Gauge.builder("dispatch.couriers.available", courierIndex, CourierIndex::availableCount)
+                .register(meterRegistry);
+    }
+
+    private record PendingOrder(Long orderId, Long restaurantId, long queuedAtNanos) {
+    }
+
+    /**
+     * Queues newly paid orders and frees the courier of finished ones.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled || event.orderId() == null) {
+            return;
+        }
+        if (event.type() == ChangeType.DELETED || FINISHED_STATUSES.contains(event.status())) {
+            finish(event.orderId());
+        } else if (DISPATCHABLE_STATUSES.contains(event.status()) && !assignments.containsKey(event.orderId())) {
+            PendingOrder order = new PendingOrder(event.orderId(), event.restaurantId(), System.nanoTime());
+            if (waiting.putIfAbsent(event.orderId(), order) == null) {
+                pending.add(order);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.dispatch.round-interval-ms:500}")
+    public void runRound() {
+        if (enabled) {
+            assignRound();
+        }
+    }
+
+    /**
+     * Runs one assignment round over the oldest queued orders.
+     *
+     * @return The number of orders that got a courier.
+     */
+    public int assignRound() {
+        List<PendingOrder> batch = new ArrayList<>();
+        PendingOrder next;
+        while (batch.size() < batchSize && (next = pending.poll()) != null) {
+            if (waiting.get(next.orderId()) == next) {
+                batch.add(next);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long started = System.nanoTime();
+        Map<Long, RestaurantDto> pickups = new HashMap<>();
+        try {
+            restaurantServiceClient.getRestaurantsByIds(batch.stream()
+                            .map(PendingOrder::restaurantId)
+                            .filter(Objects::nonNull)
+                            .distinct()
+                            .toList())
+                    .forEach(restaurant -> pickups.put(restaurant.getId(), restaurant));
+        } catch (RuntimeException e) {
+            log.warn("Could not look up pickup points for {} orders; retrying next round.", batch.size(), e);
+            pending.addAll(batch);
+            return 0;
+        }
+
+        int assigned = 0;
+        List<PendingOrder> unmatched = new ArrayList<>();
+        for (PendingOrder order : batch) {
+            RestaurantDto restaurant = pickups.get(order.restaurantId());
+            if (restaurant == null || restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+                log.warn("Order {} can't be dispatched: restaurant {} has no known location.", order.orderId(), order.restaurantId());
+                waiting.remove(order.orderId(), order);
+                unroutableOrders.increment();
+                continue;
+            }
+            Optional<CourierIndex.Match> match = courierIndex.claimNearest(restaurant.getLatitude(), restaurant.getLongitude(), maxDistanceKm);
+            if (match.isEmpty()) {
+                unmatched.add(order);
+                continue;
+            }
+            CourierAssignment assignment = new CourierAssignment(order.orderId(), match.get().courierId(),
+                    match.get().distanceKm(), Instant.now());
+            assignments.put(order.orderId(), assignment);
+            if (!waiting.remove(order.orderId(), order)) {
+                // Finished while this round was running; whoever removes the assignment frees the courier
+                if (assignments.remove(order.orderId(), assignment)) {
+                    courierIndex.release(assignment.courierId());
+                }
+                continue;
+            }
+            assignmentLatency.record(System.nanoTime() - order.queuedAtNanos(), TimeUnit.NANOSECONDS);
+            assignedOrders.increment();
+            assigned++;
+        }
+        pending.addAll(unmatched);
+
+        long elapsed = System.nanoTime() - started;
+        roundDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        log.debug("Dispatch round assigned {} of {} orders in {} ms; {} still waiting.",
+                assigned, batch.size(), elapsed / 1_000_000, unmatched.size());
+        return assigned;
+    }
+
+    /**
+     * Records a courier's position and whether they are taking orders.
+     */
+    public void updateCourier(long courierId, double latitude, double longitude, boolean available) {
+        courierIndex.update(courierId, latitude, longitude, available);
+    }
+
+    /**
+     * Takes a courier off shift. An order already assigned to them keeps its assignment.
+     */
+    public void removeCourier(long courierId) {
+        courierIndex.remove(courierId);
+    }
+
+    public Optional<CourierAssignment> getAssignment(Long orderId) {
+        return Optional.ofNullable(assignments.get(orderId));
+    }
+
+    private void finish(Long orderId) {
+        waiting.remove(orderId);
+        CourierAssignment assignment = assignments.remove(orderId);
+        if (assignment != null) {
+            courierIndex.release(assignment.courierId());
+        }
+    }
+}
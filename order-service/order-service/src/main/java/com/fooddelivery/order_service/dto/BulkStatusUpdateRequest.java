@@ -0,0 +1,17 @@
+package com.fooddelivery.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Request body for PUT /orders/status: move every listed order to one status in a single statement.
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class BulkStatusUpdateRequest {
+
+    private List<Long> ids; // Orders to transition
+    private String status; // Target status, e.g. DISPATCHED
+}
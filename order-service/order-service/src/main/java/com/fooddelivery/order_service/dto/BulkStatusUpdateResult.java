@@ -0,0 +1,17 @@
+package com.fooddelivery.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a bulk status transition. Orders that were missing or not in an allowed source status are skipped.
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class BulkStatusUpdateResult {
+
+    private String status; // Target status
+    private int requested; // Distinct order IDs in the request
+    private int updated; // Orders actually moved to the target status
+    private int skipped; // requested - updated
+}
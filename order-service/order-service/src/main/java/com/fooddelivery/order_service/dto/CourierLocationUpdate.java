@@ -0,0 +1,16 @@
+package com.fooddelivery.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Position report sent by the courier app every few seconds while on shift
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class CourierLocationUpdate {
+
+    private Double latitude;
+    private Double longitude;
+    private boolean available = true; // false while on a break; the courier keeps reporting but gets no new orders
+}
@@ -0,0 +1,24 @@
+package com.fooddelivery.order_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fooddelivery.order_service.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An order joined with the details of its restaurant, as listed by GET /orders?include=restaurant.
+ * Serialized as the order's own fields plus restaurantName and restaurantCuisine, which are null
+ * if restaurant-service doesn't know the restaurant or couldn't be reached.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrichedOrder {
+
+    @JsonUnwrapped
+    private Order order;
+
+    private String restaurantName;
+    private String restaurantCuisine;
+}
@@ -0,0 +1,42 @@
+package com.fooddelivery.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Response of GET /orders/stats. Revenue leaves out orders that were cancelled or never paid.
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class OrderStats {
+
+    private boolean ready; // false until the startup rebuild from the order table has finished
+    private long totalOrders;
+    private BigDecimal totalRevenue;
+    private Map<String, Long> ordersByStatus;
+    private List<RestaurantStats> restaurants; // Highest revenue first
+    private List<HourlyStats> hourly; // Oldest hour first, empty hours included
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RestaurantStats {
+        private Long restaurantId;
+        private long orders;
+        private BigDecimal revenue;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourlyStats {
+        private LocalDateTime hour; // Start of the hour the orders were placed in
+        private long orders;
+        private BigDecimal revenue;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fooddelivery.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// The order columns OrderStatsService aggregates, read by OrderRepository.streamStatsRows() when it rebuilds.
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields (used by the JPQL constructor expression)
+public class OrderStatsRow {
+
+    private Long id;
+    private Long restaurantId;
+    private Double totalAmount;
+    private LocalDateTime orderTime;
+    private String status;
+}
@@ -14,6 +14,17 @@ public class RestaurantDto {
     private String location;
     private String cuisine;
     private String status; // Add this for future availability checks (e.g., "OPEN", "CLOSED")
+    private Double latitude; // Pickup point for courier dispatch; null if restaurant-service has no coordinates
+    private Double longitude;
+    private Long ownerId; // User ID of the restaurant's owner; null if restaurant-service has none on record
+
+    public RestaurantDto(Long id, String name, String location, String cuisine, String status) {
+        this(id, name, location, cuisine, status, null, null, null);
+    }
+
+    public RestaurantDto(Long id, String name, String location, String cuisine, String status, Double latitude, Double longitude) {
+        this(id, name, location, cuisine, status, latitude, longitude, null);
+    }
 
     // Note: If your RestaurantService's GET /restaurants/{id} endpoint
     // returns the full Restaurant model, or a DTO like this, this will match.
@@ -0,0 +1,17 @@
+package com.fooddelivery.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A scheduled order's ID and due time, read by OrderRepository.streamScheduled() when ScheduledOrderService starts up.
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields (used by the JPQL constructor expression)
+public class ScheduledOrderRow {
+
+    private Long id;
+    private LocalDateTime scheduledFor;
+}
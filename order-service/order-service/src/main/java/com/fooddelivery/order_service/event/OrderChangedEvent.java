@@ -0,0 +1,34 @@
+package com.fooddelivery.order_service.event;
+
+import com.fooddelivery.order_service.model.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by OrderService and OrderOutboxDispatcher whenever an order is placed, deleted, or its
+ * status or details change. OrderEventBroker forwards it to /orders/stream subscribers and
+ * OrderStatsService folds it into the analytics once the change has been committed.
+ *
+ * @param orderId      The ID of the affected order.
+ * @param customerId   The customer the order belongs to, used to route the event.
+ * @param restaurantId The restaurant the order was placed with.
+ * @param totalAmount  The order total after the change.
+ * @param orderTime    When the order was placed.
+ * @param status       The order status after the change.
+ * @param type         What happened to the order.
+ */
+public record OrderChangedEvent(Long orderId, Long customerId, Long restaurantId, Double totalAmount,
+                                LocalDateTime orderTime, String status, ChangeType type) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    public static OrderChangedEvent of(Order order, ChangeType type) {
+        return new OrderChangedEvent(order.getId(), order.getCustomerId(), order.getRestaurantId(),
+                order.getTotalAmount(), order.getOrderTime(), order.getStatus(), type);
+    }
+}
@@ -0,0 +1,13 @@
+package com.fooddelivery.order_service.event;
+
+import java.util.List;
+
+/**
+ * Published by OrderArchivalJob after orders have been copied to the archive and deleted from the
+ * order table. The orders still exist, so this is not a deletion: OrderStatsService keeps counting
+ * them and only stops tracking them as changeable.
+ *
+ * @param orderIds The orders that moved to the archive.
+ */
+public record OrdersArchivedEvent(List<Long> orderIds) {
+}
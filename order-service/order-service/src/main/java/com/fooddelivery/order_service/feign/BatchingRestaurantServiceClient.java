@@ -0,0 +1,162 @@
+package com.fooddelivery.order_service.feign;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces single-restaurant lookups into batch calls, DataLoader style.
+ * Sits between CachingRestaurantServiceClient and ResilientRestaurantServiceClient, so only cache
+ * misses are batched.
+ *
+ * The first lookup to arrive opens a window of order.restaurant-batch.window-ms; every distinct ID
+ * asked for during the window goes to restaurant-service in one GET /restaurants?ids=... call, and
+ * each caller gets its own restaurant back (or null if it doesn't exist). A window that collects
+ * order.restaurant-batch.max-batch-size IDs is sent right away. A window of 0 turns batching off.
+ */
+@Component
+@Qualifier(RestaurantServiceClient.BATCHING_QUALIFIER)
+public class BatchingRestaurantServiceClient implements RestaurantServiceClient {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingRestaurantServiceClient.class);
+
+    private final RestaurantServiceClient delegate;
+    private final long windowMs;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Object lock = new Object();
+    // Lookups waiting for the current window to close; guarded by lock
+    private Map<Long, CompletableFuture<RestaurantDto>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public BatchingRestaurantServiceClient(@Qualifier(RESILIENT_QUALIFIER) RestaurantServiceClient delegate,
+                                           @Value("${order.restaurant-batch.window-ms:2}") long windowMs,
+                                           @Value("${order.restaurant-batch.max-batch-size:100}") int maxBatchSize) {
+        this.delegate = delegate;
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("restaurant-batch-timer").daemon(true).factory());
+    }
+
+    /**
+     * Queues the lookup for the current window and waits for its batch to come back.
+     *
+     * @return The restaurant, or null if restaurant-service doesn't know the ID.
+     */
+    @Override
+    public RestaurantDto getRestaurantById(Long id) {
+        if (windowMs <= 0 || id == null) {
+            return delegate.getRestaurantById(id);
+        }
+        CompletableFuture<RestaurantDto> lookup;
+        Map<Long, CompletableFuture<RestaurantDto>> full = null;
+        synchronized (lock) {
+            lookup = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = timer.schedule(this::flush, windowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return await(lookup);
+    }
+
+    /**
+     * Already a batch, so it skips the window; lists longer than max-batch-size are split.
+     */
+    @Override
+    public List<RestaurantDto> getRestaurantsByIds(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.size() <= maxBatchSize) {
+            return delegate.getRestaurantsByIds(distinct);
+        }
+        List<RestaurantDto> restaurants = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += maxBatchSize) {
+            restaurants.addAll(delegate.getRestaurantsByIds(distinct.subList(from, Math.min(from + maxBatchSize, distinct.size()))));
+        }
+        return restaurants;
+    }
+
+    void flush() {
+        Map<Long, CompletableFuture<RestaurantDto>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    /**
+     * Empties the current window. Called with the lock held.
+     */
+    private Map<Long, CompletableFuture<RestaurantDto>> takePending() {
+        Map<Long, CompletableFuture<RestaurantDto>> batch = pending;
+        pending = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<RestaurantDto>> batch) {
+        // Off the timer thread, so one slow batch doesn't hold up the next window
+        dispatcher.execute(() -> load(batch));
+    }
+
+    private void load(Map<Long, CompletableFuture<RestaurantDto>> batch) {
+        try {
+            Map<Long, RestaurantDto> found = new HashMap<>();
+            for (RestaurantDto restaurant : delegate.getRestaurantsByIds(new ArrayList<>(batch.keySet()))) {
+                found.put(restaurant.getId(), restaurant);
+            }
+            log.debug("Loaded {} of {} batched restaurant lookups.", found.size(), batch.size());
+            batch.forEach((id, lookup) -> lookup.complete(found.get(id)));
+        } catch (RuntimeException e) {
+            batch.values().forEach(lookup -> lookup.completeExceptionally(e));
+        }
+    }
+
+    private static RestaurantDto await(CompletableFuture<RestaurantDto> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        flush();
+        dispatcher.shutdown();
+    }
+}
@@ -0,0 +1,194 @@
+package com.fooddelivery.order_service.feign;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Near-cache in front of the restaurant-service Feign client.
+ * Restaurant details rarely change, so lookups are served from a bounded, expiring in-memory
+ * cache keyed by restaurant ID. restaurant-service pushes invalidations on update/delete
+ * (see RestaurantCacheController); the TTL only bounds staleness if a push is missed.
+ *
+ * Marked @Primary so every RestaurantServiceClient injection point goes through the cache.
+ * Misses go through BatchingRestaurantServiceClient, which coalesces concurrent single-ID misses into
+ * one batch call, then ResilientRestaurantServiceClient (circuit breaker + bulkhead) to Feign.
+ * Hit, miss and eviction counts are published as "cache.*" metrics with cache=restaurants.
+ */
+@Component
+@Primary
+public class CachingRestaurantServiceClient implements RestaurantServiceClient {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingRestaurantServiceClient.class);
+
+    private final RestaurantServiceClient delegate;
+    private final Cache<Long, RestaurantDto> cache;
+    // Lookups currently in flight, so concurrent misses for one ID share a single remote call
+    private final ConcurrentMap<Long, CompletableFuture<RestaurantDto>> inFlight = new ConcurrentHashMap<>();
+
+    public CachingRestaurantServiceClient(@Qualifier(BATCHING_QUALIFIER) RestaurantServiceClient delegate,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${order.restaurant-cache.ttl-seconds:30}") long ttlSeconds,
+                                          @Value("${order.restaurant-cache.max-size:10000}") long maxSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "restaurants");
+    }
+
+    /**
+     * Returns the cached restaurant, loading it through Feign on a miss.
+     * Concurrent misses for the same ID share one remote call. Failed or empty lookups are not cached.
+     *
+     * The remote call runs on the caller's thread outside of any lock (Caffeine's own loading get
+     * holds a synchronized map bin for the duration, which would pin a virtual thread), and waiting
+     * callers park on a future instead.
+     */
+    @Override
+    public RestaurantDto getRestaurantById(Long id) {
+        RestaurantDto cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<RestaurantDto> load = new CompletableFuture<>();
+        CompletableFuture<RestaurantDto> existing = inFlight.putIfAbsent(id, load);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            RestaurantDto restaurant = delegate.getRestaurantById(id);
+            if (restaurant != null) {
+                // Skip the put if the entry was invalidated while the call was in flight
+                inFlight.computeIfPresent(id, (key, current) -> {
+                    if (current == load) {
+                        cache.put(id, restaurant);
+                    }
+                    return current;
+                });
+            }
+            load.complete(restaurant);
+            return restaurant;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, load);
+        }
+    }
+
+    /**
+     * Serves what it can from the cache and loads all the misses with one batch call.
+     * Misses already in flight are awaited instead of loaded again. Missing restaurants are left out.
+     */
+    @Override
+    public List<RestaurantDto> getRestaurantsByIds(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+        Map<Long, RestaurantDto> cached = cache.getAllPresent(distinct);
+        List<RestaurantDto> restaurants = new ArrayList<>(cached.values());
+
+        Map<Long, CompletableFuture<RestaurantDto>> loads = new HashMap<>();
+        Map<Long, CompletableFuture<RestaurantDto>> awaited = new HashMap<>();
+        for (Long id : distinct) {
+            if (!cached.containsKey(id)) {
+                CompletableFuture<RestaurantDto> load = new CompletableFuture<>();
+                CompletableFuture<RestaurantDto> existing = inFlight.putIfAbsent(id, load);
+                if (existing != null) {
+                    awaited.put(id, existing);
+                } else {
+                    loads.put(id, load);
+                }
+            }
+        }
+
+        if (!loads.isEmpty()) {
+            try {
+                Map<Long, RestaurantDto> loaded = new HashMap<>();
+                for (RestaurantDto restaurant : delegate.getRestaurantsByIds(new ArrayList<>(loads.keySet()))) {
+                    loaded.put(restaurant.getId(), restaurant);
+                }
+                loads.forEach((id, load) -> {
+                    RestaurantDto restaurant = loaded.get(id);
+                    if (restaurant != null) {
+                        inFlight.computeIfPresent(id, (key, current) -> {
+                            if (current == load) {
+                                cache.put(id, restaurant);
+                            }
+                            return current;
+                        });
+                        restaurants.add(restaurant);
+                    }
+                    load.complete(restaurant);
+                });
+            } catch (RuntimeException e) {
+                loads.values().forEach(load -> load.completeExceptionally(e));
+                throw e;
+            } finally {
+                loads.forEach(inFlight::remove);
+            }
+        }
+        for (CompletableFuture<RestaurantDto> load : awaited.values()) {
+            RestaurantDto restaurant = await(load);
+            if (restaurant != null) {
+                restaurants.add(restaurant);
+            }
+        }
+        return restaurants;
+    }
+
+    private static RestaurantDto await(CompletableFuture<RestaurantDto> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops a single restaurant from the cache so the next lookup goes to restaurant-service.
+     *
+     * @param id The ID of the restaurant that changed.
+     */
+    public void invalidate(Long id) {
+        log.info("Invalidating cached restaurant ID: {}", id);
+        inFlight.remove(id);
+        cache.invalidate(id);
+    }
+
+    /**
+     * Drops every cached restaurant.
+     */
+    public void invalidateAll() {
+        log.info("Invalidating all cached restaurants.");
+        inFlight.clear();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,22 @@
+package com.fooddelivery.order_service.feign;
+
+/**
+ * Thrown instead of calling a downstream service when its circuit breaker is open or its bulkhead is full.
+ * The call was never sent, so callers can safely defer the work and retry later.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+
+    public DependencyUnavailableException(String dependency, Throwable cause) {
+        super(dependency + " is unavailable: " + cause.getMessage(), cause);
+        this.dependency = dependency;
+    }
+
+    /**
+     * @return The Feign client name of the unavailable service (e.g., "payment-service").
+     */
+    public String getDependency() {
+        return dependency;
+    }
+}
@@ -3,14 +3,22 @@ package com.fooddelivery.order_service.feign;
 import com.fooddelivery.order_service.dto.PaymentRequest; // Import the DTO we just created
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 // @FeignClient annotation defines the client.
 // "payment-service" must match the spring.application.name of your payment-service in Eureka.
-@FeignClient(name = "payment-service")
+// PooledFeignTransportConfig gives this client its own pooled HttpClient 5 connection pool.
+// 'primary = false': ResilientPaymentServiceClient is the @Primary bean and wraps this one.
+@FeignClient(name = "payment-service", configuration = PooledFeignTransportConfig.class,
+             qualifiers = PaymentServiceClient.FEIGN_QUALIFIER, primary = false)
 public interface PaymentServiceClient {
 
+    String FEIGN_QUALIFIER = "paymentServiceFeignClient";
+
     /**
      * This method defines how to call the POST /payments endpoint of the payment-service.
      * Feign will automatically translate this method call into an HTTP POST request
@@ -20,13 +28,22 @@ public interface PaymentServiceClient {
      * automatically add the Authorization header (JWT token) to this outgoing request.
      *
      * @param paymentRequest The DTO containing the orderId, amount, and paymentMethod.
+     * @param idempotencyKey Sent as the Idempotency-Key header; the same key for every retry of one order's
+     *                       payment, so payment-service charges at most once.
      * @return A ResponseEntity indicating the result of the payment processing (e.g., 201 Created).
      * The body can be String or a more specific DTO if needed to parse the response.
      */
     @PostMapping("/payments")
-    ResponseEntity<String> processPayment(@RequestBody PaymentRequest paymentRequest);
+    ResponseEntity<String> processPayment(@RequestBody PaymentRequest paymentRequest,
+                                          @RequestHeader("Idempotency-Key") String idempotencyKey);
 
-    // You can add other methods here to call other payment-service endpoints as needed, e.g.:
-    // @GetMapping("/payments/{id}")
-    // ResponseEntity<PaymentResponse> getPaymentById(@PathVariable("id") Long paymentId);
+    /**
+     * Calls GET /payments/orders/{orderId}, the latest payment recorded for an order.
+     * Read-only, so it can be polled for the payment's status without charging again.
+     *
+     * @param orderId The ID of the order.
+     * @return The payment as JSON; payment-service answers 404 if none was recorded yet.
+     */
+    @GetMapping("/payments/orders/{orderId}")
+    ResponseEntity<String> getPaymentForOrder(@PathVariable("orderId") Long orderId);
 }
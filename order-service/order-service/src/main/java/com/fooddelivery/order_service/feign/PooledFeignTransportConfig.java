@@ -0,0 +1,106 @@
+package com.fooddelivery.order_service.feign;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled Apache HttpClient 5 transport for a Feign client, replacing Feign's default HttpURLConnection client.
+ * Listed in each @FeignClient's configuration, so every client gets its own connection pool inside its own
+ * Feign child context. Deliberately not a @Configuration: component scan would otherwise register one
+ * shared pool for all clients.
+ *
+ * Pool settings are read from order.http.clients.[client-name].* and fall back to order.http.*.
+ * Connect/read timeouts are Feign's per-client spring.cloud.openfeign.client.config.[client-name].* options,
+ * which ApacheHttp5Client applies to every request. Responses are requested with Accept-Encoding: gzip and
+ * decompressed transparently by HttpClient 5.
+ *
+ * Pool usage is published as "httpcomponents.httpclient.pool.*" metrics with httpclient=[client-name].
+ */
+public class PooledFeignTransportConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledFeignTransportConfig.class);
+
+    // Set by Spring Cloud OpenFeign in each client's child context
+    static final String CLIENT_NAME_PROPERTY = "spring.cloud.openfeign.client.name";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager feignConnectionManager(Environment environment, MeterRegistry meterRegistry) {
+        String clientName = environment.getProperty(CLIENT_NAME_PROPERTY, "default");
+        int maxConnections = setting(environment, clientName, "max-connections", 200);
+        int maxPerRoute = setting(environment, clientName, "max-connections-per-route", 50);
+        long ttlSeconds = setting(environment, clientName, "connection-ttl-seconds", 300);
+        long validateAfterInactivityMs = setting(environment, clientName, "validate-after-inactivity-ms", 2000);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxPerRoute)
+                // STRICT enforces max-connections (a LAX pool has no total limit); LIFO keeps the warmest connections busy
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setTimeToLive(TimeValue.ofSeconds(ttlSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                        .build())
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, clientName).bindTo(meterRegistry);
+        log.info("Feign client '{}' using pooled HttpClient 5 transport (max={}, perRoute={}, ttl={}s).",
+                clientName, maxConnections, maxPerRoute, ttlSeconds);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(PoolingHttpClientConnectionManager feignConnectionManager, Environment environment) {
+        String clientName = environment.getProperty(CLIENT_NAME_PROPERTY, "default");
+        long idleEvictionSeconds = setting(environment, clientName, "idle-eviction-seconds", 30);
+
+        return HttpClients.custom()
+                .setConnectionManager(feignConnectionManager)
+                // Keep-alive honours the server's Keep-Alive header; idle connections are closed in the background
+                .evictIdleConnections(TimeValue.of(idleEvictionSeconds, TimeUnit.SECONDS))
+                .evictExpiredConnections()
+                // Feign does its own retries (Retryer); don't replay non-idempotent calls such as POST /payments
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .build();
+    }
+
+    /**
+     * The pooled transport wrapped in the blocking load balancer, so "restaurant-service" / "payment-service"
+     * are still resolved through Eureka. Overrides the default Client bean for this Feign client only.
+     */
+    @Bean
+    public Client feignClient(CloseableHttpClient feignHttpClient,
+                              LoadBalancerClient loadBalancerClient,
+                              LoadBalancerClientFactory loadBalancerClientFactory,
+                              ObjectProvider<LoadBalancerFeignRequestTransformer> transformers) {
+        return new FeignBlockingLoadBalancerClient(new ApacheHttp5Client(feignHttpClient),
+                loadBalancerClient, loadBalancerClientFactory, transformers.orderedStream().toList());
+    }
+
+    private static int setting(Environment environment, String clientName, String key, int defaultValue) {
+        Integer shared = environment.getProperty("order.http." + key, Integer.class, defaultValue);
+        return environment.getProperty("order.http.clients." + clientName + "." + key, Integer.class, shared);
+    }
+}
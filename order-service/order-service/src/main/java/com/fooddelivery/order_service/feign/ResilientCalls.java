@@ -0,0 +1,33 @@
+package com.fooddelivery.order_service.feign;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.util.function.Supplier;
+
+/**
+ * Shared decoration for the resilient Feign client decorators.
+ */
+final class ResilientCalls {
+
+    private ResilientCalls() {
+    }
+
+    /**
+     * Runs a remote call behind a semaphore bulkhead and a circuit breaker.
+     * The bulkhead is checked first, so rejected calls are not counted by the breaker as failures.
+     *
+     * @throws DependencyUnavailableException if the bulkhead is full or the breaker is open.
+     */
+    static <T> T call(String dependency, CircuitBreaker circuitBreaker, Bulkhead bulkhead, Supplier<T> remoteCall) {
+        Supplier<T> decorated = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, remoteCall));
+        try {
+            return decorated.get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw new DependencyUnavailableException(dependency, e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.fooddelivery.order_service.feign;
+
+import com.fooddelivery.order_service.dto.PaymentRequest;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker and bulkhead in front of the payment-service Feign client.
+ * A slow or failing payment-service opens the breaker, after which calls fail fast with
+ * DependencyUnavailableException instead of holding request threads until the read timeout.
+ * The bulkhead caps concurrent payment calls so the remaining threads keep serving other requests.
+ *
+ * Marked @Primary so every PaymentServiceClient injection point goes through it.
+ * Both are configured under resilience4j.*.instances.payment-service.
+ */
+@Component
+@Primary
+public class ResilientPaymentServiceClient implements PaymentServiceClient {
+
+    static final String INSTANCE = "payment-service";
+
+    private final PaymentServiceClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientPaymentServiceClient(@Qualifier(FEIGN_QUALIFIER) PaymentServiceClient delegate,
+                                         CircuitBreakerRegistry circuitBreakerRegistry,
+                                         BulkheadRegistry bulkheadRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+    }
+
+    @Override
+    public ResponseEntity<String> processPayment(PaymentRequest paymentRequest, String idempotencyKey) {
+        return ResilientCalls.call(INSTANCE, circuitBreaker, bulkhead,
+                () -> delegate.processPayment(paymentRequest, idempotencyKey));
+    }
+
+    @Override
+    public ResponseEntity<String> getPaymentForOrder(Long orderId) {
+        return ResilientCalls.call(INSTANCE, circuitBreaker, bulkhead,
+                () -> delegate.getPaymentForOrder(orderId));
+    }
+}
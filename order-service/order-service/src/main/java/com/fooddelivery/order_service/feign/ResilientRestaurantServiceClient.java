@@ -0,0 +1,49 @@
+package com.fooddelivery.order_service.feign;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Circuit breaker and bulkhead in front of the restaurant-service Feign client.
+ * Sits between BatchingRestaurantServiceClient and Feign, so only cache misses are guarded and counted,
+ * and a coalesced batch takes one bulkhead permit.
+ * When restaurant-service is down, order placement fails fast with DependencyUnavailableException.
+ *
+ * Both are configured under resilience4j.*.instances.restaurant-service.
+ */
+@Component
+@Qualifier(RestaurantServiceClient.RESILIENT_QUALIFIER)
+public class ResilientRestaurantServiceClient implements RestaurantServiceClient {
+
+    static final String INSTANCE = "restaurant-service";
+
+    private final RestaurantServiceClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientRestaurantServiceClient(@Qualifier(FEIGN_QUALIFIER) RestaurantServiceClient delegate,
+                                            CircuitBreakerRegistry circuitBreakerRegistry,
+                                            BulkheadRegistry bulkheadRegistry) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+    }
+
+    @Override
+    public RestaurantDto getRestaurantById(Long id) {
+        return ResilientCalls.call(INSTANCE, circuitBreaker, bulkhead, () -> delegate.getRestaurantById(id));
+    }
+
+    @Override
+    public List<RestaurantDto> getRestaurantsByIds(Collection<Long> ids) {
+        return ResilientCalls.call(INSTANCE, circuitBreaker, bulkhead, () -> delegate.getRestaurantsByIds(ids));
+    }
+}
@@ -4,13 +4,26 @@ import com.fooddelivery.order_service.dto.RestaurantDto; // Import the DTO you c
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 // @FeignClient annotation tells Spring Cloud that this is a Feign client.
 // 'name': Must match the 'service-id' of your restaurant-service in Eureka (e.g., 'restaurant-service').
 // 'configuration': We'll create this class in Step 5 to handle JWT forwarding.
-@FeignClient(name = "restaurant-service", configuration = FeignClientConfig.class)
+// 'primary = false': CachingRestaurantServiceClient is the @Primary bean and wraps this one.
+// PooledFeignTransportConfig gives this client its own pooled HttpClient 5 connection pool.
+@FeignClient(name = "restaurant-service", configuration = {FeignClientConfig.class, PooledFeignTransportConfig.class},
+             qualifiers = RestaurantServiceClient.FEIGN_QUALIFIER, primary = false)
 public interface RestaurantServiceClient {
 
+    String FEIGN_QUALIFIER = "restaurantServiceFeignClient";
+    // ResilientRestaurantServiceClient: circuit breaker + bulkhead around the Feign client
+    String RESILIENT_QUALIFIER = "resilientRestaurantServiceClient";
+    // BatchingRestaurantServiceClient: coalesces concurrent single-ID lookups into batch calls
+    String BATCHING_QUALIFIER = "batchingRestaurantServiceClient";
+
     /**
      * Defines a method to get restaurant details by its ID.
      * This method corresponds to a GET endpoint in your restaurant-service.
@@ -24,4 +37,14 @@ public interface RestaurantServiceClient {
      */
     @GetMapping("/restaurants/{id}")
     RestaurantDto getRestaurantById(@PathVariable("id") Long id); // Ensure ID type matches your Restaurant model (Long or String)
-}
\ No newline at end of file
+
+    /**
+     * Looks up many restaurants in one call (GET /restaurants?ids=1,2,3 on restaurant-service).
+     * Restaurants that don't exist are left out of the result.
+     *
+     * @param ids The IDs of the restaurants to retrieve; restaurant-service accepts at most 500 per call.
+     * @return The restaurants found, in no particular order.
+     */
+    @GetMapping("/restaurants")
+    List<RestaurantDto> getRestaurantsByIds(@RequestParam("ids") Collection<Long> ids);
+}
@@ -6,14 +6,25 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "`order`") // Using backticks to escape 'order' which is a SQL reserved keyword
+@Table(name = "`order`", // Using backticks to escape 'order' which is a SQL reserved keyword
+       indexes = {
+           // Order history per customer, newest first (keyset on id)
+           @Index(name = "idx_order_customer_id", columnList = "customerId, id"),
+           // Orders of one restaurant in a time range, newest first (keyset on orderTime, id)
+           @Index(name = "idx_order_restaurant_time", columnList = "restaurantId, orderTime, id"),
+           @Index(name = "idx_order_time", columnList = "orderTime"),
+           // Scheduled orders reloaded into ScheduledOrderService's timer wheel at startup
+           @Index(name = "idx_order_status_scheduled", columnList = "status, scheduledFor")
+       })
 @Data // Lombok: Generates getters, setters, toString, equals, and hashCode
 @NoArgsConstructor // Lombok: Generates a no-argument constructor
 @AllArgsConstructor // Lombok: Generates a constructor with all fields
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (50 ids per sequence round trip)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long id; // Unique identifier for the order
 
     private Long customerId; // ID of the customer who placed the order
@@ -25,4 +36,22 @@ public class Order {
     private String status; // Current status of the order (e.g., PENDING, PAYMENT_INITIATED, DELIVERED)
 
     private String paymentMethod; // New field: Method used for payment (e.g., CREDIT_CARD, UPI, WALLET)
+
+    private LocalDateTime scheduledFor; // When a future-dated order should be placed; null to place it right away
+
+    // Optimistic lock: full updates carrying a stale version are rejected instead of overwriting a newer write.
+    // The column default backfills existing rows when ddl-auto adds it.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public Order(Long id, Long customerId, Long restaurantId, Double totalAmount,
+                 LocalDateTime orderTime, String status, String paymentMethod) {
+        this(id, customerId, restaurantId, totalAmount, orderTime, status, paymentMethod, null);
+    }
+
+    public Order(Long id, Long customerId, Long restaurantId, Double totalAmount,
+                 LocalDateTime orderTime, String status, String paymentMethod, Long version) {
+        this(id, customerId, restaurantId, totalAmount, orderTime, status, paymentMethod, null, version);
+    }
 }
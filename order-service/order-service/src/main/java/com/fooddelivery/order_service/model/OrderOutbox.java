@@ -0,0 +1,65 @@
+package com.fooddelivery.order_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row written in the same transaction as a newly accepted order.
+ * The OrderOutboxDispatcher drains pending rows in the background and performs the
+ * slow downstream work (the payment call) outside of the request thread.
+ */
+@Entity
+@Table(name = "order_outbox",
+       indexes = @Index(name = "idx_order_outbox_status_available", columnList = "status, availableAt"))
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class OrderOutbox {
+
+    public static final String EVENT_PAYMENT_REQUESTED = "PAYMENT_REQUESTED";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_PROCESSED = "PROCESSED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id; // Unique identifier for the outbox entry
+
+    private Long orderId; // ID of the order this entry belongs to
+
+    private String eventType; // What the dispatcher has to do (e.g., PAYMENT_REQUESTED)
+
+    private String status; // PENDING, PROCESSED or FAILED
+
+    private int attempts; // Number of times the dispatcher has claimed this entry
+
+    private LocalDateTime createdAt; // When the entry was written
+
+    private LocalDateTime availableAt; // Earliest time the dispatcher may (re)claim this entry
+
+    private LocalDateTime processedAt; // When the entry reached PROCESSED or FAILED
+
+    @Column(length = 1000)
+    private String lastError; // Message of the last failed attempt, if any
+
+    /**
+     * Creates a pending entry asking the dispatcher to initiate payment for the given order.
+     *
+     * @param orderId The ID of the freshly saved order.
+     * @return A new, unsaved outbox entry that is immediately available for dispatch.
+     */
+    public static OrderOutbox paymentRequested(Long orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        OrderOutbox entry = new OrderOutbox();
+        entry.setOrderId(orderId);
+        entry.setEventType(EVENT_PAYMENT_REQUESTED);
+        entry.setStatus(STATUS_PENDING);
+        entry.setCreatedAt(now);
+        entry.setAvailableAt(now);
+        return entry;
+    }
+}
@@ -0,0 +1,86 @@
+package com.fooddelivery.order_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted progress of one order through placement: restaurant validation, payment initiation and
+ * payment confirmation. OrderSagaOrchestrator claims due rows, runs the current step and either moves
+ * on to the next step, schedules a retry, or finishes the saga. Because every step boundary is
+ * committed here, an instance that crashes mid-saga loses at most the step it was running, and
+ * another instance resumes it once its lease runs out.
+ */
+@Entity
+@Table(name = "order_saga",
+       indexes = {
+           @Index(name = "idx_order_saga_order_id", columnList = "orderId", unique = true),
+           @Index(name = "idx_order_saga_status_next", columnList = "status, nextAttemptAt")
+       })
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class OrderSaga {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";     // Payment confirmed, order CONFIRMED
+    public static final String STATUS_COMPENSATED = "COMPENSATED"; // Restaurant or payment said no, order CANCELLED
+    public static final String STATUS_DECLINED = "DECLINED";       // payment-service declined the request, order PAYMENT_FAILED
+    public static final String STATUS_FAILED = "FAILED";           // Retries used up, order PAYMENT_ERROR
+    public static final String STATUS_ABORTED = "ABORTED";         // The order was cancelled or deleted elsewhere
+
+    /**
+     * The steps in the order they run.
+     */
+    public enum Step {
+        VALIDATE_RESTAURANT,
+        INITIATE_PAYMENT,
+        CONFIRM_PAYMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_saga_seq")
+    @SequenceGenerator(name = "order_saga_seq", sequenceName = "order_saga_seq", allocationSize = 50)
+    private Long id; // Unique identifier for the saga
+
+    private Long orderId; // The order being placed; one saga per order
+
+    @Enumerated(EnumType.STRING)
+    private Step step; // The step to run next
+
+    private String status; // RUNNING until the saga reaches one of the end states above
+
+    private int attempts; // Times the current step has been claimed; reset when the saga moves to the next step
+
+    private LocalDateTime createdAt; // When the saga was started
+
+    private LocalDateTime nextAttemptAt; // Earliest time an orchestrator may (re)claim the saga
+
+    private LocalDateTime finishedAt; // When the saga left RUNNING
+
+    @Column(length = 1000)
+    private String lastError; // Message of the last failed attempt, or why the saga was compensated or declined
+
+    // Rejects the save of an orchestrator whose lease ran out while another one already took over
+    @Version
+    private Long version;
+
+    /**
+     * Creates a running saga for an order, due right away.
+     *
+     * @param orderId The ID of the saved order.
+     * @param step    The step to start at; orders that already passed restaurant validation start at INITIATE_PAYMENT.
+     * @return A new, unsaved saga.
+     */
+    public static OrderSaga start(Long orderId, Step step) {
+        LocalDateTime now = LocalDateTime.now();
+        OrderSaga saga = new OrderSaga();
+        saga.setOrderId(orderId);
+        saga.setStep(step);
+        saga.setStatus(STATUS_RUNNING);
+        saga.setCreatedAt(now);
+        saga.setNextAttemptAt(now);
+        return saga;
+    }
+}
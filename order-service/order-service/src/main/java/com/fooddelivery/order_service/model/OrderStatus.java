@@ -0,0 +1,83 @@
+package com.fooddelivery.order_service.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lifecycle of an order and the transitions allowed between states.
+ * Order.status stays a plain string column; this enum only validates moves between its values.
+ *
+ * PENDING → PAYMENT_INITIATED → CONFIRMED → PREPARING → DISPATCHED → DELIVERED, with the payment
+ * outcomes (PAYMENT_DEFERRED, PAYMENT_FAILED, PAYMENT_ERROR) branching off PENDING, and CANCELLED
+ * reachable from anything that has not been dispatched yet. Future-dated orders start out SCHEDULED
+ * and move to PENDING when ScheduledOrderService places them.
+ */
+public enum OrderStatus {
+    SCHEDULED,
+    PENDING,
+    PAYMENT_DEFERRED,
+    PAYMENT_INITIATED,
+    PAYMENT_FAILED,
+    PAYMENT_ERROR,
+    CONFIRMED,
+    PREPARING,
+    DISPATCHED,
+    DELIVERED,
+    CANCELLED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> NEXT = new EnumMap<>(OrderStatus.class);
+    // Reverse of NEXT as status names, ready to bind into "status IN (:from)"
+    private static final Map<OrderStatus, Set<String>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        // SCHEDULED → PENDING is left out on purpose: only ScheduledOrderService may make it, since it pays for the order too
+        NEXT.put(SCHEDULED, EnumSet.of(CANCELLED));
+        NEXT.put(PENDING, EnumSet.of(PAYMENT_INITIATED, PAYMENT_DEFERRED, PAYMENT_FAILED, PAYMENT_ERROR, CONFIRMED, CANCELLED));
+        NEXT.put(PAYMENT_DEFERRED, EnumSet.of(PAYMENT_INITIATED, PAYMENT_FAILED, PAYMENT_ERROR, CANCELLED));
+        // A retried payment can still go through after the outbox gave up on it
+        NEXT.put(PAYMENT_ERROR, EnumSet.of(PAYMENT_INITIATED, PAYMENT_FAILED, CANCELLED));
+        NEXT.put(PAYMENT_FAILED, EnumSet.of(CANCELLED));
+        NEXT.put(PAYMENT_INITIATED, EnumSet.of(CONFIRMED, PREPARING, DISPATCHED, CANCELLED));
+        NEXT.put(CONFIRMED, EnumSet.of(PREPARING, DISPATCHED, CANCELLED));
+        NEXT.put(PREPARING, EnumSet.of(DISPATCHED, CANCELLED));
+        NEXT.put(DISPATCHED, EnumSet.of(DELIVERED));
+        NEXT.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        NEXT.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus target : values()) {
+            Set<String> sources = new LinkedHashSet<>();
+            NEXT.forEach((from, targets) -> {
+                if (targets.contains(target)) {
+                    sources.add(from.name());
+                }
+            });
+            SOURCES.put(target, Collections.unmodifiableSet(sources));
+        }
+    }
+
+    /**
+     * @param status A status string as stored on the order (case-insensitive).
+     * @return The matching status, or empty if it is not part of the lifecycle.
+     */
+    public static Optional<OrderStatus> parse(String status) {
+        if (status == null) {
+            return Optional.empty();
+        }
+        String normalized = status.trim().toUpperCase();
+        return Arrays.stream(values()).filter(s -> s.name().equals(normalized)).findFirst();
+    }
+
+    /**
+     * @return Names of the statuses an order may be in to move to this one. Empty for SCHEDULED and
+     *         PENDING, which are only ever set when the order is created or placed.
+     */
+    public Set<String> sources() {
+        return SOURCES.get(this);
+    }
+}
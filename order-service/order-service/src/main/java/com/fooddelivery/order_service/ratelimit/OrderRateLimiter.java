@@ -0,0 +1,176 @@
+package com.fooddelivery.order_service.ratelimit;
+
+import com.fooddelivery.order_service.ratelimit.TokenBucketLimiter.Limit;
+import com.fooddelivery.order_service.ratelimit.TokenBucketLimiter.Result;
+import com.fooddelivery.order_service.security.JwtPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits order placement per customer (the JWT userId) and per restaurant, before any
+ * restaurant lookup, payment call or insert is made for the request.
+ *
+ * Every order takes one token from the customer's bucket and one from its restaurant's bucket, so a
+ * batch of n orders costs the same as n single orders. A request takes all its tokens or none: if any
+ * bucket holds too few, the tokens already taken are given back and the request is rejected with the
+ * time until that bucket has enough again. A batch that needs more tokens than a bucket can ever hold
+ * is rejected outright; partner integrations that place large batches need a role override.
+ *
+ * Customer limits are order.rate-limit.customer.capacity (burst) and .refill-per-second, and can be
+ * overridden per JWT role under order.rate-limit.customer.roles.[ROLE].*; a capacity of 0 disables
+ * the limit for that role. Restaurant limits are order.rate-limit.restaurant.*. Buckets are per
+ * instance, so the effective limit across N instances behind the gateway is up to N times as high.
+ *
+ * Published metrics: order.rate_limit.requests{limiter=customer|restaurant, result=allowed|rejected|untracked}
+ * and order.rate_limit.buckets{limiter}.
+ */
+@Component
+public class OrderRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRateLimiter.class);
+
+    private static final String PREFIX = "order.rate-limit.";
+
+    private final Environment environment;
+    private final boolean enabled;
+    private final Limit defaultCustomerLimit;
+    private final Limit restaurantLimit;
+    private final Map<String, Limit> customerLimitsByRole = new ConcurrentHashMap<>();
+    private final Meters customerMeters;
+    private final Meters restaurantMeters;
+
+    private final TokenBucketLimiter customers;
+    private final TokenBucketLimiter restaurants;
+
+    public OrderRateLimiter(Environment environment,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${order.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this.environment = environment;
+        this.enabled = enabled;
+        this.defaultCustomerLimit = limit(PREFIX + "customer.", new Limit(10, 0.5));
+        this.restaurantLimit = limit(PREFIX + "restaurant.", new Limit(200, 20));
+        this.customers = new TokenBucketLimiter(maxBuckets);
+        this.restaurants = new TokenBucketLimiter(maxBuckets);
+        this.customerMeters = new Meters("customer", customers, meterRegistry);
+        this.restaurantMeters = new Meters("restaurant", restaurants, meterRegistry);
+        log.info("Order rate limits: {} per customer, {} per restaurant{}.",
+                defaultCustomerLimit, restaurantLimit, enabled ? "" : " (disabled)");
+    }
+
+    private record Meters(Counter allowed, Counter rejected, Counter untracked) {
+
+        Meters(String limiter, TokenBucketLimiter buckets, MeterRegistry meterRegistry) {
+            this(counter(limiter, "allowed", meterRegistry),
+                    counter(limiter, "rejected", meterRegistry),
+                    counter(limiter, "untracked", meterRegistry));
+            Gauge.builder("order.rate_limit.buckets", buckets, TokenBucketLimiter::size)
+                    .description("Keys with a partly used token bucket")
+                    .tag("limiter", limiter)
+                    .register(meterRegistry);
+        }
+
+        private static Counter counter(String limiter, String result, MeterRegistry meterRegistry) {
+            return Counter.builder("order.rate_limit.requests")
+                    .tag("limiter", limiter)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        void record(Result result) {
+            (result.allowed() ? (result.tracked() ? allowed : untracked) : rejected).increment();
+        }
+    }
+
+    /**
+     * Takes a token for the caller and one for the restaurant of every order in the request.
+     *
+     * @param restaurantIds The restaurant of each order, one entry per order; nulls still count against the caller.
+     * @return 0 if the request may proceed, otherwise the number of seconds to wait before retrying.
+     * @throws IllegalArgumentException if the request has more orders than the caller's or a restaurant's
+     *                                  bucket can hold, so no amount of waiting would let it through.
+     */
+    public long tryAcquire(JwtPrincipal principal, Collection<Long> restaurantIds) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        Limit customerLimit = customerLimit(principal.role());
+        int orders = restaurantIds.size();
+        Map<Long, Integer> perRestaurant = new LinkedHashMap<>();
+        for (Long restaurantId : restaurantIds) {
+            if (restaurantId != null) {
+                perRestaurant.merge(restaurantId, 1, Integer::sum);
+            }
+        }
+        checkFits(orders, customerLimit, "your order limit");
+        perRestaurant.values().forEach(count -> checkFits(count, restaurantLimit, "a restaurant's order limit"));
+
+        Result customer = customers.tryAcquire(principal.userId(), customerLimit, orders, now);
+        customerMeters.record(customer);
+        if (!customer.allowed()) {
+            log.warn("Rate limited customer {}; retry in {} ms.", principal.userId(), customer.retryAfterNanos() / 1_000_000);
+            return toSeconds(customer.retryAfterNanos());
+        }
+
+        Map<Long, Integer> acquired = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : perRestaurant.entrySet()) {
+            Result restaurant = restaurants.tryAcquire(entry.getKey(), restaurantLimit, entry.getValue(), now);
+            restaurantMeters.record(restaurant);
+            if (!restaurant.allowed()) {
+                log.warn("Rate limited orders for restaurant {}; retry in {} ms.", entry.getKey(), restaurant.retryAfterNanos() / 1_000_000);
+                customers.refund(principal.userId(), customerLimit, orders, now);
+                acquired.forEach((id, taken) -> restaurants.refund(id, restaurantLimit, taken, now));
+                return toSeconds(restaurant.retryAfterNanos());
+            }
+            acquired.put(entry.getKey(), entry.getValue());
+        }
+        return 0;
+    }
+
+    private static void checkFits(int orders, Limit limit, String what) {
+        if (!limit.unlimited() && orders > limit.capacity()) {
+            throw new IllegalArgumentException("A request with " + orders + " orders exceeds " + what
+                    + " of " + limit.capacity() + " orders at once.");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = customers.evictIdle(now) + restaurants.evictIdle(now);
+        log.debug("Evicted {} idle rate-limit buckets; {} customer and {} restaurant buckets left.",
+                evicted, customers.size(), restaurants.size());
+    }
+
+    Limit customerLimit(String role) {
+        if (role == null) {
+            return defaultCustomerLimit;
+        }
+        return customerLimitsByRole.computeIfAbsent(role.toUpperCase(),
+                key -> limit(PREFIX + "customer.roles." + key + ".", defaultCustomerLimit));
+    }
+
+    private Limit limit(String prefix, Limit fallback) {
+        return new Limit(environment.getProperty(prefix + "capacity", Integer.class, fallback.capacity()),
+                environment.getProperty(prefix + "refill-per-second", Double.class, fallback.refillPerSecond()));
+    }
+
+    // Rounded up, so a client retrying after this many seconds finds a token
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
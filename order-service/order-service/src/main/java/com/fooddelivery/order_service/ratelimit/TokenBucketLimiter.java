@@ -0,0 +1,151 @@
+package com.fooddelivery.order_service.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets keyed by an ID, e.g. one per customer.
+ *
+ * Each bucket is one immutable Bucket record in a ConcurrentHashMap; taking a token swaps the record
+ * with compare-and-set and retries on conflict, so requests for different keys never contend and
+ * requests for the same key never block. Tokens are refilled lazily from the elapsed time when a
+ * bucket is touched, so an idle bucket costs nothing until it is used or evicted.
+ *
+ * A bucket that has been idle long enough to be full again is indistinguishable from a missing one,
+ * so evictIdle() drops it; memory is bounded by the keys active within one refill period. Once
+ * maxBuckets keys are tracked, requests for new keys are let through untracked until eviction
+ * makes room.
+ */
+public class TokenBucketLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxBuckets;
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketLimiter(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * How many requests a key may make in a burst, and how fast that allowance comes back.
+     * A capacity of 0 or less means unlimited.
+     */
+    public record Limit(int capacity, double refillPerSecond) {
+
+        public boolean unlimited() {
+            return capacity <= 0 || refillPerSecond <= 0;
+        }
+    }
+
+    /**
+     * @param fullAtNanos When the bucket will have refilled to capacity if nobody takes from it.
+     */
+    private record Bucket(double tokens, long updatedAtNanos, long fullAtNanos) {
+    }
+
+    /**
+     * Outcome of a request for a token.
+     *
+     * @param retryAfterNanos How long until a token is available again; 0 when allowed.
+     * @param tracked         false if the key was let through without a bucket because maxBuckets was reached.
+     */
+    public record Result(boolean allowed, long retryAfterNanos, boolean tracked) {
+
+        static final Result ALLOWED = new Result(true, 0, true);
+        static final Result UNTRACKED = new Result(true, 0, false);
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     */
+    public Result tryAcquire(long key, Limit limit, long nowNanos) {
+        return tryAcquire(key, limit, 1, nowNanos);
+    }
+
+    /**
+     * Takes several tokens from the key's bucket at once, or none if it holds fewer.
+     *
+     * @param permits How many tokens to take; at most the limit's capacity, or the request can never succeed.
+     */
+    public Result tryAcquire(long key, Limit limit, int permits, long nowNanos) {
+        if (limit.unlimited()) {
+            return Result.ALLOWED;
+        }
+        while (true) {
+            Bucket previous = buckets.get(key);
+            if (previous == null && buckets.size() >= maxBuckets) {
+                return Result.UNTRACKED;
+            }
+            double tokens = previous == null ? limit.capacity() : refill(previous, limit, nowNanos);
+            if (tokens < permits) {
+                long retryAfterNanos = (long) Math.ceil((permits - tokens) / limit.refillPerSecond() * NANOS_PER_SECOND);
+                return new Result(false, retryAfterNanos, true);
+            }
+            Bucket next = bucket(tokens - permits, limit, nowNanos);
+            boolean swapped = previous == null
+                    ? buckets.putIfAbsent(key, next) == null
+                    : buckets.replace(key, previous, next);
+            if (swapped) {
+                return Result.ALLOWED;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by tryAcquire, e.g. when another limit rejected the same request.
+     */
+    public void refund(long key, Limit limit, long nowNanos) {
+        refund(key, limit, 1, nowNanos);
+    }
+
+    /**
+     * Gives back several tokens taken by one tryAcquire.
+     */
+    public void refund(long key, Limit limit, int permits, long nowNanos) {
+        if (limit.unlimited()) {
+            return;
+        }
+        while (true) {
+            Bucket previous = buckets.get(key);
+            if (previous == null) {
+                return; // Evicted meanwhile, so it is full anyway
+            }
+            double tokens = Math.min(limit.capacity(), refill(previous, limit, nowNanos) + permits);
+            if (buckets.replace(key, previous, bucket(tokens, limit, nowNanos))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops every bucket that has refilled to capacity.
+     *
+     * @return The number of buckets dropped.
+     */
+    public int evictIdle(long nowNanos) {
+        int evicted = 0;
+        for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+            // Conditional remove: a bucket that was just drawn from is a different record and stays
+            if (entry.getValue().fullAtNanos() - nowNanos <= 0 && buckets.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private static double refill(Bucket bucket, Limit limit, long nowNanos) {
+        double elapsedSeconds = Math.max(0, nowNanos - bucket.updatedAtNanos()) / NANOS_PER_SECOND;
+        return Math.min(limit.capacity(), bucket.tokens() + elapsedSeconds * limit.refillPerSecond());
+    }
+
+    private static Bucket bucket(double tokens, Limit limit, long nowNanos) {
+        long untilFull = (long) Math.ceil((limit.capacity() - tokens) / limit.refillPerSecond() * NANOS_PER_SECOND);
+        return new Bucket(tokens, nowNanos, nowNanos + untilFull);
+    }
+}
@@ -0,0 +1,31 @@
+package com.fooddelivery.order_service.repository;
+
+import com.fooddelivery.order_service.model.OrderOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    /**
+     * Locks the next batch of entries that are due for dispatch.
+     * A lock timeout of -2 makes Hibernate emit SKIP LOCKED, so several order-service
+     * instances can drain the outbox concurrently without picking the same rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM OrderOutbox o WHERE o.status = :status AND o.availableAt <= :now ORDER BY o.id")
+    List<OrderOutbox> findDispatchable(@Param("status") String status,
+                                       @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+}
@@ -1,10 +1,148 @@
 package com.fooddelivery.order_service.repository;
 
+import com.fooddelivery.order_service.dto.OrderStatsRow;
+import com.fooddelivery.order_service.dto.ScheduledOrderRow;
 import com.fooddelivery.order_service.model.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    // Add custom queries if needed later
+
+    // --- Keyset pagination (newest first). Returning a List skips the count query a Page would need. ---
+
+    List<Order> findAllByOrderByIdDesc(Pageable pageable);
+
+    List<Order> findByIdLessThanOrderByIdDesc(Long id, Pageable pageable);
+
+    // --- Per-customer history, served by idx_order_customer_id ---
+
+    List<Order> findByCustomerIdOrderByIdDesc(Long customerId, Pageable pageable);
+
+    List<Order> findByCustomerIdAndIdLessThanOrderByIdDesc(Long customerId, Long id, Pageable pageable);
+
+    // --- Per-restaurant time range, served by idx_order_restaurant_time ---
+
+    @Query("SELECT o FROM Order o WHERE o.restaurantId = :restaurantId " +
+           "AND o.orderTime >= :from AND o.orderTime < :to " +
+           "ORDER BY o.orderTime DESC, o.id DESC")
+    List<Order> findByRestaurantInRange(@Param("restaurantId") Long restaurantId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to,
+                                        Pageable pageable);
+
+    /**
+     * Next page of {@link #findByRestaurantInRange}: everything strictly older than the
+     * (orderTime, id) of the last row already returned.
+     */
+    @Query("SELECT o FROM Order o WHERE o.restaurantId = :restaurantId " +
+           "AND o.orderTime >= :from " +
+           "AND (o.orderTime < :cursorTime OR (o.orderTime = :cursorTime AND o.id < :cursorId)) " +
+           "ORDER BY o.orderTime DESC, o.id DESC")
+    List<Order> findByRestaurantInRangeBefore(@Param("restaurantId") Long restaurantId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("cursorTime") LocalDateTime cursorTime,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    /**
+     * Streams every order in ID order over a forward-only result set.
+     * A fetch size of Integer.MIN_VALUE tells MySQL Connector/J to stream rows one at a time
+     * instead of buffering the whole result. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    Stream<Order> streamAll();
+
+    /**
+     * Streams just the columns the analytics aggregate, as unmanaged DTOs so the persistence context
+     * doesn't grow while the whole table is read. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.fooddelivery.order_service.dto.OrderStatsRow(o.id, o.restaurantId, o.totalAmount, o.orderTime, o.status) " +
+           "FROM Order o")
+    Stream<OrderStatsRow> streamStatsRows();
+
+    /**
+     * Streams the ID and due time of every order still waiting to be placed, served by
+     * idx_order_status_scheduled. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.fooddelivery.order_service.dto.ScheduledOrderRow(o.id, o.scheduledFor) " +
+           "FROM Order o WHERE o.status = 'SCHEDULED'")
+    Stream<ScheduledOrderRow> streamScheduled();
+
+    // --- Archival (OrderArchivalJob). orderTime < :cutoff is served by idx_order_time. ---
+
+    /**
+     * Streams orders old enough to archive, in ID order, up to the page size.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.status IN :statuses AND o.orderTime < :cutoff ORDER BY o.id")
+    Stream<Order> streamArchivable(@Param("statuses") Collection<String> statuses,
+                                   @Param("cutoff") LocalDateTime cutoff,
+                                   Pageable pageable);
+
+    /**
+     * Locks a batch of archived orders until the transaction ends, so none can change between the
+     * version check and the delete.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> lockAllById(@Param("ids") Collection<Long> ids);
+
+    // --- Conditional status transitions. One UPDATE each; the status guard makes concurrent moves race-free. ---
+
+    /**
+     * Moves one order to {@code to} only if it is currently in one of {@code from}.
+     * Bumps the version so a concurrent full update based on the old row is rejected.
+     *
+     * @return 1 if the order was moved, 0 if it is missing or in a status outside {@code from}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status IN :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") Collection<String> from, @Param("to") String to);
+
+    /**
+     * Bulk form of {@link #transitionStatus}: every listed order currently in one of {@code from} is moved
+     * to {@code to} in a single statement. Orders in any other status are left untouched.
+     *
+     * @return The number of orders moved.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.version = o.version + 1 " +
+           "WHERE o.id IN :ids AND o.status IN :from")
+    int transitionStatuses(@Param("ids") Collection<Long> ids, @Param("from") Collection<String> from, @Param("to") String to);
+
+    List<Order> findByIdInAndStatus(Collection<Long> ids, String status);
 }
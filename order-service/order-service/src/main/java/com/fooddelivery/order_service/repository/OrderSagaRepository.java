@@ -0,0 +1,30 @@
+package com.fooddelivery.order_service.repository;
+
+import com.fooddelivery.order_service.model.OrderSaga;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, Long> {
+
+    /**
+     * Locks the next batch of running sagas that are due, oldest first.
+     * SKIP LOCKED (lock timeout -2), as for the outbox, lets several instances claim batches concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM OrderSaga s WHERE s.status = 'RUNNING' AND s.nextAttemptAt <= :now ORDER BY s.nextAttemptAt")
+    List<OrderSaga> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(String status);
+}
@@ -0,0 +1,250 @@
+package com.fooddelivery.order_service.schedule;
+
+import com.fooddelivery.order_service.dto.ScheduledOrderRow;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderStatus;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import com.fooddelivery.order_service.service.OrderService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Holds future-dated orders until they are due and then places them.
+ *
+ * POST /orders with a scheduledFor stores the order as "SCHEDULED" and puts its ID in a TimerWheel
+ * ticking every order.schedule.tick-ms, so keeping tens of thousands of orders waiting costs one set
+ * entry each and a tick only touches the orders due in it. Orders that come due are queued and placed
+ * at most order.schedule.release-batch-size per tick, concurrently, through
+ * OrderService.placeScheduledOrder: restaurant check, PENDING, payment, exactly like an order placed
+ * right now. A lunch-hour spike of orders scheduled for the same minute is spread over a few ticks
+ * instead of hitting restaurant-service and payment-service at once.
+ *
+ * The wheel is memory only. It is rebuilt from the order table once the application is ready, so
+ * orders scheduled before a restart are still placed, late if they came due while it was down. An
+ * order that can't be placed because a dependency is unavailable stays "SCHEDULED" and is retried
+ * after order.schedule.retry-seconds.
+ *
+ * Every instance rebuilds the wheel from the shared table, but only the instance that took an order
+ * learns of it before its next restart. Placing starts with a conditional UPDATE out of "SCHEDULED",
+ * so when several instances hold the same order it is still placed and charged once.
+ */
+@Service
+public class ScheduledOrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledOrderService.class);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long tickMs;
+    private final int maxDaysAhead;
+    private final ExecutorService releaser = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${order.schedule.release-batch-size:50}")
+    private int releaseBatchSize;
+
+    @Value("${order.schedule.retry-seconds:30}")
+    private long retrySeconds;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private final TimerWheel wheel;
+    private final Deque<Long> due = new ArrayDeque<>();
+
+    public ScheduledOrderService(OrderService orderService,
+                                 OrderRepository orderRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${order.schedule.tick-ms:1000}") long tickMs,
+                                 @Value("${order.schedule.wheel-slots:512}") int wheelSlots,
+                                 @Value("${order.schedule.max-days-ahead:30}") int maxDaysAhead) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.tickMs = tickMs;
+        this.maxDaysAhead = maxDaysAhead;
+        // Enough levels to reach max-days-ahead plus a retry margin at this tick size
+        long horizonTicks = TimeUnit.DAYS.toMillis(maxDaysAhead + 1L) / tickMs;
+        int levels = 1;
+        for (long span = wheelSlots; span <= horizonTicks; span = Math.multiplyExact(span, (long) wheelSlots)) {
+            levels++;
+        }
+        this.wheel = new TimerWheel(wheelSlots, levels, currentTick());
+    }
+
+    /**
+     * Stores an order to be placed at its scheduledFor time.
+     *
+     * @return The saved order in "SCHEDULED" status.
+     * @throws IllegalArgumentException if scheduledFor is not in the future or is more than
+     *                                  order.schedule.max-days-ahead days away.
+     */
+    public Order schedule(Order order) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime scheduledFor = order.getScheduledFor();
+        if (scheduledFor == null || !scheduledFor.isAfter(now)) {
+            throw new IllegalArgumentException("scheduledFor must be in the future.");
+        }
+        if (scheduledFor.isAfter(now.plusDays(maxDaysAhead))) {
+            throw new IllegalArgumentException("Orders can be scheduled at most " + maxDaysAhead + " days ahead.");
+        }
+        Order scheduled = orderService.scheduleOrder(order);
+        synchronized (lock) {
+            wheel.add(scheduled.getId(), tickOf(scheduledFor));
+        }
+        log.info("Order ID: {} scheduled for {}", scheduled.getId(), scheduledFor);
+        return scheduled;
+    }
+
+    /**
+     * Loads every "SCHEDULED" order into the wheel. Orders that are already overdue fire on the next tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        AtomicInteger loaded = new AtomicInteger();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ScheduledOrderRow> rows = orderRepository.streamScheduled()) {
+                    rows.forEach(row -> {
+                        long deadline = row.getScheduledFor() != null ? tickOf(row.getScheduledFor()) : 0;
+                        synchronized (lock) {
+                            wheel.add(row.getId(), deadline);
+                        }
+                        loaded.incrementAndGet();
+                    });
+                }
+            });
+            log.info("Loaded {} scheduled orders.", loaded.get());
+        } catch (RuntimeException e) {
+            log.error("Could not load scheduled orders after {} rows; the rest are placed after the next restart.", loaded.get(), e);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${order.schedule.tick-ms:1000}")
+    public void tick() {
+        releaseDue(currentTick());
+    }
+
+    /**
+     * Advances the wheel and places up to order.schedule.release-batch-size of the orders that are due,
+     * waiting for all of them before returning.
+     *
+     * @return The number of orders released in this tick.
+     */
+    int releaseDue(long nowTick) {
+        List<Long> batch = new ArrayList<>();
+        synchronized (lock) {
+            due.addAll(wheel.advance(nowTick));
+            while (batch.size() < releaseBatchSize && !due.isEmpty()) {
+                batch.add(due.poll());
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Callable<Void>> releases = new ArrayList<>(batch.size());
+        for (Long orderId : batch) {
+            releases.add(() -> {
+                release(orderId);
+                return null;
+            });
+        }
+        try {
+            releaser.invokeAll(releases);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.debug("Released {} scheduled orders; {} more due.", batch.size(), dueCount());
+        return batch.size();
+    }
+
+    private void release(Long orderId) {
+        try {
+            orderService.placeScheduledOrder(orderId);
+        } catch (DependencyUnavailableException e) {
+            log.warn("Scheduled order ID: {} could not be placed yet ({}); retrying in {}s.", orderId, e.getMessage(), retrySeconds);
+            retry(orderId);
+        } catch (RuntimeException e) {
+            log.error("Error placing scheduled order ID: {}; retrying in {}s.", orderId, retrySeconds, e);
+            retry(orderId);
+        }
+    }
+
+    private void retry(Long orderId) {
+        long retryTick = currentTick() + Math.max(1, TimeUnit.SECONDS.toMillis(retrySeconds) / tickMs);
+        synchronized (lock) {
+            wheel.add(orderId, retryTick);
+        }
+    }
+
+    /**
+     * Drops the timer of an order that was cancelled or deleted before it came due.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() == null
+                || (event.type() != ChangeType.DELETED && !OrderStatus.CANCELLED.name().equals(event.status()))) {
+            return;
+        }
+        synchronized (lock) {
+            wheel.cancel(event.orderId());
+        }
+    }
+
+    /**
+     * @return The number of orders waiting for their time to come.
+     */
+    public int pendingCount() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * @return The number of orders that are due but not released yet.
+     */
+    public int dueCount() {
+        synchronized (lock) {
+            return due.size();
+        }
+    }
+
+    long currentTick() {
+        return System.currentTimeMillis() / tickMs;
+    }
+
+    // Rounded up, so an order is never placed before its time
+    private long tickOf(LocalDateTime time) {
+        long millis = time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.floorDiv(millis + tickMs - 1, tickMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        releaser.shutdownNow();
+    }
+}
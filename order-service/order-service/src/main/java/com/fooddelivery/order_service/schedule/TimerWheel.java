@@ -0,0 +1,133 @@
+package com.fooddelivery.order_service.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical hashed timer wheel keyed by order ID.
+ *
+ * Time is counted in ticks. Level 0 has one slot per tick; each higher level has one slot per full
+ * turn of the level below it, so three levels of 512 slots at one-second ticks cover about four
+ * years. Adding, cancelling and expiring a timer are O(1); a timer moves down a level each time the
+ * level below it turns over, until it lands in the level-0 slot of the tick it is due in.
+ *
+ * Not thread-safe; ScheduledOrderService only touches it while holding its lock.
+ */
+class TimerWheel {
+
+    private final int slotsPerLevel;
+    private final List<List<Set<Long>>> levels = new ArrayList<>();
+    private final long[] ticksPerSlot;
+    private final Map<Long, Placement> placements = new HashMap<>();
+    private long currentTick;
+
+    private record Placement(int level, int slot, long deadlineTick) {
+    }
+
+    /**
+     * @param startTick The tick the wheel starts at; timers due at or before it fire on the next advance.
+     */
+    TimerWheel(int slotsPerLevel, int levelCount, long startTick) {
+        this.slotsPerLevel = slotsPerLevel;
+        this.ticksPerSlot = new long[levelCount];
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            ticksPerSlot[level] = span;
+            span = Math.multiplyExact(span, slotsPerLevel);
+            List<Set<Long>> slots = new ArrayList<>(slotsPerLevel);
+            for (int slot = 0; slot < slotsPerLevel; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            levels.add(slots);
+        }
+        this.currentTick = startTick;
+    }
+
+    /**
+     * Schedules a timer, replacing any earlier one for the same ID.
+     *
+     * @throws IllegalArgumentException if the deadline is beyond what the top level can hold.
+     */
+    void add(long id, long deadlineTick) {
+        cancel(id);
+        place(id, Math.max(deadlineTick, currentTick + 1));
+    }
+
+    /**
+     * @return true if a pending timer was removed.
+     */
+    boolean cancel(long id) {
+        Placement placement = placements.remove(id);
+        if (placement == null) {
+            return false;
+        }
+        levels.get(placement.level()).get(placement.slot()).remove(id);
+        return true;
+    }
+
+    int size() {
+        return placements.size();
+    }
+
+    /**
+     * Moves the wheel forward to the given tick.
+     *
+     * @return The IDs of every timer that came due, in deadline order.
+     */
+    List<Long> advance(long toTick) {
+        List<Long> expired = new ArrayList<>();
+        while (currentTick < toTick) {
+            currentTick++;
+            // Pull the next stretch of timers down from each level that just turned over, highest first
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % ticksPerSlot[level] == 0) {
+                    cascade(level);
+                }
+            }
+            Set<Long> slot = levels.get(0).get(slotIndex(0, currentTick));
+            for (Long id : slot) {
+                placements.remove(id);
+                expired.add(id);
+            }
+            slot.clear();
+        }
+        return expired;
+    }
+
+    private void cascade(int level) {
+        Set<Long> slot = levels.get(level).get(slotIndex(level, currentTick));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(slot);
+        slot.clear();
+        for (Long id : ids) {
+            place(id, placements.remove(id).deadlineTick());
+        }
+    }
+
+    /**
+     * Puts a timer in the lowest level whose span reaches its deadline. Called with deadlineTick >= currentTick.
+     */
+    private void place(long id, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        for (int level = 0; level < levels.size(); level++) {
+            if (delta < ticksPerSlot[level] * slotsPerLevel) {
+                int slot = slotIndex(level, deadlineTick);
+                levels.get(level).get(slot).add(id);
+                placements.put(id, new Placement(level, slot, deadlineTick));
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Deadline is " + delta + " ticks away; the wheel only reaches "
+                + (ticksPerSlot[levels.size() - 1] * slotsPerLevel - 1) + ".");
+    }
+
+    private int slotIndex(int level, long tick) {
+        return (int) ((tick / ticksPerSlot[level]) % slotsPerLevel);
+    }
+}
@@ -2,15 +2,13 @@
 
 package com.fooddelivery.order_service.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import com.fooddelivery.common.security.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value; // Import for @Value
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,7 +16,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,9 +24,13 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
 
-    // Inject the secret key from application.properties
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache<JwtPrincipal> tokenCache;
+
+    public JwtFilter(JwtUtil jwtUtil, VerifiedTokenCache<JwtPrincipal> tokenCache) {
+        this.jwtUtil = jwtUtil;
+        this.tokenCache = tokenCache;
+    }
 
     /**
      * This method determines whether this JWT filter should be applied to the current request.
@@ -50,7 +51,8 @@ public class JwtFilter extends OncePerRequestFilter {
                path.startsWith("/swagger-ui/") ||    // Swagger UI resources (CSS, JS)
                path.equals("/v3/api-docs") ||       // Exact path for the main OpenAPI JSON definition
                path.startsWith("/v3/api-docs/") ||   // OpenAPI JSON sub-paths (e.g., /v3/api-docs/swagger-config)
-               path.startsWith("/actuator/");         // Actuator endpoints (if enabled and public)
+               path.equals("/actuator/health") ||   // Health checks are public; other actuator endpoints need a token
+               path.startsWith("/actuator/health/");
     }
 
     @Override
@@ -59,7 +61,7 @@ public class JwtFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         // This block will only be executed for paths that shouldNotFilter returns 'false' for.
-        // Public paths (Swagger, Actuator) will bypass this method entirely.
+        // Public paths (Swagger, actuator health) will bypass this method entirely.
 
         String authHeader = request.getHeader("Authorization");
         logger.debug("Authorization header: {}", authHeader != null ? "Present" : "Missing");
@@ -73,38 +75,29 @@ public class JwtFilter extends OncePerRequestFilter {
         try {
             String token = authHeader.substring(7); // Extract the token after "Bearer "
 
-            // Parse the JWT token to get claims
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secret.getBytes()) // Use the injected secret key
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            logger.debug("JWT parsed successfully for subject: {}", claims.getSubject());
-
-            String username = claims.getSubject(); // Subject of the JWT is typically the username/email
-
-            // Extract roles claim - expects a list of roles as strings, e.g., ["ROLE_USER", "ROLE_ADMIN"]
-            // The claims.get("roles", List.class) correctly retrieves the list of strings.
-            List<?> rolesRaw = claims.get("roles", List.class);
-            List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-
-            if (rolesRaw != null) {
-                authorities = rolesRaw.stream()
-                        // Ensure each role string is properly cast and then converted to SimpleGrantedAuthority
-                        .map(role -> new SimpleGrantedAuthority((String) role))
-                        .collect(Collectors.toList());
+            // Verify the token once; controllers read the same claims via @AuthenticationPrincipal.
+            // Tokens seen before skip verification and parsing entirely.
+            JwtPrincipal principal = tokenCache.get(token);
+            if (principal == null) {
+                principal = jwtUtil.parse(token);
+                tokenCache.put(token, principal, principal.expiresAt());
+                logger.debug("JWT parsed successfully for subject: {}", principal.username());
             }
 
+            // Roles claim - expects a list of roles as strings, e.g., ["ROLE_USER", "ROLE_ADMIN"]
+            List<SimpleGrantedAuthority> authorities = principal.roles().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .collect(Collectors.toList());
+
             // If username is present and no authentication is currently set in the context
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Create an Authentication object
+            if (principal.username() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Create an Authentication object carrying the verified claims
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
+                        new UsernamePasswordAuthenticationToken(principal, null, authorities);
 
                 // Set the authentication in the SecurityContextHolder
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.debug("Authentication set for user: {} with authorities: {}", username, authorities);
+                logger.debug("Authentication set for user: {} with authorities: {}", principal.username(), authorities);
             }
 
         } catch (io.jsonwebtoken.security.SignatureException e) {
@@ -0,0 +1,47 @@
+package com.fooddelivery.order_service.security;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verified claims of the caller's JWT.
+ * JwtFilter parses the token once and stores this as the authentication principal, so controllers
+ * can read the caller's identity with @AuthenticationPrincipal instead of parsing the token again.
+ *
+ * @param username The token subject (the user's email).
+ * @param userId The "userId" claim, or null if the token does not carry one.
+ * @param role The "role" claim, or null if absent.
+ * @param roles The "roles" claim used for granted authorities; empty if absent.
+ * @param expiresAt The "exp" claim, or null if the token does not expire.
+ */
+public record JwtPrincipal(String username, Long userId, String role, List<String> roles, Instant expiresAt)
+        implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    /**
+     * @param name A role without the "ROLE_" prefix, e.g. ADMIN.
+     * @return true if the "role" claim is that role or the "roles" claim contains it with the "ROLE_" prefix.
+     */
+    public boolean hasRole(String name) {
+        return name.equalsIgnoreCase(role) || (roles != null && roles.contains("ROLE_" + name.toUpperCase()));
+    }
+
+    /**
+     * @return true if the "role" claim is ADMIN or the "roles" claim contains ROLE_ADMIN.
+     */
+    public boolean isAdmin() {
+        return hasRole("ADMIN");
+    }
+
+    /**
+     * @return true for the tokens other services use to call this one (role SERVICE).
+     */
+    public boolean isService() {
+        return hasRole("SERVICE");
+    }
+}
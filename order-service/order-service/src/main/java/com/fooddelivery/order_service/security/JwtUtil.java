@@ -1,33 +1,51 @@
 package com.fooddelivery.order_service.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Component
 public class JwtUtil {
 
-    // Use the same secret as your auth-service (should match!)
-    private final String SECRET_KEY ="super-secret-key-for-jwt-signing-must-be-strong-12345"; // 32+ chars
+    // Use the same secret as your auth-service (should match!); used when jwt.secret is not set
+    private static final String DEFAULT_SECRET_KEY = "super-secret-key-for-jwt-signing-must-be-strong-12345"; // 32+ chars
 
-    public Long extractCustomerId(String token) {
-        Claims claims = extractAllClaims(token);
-        return Long.valueOf(claims.get("userId").toString());
-    }
+    // Built once at startup: deriving the HMAC key and the parser per call was measurable on every request.
+    // JwtParser is immutable and thread-safe.
+    private final JwtParser parser;
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public JwtUtil(@Value("${jwt.secret:}") String secret) {
+        String keyMaterial = (secret == null || secret.isBlank()) ? DEFAULT_SECRET_KEY : secret;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(keyMaterial.getBytes(StandardCharsets.UTF_8)))
+                .build();
     }
 
-    private Key getSignKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    /**
+     * Verifies the token signature and expiry and returns its claims as a principal.
+     *
+     * @param token The compact JWT, without the "Bearer " prefix.
+     * @return The verified claims.
+     * @throws io.jsonwebtoken.JwtException if the token is invalid, expired or tampered with.
+     */
+    public JwtPrincipal parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+
+        Object userId = claims.get("userId");
+        List<?> rolesRaw = claims.get("roles", List.class);
+        List<String> roles = rolesRaw == null ? List.of() : rolesRaw.stream().map(String::valueOf).toList();
+
+        return new JwtPrincipal(
+                claims.getSubject(),
+                userId != null ? Long.valueOf(userId.toString()) : null,
+                claims.get("role", String.class),
+                roles,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
     }
 }
@@ -0,0 +1,167 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.archive.OrderArchive;
+import com.fooddelivery.order_service.event.OrdersArchivedEvent;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Moves old orders in a terminal status from the order table to the OrderArchive, keeping the
+ * table (and its indexes) down to the orders that can still change.
+ *
+ * Each pass copies up to order.archive.max-per-segment orders into a new segment, seals it, and only
+ * then deletes those orders from the table in batches of order.archive.delete-batch-size, each in
+ * its own short transaction. An order whose version changed after it was copied is left in the table
+ * for the next run. A crash before the deletes just leaves the orders in both places; the table copy
+ * is the one served, and the next run archives them again.
+ */
+@Component
+public class OrderArchivalJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchivalJob.class);
+
+    private final OrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.min-age-days:90}")
+    private long minAgeDays;
+
+    @Value("${order.archive.statuses:DELIVERED,PAYMENT_FAILED,CANCELLED}")
+    private List<String> statuses;
+
+    @Value("${order.archive.max-per-segment:100000}")
+    private int maxPerSegment;
+
+    @Value("${order.archive.delete-batch-size:500}")
+    private int deleteBatchSize;
+
+    public OrderArchivalJob(OrderRepository orderRepository,
+                            OrderArchive orderArchive,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.orderArchive = orderArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveOlderThan(LocalDateTime.now().minusDays(minAgeDays));
+        } catch (RuntimeException | IOException e) {
+            log.error("Order archival failed; will try again on the next run.", e);
+        }
+    }
+
+    /**
+     * Archives every order in an archivable status placed before the cutoff.
+     *
+     * @return The number of orders moved out of the order table.
+     */
+    public long archiveOlderThan(LocalDateTime cutoff) throws IOException {
+        long started = System.nanoTime();
+        long moved = 0;
+        int copied;
+        long deleted;
+        do {
+            Map<Long, Long> copiedVersions = copySegment(cutoff);
+            copied = copiedVersions.size();
+            deleted = delete(copiedVersions);
+            moved += deleted;
+            // A full segment means there may be more; stop anyway if nothing could be deleted, or the same orders would be copied again
+        } while (copied == maxPerSegment && deleted > 0);
+
+        if (moved > 0) {
+            log.info("Archived {} orders placed before {} in {} ms.", moved, cutoff,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        return moved;
+    }
+
+    /**
+     * Streams the next batch of archivable orders into a new segment and seals it.
+     *
+     * @return The version of each order now safely in the archive, in ID order.
+     */
+    private Map<Long, Long> copySegment(LocalDateTime cutoff) throws IOException {
+        Map<Long, Long> copiedVersions = new LinkedHashMap<>();
+        try (OrderArchive.SegmentWriter writer = orderArchive.newSegment()) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Order> orders = orderRepository.streamArchivable(statuses, cutoff, PageRequest.of(0, maxPerSegment))) {
+                    orders.forEach(order -> {
+                        try {
+                            writer.append(order);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        copiedVersions.put(order.getId(), order.getVersion());
+                        entityManager.detach(order);
+                    });
+                }
+            });
+            if (!copiedVersions.isEmpty()) {
+                writer.seal();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return copiedVersions;
+    }
+
+    private long delete(Map<Long, Long> copiedVersions) {
+        List<Long> ids = new ArrayList<>(copiedVersions.keySet());
+        long deleted = 0;
+        for (int from = 0; from < ids.size(); from += deleteBatchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + deleteBatchSize, ids.size()));
+            Integer count = transactionTemplate.execute(status -> {
+                List<Long> unchanged = orderRepository.lockAllById(batch).stream()
+                        .filter(order -> Objects.equals(order.getVersion(), copiedVersions.get(order.getId())))
+                        .map(Order::getId)
+                        .toList();
+                if (unchanged.isEmpty()) {
+                    return 0;
+                }
+                orderRepository.deleteAllByIdInBatch(unchanged);
+                eventPublisher.publishEvent(new OrdersArchivedEvent(unchanged));
+                return unchanged.size();
+            });
+            deleted += count != null ? count : 0;
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,271 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed order changes out to GET /orders/stream subscribers as Server-Sent Events.
+ *
+ * Publishing never blocks on a client: each event is appended to a replay window and offered to
+ * every matching subscriber's bounded queue, and each subscriber's queue is drained by its own
+ * sender task. A subscriber whose queue fills up is disconnected instead of holding up the others;
+ * its client reconnects with Last-Event-ID and catches up from the replay window.
+ *
+ * Event IDs are "<epoch>-<sequence>", where the epoch changes on every restart. A Last-Event-ID from
+ * another epoch, or older than the replay window, gets a "reset" event telling the client to reload
+ * its order list instead of resuming. The bus is per instance; with several order-service instances
+ * a client only sees changes made on the instance it is connected to.
+ */
+@Component
+public class OrderEventBroker {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventBroker.class);
+
+    static final String ORDER_EVENT = "order";
+    static final String RESET_EVENT = "reset";
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESET = new Object();
+
+    private final int bufferSize;
+    private final int replayWindow;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Object lock = new Object();
+    private final ArrayDeque<StreamedEvent> history = new ArrayDeque<>(); // guarded by lock
+    private long lastSequence; // guarded by lock
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Sends block on slow sockets, so they run here and never on the publishing thread
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter droppedSubscribers;
+
+    public OrderEventBroker(@Value("${order.stream.subscriber-buffer:256}") int bufferSize,
+                            @Value("${order.stream.replay-window:1000}") int replayWindow,
+                            @Value("${order.stream.timeout-ms:1800000}") long timeoutMs,
+                            @Value("${order.stream.max-subscribers:1000}") int maxSubscribers,
+                            @Nullable MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.replayWindow = replayWindow;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        if (meterRegistry != null) {
+            Gauge.builder("orders.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+            this.droppedSubscribers = Counter.builder("orders.stream.dropped").register(meterRegistry);
+        } else {
+            this.droppedSubscribers = null;
+        }
+    }
+
+    /**
+     * Opens a stream of order events.
+     *
+     * @param customerId Only events for this customer's orders are sent; null sends every event (admins).
+     * @param lastEventId The Last-Event-ID the client reconnected with, or null for a fresh stream.
+     * @return The emitter to return from the controller.
+     * @throws IllegalStateException if order.stream.max-subscribers streams are already open.
+     */
+    public SseEmitter subscribe(@Nullable Long customerId, @Nullable String lastEventId) {
+        Subscriber subscriber = new Subscriber(createEmitter(), customerId);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+
+        synchronized (lock) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new IllegalStateException("Too many open order streams.");
+            }
+            subscribers.add(subscriber);
+            // Sends the response headers right away
+            subscriber.offer(HEARTBEAT);
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+        }
+        log.debug("Order stream opened for {} ({} open).",
+                customerId != null ? "customer " + customerId : "admin", subscribers.size());
+        return subscriber.emitter;
+    }
+
+    /**
+     * Queues the events the client missed since lastEventId. Called with the lock held, so no live
+     * event can slip in between the replay and the subscription.
+     */
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long resumeAfter = parseSequence(lastEventId);
+        long oldestKept = history.isEmpty() ? lastSequence + 1 : history.peekFirst().sequence();
+        if (resumeAfter < 0 || resumeAfter > lastSequence || resumeAfter < oldestKept - 1) {
+            subscriber.offer(RESET);
+            return;
+        }
+        var missed = history.stream()
+                .filter(e -> e.sequence() > resumeAfter && subscriber.accepts(e.event()))
+                .toList();
+        if (missed.size() >= bufferSize) {
+            subscriber.offer(RESET);
+            return;
+        }
+        missed.forEach(subscriber::offer);
+    }
+
+    /**
+     * Forwards an order change to the matching subscribers once its transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        synchronized (lock) {
+            StreamedEvent streamed = new StreamedEvent(++lastSequence, event);
+            history.addLast(streamed);
+            if (history.size() > replayWindow) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(event)) {
+                    subscriber.offer(streamed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps idle streams from being closed by proxies and load balancers.
+     */
+    @Scheduled(fixedDelayString = "${order.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        sender.shutdown();
+    }
+
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.indexOf('-');
+        if (dash < 0 || !epoch.equals(lastEventId.substring(0, dash))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record StreamedEvent(long sequence, OrderChangedEvent event) {
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        final Long customerId; // null = all orders
+        final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Long customerId) {
+            this.emitter = emitter;
+            this.customerId = customerId;
+        }
+
+        boolean accepts(OrderChangedEvent event) {
+            return customerId == null || customerId.equals(event.customerId());
+        }
+
+        void offer(Object item) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                if (item == HEARTBEAT) {
+                    return; // Already has plenty queued to keep the connection busy
+                }
+                log.warn("Order stream subscriber fell {} events behind. Disconnecting it so it can resume.", bufferSize);
+                if (droppedSubscribers != null) {
+                    droppedSubscribers.increment();
+                }
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Object item;
+                while (!closed && (item = queue.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Order stream subscriber went away: {}", e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+                // An offer that raced with the end of the loop saw draining=true and didn't schedule
+                if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                    sender.execute(this::drain);
+                }
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } else if (item == RESET) {
+                emitter.send(SseEmitter.event().name(RESET_EVENT).data("Reload orders; events since Last-Event-ID are no longer available."));
+            } else {
+                StreamedEvent streamed = (StreamedEvent) item;
+                emitter.send(SseEmitter.event()
+                        .id(epoch + "-" + streamed.sequence())
+                        .name(ORDER_EVENT)
+                        .data(streamed.event(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            // complete() can wait on an in-flight send, so keep it off the publishing thread
+            sender.execute(emitter::complete);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderOutbox;
+import com.fooddelivery.order_service.repository.OrderOutboxRepository;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Accept-then-process order intake.
+ * The order and its outbox entry are written in one short transaction and the caller gets
+ * an answer immediately; payment is initiated later by the OrderOutboxDispatcher.
+ */
+@Service
+public class OrderIntakeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeService.class);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderIntakeService(OrderService orderService,
+                              OrderRepository orderRepository,
+                              OrderOutboxRepository orderOutboxRepository,
+                              TransactionTemplate transactionTemplate) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Accepts a new order for asynchronous processing.
+     * Restaurant validation happens before any transaction is opened, so no JDBC connection
+     * is held across the Feign call. The order is then saved as "PENDING" together with a
+     * PAYMENT_REQUESTED outbox entry.
+     *
+     * @param order The Order object to be accepted.
+     * @return The saved order in "PENDING" status.
+     * @throws IllegalArgumentException if the restaurant is not found or is closed.
+     */
+    public Order acceptOrder(Order order) {
+        log.info("Accepting order for asynchronous processing for customerId: {}", order.getCustomerId());
+        orderService.validateRestaurant(order.getRestaurantId());
+
+        Order accepted = transactionTemplate.execute(status -> {
+            order.setStatus("PENDING");
+            order.setOrderTime(LocalDateTime.now());
+            Order saved = orderRepository.save(order);
+            orderOutboxRepository.save(OrderOutbox.paymentRequested(saved.getId()));
+            orderService.publishChange(saved, ChangeType.CREATED);
+            return saved;
+        });
+
+        log.info("Order accepted with ID: {}. Payment will be initiated asynchronously.", accepted.getId());
+        return accepted;
+    }
+
+    /**
+     * Accepts several orders for asynchronous processing.
+     * Restaurants are validated up front; the orders and their outbox entries are then written
+     * in one transaction as two batched inserts.
+     *
+     * @param orders The orders to be accepted.
+     * @return The saved orders in "PENDING" status, in request order.
+     * @throws IllegalArgumentException if any restaurant is not found or is closed.
+     */
+    public List<Order> acceptOrders(List<Order> orders) {
+        log.info("Accepting a batch of {} orders for asynchronous processing.", orders.size());
+        orderService.validateRestaurants(orders);
+
+        List<Order> accepted = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Order order : orders) {
+                order.setStatus("PENDING");
+                order.setOrderTime(now);
+            }
+            List<Order> saved = orderRepository.saveAll(orders);
+            orderOutboxRepository.saveAll(saved.stream()
+                    .map(order -> OrderOutbox.paymentRequested(order.getId()))
+                    .toList());
+            saved.forEach(order -> orderService.publishChange(order, ChangeType.CREATED));
+            return saved;
+        });
+
+        log.info("Batch of {} orders accepted. Payment will be initiated asynchronously.", accepted.size());
+        return accepted;
+    }
+}
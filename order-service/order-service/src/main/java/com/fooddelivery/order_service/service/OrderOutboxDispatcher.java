@@ -0,0 +1,198 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderOutbox;
+import com.fooddelivery.order_service.model.OrderStatus;
+import com.fooddelivery.order_service.repository.OrderOutboxRepository;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Background dispatcher for the order outbox.
+ * Claims due entries in batches, initiates payment for each order and moves the order
+ * status forward. Failed attempts are retried with exponential backoff until
+ * order.outbox.max-attempts is reached, after which the order is marked "PAYMENT_ERROR" and handed to
+ * an order saga, the same as a payment error on the sync path.
+ * Calls rejected by the payment circuit breaker or bulkhead never reached payment-service, so they
+ * mark the order "PAYMENT_DEFERRED" and are retried without using up an attempt.
+ *
+ * An entry whose order has left PENDING or PAYMENT_DEFERRED by the time it is dispatched (e.g. it was
+ * cancelled) is closed without calling payment-service.
+ *
+ * Runs in both intake modes: async intake queues every order here, and sync intake queues the
+ * payments it had to defer.
+ */
+@Component
+public class OrderOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderOutboxDispatcher.class);
+
+    private static final long MAX_BACKOFF_SECONDS = 300;
+
+    // The only statuses in which an order still waits for the payment its outbox entry requests
+    private static final Set<String> PAYABLE_STATUSES = Set.of("PENDING", "PAYMENT_DEFERRED");
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${order.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    // How long a claimed entry stays invisible to other dispatchers before it can be re-claimed
+    @Value("${order.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${order.payment.deferred-retry-seconds:30}")
+    private long deferredRetrySeconds;
+
+    public OrderOutboxDispatcher(OrderService orderService,
+                                 OrderRepository orderRepository,
+                                 OrderOutboxRepository orderOutboxRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Drains the outbox until a batch comes back smaller than order.outbox.batch-size.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        List<OrderOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                log.debug("Dispatching {} outbox entries.", batch.size());
+            }
+            batch.forEach(this::process);
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Claims the next batch of due entries in a short transaction.
+     * Claiming bumps the attempt counter and pushes availableAt out by the lease, so an entry
+     * whose dispatcher crashes mid-flight becomes visible again once the lease runs out.
+     */
+    List<OrderOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderOutbox> batch = transactionTemplate.execute(status -> {
+            List<OrderOutbox> due = orderOutboxRepository.findDispatchable(
+                    OrderOutbox.STATUS_PENDING, now, PageRequest.of(0, batchSize));
+            for (OrderOutbox entry : due) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setAvailableAt(now.plusSeconds(leaseSeconds));
+            }
+            return orderOutboxRepository.saveAll(due);
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    void process(OrderOutbox entry) {
+        Optional<Order> order = orderRepository.findById(entry.getOrderId());
+        if (order.isEmpty()) {
+            log.warn("Order ID {} for outbox entry {} no longer exists. Dropping entry.", entry.getOrderId(), entry.getId());
+            finish(entry, null, OrderOutbox.STATUS_FAILED, "Order not found", null);
+            return;
+        }
+        // Re-read after the claim: the order may have been cancelled or paid since the entry was queued
+        String current = order.get().getStatus();
+        if (!PAYABLE_STATUSES.contains(current)) {
+            log.info("Order ID {} is {}; closing outbox entry {} without requesting payment.",
+                    entry.getOrderId(), current, entry.getId());
+            finish(entry, null, OrderOutbox.STATUS_PROCESSED, "Order is " + current + "; payment no longer needed", null);
+            return;
+        }
+
+        try {
+            String newStatus = orderService.requestPayment(order.get());
+            finish(entry, order.get(), OrderOutbox.STATUS_PROCESSED, null, newStatus);
+        } catch (DependencyUnavailableException e) {
+            log.warn("Payment for Order ID {} deferred again: {}", entry.getOrderId(), e.getMessage());
+            defer(entry, order.get(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Error calling Payment Service for Order ID {} (attempt {}): {}",
+                    entry.getOrderId(), entry.getAttempts(), e.getMessage());
+            if (entry.getAttempts() >= maxAttempts) {
+                finish(entry, order.get(), OrderOutbox.STATUS_FAILED, e.getMessage(), "PAYMENT_ERROR");
+            } else {
+                scheduleRetry(entry, e.getMessage());
+            }
+        }
+    }
+
+    private void finish(OrderOutbox entry, Order order, String outboxStatus, String error, String orderStatus) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (orderStatus != null && transitionOrder(order, OrderStatus.valueOf(orderStatus))
+                    && "PAYMENT_ERROR".equals(orderStatus)) {
+                orderService.startPaymentRetrySaga(order);
+            }
+            entry.setStatus(outboxStatus);
+            entry.setLastError(truncate(error));
+            entry.setProcessedAt(LocalDateTime.now());
+            orderOutboxRepository.save(entry);
+        });
+    }
+
+    private void scheduleRetry(OrderOutbox entry, String error) {
+        long delaySeconds = Math.min(1L << Math.min(entry.getAttempts(), 20), MAX_BACKOFF_SECONDS);
+        transactionTemplate.executeWithoutResult(status -> {
+            entry.setAvailableAt(LocalDateTime.now().plusSeconds(delaySeconds));
+            entry.setLastError(truncate(error));
+            orderOutboxRepository.save(entry);
+        });
+        log.info("Outbox entry {} for order ID {} will be retried in {}s.", entry.getId(), entry.getOrderId(), delaySeconds);
+    }
+
+    private void defer(OrderOutbox entry, Order order, String error) {
+        transactionTemplate.executeWithoutResult(status -> {
+            transitionOrder(order, OrderStatus.PAYMENT_DEFERRED);
+            // The call was rejected locally, so give back the attempt taken when the entry was claimed
+            entry.setAttempts(Math.max(0, entry.getAttempts() - 1));
+            entry.setAvailableAt(LocalDateTime.now().plusSeconds(deferredRetrySeconds));
+            entry.setLastError(truncate(error));
+            orderOutboxRepository.save(entry);
+        });
+    }
+
+    /**
+     * Conditional status move, so a result that arrives late can't overwrite a status set meanwhile
+     * (e.g. an order cancelled while its payment was in flight).
+     *
+     * @return true if the order moved to the target status.
+     */
+    private boolean transitionOrder(Order order, OrderStatus target) {
+        int updated = orderRepository.transitionStatus(order.getId(), target.sources(), target.name());
+        if (updated == 1) {
+            log.info("Status for order ID: {} updated to {}", order.getId(), target);
+            order.setStatus(target.name());
+            orderService.publishChange(order, ChangeType.STATUS_CHANGED);
+            return true;
+        }
+        log.debug("Order ID: {} was not in a status that can move to {}. Leaving it unchanged.", order.getId(), target);
+        return false;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
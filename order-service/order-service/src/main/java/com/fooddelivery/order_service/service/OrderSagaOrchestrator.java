@@ -0,0 +1,358 @@
+package com.fooddelivery.order_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderSaga;
+import com.fooddelivery.order_service.model.OrderSaga.Step;
+import com.fooddelivery.order_service.model.OrderStatus;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import com.fooddelivery.order_service.repository.OrderSagaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Places orders through a persisted saga instead of inside the request.
+ *
+ * With order.intake.mode=saga, POST /orders saves the order as "PENDING" together with an OrderSaga
+ * row and returns 202 right away. The orchestrator then drives each saga through its steps:
+ *
+ * 1. VALIDATE_RESTAURANT: the restaurant must exist and be open, otherwise the order is CANCELLED.
+ * 2. INITIATE_PAYMENT: payment is requested; the order moves to PAYMENT_INITIATED, or to PAYMENT_FAILED
+ *    if payment-service declines, which ends the saga as DECLINED (the same status sync placement leaves).
+ * 3. CONFIRM_PAYMENT: the payment's status is read from GET /payments/orders/{orderId} (see
+ *    OrderService.fetchPaymentOutcome); a successful payment moves the order to CONFIRMED, a failed one
+ *    CANCELLs it, and one that isn't recorded yet is asked about again later.
+ *
+ * A step that throws is retried with exponential backoff, up to order.saga.max-attempts per step, after
+ * which the order is marked PAYMENT_ERROR (or CANCELLED if it never got past validation, or left
+ * PAYMENT_INITIATED if only the confirmation is missing). Calls
+ * rejected by an open circuit breaker or full bulkhead never reached the dependency, so they wait
+ * order.payment.deferred-retry-seconds without using up an attempt. Sync placement also hands its
+ * payment errors to a saga starting at INITIATE_PAYMENT.
+ *
+ * Due sagas are claimed in batches with SKIP LOCKED and run in parallel on virtual threads. Claiming
+ * pushes nextAttemptAt out by order.saga.lease-seconds, so the sagas of an instance that crashed
+ * mid-step become due again after the lease and are resumed by whichever instance polls next.
+ */
+@Service
+public class OrderSagaOrchestrator {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSagaOrchestrator.class);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderSagaRepository orderSagaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${order.saga.batch-size:100}")
+    private int batchSize;
+
+    @Value("${order.saga.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${order.saga.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${order.saga.max-backoff-seconds:300}")
+    private long maxBackoffSeconds;
+
+    @Value("${order.payment.deferred-retry-seconds:30}")
+    private long deferredRetrySeconds;
+
+    public OrderSagaOrchestrator(OrderService orderService,
+                                 OrderRepository orderRepository,
+                                 OrderSagaRepository orderSagaRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderSagaRepository = orderSagaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Saves a new order as "PENDING" and starts its saga, in one transaction. No remote call is made.
+     *
+     * @return The saved order in "PENDING" status.
+     */
+    public Order start(Order order) {
+        return startAll(List.of(order)).get(0);
+    }
+
+    /**
+     * Saves several new orders and starts a saga for each, as two batched inserts in one transaction.
+     *
+     * @return The saved orders in "PENDING" status, in request order.
+     */
+    public List<Order> startAll(List<Order> orders) {
+        List<Order> started = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Order order : orders) {
+                order.setStatus(OrderStatus.PENDING.name());
+                order.setOrderTime(now);
+            }
+            List<Order> saved = orderRepository.saveAll(orders);
+            orderSagaRepository.saveAll(saved.stream()
+                    .map(order -> OrderSaga.start(order.getId(), Step.VALIDATE_RESTAURANT))
+                    .toList());
+            saved.forEach(order -> orderService.publishChange(order, ChangeType.CREATED));
+            return saved;
+        });
+        log.info("Started sagas for {} orders.", started.size());
+        return started;
+    }
+
+    /**
+     * Reports the sagas a previous run left in flight; the regular poll resumes them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportInFlight() {
+        try {
+            long running = orderSagaRepository.countByStatus(OrderSaga.STATUS_RUNNING);
+            if (running > 0) {
+                log.info("{} order sagas are in flight and will resume once due.", running);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not count in-flight order sagas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs due sagas until a claimed batch comes back smaller than order.saga.batch-size.
+     */
+    @Scheduled(fixedDelayString = "${order.saga.poll-interval-ms:500}")
+    public void poll() {
+        List<OrderSaga> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                log.debug("Running {} order sagas.", batch.size());
+                runAll(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Claims the next batch of due sagas in a short transaction, counting an attempt of their current step.
+     */
+    List<OrderSaga> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderSaga> batch = transactionTemplate.execute(status -> {
+            List<OrderSaga> due = orderSagaRepository.findDue(now, PageRequest.of(0, batchSize));
+            for (OrderSaga saga : due) {
+                saga.setAttempts(saga.getAttempts() + 1);
+                saga.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return orderSagaRepository.saveAll(due);
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    /**
+     * Advances every saga of a batch concurrently and waits for all of them.
+     */
+    void runAll(List<OrderSaga> batch) {
+        List<Callable<Void>> runs = new ArrayList<>(batch.size());
+        for (OrderSaga saga : batch) {
+            runs.add(() -> {
+                advance(saga);
+                return null;
+            });
+        }
+        try {
+            workers.invokeAll(runs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs steps of one saga until it finishes or has to wait for a retry.
+     */
+    void advance(OrderSaga claimed) {
+        OrderSaga saga = claimed;
+        try {
+            while (saga != null && OrderSaga.STATUS_RUNNING.equals(saga.getStatus())) {
+                saga = runStep(saga);
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.info("Saga for order ID {} was taken over by another instance after its lease ran out.", claimed.getOrderId());
+        } catch (RuntimeException e) {
+            log.error("Could not record progress of the saga for order ID {}; it resumes after its lease.", claimed.getOrderId(), e);
+        }
+    }
+
+    /**
+     * Runs the saga's current step and commits the outcome.
+     *
+     * @return The saga to run the next step of, or null if it has to wait for a retry.
+     */
+    private OrderSaga runStep(OrderSaga saga) {
+        Optional<Order> found = orderRepository.findById(saga.getOrderId());
+        if (found.isEmpty() || OrderStatus.CANCELLED.name().equals(found.get().getStatus())) {
+            return finish(saga, null, null, OrderSaga.STATUS_ABORTED, "Order was cancelled or deleted outside the saga.");
+        }
+        Order order = found.get();
+        try {
+            return switch (saga.getStep()) {
+                case VALIDATE_RESTAURANT -> validateRestaurant(saga, order);
+                case INITIATE_PAYMENT -> initiatePayment(saga, order);
+                case CONFIRM_PAYMENT -> confirmPayment(saga, order);
+            };
+        } catch (DependencyUnavailableException e) {
+            log.warn("Saga step {} for order ID {} deferred: {}", saga.getStep(), order.getId(), e.getMessage());
+            // The call never left this instance, so give back the attempt taken when the saga was claimed
+            saga.setAttempts(Math.max(0, saga.getAttempts() - 1));
+            return waitUntil(saga, LocalDateTime.now().plusSeconds(deferredRetrySeconds), e.getMessage());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            log.error("Saga step {} for order ID {} failed (attempt {}): {}",
+                    saga.getStep(), order.getId(), saga.getAttempts(), e.getMessage());
+            return retry(saga, order, e.getMessage());
+        }
+    }
+
+    private OrderSaga validateRestaurant(OrderSaga saga, Order order) {
+        try {
+            orderService.validateRestaurant(order.getRestaurantId());
+        } catch (IllegalArgumentException e) {
+            return finish(saga, order, OrderStatus.CANCELLED, OrderSaga.STATUS_COMPENSATED, e.getMessage());
+        }
+        return moveTo(saga, null, null, Step.INITIATE_PAYMENT);
+    }
+
+    private OrderSaga initiatePayment(OrderSaga saga, Order order) {
+        String outcome = orderService.requestPayment(order);
+        if (!OrderStatus.PAYMENT_INITIATED.name().equals(outcome)) {
+            return finish(saga, order, OrderStatus.PAYMENT_FAILED, OrderSaga.STATUS_DECLINED, "payment-service declined the payment.");
+        }
+        return moveTo(saga, order, OrderStatus.PAYMENT_INITIATED, Step.CONFIRM_PAYMENT);
+    }
+
+    private OrderSaga confirmPayment(OrderSaga saga, Order order) {
+        String paymentStatus = paymentStatus(orderService.fetchPaymentOutcome(order));
+        if ("SUCCESS".equals(paymentStatus) || "COMPLETED".equals(paymentStatus)) {
+            return finish(saga, order, OrderStatus.CONFIRMED, OrderSaga.STATUS_COMPLETED, null);
+        }
+        if ("FAILED".equals(paymentStatus)) {
+            return finish(saga, order, OrderStatus.CANCELLED, OrderSaga.STATUS_COMPENSATED, "Payment failed.");
+        }
+        // Still pending at the payment provider; ask again later
+        return retry(saga, order, "Payment status is " + paymentStatus + ".");
+    }
+
+    /**
+     * @return The upper-cased "status" field of a payment-service PaymentResponse, or null if there is none.
+     */
+    private String paymentStatus(ResponseEntity<String> response) {
+        if (response == null || !response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return null;
+        }
+        try {
+            JsonNode status = objectMapper.readTree(response.getBody()).path("status");
+            return status.isTextual() ? status.asText().toUpperCase() : null;
+        } catch (Exception e) {
+            log.warn("Unreadable payment-service response: {}", response.getBody());
+            return null;
+        }
+    }
+
+    private OrderSaga retry(OrderSaga saga, Order order, String error) {
+        if (saga.getAttempts() >= maxAttempts) {
+            // Nothing was charged before payment was initiated, so an order stuck there can simply be cancelled.
+            // An order whose payment was initiated can't move to PAYMENT_ERROR and keeps its status.
+            OrderStatus giveUp = saga.getStep() == Step.VALIDATE_RESTAURANT ? OrderStatus.CANCELLED : OrderStatus.PAYMENT_ERROR;
+            log.error("Giving up on saga step {} for order ID {} after {} attempts.", saga.getStep(), order.getId(), saga.getAttempts());
+            return finish(saga, order, giveUp, OrderSaga.STATUS_FAILED, error);
+        }
+        long delaySeconds = Math.min(1L << Math.min(saga.getAttempts(), 20), maxBackoffSeconds);
+        log.info("Saga step {} for order ID {} will be retried in {}s.", saga.getStep(), order.getId(), delaySeconds);
+        return waitUntil(saga, LocalDateTime.now().plusSeconds(delaySeconds), error);
+    }
+
+    private OrderSaga waitUntil(OrderSaga saga, LocalDateTime nextAttemptAt, String error) {
+        saga.setNextAttemptAt(nextAttemptAt);
+        saga.setLastError(truncate(error));
+        transactionTemplate.executeWithoutResult(status -> orderSagaRepository.save(saga));
+        return null;
+    }
+
+    /**
+     * Moves the order (if a status is given) and the saga to its next step in one transaction. The
+     * saga keeps its lease and the caller runs the next step right away, which counts as its first attempt.
+     */
+    private OrderSaga moveTo(OrderSaga saga, Order order, OrderStatus orderStatus, Step next) {
+        return transactionTemplate.execute(status -> {
+            if (orderStatus != null) {
+                transitionOrder(order, orderStatus);
+            }
+            saga.setStep(next);
+            saga.setAttempts(1);
+            saga.setLastError(null);
+            return orderSagaRepository.save(saga);
+        });
+    }
+
+    private OrderSaga finish(OrderSaga saga, Order order, OrderStatus orderStatus, String sagaStatus, String reason) {
+        log.info("Saga for order ID {} finished at step {}: {}{}", saga.getOrderId(), saga.getStep(), sagaStatus,
+                reason != null ? " (" + reason + ")" : "");
+        return transactionTemplate.execute(status -> {
+            if (orderStatus != null) {
+                transitionOrder(order, orderStatus);
+            }
+            saga.setStatus(sagaStatus);
+            saga.setFinishedAt(LocalDateTime.now());
+            saga.setLastError(truncate(reason));
+            return orderSagaRepository.save(saga);
+        });
+    }
+
+    /**
+     * Conditional status move, so a step finishing late can't overwrite a status set meanwhile
+     * (e.g. an order cancelled by the customer while its payment was being confirmed).
+     */
+    private void transitionOrder(Order order, OrderStatus target) {
+        int updated = orderRepository.transitionStatus(order.getId(), target.sources(), target.name());
+        if (updated == 1) {
+            log.info("Status for order ID: {} updated to {}", order.getId(), target);
+            order.setStatus(target.name());
+            orderService.publishChange(order, ChangeType.STATUS_CHANGED);
+        } else {
+            log.debug("Order ID: {} was not in a status that can move to {}. Leaving it unchanged.", order.getId(), target);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
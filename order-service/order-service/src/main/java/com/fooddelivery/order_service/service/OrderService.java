@@ -2,22 +2,54 @@
 // order-service/src/main/java/com/fooddelivery/order_service/service/OrderService.java
 package com.fooddelivery.order_service.service;
 
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
+import com.fooddelivery.order_service.archive.OrderArchive;
+import com.fooddelivery.order_service.dto.BulkStatusUpdateResult;
+import com.fooddelivery.order_service.dto.EnrichedOrder;
 import com.fooddelivery.order_service.dto.PaymentRequest;
 import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
 import com.fooddelivery.order_service.feign.PaymentServiceClient;
 import com.fooddelivery.order_service.feign.RestaurantServiceClient;
 import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderOutbox;
+import com.fooddelivery.order_service.model.OrderSaga;
+import com.fooddelivery.order_service.model.OrderStatus;
+import com.fooddelivery.order_service.repository.OrderOutboxRepository;
 import com.fooddelivery.order_service.repository.OrderRepository;
+import com.fooddelivery.order_service.repository.OrderSagaRepository;
+import feign.FeignException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service class for handling order-related business logic.
@@ -31,6 +63,22 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final PaymentServiceClient paymentServiceClient;
     private final RestaurantServiceClient restaurantServiceClient;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderArchive orderArchive;
+    private final OrderSagaRepository orderSagaRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Delay before the outbox dispatcher retries a payment deferred by an open circuit breaker or full bulkhead
+    @Value("${order.payment.deferred-retry-seconds:30}")
+    private long deferredRetrySeconds;
+
+    // How long the fallback outbox entry of a scheduled order being placed stays invisible to the dispatcher
+    @Value("${order.outbox.lease-seconds:60}")
+    private long outboxLeaseSeconds = 60;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Constructor for OrderService, using constructor injection for all dependencies.
@@ -39,14 +87,29 @@ public class OrderService {
      * @param orderRepository The repository for Order entities.
      * @param paymentServiceClient Feign client for interacting with the payment service.
      * @param restaurantServiceClient Feign client for interacting with the restaurant service.
+     * @param orderOutboxRepository The repository used to queue deferred payments for retry.
+     * @param eventPublisher Publishes OrderChangedEvents for the /orders/stream subscribers.
+     * @param orderArchive Cold storage consulted for orders the archival job moved out of the table.
+     * @param orderSagaRepository The repository used to hand failed payments to the saga orchestrator for retry.
+     * @param transactionTemplate Runs the short transactions of placements that call other services in between.
      */
     @Autowired
     public OrderService(OrderRepository orderRepository,
                         PaymentServiceClient paymentServiceClient,
-                        RestaurantServiceClient restaurantServiceClient) {
+                        RestaurantServiceClient restaurantServiceClient,
+                        OrderOutboxRepository orderOutboxRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        OrderArchive orderArchive,
+                        OrderSagaRepository orderSagaRepository,
+                        TransactionTemplate transactionTemplate) {
         this.orderRepository = orderRepository;
         this.paymentServiceClient = paymentServiceClient;
         this.restaurantServiceClient = restaurantServiceClient;
+        this.orderOutboxRepository = orderOutboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.orderArchive = orderArchive;
+        this.orderSagaRepository = orderSagaRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -57,29 +120,20 @@ public class OrderService {
      * 3. Saves the order to the database.
      * 4. Initiates a payment process by calling the Payment Service via Feign.
      * 5. Updates the order status based on the payment service response.
+     *    If payment-service is shedding load (open circuit breaker or full bulkhead), the order is
+     *    marked "PAYMENT_DEFERRED" right away and queued in the outbox for a later retry.
      *
      * @param order The Order object to be placed.
      * @return The saved and updated Order object.
      * @throws IllegalArgumentException if the restaurant is not found or is closed.
-     * @throws RuntimeException if there's an issue with payment (e.g., Feign client exception).
+     * @throws DependencyUnavailableException if restaurant-service is shedding load; nothing is saved in that case.
      */
     @Transactional
     public Order placeOrder(Order order) {
         log.info("Attempting to place order for customerId: {}", order.getCustomerId());
 
         // Step 1: Validate restaurant existence and status
-        log.info("Validating restaurant with ID: {}", order.getRestaurantId());
-        RestaurantDto restaurant = restaurantServiceClient.getRestaurantById(order.getRestaurantId());
-
-        if (restaurant == null) {
-            log.error("Restaurant with ID {} not found.", order.getRestaurantId());
-            throw new IllegalArgumentException("Restaurant not found.");
-        }
-        if (!"ACTIVE".equalsIgnoreCase(restaurant.getStatus())) {
-            log.error("Restaurant {} (ID: {}) is not open. Current status: {}", restaurant.getName(), restaurant.getId(), restaurant.getStatus());
-            throw new IllegalArgumentException("Restaurant is currently closed or unavailable.");
-        }
-        log.info("Restaurant {} (ID: {}) is open.", restaurant.getName(), restaurant.getId());
+        validateRestaurant(order.getRestaurantId());
 
         // Step 2: Set initial order status and timestamp
         order.setStatus("PENDING");
@@ -89,76 +143,554 @@ public class OrderService {
         Order savedOrder = orderRepository.save(order);
         log.info("Order saved initially with ID: {} and status: {}", savedOrder.getId(), savedOrder.getStatus());
 
+        // Step 4 & 5: Initiate payment and update order status based on the response
+        payOrDefer(savedOrder);
+
+        // Save the order with the updated status (after payment attempt)
+        Order placedOrder = orderRepository.save(savedOrder);
+        publishChange(placedOrder, ChangeType.CREATED);
+        return placedOrder;
+    }
+
+    /**
+     * Stores a future-dated order as "SCHEDULED" without contacting restaurant-service or payment-service.
+     * ScheduledOrderService places it through {@link #placeScheduledOrder} when it is due.
+     *
+     * @param order The order, with scheduledFor set.
+     * @return The saved order in "SCHEDULED" status.
+     */
+    @Transactional
+    public Order scheduleOrder(Order order) {
+        log.info("Scheduling order for customerId: {} at {}", order.getCustomerId(), order.getScheduledFor());
+        order.setStatus(OrderStatus.SCHEDULED.name());
+        order.setOrderTime(LocalDateTime.now());
+        Order scheduled = orderRepository.save(order);
+        publishChange(scheduled, ChangeType.CREATED);
+        return scheduled;
+    }
+
+    /**
+     * Places a scheduled order that has come due, the same way {@link #placeOrder} places a new one:
+     * the restaurant is validated, the order moves to "PENDING" and payment is initiated. A restaurant
+     * that is gone or closed by then cancels the order.
+     *
+     * ScheduledOrderService places many orders at once, so no transaction is held across a remote call:
+     * the restaurant is validated first, the order is claimed in one short transaction, payment is
+     * requested outside any, and the outcome is written in a second short transaction. The claim is a
+     * conditional UPDATE out of "SCHEDULED", so an order cancelled in the meantime, or already placed by
+     * another instance, is never charged. It also queues a payment outbox entry that the dispatcher only
+     * picks up after order.outbox.lease-seconds, so an order whose placing instance dies mid-payment is
+     * still paid; the entry is closed once the outcome is written.
+     *
+     * @param orderId The ID of the scheduled order.
+     * @return The order after placement or cancellation, or empty if it was no longer scheduled.
+     * @throws DependencyUnavailableException if restaurant-service is shedding load; the order stays scheduled.
+     */
+    public Optional<Order> placeScheduledOrder(Long orderId) {
+        Optional<Order> scheduled = orderRepository.findById(orderId)
+                .filter(order -> OrderStatus.SCHEDULED.name().equals(order.getStatus()));
+        if (scheduled.isEmpty()) {
+            log.info("Order ID: {} is no longer scheduled; skipping.", orderId);
+            return Optional.empty();
+        }
         try {
-            // Step 4: Initiate payment
-            log.info("Initiating payment for Order ID: {} with amount: {} via Payment Service using method: {}.",
-                    savedOrder.getId(), savedOrder.getTotalAmount(), savedOrder.getPaymentMethod());
-
-            PaymentRequest paymentRequest = new PaymentRequest(
-                savedOrder.getId(),
-                savedOrder.getTotalAmount(),
-                savedOrder.getPaymentMethod()
-            );
-
-            ResponseEntity<String> paymentResponse = paymentServiceClient.processPayment(paymentRequest);
-
-            // Step 5: Update order status based on payment response
-            if (paymentResponse.getStatusCode().is2xxSuccessful()) {
-                log.info("Payment initiated successfully for Order ID: {}. Payment Service Response: {}",
-                        savedOrder.getId(), paymentResponse.getBody());
-                savedOrder.setStatus("PAYMENT_INITIATED");
+            validateRestaurant(scheduled.get().getRestaurantId());
+        } catch (IllegalArgumentException e) {
+            log.warn("Cancelling scheduled order ID: {}: {}", orderId, e.getMessage());
+            return transactionTemplate.execute(status -> claimScheduled(orderId, OrderStatus.CANCELLED).map(cancelled -> {
+                publishChange(cancelled, ChangeType.STATUS_CHANGED);
+                return cancelled;
+            }));
+        }
+
+        OrderOutbox fallback = OrderOutbox.paymentRequested(orderId);
+        Optional<Order> claimed = transactionTemplate.execute(status -> claimScheduled(orderId, OrderStatus.PENDING).map(pending -> {
+            pending.setOrderTime(LocalDateTime.now());
+            fallback.setAvailableAt(LocalDateTime.now().plusSeconds(outboxLeaseSeconds));
+            orderOutboxRepository.save(fallback);
+            Order saved = orderRepository.save(pending);
+            publishChange(saved, ChangeType.STATUS_CHANGED);
+            return saved;
+        }));
+        if (claimed.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Order order = claimed.get();
+        OrderStatus outcome = OrderStatus.valueOf(attemptPayment(order));
+        transactionTemplate.executeWithoutResult(status -> {
+            if (orderRepository.transitionStatus(orderId, outcome.sources(), outcome.name()) == 1) {
+                order.setStatus(outcome.name());
+                publishChange(order, ChangeType.STATUS_CHANGED);
+                queuePaymentRetry(order, fallback);
             } else {
-                log.warn("Failed to initiate payment for Order ID: {}. Payment Service Status: {}, Body: {}",
-                        savedOrder.getId(), paymentResponse.getStatusCode(), paymentResponse.getBody());
-                savedOrder.setStatus("PAYMENT_FAILED");
+                log.info("Order ID: {} changed while its payment was in flight; leaving it unchanged.", orderId);
+                closeOutboxEntry(fallback);
+            }
+        });
+        log.info("Scheduled order ID: {} placed with status: {}", orderId, order.getStatus());
+        return Optional.of(order);
+    }
+
+    /**
+     * Moves an order out of "SCHEDULED" with a conditional UPDATE, so only one caller ever wins it.
+     *
+     * @return The reloaded order, or empty if it had already left "SCHEDULED".
+     */
+    private Optional<Order> claimScheduled(Long orderId, OrderStatus target) {
+        if (orderRepository.transitionStatus(orderId, Set.of(OrderStatus.SCHEDULED.name()), target.name()) == 0) {
+            log.info("Order ID: {} was cancelled or placed elsewhere before it could move to {}.", orderId, target);
+            return Optional.empty();
+        }
+        return orderRepository.findById(orderId);
+    }
+
+    /**
+     * Places several orders at once, e.g. for catering or partner integrations.
+     *
+     * Like {@link #placeScheduledOrder}, no transaction is held across a remote call. Each distinct
+     * restaurant is validated once up front. The orders are inserted as "PENDING" in one short transaction,
+     * together with one payment outbox entry each that the dispatcher only picks up after
+     * order.outbox.lease-seconds. Payment is then requested per order outside any transaction, and the
+     * outcomes are written in a second short transaction as one conditional UPDATE per outcome. An order
+     * cancelled while its payment was in flight keeps its status. If this instance dies mid-batch, the
+     * outbox pays the orders it never got to.
+     *
+     * @param orders The orders to place.
+     * @return The saved orders with their post-payment status, in request order.
+     * @throws IllegalArgumentException if any restaurant is not found or is closed; nothing is saved in that case.
+     */
+    public List<Order> placeOrders(List<Order> orders) {
+        log.info("Attempting to place a batch of {} orders.", orders.size());
+        validateRestaurants(orders);
+
+        List<Long> fallbackIds = new ArrayList<>();
+        List<Order> savedOrders = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Order order : orders) {
+                order.setStatus(OrderStatus.PENDING.name());
+                order.setOrderTime(now);
+            }
+            List<Order> saved = orderRepository.saveAll(orders);
+            orderOutboxRepository.saveAll(saved.stream().map(order -> {
+                OrderOutbox fallback = OrderOutbox.paymentRequested(order.getId());
+                fallback.setAvailableAt(now.plusSeconds(outboxLeaseSeconds));
+                return fallback;
+            }).toList()).forEach(fallback -> fallbackIds.add(fallback.getId()));
+            saved.forEach(order -> publishChange(order, ChangeType.CREATED));
+            return saved;
+        });
+        log.info("Batch of {} orders saved.", savedOrders.size());
+
+        Map<OrderStatus, List<Order>> byOutcome = new EnumMap<>(OrderStatus.class);
+        for (Order order : savedOrders) {
+            byOutcome.computeIfAbsent(OrderStatus.valueOf(attemptPayment(order)), outcome -> new ArrayList<>()).add(order);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> moved = new HashSet<>();
+            byOutcome.forEach((outcome, placed) -> moved.addAll(transitionPlaced(placed, outcome)));
+
+            // Loaded after the UPDATEs, which clear the persistence context
+            Map<Long, OrderOutbox> fallbacks = new HashMap<>();
+            orderOutboxRepository.findAllById(fallbackIds).forEach(entry -> fallbacks.put(entry.getOrderId(), entry));
+
+            for (Map.Entry<OrderStatus, List<Order>> placed : byOutcome.entrySet()) {
+                for (Order order : placed.getValue()) {
+                    OrderOutbox fallback = fallbacks.get(order.getId());
+                    if (moved.contains(order.getId())) {
+                        order.setStatus(placed.getKey().name());
+                        publishChange(order, ChangeType.STATUS_CHANGED);
+                        queuePaymentRetry(order, fallback);
+                    } else {
+                        log.info("Order ID: {} changed while its payment was in flight; leaving it unchanged.", order.getId());
+                        orderRepository.findById(order.getId()).ifPresent(current -> order.setStatus(current.getStatus()));
+                        if (fallback != null) {
+                            closeOutboxEntry(fallback);
+                        }
+                    }
+                }
             }
+        });
+        log.info("Batch of {} orders placed.", savedOrders.size());
+        return savedOrders;
+    }
+
+    /**
+     * Moves the orders of a batch that share a payment outcome with one conditional UPDATE.
+     *
+     * @return The IDs of the orders that moved; the others left "PENDING" while their payment was in flight.
+     */
+    private Set<Long> transitionPlaced(List<Order> placed, OrderStatus outcome) {
+        Set<Long> ids = new LinkedHashSet<>();
+        placed.forEach(order -> ids.add(order.getId()));
+        if (transition(ids, outcome) == ids.size()) {
+            return ids;
+        }
+        // Rare: some were cancelled in the meantime. Only this batch moves its orders out of PENDING before
+        // the outbox lease runs out, so the ones now in the outcome status are the ones just moved.
+        Set<Long> moved = new HashSet<>();
+        orderRepository.findByIdInAndStatus(ids, outcome.name()).forEach(order -> moved.add(order.getId()));
+        return moved;
+    }
+
+    /**
+     * Publishes an order change for /orders/stream and /orders/stats. Listeners receive it after the surrounding
+     * transaction commits, or straight away when there is none.
+     *
+     * @param order The order after the change.
+     * @param type What happened to the order.
+     */
+    public void publishChange(Order order, ChangeType type) {
+        eventPublisher.publishEvent(OrderChangedEvent.of(order, type));
+    }
+
+    /**
+     * Initiates payment for a saved order and sets its status from the outcome.
+     * A fast-fail from the payment circuit breaker or bulkhead defers the payment to the outbox
+     * instead of failing the order; any other error marks it "PAYMENT_ERROR" and starts an order saga at
+     * INITIATE_PAYMENT, so OrderSagaOrchestrator retries it with backoff instead of leaving it there.
+     */
+    private void payOrDefer(Order savedOrder) {
+        savedOrder.setStatus(attemptPayment(savedOrder));
+        queuePaymentRetry(savedOrder, null);
+    }
+
+    /**
+     * Requests payment for an order without touching the database.
+     *
+     * @return The status the order should move to: the payment-service outcome, "PAYMENT_DEFERRED" if
+     *         the call was rejected locally, or "PAYMENT_ERROR" if it failed.
+     */
+    private String attemptPayment(Order order) {
+        try {
+            return requestPayment(order);
+        } catch (DependencyUnavailableException e) {
+            log.warn("Payment for Order ID {} deferred: {}", order.getId(), e.getMessage());
+            return "PAYMENT_DEFERRED";
         } catch (Exception e) {
             // Catch any exceptions during payment service call (e.g., FeignClientException, network issues)
-            log.error("Error calling Payment Service for Order ID {}: {}", savedOrder.getId(), e.getMessage(), e);
-            savedOrder.setStatus("PAYMENT_ERROR");
+            log.error("Error calling Payment Service for Order ID {}: {}", order.getId(), e.getMessage(), e);
+            return "PAYMENT_ERROR";
         }
+    }
 
-        // Save the order with the updated status (after payment attempt)
-        return orderRepository.save(savedOrder);
+    /**
+     * Queues the retry of a payment that didn't go through: the outbox retries a deferred one, the saga
+     * one that errored.
+     *
+     * @param pending The order's fallback outbox entry, or null if it has none. It carries a deferral and
+     *                is closed otherwise.
+     */
+    private void queuePaymentRetry(Order order, OrderOutbox pending) {
+        if ("PAYMENT_DEFERRED".equals(order.getStatus())) {
+            OrderOutbox retry = pending != null ? pending : OrderOutbox.paymentRequested(order.getId());
+            retry.setAvailableAt(LocalDateTime.now().plusSeconds(deferredRetrySeconds));
+            orderOutboxRepository.save(retry);
+            return;
+        }
+        if (pending != null) {
+            closeOutboxEntry(pending);
+        }
+        if ("PAYMENT_ERROR".equals(order.getStatus())) {
+            startPaymentRetrySaga(order);
+        }
+    }
+
+    /**
+     * Hands an order that was just marked "PAYMENT_ERROR" to OrderSagaOrchestrator, which retries the
+     * payment with backoff. Shared with OrderOutboxDispatcher, so both intake modes recover errors the same way.
+     */
+    public void startPaymentRetrySaga(Order order) {
+        OrderSaga retry = OrderSaga.start(order.getId(), OrderSaga.Step.INITIATE_PAYMENT);
+        retry.setNextAttemptAt(LocalDateTime.now().plusSeconds(deferredRetrySeconds));
+        orderSagaRepository.save(retry);
+    }
+
+    private void closeOutboxEntry(OrderOutbox entry) {
+        entry.setStatus(OrderOutbox.STATUS_PROCESSED);
+        entry.setProcessedAt(LocalDateTime.now());
+        orderOutboxRepository.save(entry);
+    }
+
+    /**
+     * Validates every distinct restaurant referenced by the given orders with a single batch lookup.
+     *
+     * @param orders The orders whose restaurants to validate.
+     * @throws IllegalArgumentException if any restaurant is not found or is closed.
+     */
+    public void validateRestaurants(List<Order> orders) {
+        List<Long> restaurantIds = orders.stream()
+                .map(Order::getRestaurantId)
+                .distinct()
+                .toList();
+        log.info("Validating {} restaurants in one batch lookup.", restaurantIds.size());
+        Map<Long, RestaurantDto> restaurants = findRestaurants(restaurantIds);
+        restaurantIds.forEach(restaurantId -> checkRestaurantOpen(restaurantId, restaurants.get(restaurantId)));
+    }
+
+    /**
+     * Validates that the restaurant exists and is currently accepting orders.
+     * Performs a Feign call, so callers should avoid holding a database transaction around it.
+     *
+     * @param restaurantId The ID of the restaurant to validate.
+     * @return The restaurant details returned by the Restaurant Service.
+     * @throws IllegalArgumentException if the restaurant is not found or is closed.
+     */
+    public RestaurantDto validateRestaurant(Long restaurantId) {
+        log.info("Validating restaurant with ID: {}", restaurantId);
+        return checkRestaurantOpen(restaurantId, restaurantServiceClient.getRestaurantById(restaurantId));
+    }
+
+    /**
+     * Checks whether a user owns a restaurant, as recorded by the Restaurant Service.
+     * Served from the restaurant near-cache where possible.
+     *
+     * @return true if the restaurant exists and its ownerId is the given user.
+     */
+    public boolean isRestaurantOwner(Long restaurantId, Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        try {
+            RestaurantDto restaurant = restaurantServiceClient.getRestaurantById(restaurantId);
+            return restaurant != null && userId.equals(restaurant.getOwnerId());
+        } catch (FeignException.NotFound e) {
+            return false;
+        }
+    }
+
+    /**
+     * Looks up the given restaurants with one batch call, served from the restaurant near-cache where possible.
+     *
+     * @return The restaurants found, by ID.
+     */
+    private Map<Long, RestaurantDto> findRestaurants(Collection<Long> restaurantIds) {
+        Map<Long, RestaurantDto> restaurants = new HashMap<>();
+        List<Long> ids = restaurantIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (!ids.isEmpty()) {
+            for (RestaurantDto restaurant : restaurantServiceClient.getRestaurantsByIds(ids)) {
+                restaurants.put(restaurant.getId(), restaurant);
+            }
+        }
+        return restaurants;
+    }
+
+    private RestaurantDto checkRestaurantOpen(Long restaurantId, RestaurantDto restaurant) {
+        if (restaurant == null) {
+            log.error("Restaurant with ID {} not found.", restaurantId);
+            throw new IllegalArgumentException("Restaurant not found.");
+        }
+        if (!"ACTIVE".equalsIgnoreCase(restaurant.getStatus())) {
+            log.error("Restaurant {} (ID: {}) is not open. Current status: {}", restaurant.getName(), restaurant.getId(), restaurant.getStatus());
+            throw new IllegalArgumentException("Restaurant is currently closed or unavailable.");
+        }
+        log.info("Restaurant {} (ID: {}) is open.", restaurant.getName(), restaurant.getId());
+        return restaurant;
+    }
+
+    /**
+     * Initiates payment for an already persisted order via the Payment Service.
+     * Exceptions from the Feign call are propagated so that callers can decide
+     * whether to mark the order as failed or retry later.
+     *
+     * @param order The persisted order to pay for.
+     * @return The order status implied by the payment response ("PAYMENT_INITIATED" or "PAYMENT_FAILED").
+     */
+    public String requestPayment(Order order) {
+        log.info("Initiating payment for Order ID: {} with amount: {} via Payment Service using method: {}.",
+                order.getId(), order.getTotalAmount(), order.getPaymentMethod());
+
+        PaymentRequest paymentRequest = new PaymentRequest(
+            order.getId(),
+            order.getTotalAmount(),
+            order.getPaymentMethod()
+        );
+
+        // Same key on every attempt for this order (Feign retries, outbox and saga retries), so it is charged at most once
+        ResponseEntity<String> paymentResponse = paymentServiceClient.processPayment(paymentRequest, paymentIdempotencyKey(order.getId()));
+
+        if (paymentResponse.getStatusCode().is2xxSuccessful()) {
+            log.info("Payment initiated successfully for Order ID: {}. Payment Service Response: {}",
+                    order.getId(), paymentResponse.getBody());
+            return "PAYMENT_INITIATED";
+        }
+        log.warn("Failed to initiate payment for Order ID: {}. Payment Service Status: {}, Body: {}",
+                order.getId(), paymentResponse.getStatusCode(), paymentResponse.getBody());
+        return "PAYMENT_FAILED";
+    }
+
+    /**
+     * Reads the outcome of an order's payment from payment-service. Only reads: nothing is posted, so
+     * polling can never charge the order again.
+     *
+     * @return The raw payment-service response, or 404 if payment-service has no payment for the order yet.
+     */
+    public ResponseEntity<String> fetchPaymentOutcome(Order order) {
+        try {
+            return paymentServiceClient.getPaymentForOrder(order.getId());
+        } catch (FeignException.NotFound e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static String paymentIdempotencyKey(Long orderId) {
+        return "order-" + orderId;
+    }
+
+    /**
+     * Retrieves one page of orders, newest first, using keyset pagination on the primary key.
+     * Unlike OFFSET paging, the cost of a page does not grow with how deep the caller has scrolled.
+     *
+     * @param cursor The ID of the last order on the previous page, or null for the first page.
+     * @param limit The maximum number of orders to return.
+     * @return Up to {@code limit} orders with IDs lower than {@code cursor}.
+     */
+    public List<Order> getOrdersPage(Long cursor, int limit) {
+        log.info("Fetching orders page with cursor: {} and limit: {}", cursor, limit);
+        Pageable page = PageRequest.of(0, limit);
+        return cursor == null
+                ? orderRepository.findAllByOrderByIdDesc(page)
+                : orderRepository.findByIdLessThanOrderByIdDesc(cursor, page);
     }
 
     /**
-     * Retrieves all orders from the database.
-     * @return A list of all orders.
+     * Retrieves one page of orders like {@link #getOrdersPage}, each joined with its restaurant's name and cuisine.
+     * The distinct restaurants on the page are resolved with one batch lookup, so the number of calls to
+     * restaurant-service stays at one (or zero, when the near-cache has them all) whatever the page size.
+     * If restaurant-service can't be reached the orders are still returned, without restaurant details.
+     *
+     * @param cursor The ID of the last order on the previous page, or null for the first page.
+     * @param limit The maximum number of orders to return.
+     * @return Up to {@code limit} enriched orders with IDs lower than {@code cursor}.
      */
-    public List<Order> getAllOrders() {
-        log.info("Fetching all orders.");
-        return orderRepository.findAll();
+    public List<EnrichedOrder> getEnrichedOrdersPage(Long cursor, int limit) {
+        List<Order> page = getOrdersPage(cursor, limit);
+        Map<Long, RestaurantDto> restaurants;
+        try {
+            restaurants = findRestaurants(page.stream().map(Order::getRestaurantId).toList());
+        } catch (RuntimeException e) {
+            log.warn("Could not look up restaurants for the orders page; listing it without restaurant details.", e);
+            restaurants = Map.of();
+        }
+        Map<Long, RestaurantDto> byId = restaurants;
+        return page.stream()
+                .map(order -> {
+                    RestaurantDto restaurant = order.getRestaurantId() == null ? null : byId.get(order.getRestaurantId());
+                    return restaurant == null
+                            ? new EnrichedOrder(order, null, null)
+                            : new EnrichedOrder(order, restaurant.getName(), restaurant.getCuisine());
+                })
+                .toList();
     }
 
     /**
-     * Retrieves an order by its unique ID.
+     * Retrieves one page of a customer's order history, newest first.
+     *
+     * @param customerId The customer whose orders to return.
+     * @param cursor The ID of the last order on the previous page, or null for the first page.
+     * @param limit The maximum number of orders to return.
+     * @return Up to {@code limit} of the customer's orders.
+     */
+    public List<Order> getOrdersForCustomer(Long customerId, Long cursor, int limit) {
+        log.info("Fetching orders for customer ID: {} with cursor: {} and limit: {}", customerId, cursor, limit);
+        Pageable page = PageRequest.of(0, limit);
+        return cursor == null
+                ? orderRepository.findByCustomerIdOrderByIdDesc(customerId, page)
+                : orderRepository.findByCustomerIdAndIdLessThanOrderByIdDesc(customerId, cursor, page);
+    }
+
+    /**
+     * Retrieves one page of a restaurant's orders placed in [from, to), newest first.
+     *
+     * @param restaurantId The restaurant whose orders to return.
+     * @param from Inclusive lower bound on orderTime.
+     * @param to Exclusive upper bound on orderTime.
+     * @param cursorTime orderTime of the last order on the previous page, or null for the first page.
+     * @param cursorId ID of the last order on the previous page, or null for the first page.
+     * @param limit The maximum number of orders to return.
+     * @return Up to {@code limit} matching orders.
+     */
+    public List<Order> getOrdersForRestaurant(Long restaurantId, LocalDateTime from, LocalDateTime to,
+                                              LocalDateTime cursorTime, Long cursorId, int limit) {
+        log.info("Fetching orders for restaurant ID: {} between {} and {} with cursor: {}/{}",
+                restaurantId, from, to, cursorTime, cursorId);
+        Pageable page = PageRequest.of(0, limit);
+        return cursorTime == null || cursorId == null
+                ? orderRepository.findByRestaurantInRange(restaurantId, from, to, page)
+                : orderRepository.findByRestaurantInRangeBefore(restaurantId, from, cursorTime, cursorId, page);
+    }
+
+    /**
+     * Streams every order to the given consumer straight off a forward-only result set.
+     * Each order is detached once consumed so the persistence context, and with it memory usage,
+     * stays flat regardless of table size.
+     *
+     * @param consumer Receives each order in ID order.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<Order> consumer) {
+        log.info("Streaming all orders.");
+        try (Stream<Order> orders = orderRepository.streamAll()) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                entityManager.detach(order);
+            });
+        }
+    }
+
+    /**
+     * Retrieves an order by its unique ID, falling back to the archive for old orders that
+     * OrderArchivalJob has moved out of the order table.
      * @param id The ID of the order to retrieve.
      * @return An Optional containing the Order if found, or an empty Optional if not found.
      */
     public Optional<Order> getOrderById(Long id) {
         log.info("Fetching order with ID: {}", id);
-        return orderRepository.findById(id);
+        return orderRepository.findById(id).or(() -> orderArchive.find(id));
     }
 
     /**
      * Updates an existing order.
+     * The update must carry the version the caller last read, and it must match the stored one;
+     * otherwise a concurrent write happened since then and the update is rejected rather than
+     * silently overwriting it. The version check is also part of the UPDATE itself, so a write that
+     * lands between the read and the save here is caught too.
+     *
+     * The status is not part of a full update: it only moves through updateOrderStatus, which checks
+     * the order lifecycle. The body may repeat the current status or leave it out.
+     *
      * @param id The ID of the order to update.
      * @param updatedOrder The Order object containing the updated details.
      * @return An Optional containing the updated Order if found, or an empty Optional if not found.
+     * @throws IllegalArgumentException if the update has no version or tries to change the status.
+     * @throws ObjectOptimisticLockingFailureException if the order was modified since the caller's version.
      */
+    @Transactional
     public Optional<Order> updateOrder(Long id, Order updatedOrder) {
         log.info("Attempting to update order with ID: {}", id);
+        if (updatedOrder.getVersion() == null) {
+            throw new IllegalArgumentException("An order update must carry the version of the order it was based on.");
+        }
         return orderRepository.findById(id).map(existingOrder -> {
+            if (!updatedOrder.getVersion().equals(existingOrder.getVersion())) {
+                log.warn("Stale update for order ID: {} (version {} but current is {}).",
+                        id, updatedOrder.getVersion(), existingOrder.getVersion());
+                throw new ObjectOptimisticLockingFailureException(Order.class, id);
+            }
+            if (updatedOrder.getStatus() != null && !updatedOrder.getStatus().equals(existingOrder.getStatus())) {
+                throw new IllegalArgumentException("Order status can't be changed by a full update; use PUT /orders/"
+                        + id + "/status instead.");
+            }
             // Update fields from the provided updatedOrder
             existingOrder.setCustomerId(updatedOrder.getCustomerId());
             existingOrder.setRestaurantId(updatedOrder.getRestaurantId());
             existingOrder.setTotalAmount(updatedOrder.getTotalAmount());
-            existingOrder.setStatus(updatedOrder.getStatus());
             existingOrder.setPaymentMethod(updatedOrder.getPaymentMethod());
             // orderTime is marked as updatable=false in entity, so it won't be explicitly set here.
             Order saved = orderRepository.save(existingOrder);
             log.info("Order with ID: {} updated successfully.", saved.getId());
+            publishChange(saved, ChangeType.UPDATED);
             return saved;
         });
     }
@@ -167,26 +699,83 @@ public class OrderService {
      * Deletes an order by its ID.
      * @param id The ID of the order to delete.
      */
+    @Transactional
     public void deleteOrder(Long id) {
         log.info("Attempting to delete order with ID: {}", id);
-        orderRepository.deleteById(id);
-        log.info("Order with ID: {} deleted.", id);
+        // deleteById loads the entity anyway; loading it here lets the stream and stats hear about it
+        orderRepository.findById(id).ifPresent(order -> {
+            orderRepository.delete(order);
+            publishChange(order, ChangeType.DELETED);
+            log.info("Order with ID: {} deleted.", id);
+        });
     }
 
     /**
-     * Updates only the status of an existing order.
+     * Moves an order to a new status in a single conditional UPDATE that only matches while the
+     * order is in a status allowed to precede the new one (see {@link OrderStatus}). Two concurrent
+     * transitions can't both win, and nothing else on the row is rewritten.
+     * Repeating a transition the order has already made is a no-op.
+     *
      * @param id The ID of the order to update.
      * @param newStatus The new status string.
      * @return An Optional containing the updated Order if found, or an empty Optional if not found.
+     * @throws IllegalArgumentException if the status is not part of the order lifecycle.
+     * @throws InvalidStatusTransitionException if the order's current status can't move to the new one.
      */
+    @Transactional
     public Optional<Order> updateOrderStatus(Long id, String newStatus) {
         log.info("Attempting to update status for order ID: {} to {}", id, newStatus);
-        return orderRepository.findById(id).map(order -> {
-            order.setStatus(newStatus);
-            Order saved = orderRepository.save(order);
-            log.info("Status for order ID: {} updated to {}", saved.getId(), saved.getStatus());
-            return saved;
-        });
+        OrderStatus target = parseStatus(newStatus);
+
+        int updated = transition(List.of(id), target);
+        Optional<Order> order = orderRepository.findById(id);
+        if (updated == 0 && order.isPresent() && !target.name().equals(order.get().getStatus())) {
+            log.warn("Order ID: {} cannot move from {} to {}", id, order.get().getStatus(), target);
+            throw new InvalidStatusTransitionException("Order", id, order.get().getStatus(), target.name());
+        }
+        if (updated == 1) {
+            log.info("Status for order ID: {} updated to {}", id, target);
+            order.ifPresent(o -> publishChange(o, ChangeType.STATUS_CHANGED));
+        }
+        return order;
     }
-}
 
+    /**
+     * Moves many orders to one status with a single batched UPDATE, e.g. marking a courier run DISPATCHED.
+     * Orders that don't exist or aren't in a status allowed to precede the new one are skipped.
+     *
+     * @param ids The orders to move. Duplicates and nulls are ignored.
+     * @param newStatus The new status string.
+     * @return How many orders were requested and how many actually moved.
+     * @throws IllegalArgumentException if the status is not part of the order lifecycle.
+     */
+    @Transactional
+    public BulkStatusUpdateResult updateOrderStatuses(Collection<Long> ids, String newStatus) {
+        OrderStatus target = parseStatus(newStatus);
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.removeIf(Objects::isNull);
+
+        int updated = transition(distinctIds, target);
+        log.info("Moved {} of {} orders to {}", updated, distinctIds.size(), target);
+        if (updated > 0) {
+            // One read for the customer IDs the stream routes on; may include orders that were already in the target status
+            orderRepository.findByIdInAndStatus(distinctIds, target.name())
+                    .forEach(order -> publishChange(order, ChangeType.STATUS_CHANGED));
+        }
+        return new BulkStatusUpdateResult(target.name(), distinctIds.size(), updated, distinctIds.size() - updated);
+    }
+
+    private int transition(Collection<Long> ids, OrderStatus target) {
+        if (ids.isEmpty() || target.sources().isEmpty()) {
+            return 0;
+        }
+        return ids.size() == 1
+                ? orderRepository.transitionStatus(ids.iterator().next(), target.sources(), target.name())
+                : orderRepository.transitionStatuses(ids, target.sources(), target.name());
+    }
+
+    private static OrderStatus parseStatus(String status) {
+        return OrderStatus.parse(status)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown order status: " + status));
+    }
+}
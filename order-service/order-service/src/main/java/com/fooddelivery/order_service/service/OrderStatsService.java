@@ -0,0 +1,284 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.archive.OrderArchive;
+import com.fooddelivery.order_service.dto.OrderStats;
+import com.fooddelivery.order_service.dto.OrderStats.HourlyStats;
+import com.fooddelivery.order_service.dto.OrderStats.RestaurantStats;
+import com.fooddelivery.order_service.dto.OrderStatsRow;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.event.OrdersArchivedEvent;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory read model behind GET /orders/stats: order counts per status, and order counts and
+ * revenue per restaurant and per hour placed.
+ *
+ * The aggregates are rebuilt from the order table and the OrderArchive once at startup and then kept
+ * current by every committed OrderChangedEvent, so a stats request only copies a few small maps no
+ * matter how many orders there are. To apply an update or delete the service remembers what each order
+ * in the table currently contributes (roughly 100 bytes per order) and swaps the old contribution for
+ * the new one. Archived orders can no longer change, so they are counted without being remembered.
+ *
+ * Changes that commit while the rebuild is still reading the table win over the rows it read.
+ * The aggregates are per instance; every instance sees the same table, so they agree once the
+ * changes have reached each of them.
+ */
+@Service
+public class OrderStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatsService.class);
+
+    // Orders in these statuses were never paid for or were called off, so they add no revenue
+    private static final Set<String> NO_REVENUE_STATUSES = Set.of("PAYMENT_FAILED", "PAYMENT_ERROR", "CANCELLED");
+    private static final int MERGE_CHUNK = 10_000;
+
+    private final OrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${order.stats.rebuild-retry-ms:30000}")
+    private long rebuildRetryMs;
+
+    private final Object lock = new Object();
+    // Everything below is guarded by lock
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final Map<String, Long> ordersByStatus = new HashMap<>();
+    private final Map<Long, Totals> byRestaurant = new HashMap<>();
+    private final NavigableMap<LocalDateTime, Totals> byHour = new TreeMap<>();
+    private final Totals overall = new Totals();
+    private boolean ready;
+    // Orders changed by events since the service started; the rebuild must not overwrite them
+    private Set<Long> changedDuringRebuild = new HashSet<>();
+
+    private volatile Thread rebuildThread;
+
+    public OrderStatsService(OrderRepository orderRepository, OrderArchive orderArchive,
+                             TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.orderArchive = orderArchive;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Starts the rebuild off the startup thread; /orders/stats reports ready=false until it is done.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRebuild() {
+        rebuildThread = Thread.ofVirtual().name("order-stats-rebuild").start(() -> {
+            while (!rebuild()) {
+                try {
+                    Thread.sleep(rebuildRetryMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads every order once and merges it into the aggregates. The table is read before the archive,
+     * so an order archived in between is still found, and one in both places is counted once as live.
+     *
+     * @return true if the aggregates are now complete, false if the table could not be read.
+     */
+    boolean rebuild() {
+        long started = System.nanoTime();
+        Map<Long, Contribution> loaded = new HashMap<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<OrderStatsRow> rows = orderRepository.streamStatsRows()) {
+                    rows.forEach(row -> loaded.put(row.getId(), Contribution.of(
+                            row.getRestaurantId(), row.getTotalAmount(), row.getOrderTime(), row.getStatus(), false)));
+                }
+            });
+            for (OrderArchive.Segment segment : orderArchive.segments()) {
+                orderArchive.read(segment, order -> loaded.putIfAbsent(order.getId(), Contribution.of(
+                        order.getRestaurantId(), order.getTotalAmount(), order.getOrderTime(), order.getStatus(), true)));
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild order stats; retrying in {} ms.", rebuildRetryMs, e);
+            return false;
+        }
+
+        // Merge in chunks so stats requests aren't held up behind one long critical section
+        Iterator<Map.Entry<Long, Contribution>> entries = loaded.entrySet().iterator();
+        while (entries.hasNext()) {
+            synchronized (lock) {
+                for (int i = 0; i < MERGE_CHUNK && entries.hasNext(); i++) {
+                    Map.Entry<Long, Contribution> entry = entries.next();
+                    if (changedDuringRebuild.contains(entry.getKey())) {
+                        continue;
+                    }
+                    if (entry.getValue().archived()) {
+                        add(entry.getValue(), 1);
+                    } else {
+                        replace(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+        synchronized (lock) {
+            ready = true;
+            changedDuringRebuild = null;
+        }
+        log.info("Order stats rebuilt from {} orders in {} ms.", loaded.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Folds a committed order change into the aggregates.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() == null) {
+            return;
+        }
+        Contribution next = event.type() == ChangeType.DELETED ? null
+                : Contribution.of(event.restaurantId(), event.totalAmount(), event.orderTime(), event.status(), false);
+        synchronized (lock) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event.orderId());
+            }
+            replace(event.orderId(), next);
+        }
+    }
+
+    /**
+     * Stops tracking orders that moved to the archive. They keep counting towards the aggregates.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        synchronized (lock) {
+            event.orderIds().forEach(contributions::remove);
+        }
+    }
+
+    /**
+     * @param hours How many hours, up to and including the current one, to return hourly figures for.
+     * @param topRestaurants How many restaurants to return, highest revenue first.
+     * @return A snapshot of the aggregates.
+     */
+    public OrderStats getStats(int hours, int topRestaurants) {
+        LocalDateTime currentHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime firstHour = currentHour.minusHours(hours - 1L);
+
+        synchronized (lock) {
+            List<RestaurantStats> restaurants = byRestaurant.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<Long, Totals> e) -> e.getValue().revenueCents).reversed()
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(topRestaurants)
+                    .map(e -> new RestaurantStats(e.getKey(), e.getValue().orders, toAmount(e.getValue().revenueCents)))
+                    .toList();
+
+            List<HourlyStats> hourly = new ArrayList<>(hours);
+            Map<LocalDateTime, Totals> recent = byHour.subMap(firstHour, true, currentHour, true);
+            for (LocalDateTime hour = firstHour; !hour.isAfter(currentHour); hour = hour.plusHours(1)) {
+                Totals totals = recent.getOrDefault(hour, Totals.EMPTY);
+                hourly.add(new HourlyStats(hour, totals.orders, toAmount(totals.revenueCents)));
+            }
+
+            return new OrderStats(ready, overall.orders, toAmount(overall.revenueCents),
+                    new HashMap<>(ordersByStatus), restaurants, hourly);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        Thread thread = rebuildThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Swaps what an order contributes to the aggregates. Called with the lock held.
+     *
+     * @param next The order's new contribution, or null if it was deleted.
+     */
+    private void replace(Long orderId, Contribution next) {
+        Contribution previous = next == null ? contributions.remove(orderId) : contributions.put(orderId, next);
+        if (previous != null) {
+            add(previous, -1);
+        }
+        if (next != null) {
+            add(next, 1);
+        }
+    }
+
+    private void add(Contribution c, int sign) {
+        long cents = c.revenueCents() * sign;
+        overall.add(sign, cents);
+        if (c.status() != null) {
+            ordersByStatus.merge(c.status(), (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        if (c.restaurantId() != null) {
+            byRestaurant.computeIfAbsent(c.restaurantId(), id -> new Totals()).add(sign, cents);
+            if (byRestaurant.get(c.restaurantId()).orders == 0) {
+                byRestaurant.remove(c.restaurantId());
+            }
+        }
+        if (c.hour() != null) {
+            byHour.computeIfAbsent(c.hour(), h -> new Totals()).add(sign, cents);
+            if (byHour.get(c.hour()).orders == 0) {
+                byHour.remove(c.hour());
+            }
+        }
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * What one order adds to the aggregates. Amounts are kept in cents so adding and removing
+     * the same order never leaves floating-point residue behind.
+     */
+    private record Contribution(Long restaurantId, String status, LocalDateTime hour, long revenueCents, boolean archived) {
+
+        static Contribution of(Long restaurantId, Double totalAmount, LocalDateTime orderTime, String status, boolean archived) {
+            long cents = totalAmount == null || NO_REVENUE_STATUSES.contains(status) ? 0 : Math.round(totalAmount * 100);
+            return new Contribution(restaurantId, status,
+                    orderTime == null ? null : orderTime.truncatedTo(ChronoUnit.HOURS), cents, archived);
+        }
+    }
+
+    private static final class Totals {
+
+        static final Totals EMPTY = new Totals();
+
+        long orders;
+        long revenueCents;
+
+        void add(int orders, long revenueCents) {
+            this.orders += orders;
+            this.revenueCents += revenueCents;
+        }
+    }
+}
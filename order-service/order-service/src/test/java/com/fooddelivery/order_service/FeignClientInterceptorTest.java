@@ -0,0 +1,77 @@
+package com.fooddelivery.order_service;
+
+import com.fooddelivery.order_service.feign.PaymentServiceClient;
+import com.fooddelivery.order_service.feign.RestaurantServiceClient;
+
+import feign.RequestTemplate;
+import feign.Target;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Authorization header put on outgoing Feign calls.
+ */
+public class FeignClientInterceptorTest {
+
+    private final FeignClientInterceptor interceptor = new FeignClientInterceptor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(interceptor, "serviceToken", "service-jwt");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer customer-jwt");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static RequestTemplate templateFor(Class<?> type, String name) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(type, name, "http://" + name));
+        return template;
+    }
+
+    @Test
+    @DisplayName("💳 Payment calls always carry the service token, even during a customer's request")
+    void testPaymentCallsUseServiceIdentity() {
+        RequestTemplate template = templateFor(PaymentServiceClient.class, "payment-service");
+
+        interceptor.apply(template);
+
+        assertEquals(List.of("Bearer service-jwt"), List.copyOf(template.headers().get("Authorization")));
+    }
+
+    @Test
+    @DisplayName("➡️ Other calls forward the customer's token")
+    void testOtherCallsForwardCustomerToken() {
+        RequestTemplate template = templateFor(RestaurantServiceClient.class, "restaurant-service");
+
+        interceptor.apply(template);
+
+        assertEquals(List.of("Bearer customer-jwt"), List.copyOf(template.headers().get("Authorization")));
+    }
+
+    @Test
+    @DisplayName("🤖 Background calls fall back to the service token")
+    void testBackgroundCallsUseServiceToken() {
+        RequestContextHolder.resetRequestAttributes();
+        RequestTemplate template = templateFor(RestaurantServiceClient.class, "restaurant-service");
+
+        interceptor.apply(template);
+
+        assertEquals(List.of("Bearer service-jwt"), List.copyOf(template.headers().get("Authorization")));
+    }
+}
@@ -0,0 +1,124 @@
+package com.fooddelivery.order_service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.order_service.model.Order;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for archive segments and their sparse block index.
+ */
+public class OrderArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OrderArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        archive = newArchive();
+    }
+
+    private OrderArchive newArchive() throws IOException {
+        OrderArchive opened = new OrderArchive(objectMapper, directory.toString(), 100, 60_000);
+        opened.init();
+        return opened;
+    }
+
+    private static Order order(long id) {
+        return new Order(id, 10L, 1L, 25.0, LocalDateTime.of(2024, 1, 1, 12, 0), "DELIVERED", "CARD");
+    }
+
+    private void writeSegment(long fromId, long toId, long step) throws IOException {
+        try (OrderArchive.SegmentWriter writer = archive.newSegment()) {
+            for (long id = fromId; id <= toId; id += step) {
+                writer.append(order(id));
+            }
+            writer.seal();
+        }
+    }
+
+    @Test
+    @DisplayName("🔍 Orders are found through the block index of their segment")
+    void testFindById() throws IOException {
+        // Arrange: 500 orders with gaps, spread over 5 blocks
+        writeSegment(1, 1000, 2);
+
+        // Act & Assert
+        assertEquals(1L, archive.find(1L).orElseThrow().getId());
+        assertEquals(201L, archive.find(201L).orElseThrow().getId(), "First order of a block");
+        assertEquals(999L, archive.find(999L).orElseThrow().getId(), "Last order of the segment");
+        assertEquals("DELIVERED", archive.find(555L).orElseThrow().getStatus());
+        assertTrue(archive.find(2L).isEmpty(), "IDs in a gap are not found");
+        assertTrue(archive.find(5000L).isEmpty(), "IDs past the segment are not found");
+    }
+
+    @Test
+    @DisplayName("🗂️ Lookups cover every segment, even with overlapping ID ranges")
+    void testOverlappingSegments() throws IOException {
+        // Arrange
+        writeSegment(1, 1000, 2);
+        writeSegment(2, 10, 2);
+
+        // Act & Assert
+        assertTrue(archive.find(4L).isPresent());
+        assertTrue(archive.find(5L).isPresent());
+        assertEquals(2, archive.segments().size());
+    }
+
+    @Test
+    @DisplayName("♻️ Sealed segments are loaded again after a restart")
+    void testReloadFromDisk() throws IOException {
+        // Arrange
+        writeSegment(1, 300, 1);
+
+        // Act
+        OrderArchive reopened = newArchive();
+
+        // Assert
+        assertEquals(150L, reopened.find(150L).orElseThrow().getId());
+        List<Long> ids = new ArrayList<>();
+        reopened.read(reopened.segments().get(0), o -> ids.add(o.getId()));
+        assertEquals(300, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(300L, ids.get(299));
+    }
+
+    @Test
+    @DisplayName("🚫 A segment that was never sealed is discarded and invisible")
+    void testUnsealedSegmentIsDiscarded() throws IOException {
+        // Act
+        try (OrderArchive.SegmentWriter writer = archive.newSegment()) {
+            writer.append(order(1L));
+        }
+
+        // Assert
+        assertTrue(archive.find(1L).isEmpty());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("❌ Orders must be appended in ascending ID order")
+    void testRejectsOutOfOrderIds() throws IOException {
+        try (OrderArchive.SegmentWriter writer = archive.newSegment()) {
+            writer.append(order(5L));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(order(3L)));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.fooddelivery.order_service.controller;
+
+import com.fooddelivery.order_service.config.TestSecurityConfig;
+import com.fooddelivery.order_service.dispatch.CourierAssignment;
+import com.fooddelivery.order_service.dispatch.DispatchService;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.security.JwtFilter;
+import com.fooddelivery.order_service.security.JwtPrincipal;
+import com.fooddelivery.order_service.service.OrderService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web layer tests for courier location reports and assignment lookups.
+ */
+@WebMvcTest(
+    controllers = DispatchController.class,
+    excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtFilter.class)
+)
+@Import(TestSecurityConfig.class)
+class DispatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DispatchService dispatchService;
+
+    @MockBean
+    private OrderService orderService;
+
+    private static RequestPostProcessor courier(Long userId) {
+        JwtPrincipal principal = new JwtPrincipal("courier@example.com", userId, "COURIER", List.of("ROLE_COURIER"), null);
+        return SecurityMockMvcRequestPostProcessors.authentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_COURIER"))));
+    }
+
+    private static RequestPostProcessor customer(Long userId) {
+        JwtPrincipal principal = new JwtPrincipal("customer@example.com", userId, "USER", List.of("ROLE_USER"), null);
+        return SecurityMockMvcRequestPostProcessors.authentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @Test
+    void testUpdateLocation_OwnPosition() throws Exception {
+        mockMvc.perform(put("/dispatch/couriers/7/location").with(courier(7L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"latitude\":28.63,\"longitude\":77.21,\"available\":true}"))
+            .andExpect(status().isNoContent());
+
+        verify(dispatchService).updateCourier(7L, 28.63, 77.21, true);
+    }
+
+    @Test
+    void testUpdateLocation_OtherCourierForbidden() throws Exception {
+        mockMvc.perform(put("/dispatch/couriers/8/location").with(courier(7L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"latitude\":28.63,\"longitude\":77.21}"))
+            .andExpect(status().isForbidden());
+
+        verify(dispatchService, never()).updateCourier(anyLong(), anyDouble(), anyDouble(), anyBoolean());
+    }
+
+    @Test
+    void testUpdateLocation_NonCourierForbidden() throws Exception {
+        mockMvc.perform(put("/dispatch/couriers/7/location").with(customer(7L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"latitude\":28.63,\"longitude\":77.21,\"available\":true}"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/dispatch/couriers/7").with(customer(7L)))
+            .andExpect(status().isForbidden());
+
+        verifyNoInteractions(dispatchService);
+    }
+
+    @Test
+    void testUpdateLocation_InvalidCoordinates() throws Exception {
+        mockMvc.perform(put("/dispatch/couriers/7/location").with(courier(7L))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"latitude\":128.63,\"longitude\":77.21}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAssignment() throws Exception {
+        when(dispatchService.getAssignment(5L)).thenReturn(Optional.of(new CourierAssignment(5L, 7L, 0.4, Instant.now())));
+        when(dispatchService.getAssignment(6L)).thenReturn(Optional.empty());
+
+        when(orderService.getOrderById(5L)).thenReturn(Optional.of(new Order(5L, 10L, 201L, 25.0, null, "PREPARING", "CARD")));
+        when(orderService.getOrderById(6L)).thenReturn(Optional.of(new Order(6L, 10L, 201L, 25.0, null, "PREPARING", "CARD")));
+
+        mockMvc.perform(get("/dispatch/orders/5").with(courier(7L)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.courierId").value(7L));
+        mockMvc.perform(get("/dispatch/orders/5").with(customer(10L)))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/dispatch/orders/6").with(customer(10L)))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetAssignment_OtherUsersOrderForbidden() throws Exception {
+        when(dispatchService.getAssignment(5L)).thenReturn(Optional.of(new CourierAssignment(5L, 7L, 0.4, Instant.now())));
+        when(orderService.getOrderById(5L)).thenReturn(Optional.of(new Order(5L, 10L, 201L, 25.0, null, "PREPARING", "CARD")));
+
+        mockMvc.perform(get("/dispatch/orders/5").with(customer(11L)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/dispatch/orders/5").with(courier(8L)))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -2,33 +2,61 @@
 package com.fooddelivery.order_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
+import com.fooddelivery.common.idempotency.IdempotencyAutoConfiguration;
+import com.fooddelivery.common.idempotency.IdempotencyService;
+import com.fooddelivery.order_service.dto.BulkStatusUpdateRequest;
+import com.fooddelivery.order_service.dto.BulkStatusUpdateResult;
+import com.fooddelivery.order_service.dto.EnrichedOrder;
+import com.fooddelivery.order_service.dto.OrderStats;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
 import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.ratelimit.OrderRateLimiter;
+import com.fooddelivery.order_service.schedule.ScheduledOrderService;
+import com.fooddelivery.order_service.service.OrderEventBroker;
+import com.fooddelivery.order_service.service.OrderIntakeService;
+import com.fooddelivery.order_service.service.OrderSagaOrchestrator;
 import com.fooddelivery.order_service.service.OrderService;
+import com.fooddelivery.order_service.service.OrderStatsService;
 import com.fooddelivery.order_service.config.TestSecurityConfig;
 import com.fooddelivery.order_service.security.JwtFilter;
-import com.fooddelivery.order_service.security.JwtUtil;
+import com.fooddelivery.order_service.security.JwtPrincipal;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString; // Import anyString
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,6 +73,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
     )
 )
 @Import(TestSecurityConfig.class) // Import the test-specific security configuration
+@ImportAutoConfiguration(IdempotencyAutoConfiguration.class) // Real idempotency handling with the in-memory store
 class OrderControllerTest {
 
     @Autowired
@@ -53,8 +82,23 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService; // Mock the OrderService dependency
 
-    @MockBean // Mock the JwtUtil as it's a dependency of OrderController
-    private JwtUtil jwtUtil;
+    @MockBean // Mock the async intake path; the default "sync" mode never calls it
+    private OrderIntakeService orderIntakeService;
+
+    @MockBean
+    private OrderEventBroker orderEventBroker;
+
+    @MockBean
+    private OrderStatsService orderStatsService;
+
+    @MockBean
+    private ScheduledOrderService scheduledOrderService;
+
+    @MockBean // Allows everything (returns 0) unless a test says otherwise
+    private OrderRateLimiter orderRateLimiter;
+
+    @MockBean // Mock the saga intake path; the default "sync" mode never calls it
+    private OrderSagaOrchestrator orderSagaOrchestrator;
 
     private ObjectMapper objectMapper = new ObjectMapper();
     private Order testOrder;
@@ -67,9 +111,23 @@ class OrderControllerTest {
         objectMapper.findAndRegisterModules();
     }
 
+    /**
+     * Authenticates the request the way JwtFilter does: with a JwtPrincipal carrying the verified claims.
+     */
+    private static RequestPostProcessor admin() {
+        JwtPrincipal principal = new JwtPrincipal("admin@example.com", 1L, "ADMIN", List.of("ROLE_ADMIN"), null);
+        return SecurityMockMvcRequestPostProcessors.authentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    private static RequestPostProcessor customer(Long userId) {
+        JwtPrincipal principal = new JwtPrincipal("customer@example.com", userId, "USER", List.of("ROLE_USER"), null);
+        return SecurityMockMvcRequestPostProcessors.authentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
     // --- Test for POST /orders ---
     @Test
-    @WithMockUser(username = "customer", roles = {"USER"}, authorities = {"ROLE_USER"}) // Mock authenticated user
     void testPlaceOrder_Authenticated() throws Exception {
         // Arrange
         // Input order from request (ID, status, orderTime are typically null initially)
@@ -77,9 +135,6 @@ class OrderControllerTest {
         // Expected saved order (with ID, orderTime, and initial status from service)
         Order savedOrder = new Order(2L, 102L, 202L, 75.0, LocalDateTime.now(), "PAYMENT_INITIATED", "DEBIT_CARD");
 
-        // Mock JwtUtil to return a customer ID when extractCustomerId is called with any string
-        when(jwtUtil.extractCustomerId(anyString())).thenReturn(102L);
-
         // Mock orderService.placeOrder to return the savedOrder
         when(orderService.placeOrder(any(Order.class))).thenReturn(savedOrder);
 
@@ -87,7 +142,7 @@ class OrderControllerTest {
         mockMvc.perform(post("/orders")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(newOrder))
-                .header("Authorization", "Bearer dummy-jwt-token") // Provide a dummy token for the filter
+                .with(customer(102L)) // Authenticated as JwtFilter would, with userId 102
                 .with(SecurityMockMvcRequestPostProcessors.csrf())) // Add CSRF token for POST requests
             .andExpect(status().isCreated()) // Expect 201 Created status
             .andExpect(jsonPath("$.id").value(2L))
@@ -97,9 +152,9 @@ class OrderControllerTest {
             .andExpect(jsonPath("$.status").value("PAYMENT_INITIATED"))
             .andExpect(jsonPath("$.paymentMethod").value("DEBIT_CARD"));
 
-        // Verify that the service method was called
-        verify(jwtUtil, times(1)).extractCustomerId(anyString());
-        verify(orderService, times(1)).placeOrder(any(Order.class));
+        // Verify that the service method was called with the customer ID from the principal
+        verify(orderService, times(1)).placeOrder(argThat(order -> Long.valueOf(102L).equals(order.getCustomerId())));
+        verifyNoInteractions(orderIntakeService);
     }
 
     @Test
@@ -113,9 +168,208 @@ class OrderControllerTest {
                 .content(objectMapper.writeValueAsString(newOrder)))
             .andExpect(status().isUnauthorized()); // Expect 401 Unauthorized
 
-        // Verify that no interactions occurred with the service or JwtUtil
+        // Verify that no interactions occurred with the service
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testPlaceOrder_IdempotencyKeyReplaysFirstResponse() throws Exception {
+        // Arrange
+        Order newOrder = new Order(null, null, 202L, 75.0, null, null, "UPI");
+        Order savedOrder = new Order(7L, 102L, 202L, 75.0, LocalDateTime.now(), "PAYMENT_INITIATED", "UPI");
+        when(orderService.placeOrder(any(Order.class))).thenReturn(savedOrder);
+        String body = objectMapper.writeValueAsString(newOrder);
+
+        // Act & Assert: a double-click sends the same request twice with the same key
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body)
+                    .header(IdempotencyService.HEADER, "checkout-7f3a")
+                    .with(customer(102L))
+                    .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7L));
+        }
+
+        // The order is only placed once, and the replay doesn't take a rate-limit token
+        verify(orderService, times(1)).placeOrder(any(Order.class));
+        verify(orderRateLimiter, times(1)).tryAcquire(any(JwtPrincipal.class), anyCollection());
+
+        // Reusing the key for a different order is rejected
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Order(null, null, 203L, 20.0, null, null, "UPI")))
+                .header(IdempotencyService.HEADER, "checkout-7f3a")
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isUnprocessableEntity());
+        verify(orderService, times(1)).placeOrder(any(Order.class));
+    }
+
+    @Test
+    void testPlaceOrder_RestaurantServiceUnavailable() throws Exception {
+        // Arrange: the restaurant-service circuit breaker is open
+        Order newOrder = new Order(null, 102L, 202L, 75.0, null, null, "DEBIT_CARD");
+        when(orderService.placeOrder(any(Order.class)))
+                .thenThrow(new DependencyUnavailableException("restaurant-service", new RuntimeException("circuit open")));
+
+        // Act & Assert
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrder))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isServiceUnavailable()) // Expect 503 instead of a slow 400
+            .andExpect(header().string("Retry-After", "10"));
+    }
+
+    @Test
+    void testPlaceOrder_ScheduledForLater() throws Exception {
+        // Arrange
+        LocalDateTime lunch = LocalDateTime.now().plusHours(3).withNano(0);
+        Order newOrder = new Order(null, 102L, 202L, 75.0, null, null, "UPI");
+        newOrder.setScheduledFor(lunch);
+        Order scheduledOrder = new Order(8L, 102L, 202L, 75.0, LocalDateTime.now(), "SCHEDULED", "UPI");
+        scheduledOrder.setScheduledFor(lunch);
+        when(scheduledOrderService.schedule(any(Order.class))).thenReturn(scheduledOrder);
+
+        // Act & Assert
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrder))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(8L))
+            .andExpect(jsonPath("$.status").value("SCHEDULED"));
+
+        // Neither the restaurant check nor payment happen until the order is due
+        verify(scheduledOrderService).schedule(argThat(order -> Long.valueOf(102L).equals(order.getCustomerId())));
+        verify(orderService, never()).placeOrder(any(Order.class));
+    }
+
+    @Test
+    void testPlaceOrder_ScheduledInThePast() throws Exception {
+        // Arrange
+        Order newOrder = new Order(null, 102L, 202L, 75.0, null, null, "UPI");
+        newOrder.setScheduledFor(LocalDateTime.now().minusMinutes(5));
+        when(scheduledOrderService.schedule(any(Order.class)))
+                .thenThrow(new IllegalArgumentException("scheduledFor must be in the future."));
+
+        // Act & Assert
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrder))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string("Error placing order: scheduledFor must be in the future."));
+    }
+
+    @Test
+    void testPlaceOrder_RateLimited() throws Exception {
+        // Arrange: the customer's bucket is empty
+        Order newOrder = new Order(null, 102L, 202L, 75.0, null, null, "DEBIT_CARD");
+        when(orderRateLimiter.tryAcquire(any(JwtPrincipal.class), anyCollection())).thenReturn(3L);
+
+        // Act & Assert
+        mockMvc.perform(post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrder))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "3"));
+
+        // Rejected before any downstream work
+        verify(orderRateLimiter).tryAcquire(argThat(principal -> Long.valueOf(102L).equals(principal.userId())),
+                argThat(ids -> ids.contains(202L)));
+        verifyNoInteractions(orderService);
+    }
+
+    // --- Test for POST /orders/batch ---
+    @Test
+    void testPlaceOrders_Batch() throws Exception {
+        // Arrange
+        List<Order> newOrders = List.of(
+            new Order(null, null, 202L, 75.0, null, null, "CARD"),
+            new Order(null, null, 203L, 25.0, null, null, "UPI"));
+        List<Order> savedOrders = List.of(
+            new Order(10L, 102L, 202L, 75.0, LocalDateTime.now(), "PAYMENT_INITIATED", "CARD"),
+            new Order(11L, 102L, 203L, 25.0, LocalDateTime.now(), "PAYMENT_INITIATED", "UPI"));
+        when(orderService.placeOrders(anyList())).thenReturn(savedOrders);
+
+        // Act & Assert
+        mockMvc.perform(post("/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrders))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[1].id").value(11L));
+
+        verify(orderService, times(1)).placeOrders(argThat(orders ->
+                orders.size() == 2 && orders.stream().allMatch(order -> Long.valueOf(102L).equals(order.getCustomerId()))));
+    }
+
+    @Test
+    void testPlaceOrders_BatchMissingFields() throws Exception {
+        // Arrange
+        List<Order> newOrders = List.of(new Order(null, null, 202L, null, null, null, "CARD"));
+
+        // Act & Assert
+        mockMvc.perform(post("/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrders))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testPlaceOrders_BatchTakesATokenPerOrder() throws Exception {
+        // Arrange
+        List<Order> newOrders = List.of(
+            new Order(null, null, 202L, 75.0, null, null, "CARD"),
+            new Order(null, null, 202L, 25.0, null, null, "UPI"),
+            new Order(null, null, 203L, 40.0, null, null, "UPI"));
+        when(orderRateLimiter.tryAcquire(any(JwtPrincipal.class), anyCollection())).thenReturn(4L);
+
+        // Act & Assert
+        mockMvc.perform(post("/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrders))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "4"));
+
+        // One restaurant entry per order, duplicates included
+        verify(orderRateLimiter).tryAcquire(any(JwtPrincipal.class), eq(List.of(202L, 202L, 203L)));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testPlaceOrders_BatchLargerThanLimit() throws Exception {
+        // Arrange
+        List<Order> newOrders = List.of(new Order(null, null, 202L, 75.0, null, null, "CARD"));
+        when(orderRateLimiter.tryAcquire(any(JwtPrincipal.class), anyCollection()))
+                .thenThrow(new IllegalArgumentException("A request with 11 orders exceeds your order limit of 10 orders at once."));
+
+        // Act & Assert: waiting would not help, so no Retry-After
+        mockMvc.perform(post("/orders/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newOrders))
+                .with(customer(102L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isBadRequest())
+            .andExpect(header().doesNotExist("Retry-After"));
+
         verifyNoInteractions(orderService);
-        verifyNoInteractions(jwtUtil);
     }
 
     // --- Test for GET /orders ---
@@ -127,17 +381,167 @@ class OrderControllerTest {
             testOrder,
             new Order(3L, 103L, 203L, 120.0, LocalDateTime.now(), "DELIVERED", "CASH")
         );
-        when(orderService.getAllOrders()).thenReturn(orders);
+        when(orderService.getOrdersPage(null, OrderController.DEFAULT_PAGE_SIZE)).thenReturn(orders);
 
         // Act & Assert
         mockMvc.perform(get("/orders"))
             .andExpect(status().isOk()) // Expect 200 OK
             .andExpect(jsonPath("$.length()").value(2))
             .andExpect(jsonPath("$[0].id").value(1L))
-            .andExpect(jsonPath("$[1].customerId").value(103L));
+            .andExpect(jsonPath("$[1].customerId").value(103L))
+            .andExpect(header().doesNotExist(OrderController.NEXT_CURSOR_HEADER)); // Partial page: no more results
 
         // Verify service method call
-        verify(orderService, times(1)).getAllOrders();
+        verify(orderService, times(1)).getOrdersPage(null, OrderController.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    @WithMockUser(username = "customer", roles = {"USER"})
+    void testGetAllOrders_FullPageReturnsNextCursor() throws Exception {
+        // Arrange
+        List<Order> orders = Arrays.asList(
+            new Order(9L, 103L, 203L, 120.0, LocalDateTime.now(), "DELIVERED", "CASH"),
+            new Order(7L, 101L, 201L, 50.0, LocalDateTime.now(), "PENDING", "CREDIT_CARD")
+        );
+        when(orderService.getOrdersPage(10L, 2)).thenReturn(orders);
+
+        // Act & Assert
+        mockMvc.perform(get("/orders").param("cursor", "10").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(header().string(OrderController.NEXT_CURSOR_HEADER, "7"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetAllOrders_LimitIsCapped() throws Exception {
+        // Arrange
+        when(orderService.getOrdersPage(null, OrderController.MAX_PAGE_SIZE)).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/orders").param("limit", "1000000"))
+            .andExpect(status().isOk());
+
+        verify(orderService, times(1)).getOrdersPage(null, OrderController.MAX_PAGE_SIZE);
+    }
+
+    // --- Test for GET /orders/mine ---
+    @Test
+    void testGetMyOrders_UsesCustomerIdFromToken() throws Exception {
+        // Arrange
+        when(orderService.getOrdersForCustomer(101L, null, OrderController.DEFAULT_PAGE_SIZE)).thenReturn(List.of(testOrder));
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/mine")
+                .with(customer(101L)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].customerId").value(101L));
+
+        verify(orderService, times(1)).getOrdersForCustomer(101L, null, OrderController.DEFAULT_PAGE_SIZE);
+    }
+
+    // --- Test for GET /orders/restaurant/{restaurantId} ---
+    @Test
+    void testGetRestaurantOrders_WithCursor() throws Exception {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime cursorTime = LocalDateTime.of(2024, 1, 15, 12, 30);
+        Order older = new Order(41L, 101L, 201L, 50.0, LocalDateTime.of(2024, 1, 15, 12, 0), "DELIVERED", "CASH");
+        when(orderService.getOrdersForRestaurant(201L, from, to, cursorTime, 42L, 1)).thenReturn(List.of(older));
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/restaurant/201")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00")
+                .param("cursor", "2024-01-15T12:30_42")
+                .param("limit", "1")
+                .with(admin()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(41L))
+            .andExpect(header().string(OrderController.NEXT_CURSOR_HEADER, "2024-01-15T12:00_41"));
+    }
+
+    @Test
+    void testGetRestaurantOrders_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/orders/restaurant/201")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00")
+                .param("cursor", "not-a-cursor")
+                .with(admin()))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testGetRestaurantOrders_Owner() throws Exception {
+        // Arrange: customer 55 owns restaurant 201
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        when(orderService.isRestaurantOwner(201L, 55L)).thenReturn(true);
+        when(orderService.getOrdersForRestaurant(201L, from, to, null, null, OrderController.DEFAULT_PAGE_SIZE))
+                .thenReturn(List.of(testOrder));
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/restaurant/201")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00")
+                .with(customer(55L)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(testOrder.getId()));
+    }
+
+    @Test
+    void testGetRestaurantOrders_ForbiddenForOtherUsers() throws Exception {
+        // Arrange: customer 102 doesn't own restaurant 201
+        when(orderService.isRestaurantOwner(201L, 102L)).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/restaurant/201")
+                .param("from", "2024-01-01T00:00:00")
+                .param("to", "2024-02-01T00:00:00")
+                .with(customer(102L)))
+            .andExpect(status().isForbidden());
+
+        verify(orderService, never()).getOrdersForRestaurant(anyLong(), any(), any(), any(), any(), anyInt());
+    }
+
+    // --- Test for GET /orders/export ---
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportOrders_StreamsNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<Order> consumer = invocation.getArgument(0);
+            consumer.accept(testOrder);
+            consumer.accept(new Order(3L, 103L, 203L, 120.0, LocalDateTime.now(), "DELIVERED", "CASH"));
+            return null;
+        }).when(orderService).streamAllOrders(any(Consumer.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/orders/export").with(admin()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], Order.class).getId());
+        assertEquals(3L, objectMapper.readValue(lines[1], Order.class).getId());
+    }
+
+    @Test
+    void testExportOrders_CustomerForbidden() throws Exception {
+        mockMvc.perform(get("/orders/export").with(customer(10L)))
+            .andExpect(status().isForbidden());
+        verifyNoInteractions(orderService);
     }
 
     @Test
@@ -302,4 +706,221 @@ class OrderControllerTest {
             .andExpect(status().isUnauthorized());
         verifyNoInteractions(orderService);
     }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testUpdateOrderStatus_IllegalTransition() throws Exception {
+        // Arrange
+        when(orderService.updateOrderStatus(eq(1L), eq("DELIVERED")))
+                .thenThrow(new InvalidStatusTransitionException("Order", 1L, "PENDING", "DELIVERED"));
+
+        // Act & Assert
+        mockMvc.perform(put("/orders/1/status")
+                .param("status", "DELIVERED")
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isConflict())
+            .andExpect(content().string("Order 1 cannot move from PENDING to DELIVERED."));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testUpdateOrder_StaleVersion() throws Exception {
+        // Arrange
+        Order updatedDetails = new Order(1L, 101L, 201L, 60.0, LocalDateTime.now(), "CANCELLED", "PAYPAL");
+        updatedDetails.setVersion(2L);
+        when(orderService.updateOrder(eq(1L), any(Order.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Order.class, 1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/orders/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedDetails))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testUpdateOrder_StatusChangeRejected() throws Exception {
+        // Arrange
+        Order updatedDetails = new Order(1L, 101L, 201L, 60.0, LocalDateTime.now(), "DELIVERED", "PAYPAL");
+        updatedDetails.setVersion(2L);
+        when(orderService.updateOrder(eq(1L), any(Order.class)))
+                .thenThrow(new IllegalArgumentException("Order status can't be changed by a full update; use PUT /orders/1/status instead."));
+
+        // Act & Assert
+        mockMvc.perform(put("/orders/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedDetails))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isBadRequest());
+    }
+
+    // --- Test for PUT /orders/status ---
+    @Test
+    void testUpdateOrderStatuses_Bulk() throws Exception {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(orderService.updateOrderStatuses(eq(ids), eq("DISPATCHED")))
+                .thenReturn(new BulkStatusUpdateResult("DISPATCHED", 3, 2, 1));
+
+        // Act & Assert
+        mockMvc.perform(put("/orders/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkStatusUpdateRequest(ids, "DISPATCHED")))
+                .with(admin())
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated").value(2))
+            .andExpect(jsonPath("$.skipped").value(1));
+
+        verify(orderService, times(1)).updateOrderStatuses(eq(ids), eq("DISPATCHED"));
+    }
+
+    @Test
+    void testUpdateOrderStatuses_TooMany() throws Exception {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= OrderController.MAX_BATCH_SIZE + 1; id++) {
+            ids.add(id);
+        }
+
+        // Act & Assert
+        mockMvc.perform(put("/orders/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkStatusUpdateRequest(ids, "DISPATCHED")))
+                .with(admin())
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isBadRequest());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void testUpdateOrderStatuses_CustomerForbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/orders/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BulkStatusUpdateRequest(List.of(1L), "DELIVERED")))
+                .with(customer(10L))
+                .with(SecurityMockMvcRequestPostProcessors.csrf()))
+            .andExpect(status().isForbidden());
+        verifyNoInteractions(orderService);
+    }
+
+    // --- Tests for GET /orders/stream ---
+    @Test
+    void testStreamOrderEvents_CustomerSeesOwnOrders() throws Exception {
+        // Arrange
+        when(orderEventBroker.subscribe(eq(10L), any())).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "abc-5")
+                .with(customer(10L)))
+            .andExpect(request().asyncStarted())
+            .andExpect(header().string("X-Accel-Buffering", "no"));
+
+        verify(orderEventBroker, times(1)).subscribe(10L, "abc-5");
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testStreamOrderEvents_AdminWithoutPrincipalIsRejected() throws Exception {
+        // A plain Spring user is not a JwtPrincipal, so there is nothing to route the stream on
+        mockMvc.perform(get("/orders/stream").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isUnauthorized());
+        verifyNoInteractions(orderEventBroker);
+    }
+
+    @Test
+    void testStreamOrderEvents_AdminSeesAllOrders() throws Exception {
+        // Arrange
+        when(orderEventBroker.subscribe(isNull(), isNull())).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .with(admin()))
+            .andExpect(request().asyncStarted());
+
+        verify(orderEventBroker, times(1)).subscribe(null, null);
+    }
+
+    @Test
+    void testStreamOrderEvents_TooManySubscribers() throws Exception {
+        // Arrange
+        when(orderEventBroker.subscribe(any(), any())).thenThrow(new IllegalStateException("Too many open order streams."));
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .with(customer(10L)))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists("Retry-After"));
+    }
+
+    // --- Tests for GET /orders/stats ---
+    @Test
+    void testGetOrderStats_Admin() throws Exception {
+        // Arrange
+        OrderStats stats = new OrderStats(true, 3, new BigDecimal("150.00"), Map.of("DELIVERED", 3L),
+                List.of(new OrderStats.RestaurantStats(201L, 3, new BigDecimal("150.00"))), List.of());
+        when(orderStatsService.getStats(48, 10)).thenReturn(stats);
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/stats").param("hours", "48").param("top", "10").with(admin()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.ready").value(true))
+            .andExpect(jsonPath("$.totalOrders").value(3))
+            .andExpect(jsonPath("$.ordersByStatus.DELIVERED").value(3))
+            .andExpect(jsonPath("$.restaurants[0].restaurantId").value(201L));
+    }
+
+    @Test
+    void testGetOrderStats_ClampsHours() throws Exception {
+        // Arrange
+        when(orderStatsService.getStats(anyInt(), anyInt())).thenReturn(new OrderStats());
+
+        // Act & Assert
+        mockMvc.perform(get("/orders/stats").param("hours", "100000").with(admin()))
+            .andExpect(status().isOk());
+        verify(orderStatsService).getStats(OrderController.MAX_STATS_HOURS, OrderController.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void testGetOrderStats_CustomerForbidden() throws Exception {
+        mockMvc.perform(get("/orders/stats").with(customer(10L)))
+            .andExpect(status().isForbidden());
+        verifyNoInteractions(orderStatsService);
+    }
+
+    // --- Tests for GET /orders?include=restaurant ---
+    @Test
+    void testGetAllOrders_WithRestaurants() throws Exception {
+        // Arrange
+        List<EnrichedOrder> orders = List.of(
+            new EnrichedOrder(new Order(9L, 103L, 203L, 120.0, LocalDateTime.now(), "DELIVERED", "CASH"), "Testaurant", "Indian"),
+            new EnrichedOrder(new Order(7L, 101L, 204L, 50.0, LocalDateTime.now(), "PENDING", "UPI"), null, null));
+        when(orderService.getEnrichedOrdersPage(10L, 2)).thenReturn(orders);
+
+        // Act & Assert
+        mockMvc.perform(get("/orders").param("include", "restaurant").param("cursor", "10").param("limit", "2").with(admin()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(9L))
+            .andExpect(jsonPath("$[0].restaurantId").value(203L))
+            .andExpect(jsonPath("$[0].restaurantName").value("Testaurant"))
+            .andExpect(jsonPath("$[0].restaurantCuisine").value("Indian"))
+            .andExpect(jsonPath("$[1].restaurantName").doesNotExist())
+            .andExpect(header().string(OrderController.NEXT_CURSOR_HEADER, "7"));
+
+        verify(orderService, never()).getOrdersPage(any(), anyInt());
+    }
+
+    @Test
+    void testGetAllOrders_WithRestaurantsCustomerForbidden() throws Exception {
+        mockMvc.perform(get("/orders").param("include", "restaurant").with(customer(10L)))
+            .andExpect(status().isForbidden());
+        verify(orderService, never()).getEnrichedOrdersPage(any(), anyInt());
+    }
 }
@@ -0,0 +1,74 @@
+package com.fooddelivery.order_service.controller;
+
+import com.fooddelivery.order_service.config.TestSecurityConfig;
+import com.fooddelivery.order_service.feign.CachingRestaurantServiceClient;
+import com.fooddelivery.order_service.security.JwtFilter;
+import com.fooddelivery.order_service.security.JwtPrincipal;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Web layer tests for the restaurant cache invalidations pushed by restaurant-service.
+ */
+@WebMvcTest(
+    controllers = RestaurantCacheController.class,
+    excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtFilter.class)
+)
+@Import(TestSecurityConfig.class)
+class RestaurantCacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CachingRestaurantServiceClient restaurantCache;
+
+    private static RequestPostProcessor withRole(String role) {
+        JwtPrincipal principal = new JwtPrincipal("caller@example.com", 1L, role, List.of("ROLE_" + role), null);
+        return SecurityMockMvcRequestPostProcessors.authentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
+
+    @Test
+    void testInvalidate_Service() throws Exception {
+        mockMvc.perform(post("/internal/restaurant-cache/42/invalidate").with(withRole("SERVICE")))
+            .andExpect(status().isNoContent());
+
+        verify(restaurantCache).invalidate(42L);
+    }
+
+    @Test
+    void testInvalidateAll_Admin() throws Exception {
+        mockMvc.perform(post("/internal/restaurant-cache/invalidate").with(withRole("ADMIN")))
+            .andExpect(status().isNoContent());
+
+        verify(restaurantCache).invalidateAll();
+    }
+
+    @Test
+    void testInvalidate_CustomerForbidden() throws Exception {
+        mockMvc.perform(post("/internal/restaurant-cache/42/invalidate").with(withRole("USER")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/internal/restaurant-cache/invalidate").with(withRole("USER")))
+            .andExpect(status().isForbidden());
+
+        verifyNoInteractions(restaurantCache);
+    }
+}
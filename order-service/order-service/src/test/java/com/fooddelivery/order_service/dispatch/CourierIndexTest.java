@@ -0,0 +1,101 @@
+package com.fooddelivery.order_service.dispatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the grid index of live courier positions.
+ */
+public class CourierIndexTest {
+
+    // Connaught Place, New Delhi
+    private static final double LAT = 28.6315;
+    private static final double LON = 77.2167;
+
+    private CourierIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourierIndex(0.01);
+    }
+
+    @Test
+    @DisplayName("📍 The nearest available courier is claimed, even when a farther one shares its cell")
+    void testClaimNearest() {
+        index.update(1L, LAT + 0.05, LON, true);   // ~5.6 km north
+        index.update(2L, LAT + 0.002, LON, true);  // ~220 m north
+        index.update(3L, LAT, LON + 0.001, false); // ~100 m east, but on a break
+
+        Optional<CourierIndex.Match> match = index.claimNearest(LAT, LON, 10);
+
+        assertTrue(match.isPresent());
+        assertEquals(2L, match.get().courierId());
+        assertEquals(0.22, match.get().distanceKm(), 0.01);
+        assertTrue(index.get(2L).orElseThrow().busy());
+    }
+
+    @Test
+    @DisplayName("🔒 A claimed courier is not handed out again until released, and position updates keep them busy")
+    void testClaimAndRelease() {
+        index.update(1L, LAT, LON, true);
+
+        assertTrue(index.claimNearest(LAT, LON, 10).isPresent());
+        index.update(1L, LAT + 0.001, LON, true);
+        assertTrue(index.claimNearest(LAT, LON, 10).isEmpty());
+
+        assertTrue(index.release(1L));
+        assertEquals(1L, index.claimNearest(LAT, LON, 10).orElseThrow().courierId());
+    }
+
+    @Test
+    @DisplayName("📏 Couriers beyond the maximum distance or off shift are never matched")
+    void testOutOfRangeAndRemoved() {
+        index.update(1L, LAT + 0.2, LON, true); // ~22 km away
+        index.update(2L, LAT, LON, true);
+        index.remove(2L);
+
+        assertTrue(index.claimNearest(LAT, LON, 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("🚚 A courier who moved is found in their new cell, not their old one")
+    void testMove() {
+        index.update(1L, LAT + 0.3, LON, true);
+        index.update(1L, LAT + 0.003, LON, true);
+
+        assertEquals(1L, index.claimNearest(LAT, LON, 1).orElseThrow().courierId());
+    }
+
+    @Test
+    @DisplayName("⚡ Concurrent claims never hand the same courier to two orders")
+    void testConcurrentClaims() throws Exception {
+        for (long id = 1; id <= 200; id++) {
+            index.update(id, LAT + (id % 20) * 0.001, LON + (id / 20) * 0.001, true);
+        }
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 400; i++) {
+                executor.submit(() -> index.claimNearest(LAT, LON, 10).ifPresent(match -> {
+                    if (!claimed.add(match.courierId())) {
+                        duplicates.incrementAndGet();
+                    }
+                }));
+            }
+        }
+        assertEquals(0, duplicates.get(), "Courier claimed twice");
+        assertEquals(200, claimed.size());
+        assertEquals(0, index.availableCount());
+    }
+}
@@ -0,0 +1,141 @@
+package com.fooddelivery.order_service.dispatch;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
+import com.fooddelivery.order_service.feign.RestaurantServiceClient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the batched courier assignment rounds.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class DispatchServiceTest {
+
+    private static final double LAT = 28.6315;
+    private static final double LON = 77.2167;
+
+    @Mock
+    private RestaurantServiceClient restaurantServiceClient;
+
+    private CourierIndex courierIndex;
+    private SimpleMeterRegistry meterRegistry;
+    private DispatchService dispatchService;
+
+    @BeforeEach
+    void setUp() {
+        courierIndex = new CourierIndex(0.01);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatchService = new DispatchService(courierIndex, restaurantServiceClient, meterRegistry);
+        ReflectionTestUtils.setField(dispatchService, "enabled", true);
+        ReflectionTestUtils.setField(dispatchService, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatchService, "maxDistanceKm", 10.0);
+        when(restaurantServiceClient.getRestaurantsByIds(anyCollection())).thenReturn(List.of(
+                new RestaurantDto(1L, "Testaurant", "Delhi", "Indian", "ACTIVE", LAT, LON),
+                new RestaurantDto(2L, "Nowhere", "Delhi", "Indian", "ACTIVE")));
+    }
+
+    private static OrderChangedEvent event(Long orderId, Long restaurantId, String status, ChangeType type) {
+        return new OrderChangedEvent(orderId, 10L, restaurantId, 100.0, LocalDateTime.now(), status, type);
+    }
+
+    @Test
+    @DisplayName("🛵 A round assigns queued paid orders to the nearest couriers with one restaurant lookup")
+    void testAssignRound() {
+        // Arrange
+        courierIndex.update(100L, LAT + 0.001, LON, true);
+        courierIndex.update(200L, LAT + 0.02, LON, true);
+        dispatchService.onOrderChanged(event(1L, 1L, "PAYMENT_INITIATED", ChangeType.STATUS_CHANGED));
+        dispatchService.onOrderChanged(event(2L, 1L, "CONFIRMED", ChangeType.STATUS_CHANGED));
+        dispatchService.onOrderChanged(event(3L, 1L, "PENDING", ChangeType.CREATED));
+
+        // Act
+        int assigned = dispatchService.assignRound();
+
+        // Assert
+        assertEquals(2, assigned);
+        assertEquals(100L, dispatchService.getAssignment(1L).orElseThrow().courierId(), "Oldest order gets the closest courier");
+        assertEquals(200L, dispatchService.getAssignment(2L).orElseThrow().courierId());
+        assertTrue(dispatchService.getAssignment(3L).isEmpty(), "Unpaid orders are not dispatched");
+        verify(restaurantServiceClient, times(1)).getRestaurantsByIds(List.of(1L));
+        assertEquals(2, meterRegistry.get("dispatch.assignment.latency").timer().count());
+    }
+
+    @Test
+    @DisplayName("⏳ Orders nobody can take wait for the next round")
+    void testUnmatchedOrdersWait() {
+        // Arrange
+        dispatchService.onOrderChanged(event(1L, 1L, "PAYMENT_INITIATED", ChangeType.STATUS_CHANGED));
+
+        // Act & Assert
+        assertEquals(0, dispatchService.assignRound());
+        courierIndex.update(100L, LAT, LON, true);
+        assertEquals(1, dispatchService.assignRound());
+        assertEquals(100L, dispatchService.getAssignment(1L).orElseThrow().courierId());
+    }
+
+    @Test
+    @DisplayName("✅ Delivered and cancelled orders free their courier, and cancelled queued orders are dropped")
+    void testFinishedOrdersReleaseCourier() {
+        // Arrange
+        courierIndex.update(100L, LAT, LON, true);
+        dispatchService.onOrderChanged(event(1L, 1L, "PAYMENT_INITIATED", ChangeType.STATUS_CHANGED));
+        dispatchService.assignRound();
+        dispatchService.onOrderChanged(event(2L, 1L, "PAYMENT_INITIATED", ChangeType.STATUS_CHANGED));
+        dispatchService.onOrderChanged(event(2L, 1L, "CANCELLED", ChangeType.STATUS_CHANGED));
+
+        // Act
+        dispatchService.onOrderChanged(event(1L, 1L, "DELIVERED", ChangeType.STATUS_CHANGED));
+
+        // Assert
+        assertTrue(dispatchService.getAssignment(1L).isEmpty());
+        assertTrue(courierIndex.get(100L).orElseThrow().available());
+        assertEquals(0, dispatchService.assignRound(), "The cancelled order was dropped from the queue");
+    }
+
+    @Test
+    @DisplayName("🗺️ Orders whose restaurant has no location are dropped and counted as unroutable")
+    void testUnroutableOrder() {
+        // Arrange
+        courierIndex.update(100L, LAT, LON, true);
+        dispatchService.onOrderChanged(event(1L, 2L, "PAYMENT_INITIATED", ChangeType.STATUS_CHANGED));
+
+        // Act & Assert
+        assertEquals(0, dispatchService.assignRound());
+        assertEquals(1.0, meterRegistry.get("dispatch.orders").tag("result", "unroutable").counter().count());
+        assertTrue(courierIndex.get(100L).orElseThrow().available());
+    }
+
+    @Test
+    @DisplayName("🔁 A failed restaurant lookup puts the whole batch back for the next round")
+    void testRestaurantLookupFailure() {
+        // Arrange
+        courierIndex.update(100L, LAT, LON, true);
+        dispatchService.onOrderChanged(event(1L, 1L, "PAYMENT_INITIATED", ChangeType.STATUS_CHANGED));
+        when(restaurantServiceClient.getRestaurantsByIds(anyCollection()))
+                .thenThrow(new DependencyUnavailableException("restaurant-service", new RuntimeException("Simulated outage")))
+                .thenReturn(List.of(new RestaurantDto(1L, "Testaurant", "Delhi", "Indian", "ACTIVE", LAT, LON)));
+
+        // Act & Assert
+        assertEquals(0, dispatchService.assignRound());
+        assertEquals(1, dispatchService.assignRound());
+    }
+}
@@ -0,0 +1,149 @@
+package com.fooddelivery.order_service.dispatch;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.RestaurantServiceClient;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Simulator harness for courier dispatch: replays a synthetic city of couriers reporting their
+ * positions and a steady stream of paid orders, runs assignment rounds like the scheduler does, and
+ * reports assignment latency and pickup distances.
+ *
+ * Disabled by default. Run with: mvn test -Dtest=DispatchSimulationTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class DispatchSimulationTest {
+
+    private static final double CITY_LAT = 28.6315;
+    private static final double CITY_LON = 77.2167;
+    private static final double CITY_SPAN_DEGREES = 0.3; // About 33 km across
+
+    private static final int COURIERS = 5_000;
+    private static final int RESTAURANTS = 2_000;
+    private static final int ORDERS_PER_SECOND = 2_000;
+    private static final int SECONDS = 10;
+    private static final long ROUND_INTERVAL_MS = 100;
+    private static final long DELIVERY_MS = 2_000; // Time a courier stays busy after being assigned
+
+    @Test
+    @DisplayName("🛵 Assignment latency with thousands of couriers and orders per second")
+    void simulateDispatch() throws Exception {
+        Random random = new Random(42);
+        List<RestaurantDto> restaurants = new ArrayList<>();
+        for (long id = 1; id <= RESTAURANTS; id++) {
+            restaurants.add(new RestaurantDto(id, "Restaurant " + id, "Delhi", "Indian", "ACTIVE",
+                    jitter(random, CITY_LAT), jitter(random, CITY_LON)));
+        }
+        RestaurantServiceClient restaurantServiceClient = mock(RestaurantServiceClient.class);
+        when(restaurantServiceClient.getRestaurantsByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> restaurants.get((int) (id - 1))).toList();
+        });
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CourierIndex courierIndex = new CourierIndex(0.01);
+        DispatchService dispatchService = new DispatchService(courierIndex, restaurantServiceClient, meterRegistry);
+        ReflectionTestUtils.setField(dispatchService, "enabled", true);
+        ReflectionTestUtils.setField(dispatchService, "batchSize", 1_000);
+        ReflectionTestUtils.setField(dispatchService, "maxDistanceKm", 10.0);
+
+        double[][] positions = new double[COURIERS][];
+        for (int i = 0; i < COURIERS; i++) {
+            positions[i] = new double[]{jitter(random, CITY_LAT), jitter(random, CITY_LON)};
+            courierIndex.update(i, positions[i][0], positions[i][1], true);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong orderIds = new AtomicLong();
+        AtomicLong locationUpdates = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Couriers drift around and report every few hundred milliseconds
+            for (int worker = 0; worker < 8; worker++) {
+                int first = worker;
+                executor.submit(() -> {
+                    Random drift = new Random(first);
+                    while (running.get()) {
+                        for (int i = first; i < COURIERS; i += 8) {
+                            positions[i][0] += (drift.nextDouble() - 0.5) * 0.0005;
+                            positions[i][1] += (drift.nextDouble() - 0.5) * 0.0005;
+                            courierIndex.update(i, positions[i][0], positions[i][1], true);
+                            locationUpdates.incrementAndGet();
+                        }
+                        Thread.sleep(200);
+                    }
+                    return null;
+                });
+            }
+            // Paid orders arrive at a steady rate; each one is delivered a while after its courier was assigned
+            executor.submit(() -> {
+                Random orders = new Random(7);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < ORDERS_PER_SECOND / 100; i++) {
+                        long orderId = orderIds.incrementAndGet();
+                        long restaurantId = 1 + orders.nextInt(RESTAURANTS);
+                        dispatchService.onOrderChanged(event(orderId, restaurantId, "PAYMENT_INITIATED"));
+                        executor.submit(() -> {
+                            Thread.sleep(DELIVERY_MS + ROUND_INTERVAL_MS);
+                            dispatchService.onOrderChanged(event(orderId, restaurantId, "DELIVERED"));
+                            return null;
+                        });
+                    }
+                    Thread.sleep(10);
+                }
+                return null;
+            });
+            // The scheduler
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS + 1);
+            while (System.nanoTime() < deadline) {
+                dispatchService.assignRound();
+                Thread.sleep(ROUND_INTERVAL_MS);
+            }
+            running.set(false);
+        }
+
+        Timer latency = meterRegistry.get("dispatch.assignment.latency").timer();
+        Timer rounds = meterRegistry.get("dispatch.round.duration").timer();
+        System.out.printf("Orders: %d, assigned: %d, location updates: %d%n",
+                orderIds.get(), latency.count(), locationUpdates.get());
+        for (ValueAtPercentile percentile : latency.takeSnapshot().percentileValues()) {
+            System.out.printf("Assignment latency p%.0f: %.1f ms%n",
+                    percentile.percentile() * 100, percentile.value(TimeUnit.MILLISECONDS));
+        }
+        System.out.printf("Rounds: %d, mean %.2f ms, max %.2f ms%n", rounds.count(),
+                rounds.mean(TimeUnit.MILLISECONDS), rounds.max(TimeUnit.MILLISECONDS));
+        assertTrue(latency.count() > 0);
+    }
+
+    private static double jitter(Random random, double centre) {
+        return centre + (random.nextDouble() - 0.5) * CITY_SPAN_DEGREES;
+    }
+
+    private static OrderChangedEvent event(long orderId, long restaurantId, String status) {
+        return new OrderChangedEvent(orderId, 10L, restaurantId, 100.0, LocalDateTime.now(), status, ChangeType.STATUS_CHANGED);
+    }
+}
@@ -0,0 +1,100 @@
+package com.fooddelivery.order_service.feign;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for coalescing single-restaurant lookups into batch calls.
+ */
+public class BatchingRestaurantServiceClientTest {
+
+    private final RestaurantServiceClient delegate = mock(RestaurantServiceClient.class);
+    private BatchingRestaurantServiceClient batchingClient;
+
+    @AfterEach
+    void tearDown() {
+        batchingClient.shutdown();
+    }
+
+    private static List<RestaurantDto> found(Collection<Long> ids) {
+        return ids.stream()
+                .filter(id -> id < 90)
+                .map(id -> new RestaurantDto(id, "Restaurant " + id, "Pune", "Indian", "ACTIVE"))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("📦 Concurrent lookups within one window go out as a single batch call")
+    void testConcurrentLookupsShareOneBatch() throws Exception {
+        batchingClient = new BatchingRestaurantServiceClient(delegate, 200, 100);
+        when(delegate.getRestaurantsByIds(anyCollection())).thenAnswer(invocation -> found(invocation.getArgument(0)));
+
+        List<Future<RestaurantDto>> lookups = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id : new long[]{1L, 2L, 2L, 3L, 99L}) {
+                lookups.add(executor.submit(() -> batchingClient.getRestaurantById(id)));
+            }
+            assertEquals(1L, lookups.get(0).get(5, TimeUnit.SECONDS).getId());
+            assertEquals(2L, lookups.get(1).get(5, TimeUnit.SECONDS).getId());
+            assertSame(lookups.get(1).get(), lookups.get(2).get(), "Duplicate IDs share one result");
+            assertEquals(3L, lookups.get(3).get(5, TimeUnit.SECONDS).getId());
+            assertNull(lookups.get(4).get(5, TimeUnit.SECONDS), "Unknown IDs come back as null");
+        }
+        verify(delegate, times(1)).getRestaurantsByIds(anyCollection());
+        verify(delegate, never()).getRestaurantById(anyLong());
+    }
+
+    @Test
+    @DisplayName("🚀 A full window is sent without waiting for the timer")
+    void testFullBatchSentImmediately() throws Exception {
+        batchingClient = new BatchingRestaurantServiceClient(delegate, 60_000, 2);
+        when(delegate.getRestaurantsByIds(anyCollection())).thenAnswer(invocation -> found(invocation.getArgument(0)));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<RestaurantDto> first = executor.submit(() -> batchingClient.getRestaurantById(1L));
+            Future<RestaurantDto> second = executor.submit(() -> batchingClient.getRestaurantById(2L));
+
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS).getId());
+            assertEquals(2L, second.get(5, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("❌ A failed batch call fails every lookup in it")
+    void testBatchFailure() {
+        batchingClient = new BatchingRestaurantServiceClient(delegate, 5, 100);
+        when(delegate.getRestaurantsByIds(anyCollection()))
+                .thenThrow(new DependencyUnavailableException("restaurant-service", new RuntimeException("Simulated outage")));
+
+        assertThrows(DependencyUnavailableException.class, () -> batchingClient.getRestaurantById(1L));
+    }
+
+    @Test
+    @DisplayName("⏭️ A zero window calls restaurant-service directly, and batch lookups are split by max batch size")
+    void testDisabledAndSplitBatches() {
+        batchingClient = new BatchingRestaurantServiceClient(delegate, 0, 2);
+        when(delegate.getRestaurantById(1L)).thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(delegate.getRestaurantsByIds(anyCollection())).thenAnswer(invocation -> found(invocation.getArgument(0)));
+
+        assertEquals(1L, batchingClient.getRestaurantById(1L).getId());
+        assertEquals(3, batchingClient.getRestaurantsByIds(List.of(1L, 2L, 3L, 3L)).size());
+
+        verify(delegate).getRestaurantsByIds(List.of(1L, 2L));
+        verify(delegate).getRestaurantsByIds(List.of(3L));
+    }
+}
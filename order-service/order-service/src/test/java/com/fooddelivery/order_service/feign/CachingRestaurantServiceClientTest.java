@@ -0,0 +1,112 @@
+package com.fooddelivery.order_service.feign;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the restaurant near-cache in front of the Feign client.
+ */
+public class CachingRestaurantServiceClientTest {
+
+    private RestaurantServiceClient delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingRestaurantServiceClient cachingClient;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(RestaurantServiceClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cachingClient = new CachingRestaurantServiceClient(delegate, meterRegistry, 30, 100);
+    }
+
+    @Test
+    @DisplayName("✅ Repeated lookups are served from the cache")
+    void testCacheHit() {
+        when(delegate.getRestaurantById(1L)).thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+
+        RestaurantDto first = cachingClient.getRestaurantById(1L);
+        RestaurantDto second = cachingClient.getRestaurantById(1L);
+
+        assertSame(first, second);
+        verify(delegate, times(1)).getRestaurantById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "restaurants").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("🔁 Invalidation forces the next lookup to hit restaurant-service")
+    void testInvalidate() {
+        when(delegate.getRestaurantById(1L))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "CLOSED"));
+
+        assertEquals("ACTIVE", cachingClient.getRestaurantById(1L).getStatus());
+        cachingClient.invalidate(1L);
+        assertEquals("CLOSED", cachingClient.getRestaurantById(1L).getStatus());
+
+        verify(delegate, times(2)).getRestaurantById(1L);
+    }
+
+    @Test
+    @DisplayName("❌ Missing restaurants are not cached")
+    void testNullNotCached() {
+        when(delegate.getRestaurantById(99L)).thenReturn(null);
+
+        assertNull(cachingClient.getRestaurantById(99L));
+        assertNull(cachingClient.getRestaurantById(99L));
+
+        verify(delegate, times(2)).getRestaurantById(99L);
+    }
+
+    @Test
+    @DisplayName("🔒 Concurrent misses for one ID share a single remote call")
+    void testConcurrentMissesShareOneCall() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getRestaurantById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE");
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<RestaurantDto> first = executor.submit(() -> cachingClient.getRestaurantById(1L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<RestaurantDto> second = executor.submit(() -> cachingClient.getRestaurantById(1L));
+            Thread.sleep(50); // Let the second lookup find the in-flight load
+            release.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        }
+        verify(delegate, times(1)).getRestaurantById(1L);
+    }
+
+    @Test
+    @DisplayName("📦 Batch lookups only ask restaurant-service for the misses, and cache what comes back")
+    void testBatchLookupLoadsMissesOnly() {
+        when(delegate.getRestaurantById(1L)).thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(delegate.getRestaurantsByIds(List.of(2L, 99L)))
+                .thenReturn(List.of(new RestaurantDto(2L, "Second", "Pune", "Indian", "ACTIVE")));
+        cachingClient.getRestaurantById(1L);
+
+        List<RestaurantDto> restaurants = cachingClient.getRestaurantsByIds(List.of(1L, 2L, 99L, 2L));
+
+        assertEquals(2, restaurants.size(), "Unknown IDs are left out");
+        assertEquals("Second", cachingClient.getRestaurantById(2L).getName());
+        verify(delegate, times(1)).getRestaurantsByIds(List.of(2L, 99L));
+        verify(delegate, never()).getRestaurantById(2L);
+    }
+}
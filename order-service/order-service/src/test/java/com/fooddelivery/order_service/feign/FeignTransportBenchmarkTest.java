@@ -0,0 +1,107 @@
+package com.fooddelivery.order_service.feign;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.hc5.ApacheHttp5Client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of restaurant lookups through Feign's default HttpURLConnection client versus the pooled
+ * HttpClient 5 transport from PooledFeignTransportConfig, against a local stub restaurant-service.
+ * Both run the same number of concurrent callers; the default client only keeps a handful of idle
+ * connections per host (http.maxConnections), so most calls under load open a new socket.
+ *
+ * Disabled by default. Run with: mvn test -Dtest=FeignTransportBenchmarkTest -Dbenchmark=true
+ * Callers default to 64 and requests to 50k; override with -Dbenchmark.threads / -Dbenchmark.requests.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class FeignTransportBenchmarkTest {
+
+    @Test
+    @DisplayName("⏱️ Feign transport: HttpURLConnection vs pooled HttpClient 5")
+    void compareTransports() throws Exception {
+        int threads = Integer.getInteger("benchmark.threads", 64);
+        int requests = Integer.getInteger("benchmark.requests", 50_000);
+
+        HttpServer server = PooledFeignTransportConfigTest.stubServer();
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.start();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty(PooledFeignTransportConfig.CLIENT_NAME_PROPERTY, "restaurant-service")
+                .withProperty("order.http.max-connections-per-route", String.valueOf(threads));
+        PooledFeignTransportConfig config = new PooledFeignTransportConfig();
+        PoolingHttpClientConnectionManager connectionManager =
+                config.feignConnectionManager(environment, new SimpleMeterRegistry());
+
+        try (CloseableHttpClient httpClient = config.feignHttpClient(connectionManager, environment)) {
+            Request request = PooledFeignTransportConfigTest.getRestaurant(server);
+
+            double defaultRate = run("HttpURLConnection", new Client.Default(null, null), request, threads, requests);
+            double pooledRate = run("pooled HC5", new ApacheHttp5Client(httpClient), request, threads, requests);
+
+            System.out.printf("Requests/sec: default=%.0f pooled=%.0f (x%.1f), pooled connections opened=%d%n",
+                    defaultRate, pooledRate, pooledRate / defaultRate, connectionManager.getTotalStats().getAvailable());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private double run(String label, Client client, Request request, int threads, int requests) throws Exception {
+        Request.Options options = new Request.Options(1, TimeUnit.SECONDS, 2, TimeUnit.SECONDS, true);
+        // Warm up connections and JIT before timing
+        call(client, request, options, threads * 10, 1);
+
+        long start = System.nanoTime();
+        call(client, request, options, requests, threads);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double rate = requests / seconds;
+        System.out.printf("%-18s %,d requests in %.2fs -> %.0f req/sec%n", label, requests, seconds, rate);
+        return rate;
+    }
+
+    private void call(Client client, Request request, Request.Options options, int requests, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int share = requests / threads + (t < requests % threads ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < share; i++) {
+                        try (Response response = client.execute(request, options)) {
+                            if (response.status() != 200) {
+                                throw new IllegalStateException("Unexpected status " + response.status());
+                            }
+                            Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
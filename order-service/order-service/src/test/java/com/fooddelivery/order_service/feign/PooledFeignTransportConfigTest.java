@@ -0,0 +1,124 @@
+package com.fooddelivery.order_service.feign;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.hc5.ApacheHttp5Client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the pooled Feign transport against a local stub restaurant-service.
+ */
+public class PooledFeignTransportConfigTest {
+
+    static final String RESTAURANT_JSON =
+            "{\"id\":1,\"name\":\"Testaurant\",\"address\":\"Pune\",\"cuisine\":\"Indian\",\"status\":\"ACTIVE\"}";
+
+    private final PooledFeignTransportConfig config = new PooledFeignTransportConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty(PooledFeignTransportConfig.CLIENT_NAME_PROPERTY, "restaurant-service");
+
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = stubServer();
+        server.start();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.stop(0);
+    }
+
+    static HttpServer stubServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/restaurants/1", exchange -> {
+            byte[] body = RESTAURANT_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        return server;
+    }
+
+    static Request getRestaurant(HttpServer server) {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/restaurants/1";
+        return Request.create(Request.HttpMethod.GET, url, Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private void buildTransport() {
+        connectionManager = config.feignConnectionManager(environment, meterRegistry);
+        httpClient = config.feignHttpClient(connectionManager, environment);
+    }
+
+    @Test
+    @DisplayName("🔁 Sequential calls reuse one pooled keep-alive connection")
+    void testConnectionReuse() throws Exception {
+        buildTransport();
+        ApacheHttp5Client client = new ApacheHttp5Client(httpClient);
+        Request.Options options = new Request.Options(1, TimeUnit.SECONDS, 2, TimeUnit.SECONDS, true);
+
+        for (int i = 0; i < 20; i++) {
+            try (Response response = client.execute(getRestaurant(server), options)) {
+                assertEquals(200, response.status());
+                assertEquals(RESTAURANT_JSON, Util.toString(response.body().asReader(StandardCharsets.UTF_8)));
+            }
+        }
+
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+        assertEquals(1, connectionManager.getTotalStats().getAvailable(), "All 20 calls should share one connection");
+    }
+
+    @Test
+    @DisplayName("⚙️ Per-client settings override the shared defaults")
+    void testPerClientOverrides() {
+        environment.setProperty("order.http.max-connections", "80");
+        environment.setProperty("order.http.max-connections-per-route", "20");
+        environment.setProperty("order.http.clients.restaurant-service.max-connections-per-route", "40");
+        environment.setProperty("order.http.clients.payment-service.max-connections-per-route", "5");
+
+        buildTransport();
+
+        assertEquals(80, connectionManager.getMaxTotal());
+        assertEquals(40, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    @DisplayName("📊 Pool metrics are published per client")
+    void testPoolMetrics() {
+        buildTransport();
+
+        assertEquals(200.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "restaurant-service").gauge().value());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "restaurant-service").tag("state", "available").gauge());
+    }
+}
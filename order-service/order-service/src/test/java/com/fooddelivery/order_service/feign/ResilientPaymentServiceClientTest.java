@@ -0,0 +1,110 @@
+package com.fooddelivery.order_service.feign;
+
+import com.fooddelivery.order_service.dto.PaymentRequest;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the circuit breaker and bulkhead in front of the payment-service Feign client.
+ */
+public class ResilientPaymentServiceClientTest {
+
+    private PaymentServiceClient delegate;
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private ResilientPaymentServiceClient resilientClient;
+
+    private final PaymentRequest request = new PaymentRequest(1L, 299.99, "CARD");
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PaymentServiceClient.class);
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(200))
+                .permittedNumberOfCallsInHalfOpenState(1)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        resilientClient = new ResilientPaymentServiceClient(delegate, circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    @Test
+    @DisplayName("🔌 Repeated failures open the breaker and later calls fail fast")
+    void testBreakerOpensAndFailsFast() {
+        when(delegate.processPayment(any(PaymentRequest.class), anyString())).thenThrow(new RuntimeException("payment-service timeout"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> resilientClient.processPayment(request, "order-1"));
+        }
+
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+                () -> resilientClient.processPayment(request, "order-1"));
+        assertEquals("payment-service", e.getDependency());
+        verify(delegate, times(4)).processPayment(any(PaymentRequest.class), anyString());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("payment-service").getState());
+    }
+
+    @Test
+    @DisplayName("🔁 A successful half-open probe closes the breaker again")
+    void testHalfOpenProbeCloses() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("payment-service");
+        circuitBreaker.transitionToOpenState();
+        when(delegate.processPayment(any(PaymentRequest.class), anyString()))
+                .thenReturn(new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK));
+
+        assertThrows(DependencyUnavailableException.class, () -> resilientClient.processPayment(request, "order-1"));
+        verifyNoInteractions(delegate);
+        circuitBreaker.transitionToHalfOpenState(); // What the wait-duration-in-open-state timer does
+
+        assertEquals(HttpStatus.OK, resilientClient.processPayment(request, "order-1").getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("🚧 A full bulkhead rejects the call without reaching payment-service")
+    void testBulkheadFull() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.processPayment(any(PaymentRequest.class), anyString())).thenAnswer(invocation -> {
+            inFlight.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK);
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> resilientClient.processPayment(request, "order-1"));
+            assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+            assertThrows(DependencyUnavailableException.class, () -> resilientClient.processPayment(request, "order-1"));
+            verify(delegate, times(1)).processPayment(any(PaymentRequest.class), anyString());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.fooddelivery.order_service.ratelimit;
+
+import com.fooddelivery.order_service.security.JwtPrincipal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the per-customer and per-restaurant order rate limits.
+ */
+public class OrderRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("order.rate-limit.customer.capacity", "2")
+                .withProperty("order.rate-limit.customer.refill-per-second", "0.1")
+                .withProperty("order.rate-limit.customer.roles.PARTNER.capacity", "5")
+                .withProperty("order.rate-limit.customer.roles.ADMIN.capacity", "0")
+                .withProperty("order.rate-limit.restaurant.capacity", "3")
+                .withProperty("order.rate-limit.restaurant.refill-per-second", "1");
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new OrderRateLimiter(environment, meterRegistry, true, 1000);
+    }
+
+    private static JwtPrincipal user(long userId, String role) {
+        return new JwtPrincipal("user" + userId + "@example.com", userId, role, List.of(), null);
+    }
+
+    private double requests(String limiter, String result) {
+        return meterRegistry.get("order.rate_limit.requests").tag("limiter", limiter).tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("🚦 A customer over their burst gets a Retry-After until the next token")
+    void testCustomerLimit() {
+        assertEquals(0, rateLimiter.tryAcquire(user(1, "USER"), List.of(10L)));
+        assertEquals(0, rateLimiter.tryAcquire(user(1, "USER"), List.of(10L)));
+
+        assertEquals(10, rateLimiter.tryAcquire(user(1, "USER"), List.of(10L)), "One token per 10 seconds");
+        assertEquals(0, rateLimiter.tryAcquire(user(2, "USER"), List.of(10L)), "Other customers are unaffected");
+        assertEquals(1.0, requests("customer", "rejected"));
+        assertEquals(3.0, requests("customer", "allowed"));
+    }
+
+    @Test
+    @DisplayName("🎭 Limits are looked up per JWT role; capacity 0 means unlimited")
+    void testPerRoleLimits() {
+        assertEquals(5, rateLimiter.customerLimit("partner").capacity());
+        assertEquals(2, rateLimiter.customerLimit("USER").capacity(), "Roles without overrides use the default");
+        assertEquals(2, rateLimiter.customerLimit(null).capacity());
+        assertTrue(rateLimiter.customerLimit("ADMIN").unlimited());
+    }
+
+    @Test
+    @DisplayName("🍽️ A busy restaurant is limited across customers, and the customer's token is given back")
+    void testRestaurantLimit() {
+        for (long userId = 1; userId <= 3; userId++) {
+            assertEquals(0, rateLimiter.tryAcquire(user(userId, "ADMIN"), List.of(10L)));
+        }
+
+        assertEquals(1, rateLimiter.tryAcquire(user(4, "USER"), List.of(10L)));
+        assertEquals(1.0, requests("restaurant", "rejected"));
+        // Customer 4's token was refunded, so their full burst is still available elsewhere
+        assertEquals(0, rateLimiter.tryAcquire(user(4, "USER"), List.of(20L)));
+        assertEquals(0, rateLimiter.tryAcquire(user(4, "USER"), List.of(20L)));
+    }
+
+    @Test
+    @DisplayName("📦 A batch takes one token per order, from the customer and from each order's restaurant")
+    void testBatchCountsEveryOrder() {
+        // Customer capacity 2: a batch of two uses it all up
+        assertEquals(0, rateLimiter.tryAcquire(user(1, "USER"), List.of(10L, 20L)));
+        assertTrue(rateLimiter.tryAcquire(user(1, "USER"), List.of(30L)) > 0);
+
+        // Restaurant capacity 3: after two single orders for restaurant 10, a batch of two has to wait
+        assertEquals(0, rateLimiter.tryAcquire(user(2, "ADMIN"), List.of(10L)));
+        assertEquals(1, rateLimiter.tryAcquire(user(3, "PARTNER"), List.of(10L, 10L)));
+    }
+
+    @Test
+    @DisplayName("↩️ A rejected batch gives back every token it took")
+    void testRejectedBatchRefundsEverything() {
+        assertEquals(0, rateLimiter.tryAcquire(user(1, "ADMIN"), List.of(30L, 30L, 30L)));
+
+        // Restaurant 20 is taken, then restaurant 30 has no room
+        assertTrue(rateLimiter.tryAcquire(user(2, "PARTNER"), List.of(20L, 20L, 30L)) > 0);
+
+        // Partner 2 still has all 5 tokens and restaurant 20 all 3
+        assertEquals(0, rateLimiter.tryAcquire(user(2, "PARTNER"), List.of(20L, 20L, 20L, 40L, 40L)));
+    }
+
+    @Test
+    @DisplayName("🚫 A batch bigger than a bucket can ever hold is rejected outright")
+    void testBatchLargerThanCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> rateLimiter.tryAcquire(user(1, "USER"), List.of(10L, 20L, 30L)));
+        assertThrows(IllegalArgumentException.class, () -> rateLimiter.tryAcquire(user(2, "ADMIN"), List.of(10L, 10L, 10L, 10L)));
+
+        // Nothing was taken
+        assertEquals(0, rateLimiter.tryAcquire(user(1, "USER"), List.of(10L, 20L)));
+        assertEquals(0, rateLimiter.tryAcquire(user(2, "ADMIN"), List.of(10L)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.fooddelivery.order_service.ratelimit;
+
+import com.fooddelivery.order_service.ratelimit.TokenBucketLimiter.Limit;
+import com.fooddelivery.order_service.ratelimit.TokenBucketLimiter.Result;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the lock-free token buckets behind order rate limiting.
+ */
+public class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final Limit LIMIT = new Limit(3, 1.0); // Burst of 3, then one per second
+
+    @Test
+    @DisplayName("🪣 A full bucket allows a burst, then one request per refill interval")
+    void testBurstAndRefill() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(1L, LIMIT, 0).allowed());
+        }
+        Result rejected = limiter.tryAcquire(1L, LIMIT, 0);
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND, rejected.retryAfterNanos());
+
+        assertFalse(limiter.tryAcquire(1L, LIMIT, SECOND / 2).allowed());
+        assertTrue(limiter.tryAcquire(1L, LIMIT, SECOND).allowed());
+        // Other keys have their own bucket
+        assertTrue(limiter.tryAcquire(2L, LIMIT, SECOND).allowed());
+    }
+
+    @Test
+    @DisplayName("↩️ A refunded token can be used again right away")
+    void testRefund() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L, LIMIT, 0);
+        }
+
+        limiter.refund(1L, LIMIT, 0);
+
+        assertTrue(limiter.tryAcquire(1L, LIMIT, 0).allowed());
+        assertFalse(limiter.tryAcquire(1L, LIMIT, 0).allowed());
+    }
+
+    @Test
+    @DisplayName("🔢 Several tokens are taken together or not at all, and refunded together")
+    void testMultiplePermits() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100);
+        assertTrue(limiter.tryAcquire(1L, LIMIT, 2, 0).allowed());
+
+        Result rejected = limiter.tryAcquire(1L, LIMIT, 2, 0);
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND, rejected.retryAfterNanos(), "One token left, one more needed");
+        assertTrue(limiter.tryAcquire(1L, LIMIT, 1, 0).allowed(), "The rejected request took nothing");
+
+        limiter.refund(1L, LIMIT, 3, 0);
+        assertTrue(limiter.tryAcquire(1L, LIMIT, 3, 0).allowed());
+    }
+
+    @Test
+    @DisplayName("🧹 Buckets are evicted once refilled, and new keys go untracked past max-buckets")
+    void testEvictionAndBound() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2);
+        limiter.tryAcquire(1L, LIMIT, 0);
+        limiter.tryAcquire(2L, LIMIT, 0);
+        limiter.tryAcquire(2L, LIMIT, 0);
+
+        Result untracked = limiter.tryAcquire(3L, LIMIT, 0);
+        assertTrue(untracked.allowed());
+        assertFalse(untracked.tracked());
+        assertEquals(2, limiter.size());
+
+        // Key 1 is full again after one second, key 2 only after two
+        assertEquals(1, limiter.evictIdle(SECOND));
+        assertEquals(1, limiter.evictIdle(2 * SECOND));
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    @DisplayName("♾️ A capacity of 0 never limits and never allocates a bucket")
+    void testUnlimited() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limiter.tryAcquire(1L, new Limit(0, 1.0), 0).allowed());
+        }
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    @DisplayName("🔒 Concurrent requests for one key never get more tokens than the bucket holds")
+    void testConcurrentAcquire() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(100);
+        Limit limit = new Limit(500, 0.001); // Effectively no refill during the test
+        AtomicInteger allowed = new AtomicInteger();
+        long now = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 2_000; i++) {
+                executor.submit(() -> {
+                    if (limiter.tryAcquire(1L, limit, now).allowed()) {
+                        allowed.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(500, allowed.get());
+    }
+}
@@ -0,0 +1,131 @@
+package com.fooddelivery.order_service.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Insert throughput for Order rows with IDENTITY ids versus pooled sequence ids plus JDBC batching.
+ * Replays the statements Hibernate issues in each mode over plain JDBC against an H2 file database:
+ * IDENTITY is one INSERT plus a generated-key read per row, while the pooled sequence fetches
+ * one value per 50 ids and sends the INSERTs in batches of hibernate.jdbc.batch_size.
+ *
+ * Disabled by default. Run with: mvn test -Dtest=OrderInsertBenchmarkTest -Dbenchmark=true
+ * Row count defaults to 200k; override with -Dbenchmark.rows=...
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OrderInsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 50;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String COLUMNS =
+            "customer_id, restaurant_id, total_amount, order_time, status, payment_method";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("⏱️ Order inserts: IDENTITY vs pooled sequence with batching")
+    void compareInsertThroughput() throws Exception {
+        long rows = Long.getLong("benchmark.rows", 200_000L);
+        String url = "jdbc:h2:file:" + dataDir.resolve("orders");
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE orders_identity (id BIGINT AUTO_INCREMENT PRIMARY KEY, customer_id BIGINT, "
+                        + "restaurant_id BIGINT, total_amount DOUBLE, order_time TIMESTAMP, status VARCHAR(32), payment_method VARCHAR(32))");
+                statement.execute("CREATE TABLE orders_sequence (id BIGINT PRIMARY KEY, customer_id BIGINT, "
+                        + "restaurant_id BIGINT, total_amount DOUBLE, order_time TIMESTAMP, status VARCHAR(32), payment_method VARCHAR(32))");
+                statement.execute("CREATE SEQUENCE order_seq START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+            }
+
+            double identityRate = run("IDENTITY", rows, () -> insertWithIdentity(connection, rows));
+            double sequenceRate = run("pooled sequence", rows, () -> insertWithSequence(connection, rows));
+
+            System.out.printf("Rows/sec: identity=%.0f pooled+batched=%.0f (x%.1f)%n",
+                    identityRate, sequenceRate, sequenceRate / identityRate);
+        }
+    }
+
+    private void insertWithIdentity(Connection connection, long rows) throws Exception {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO orders_identity (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (long i = 0; i < rows; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    keys.getLong(1);
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    connection.commit();
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private void insertWithSequence(Connection connection, long rows) throws Exception {
+        try (PreparedStatement nextValue = connection.prepareStatement("SELECT NEXT VALUE FOR order_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO orders_sequence (id, " + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            long nextId = 0;
+            long blockEnd = 0;
+            for (long i = 0; i < rows; i++) {
+                if (nextId >= blockEnd) {
+                    // Pooled optimizer: one sequence call reserves the next ALLOCATION_SIZE ids
+                    try (ResultSet resultSet = nextValue.executeQuery()) {
+                        resultSet.next();
+                        nextId = resultSet.getLong(1);
+                    }
+                    blockEnd = nextId + ALLOCATION_SIZE;
+                }
+                insert.setLong(1, nextId++);
+                bind(insert, 2, i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private static void bind(PreparedStatement insert, int first, long i) throws Exception {
+        insert.setLong(first, i % 10_000);
+        insert.setLong(first + 1, i % 500);
+        insert.setDouble(first + 2, 100 + i % 400);
+        insert.setTimestamp(first + 3, Timestamp.valueOf(LocalDateTime.now()));
+        insert.setString(first + 4, "PENDING");
+        insert.setString(first + 5, "CARD");
+    }
+
+    private double run(String label, long rows, InsertRun insertRun) throws Exception {
+        long start = System.nanoTime();
+        insertRun.run();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        double rate = rows / seconds;
+        System.out.printf("%-16s %,d rows in %.2fs -> %.0f rows/sec%n", label, rows, seconds, rate);
+        return rate;
+    }
+
+    @FunctionalInterface
+    private interface InsertRun {
+        void run() throws Exception;
+    }
+}
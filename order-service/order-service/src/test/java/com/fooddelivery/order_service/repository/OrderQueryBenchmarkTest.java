@@ -0,0 +1,110 @@
+package com.fooddelivery.order_service.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+/**
+ * Query latency for the customer history and restaurant time-range pages, before and after
+ * the composite indexes declared on Order. Runs plain JDBC against an H2 file database using
+ * the same SQL shape Hibernate generates for the keyset queries in OrderRepository.
+ *
+ * Disabled by default. Run with: mvn test -Dtest=OrderQueryBenchmarkTest -Dbenchmark=true
+ * Table size defaults to 10M rows; override with -Dbenchmark.rows=1000000 for a quicker run.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OrderQueryBenchmarkTest {
+
+    private static final int CUSTOMERS = 100_000;
+    private static final int RESTAURANTS = 5_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int ITERATIONS = 20;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private static final String CUSTOMER_PAGE =
+            "SELECT * FROM orders WHERE customer_id = ? ORDER BY id DESC LIMIT " + PAGE_SIZE;
+    private static final String RESTAURANT_PAGE =
+            "SELECT * FROM orders WHERE restaurant_id = ? AND order_time >= ? AND order_time < ? "
+                    + "ORDER BY order_time DESC, id DESC LIMIT " + PAGE_SIZE;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    @DisplayName("⏱️ Customer / restaurant order queries with and without indexes")
+    void compareQueryLatency() throws Exception {
+        long rows = Long.getLong("benchmark.rows", 10_000_000L);
+        String url = "jdbc:h2:file:" + dataDir.resolve("orders") + ";CACHE_SIZE=262144";
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            populate(connection, rows);
+
+            System.out.printf("%,d orders, %d iterations per query, page size %d%n", rows, ITERATIONS, PAGE_SIZE);
+            report("no indexes", connection, rows);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX idx_order_customer_id ON orders (customer_id, id)");
+                statement.execute("CREATE INDEX idx_order_restaurant_time ON orders (restaurant_id, order_time, id)");
+                statement.execute("ANALYZE");
+            }
+            report("composite indexes", connection, rows);
+        }
+    }
+
+    private void populate(Connection connection, long rows) throws Exception {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id BIGINT, restaurant_id BIGINT, "
+                    + "total_amount DOUBLE, order_time TIMESTAMP, status VARCHAR(32), payment_method VARCHAR(32))");
+            // One order per minute starting at EPOCH, customers and restaurants spread evenly
+            statement.execute("INSERT INTO orders SELECT X, MOD(X, " + CUSTOMERS + "), MOD(X * 7, " + RESTAURANTS + "), "
+                    + "MOD(X, 500) + 0.99, DATEADD('MINUTE', X, TIMESTAMP '2024-01-01 00:00:00'), 'DELIVERED', 'CARD' "
+                    + "FROM SYSTEM_RANGE(1, " + rows + ")");
+        }
+        System.out.printf("Loaded %,d rows in %.1fs%n", rows, (System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private void report(String label, Connection connection, long rows) throws Exception {
+        // Pick a one-week window in the middle of the generated data
+        LocalDateTime from = EPOCH.plusMinutes(rows / 2);
+        LocalDateTime to = from.plusDays(7);
+
+        double customerMs = time(connection, CUSTOMER_PAGE, i -> new Object[]{(long) (i * 4_999) % CUSTOMERS});
+        double restaurantMs = time(connection, RESTAURANT_PAGE, i -> new Object[]{
+                (long) (i * 251) % RESTAURANTS, Timestamp.valueOf(from), Timestamp.valueOf(to)});
+
+        System.out.printf("%-18s customer page avg %8.2f ms | restaurant range page avg %8.2f ms%n",
+                label, customerMs, restaurantMs);
+    }
+
+    private double time(Connection connection, String sql, IntFunction<Object[]> params) throws Exception {
+        long total = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ITERATIONS; i++) {
+                Object[] values = params.apply(i);
+                for (int p = 0; p < values.length; p++) {
+                    statement.setObject(p + 1, values[p]);
+                }
+                long start = System.nanoTime();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        resultSet.getLong(1);
+                    }
+                }
+                total += System.nanoTime() - start;
+            }
+        }
+        return total / (double) ITERATIONS / 1_000_000.0;
+    }
+}
@@ -0,0 +1,165 @@
+package com.fooddelivery.order_service.schedule;
+
+import com.fooddelivery.order_service.dto.ScheduledOrderRow;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import com.fooddelivery.order_service.service.OrderService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for holding scheduled orders in the timer wheel and releasing them when due.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ScheduledOrderServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private ScheduledOrderService scheduledOrderService;
+
+    @BeforeEach
+    void setUp() {
+        scheduledOrderService = new ScheduledOrderService(orderService, orderRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 1000, 512, 30);
+        ReflectionTestUtils.setField(scheduledOrderService, "releaseBatchSize", 2);
+        ReflectionTestUtils.setField(scheduledOrderService, "retrySeconds", 30L);
+        when(orderService.scheduleOrder(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderService.placeScheduledOrder(anyLong())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduledOrderService.shutdown();
+    }
+
+    private static Order order(Long id, LocalDateTime scheduledFor) {
+        Order order = new Order(id, 10L, 1L, 250.0, null, null, "CARD");
+        order.setScheduledFor(scheduledFor);
+        return order;
+    }
+
+    @Test
+    @DisplayName("⏰ A scheduled order is placed in the first tick at or after its time, not before")
+    void testScheduleAndRelease() {
+        // Arrange
+        long now = scheduledOrderService.currentTick();
+        scheduledOrderService.schedule(order(1L, LocalDateTime.now().plusMinutes(10)));
+        assertEquals(1, scheduledOrderService.pendingCount());
+
+        // Act & Assert
+        assertEquals(0, scheduledOrderService.releaseDue(now + 9 * 60));
+        verify(orderService, never()).placeScheduledOrder(anyLong());
+
+        assertEquals(1, scheduledOrderService.releaseDue(now + 11 * 60));
+        verify(orderService).placeScheduledOrder(1L);
+        assertEquals(0, scheduledOrderService.pendingCount());
+    }
+
+    @Test
+    @DisplayName("❌ Times in the past or beyond max-days-ahead are rejected before anything is saved")
+    void testScheduleRejectsBadTimes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduledOrderService.schedule(order(null, LocalDateTime.now().minusMinutes(1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduledOrderService.schedule(order(null, LocalDateTime.now().plusDays(31))));
+        verify(orderService, never()).scheduleOrder(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("🚦 Orders due at the same time are released a batch per tick")
+    void testReleaseInBatches() {
+        // Arrange
+        long now = scheduledOrderService.currentTick();
+        LocalDateTime lunch = LocalDateTime.now().plusMinutes(5);
+        for (long id = 1; id <= 3; id++) {
+            scheduledOrderService.schedule(order(id, lunch));
+        }
+
+        // Act & Assert
+        assertEquals(2, scheduledOrderService.releaseDue(now + 6 * 60));
+        assertEquals(1, scheduledOrderService.dueCount());
+        assertEquals(1, scheduledOrderService.releaseDue(now + 6 * 60 + 1));
+        verify(orderService, times(3)).placeScheduledOrder(anyLong());
+    }
+
+    @Test
+    @DisplayName("🏗️ Scheduled orders are reloaded from the table at startup; overdue ones fire on the next tick")
+    void testRehydrate() {
+        // Arrange: order 1 came due while the service was down
+        long now = scheduledOrderService.currentTick();
+        when(orderRepository.streamScheduled()).thenReturn(Stream.of(
+                new ScheduledOrderRow(1L, LocalDateTime.now().minusMinutes(3)),
+                new ScheduledOrderRow(2L, LocalDateTime.now().plusHours(2))));
+
+        // Act
+        scheduledOrderService.rehydrate();
+
+        // Assert
+        assertEquals(2, scheduledOrderService.pendingCount());
+        assertEquals(1, scheduledOrderService.releaseDue(now + 1));
+        verify(orderService).placeScheduledOrder(1L);
+        verify(orderService, never()).placeScheduledOrder(2L);
+    }
+
+    @Test
+    @DisplayName("⏸️ An order that can't be placed while a dependency is down is retried later")
+    void testRetryWhenDependencyUnavailable() {
+        // Arrange
+        long now = scheduledOrderService.currentTick();
+        scheduledOrderService.schedule(order(1L, LocalDateTime.now().plusSeconds(5)));
+        when(orderService.placeScheduledOrder(1L))
+                .thenThrow(new DependencyUnavailableException("restaurant-service", new RuntimeException("circuit open")))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(1, scheduledOrderService.releaseDue(now + 10));
+        assertEquals(1, scheduledOrderService.pendingCount(), "Back in the wheel");
+        assertEquals(0, scheduledOrderService.releaseDue(now + 20));
+        assertEquals(1, scheduledOrderService.releaseDue(now + 45));
+        verify(orderService, times(2)).placeScheduledOrder(1L);
+    }
+
+    @Test
+    @DisplayName("🗑️ Cancelling a scheduled order drops its timer")
+    void testCancelledOrderIsDropped() {
+        // Arrange
+        long now = scheduledOrderService.currentTick();
+        scheduledOrderService.schedule(order(1L, LocalDateTime.now().plusMinutes(10)));
+
+        // Act
+        scheduledOrderService.onOrderChanged(new OrderChangedEvent(1L, 10L, 1L, 250.0, LocalDateTime.now(),
+                "CANCELLED", ChangeType.STATUS_CHANGED));
+
+        // Assert
+        assertEquals(0, scheduledOrderService.pendingCount());
+        assertEquals(0, scheduledOrderService.releaseDue(now + 11 * 60));
+        verify(orderService, never()).placeScheduledOrder(anyLong());
+    }
+}
@@ -0,0 +1,97 @@
+package com.fooddelivery.order_service.schedule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hierarchical timer wheel behind scheduled orders.
+ */
+public class TimerWheelTest {
+
+    @Test
+    @DisplayName("⏰ Timers fire in the tick they are due, across level boundaries")
+    void testAdvance() {
+        TimerWheel wheel = new TimerWheel(8, 3, 100);
+        wheel.add(1L, 103);  // Level 0
+        wheel.add(2L, 150);  // Level 1, cascades down once
+        wheel.add(3L, 400);  // Level 2, cascades down twice
+
+        assertEquals(List.of(), wheel.advance(102));
+        assertEquals(List.of(1L), wheel.advance(103));
+        assertEquals(List.of(), wheel.advance(149));
+        assertEquals(List.of(2L), wheel.advance(150));
+        assertEquals(List.of(), wheel.advance(399));
+        assertEquals(List.of(3L), wheel.advance(400));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("🗑️ Cancelled and replaced timers don't fire at their old time")
+    void testCancelAndReplace() {
+        TimerWheel wheel = new TimerWheel(8, 3, 0);
+        wheel.add(1L, 10);
+        wheel.add(2L, 10);
+        wheel.add(2L, 70); // Rescheduled
+
+        assertTrue(wheel.cancel(1L));
+        assertFalse(wheel.cancel(1L));
+        assertEquals(List.of(), wheel.advance(69));
+        assertEquals(List.of(2L), wheel.advance(70));
+    }
+
+    @Test
+    @DisplayName("⌛ Overdue timers fire on the next tick; deadlines past the top level are rejected")
+    void testBounds() {
+        TimerWheel wheel = new TimerWheel(8, 2, 50);
+        wheel.add(1L, 10);
+
+        assertEquals(List.of(1L), wheel.advance(51));
+        wheel.add(2L, 51 + 63);
+        assertThrows(IllegalArgumentException.class, () -> wheel.add(3L, 51 + 64));
+    }
+
+    @Test
+    @DisplayName("🎲 Random schedules fire exactly when a plain map of deadlines says they should")
+    void testMatchesBruteForce() {
+        Random random = new Random(42);
+        TimerWheel wheel = new TimerWheel(16, 3, 0);
+        Map<Long, Long> deadlines = new HashMap<>();
+        long now = 0;
+        for (int step = 0; step < 2_000; step++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                assertEquals(deadlines.remove(id) != null, wheel.cancel(id));
+            } else {
+                long deadline = now + 1 + random.nextInt(3_000);
+                wheel.add(id, deadline);
+                deadlines.put(id, deadline);
+            }
+
+            long to = now + random.nextInt(40);
+            List<Long> fired = wheel.advance(to);
+            Set<Long> expected = new HashSet<>();
+            deadlines.forEach((timer, deadline) -> {
+                if (deadline <= to) {
+                    expected.add(timer);
+                }
+            });
+            assertEquals(expected, new HashSet<>(fired));
+            assertEquals(expected.size(), fired.size());
+            for (int i = 1; i < fired.size(); i++) {
+                assertTrue(deadlines.get(fired.get(i - 1)) <= deadlines.get(fired.get(i)), "Fired in deadline order");
+            }
+            expected.forEach(deadlines::remove);
+            now = to;
+        }
+        assertEquals(deadlines.size(), wheel.size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.fooddelivery.order_service.security;
+
+import com.fooddelivery.common.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cost of authenticating one POST /orders request, before and after parsing the JWT once.
+ * "Before" replays the old path: the filter built a parser and verified the token, then the
+ * controller built another parser, re-derived the HMAC key and verified it again.
+ * "After" is the current JwtFilter with the parser built at startup, and "cached" adds the
+ * VerifiedTokenCache so a repeated token skips verification altogether.
+ *
+ * Disabled by default. Run with: mvn test -Dtest=JwtFilterBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class JwtFilterBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    @DisplayName("⏱️ JWT filter path: parse twice per request vs parse once vs cached")
+    void compareFilterPath() throws Exception {
+        String token = JwtFilterTest.token(JwtFilterTest.SECRET, 42L);
+        JwtFilter jwtFilter = new JwtFilter(new JwtUtil(JwtFilterTest.SECRET), new VerifiedTokenCache<>(false, 0, 900, null));
+        JwtFilter cachingFilter = new JwtFilter(new JwtUtil(JwtFilterTest.SECRET), new VerifiedTokenCache<>(true, 10_000, 900, null));
+
+        Runnable before = () -> {
+            Claims filterClaims = Jwts.parserBuilder()
+                    .setSigningKey(JwtFilterTest.SECRET.getBytes())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            Claims controllerClaims = Jwts.parserBuilder()
+                    .setSigningKey(Keys.hmacShaKeyFor(JwtFilterTest.SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            if (filterClaims.getSubject() == null || controllerClaims.get("userId") == null) {
+                throw new IllegalStateException();
+            }
+        };
+        Runnable after = () -> filter(jwtFilter, token);
+        Runnable cached = () -> filter(cachingFilter, token);
+
+        double beforeMicros = measure("parse twice", before);
+        double afterMicros = measure("parse once", after);
+        double cachedMicros = measure("cached", cached);
+        System.out.printf("Per request: before=%.2fus after=%.2fus (x%.1f) cached=%.2fus (x%.1f)%n",
+                beforeMicros, afterMicros, beforeMicros / afterMicros, cachedMicros, beforeMicros / cachedMicros);
+    }
+
+    private static void filter(JwtFilter jwtFilter, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        if (!(SecurityContextHolder.getContext().getAuthentication().getPrincipal() instanceof JwtPrincipal)) {
+            throw new IllegalStateException();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    private double measure(String label, Runnable path) {
+        for (int i = 0; i < WARMUP; i++) {
+            path.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.run();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+        System.out.printf("%-12s %.2f us/request over %,d requests%n", label, micros, ITERATIONS);
+        return micros;
+    }
+}
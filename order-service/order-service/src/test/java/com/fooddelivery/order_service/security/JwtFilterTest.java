@@ -0,0 +1,104 @@
+package com.fooddelivery.order_service.security;
+
+import com.fooddelivery.common.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JwtFilter: the token is verified once and its claims become the principal.
+ */
+public class JwtFilterTest {
+
+    static final String SECRET = "super-secret-key-for-jwt-signing-must-be-strong-12345";
+
+    private final JwtFilter jwtFilter = new JwtFilter(new JwtUtil(SECRET), new VerifiedTokenCache<>(false, 0, 900, null));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    static String token(String secret, long userId) {
+        return Jwts.builder()
+                .setSubject("customer@example.com")
+                .claim("role", "USER")
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("userId", userId)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    @DisplayName("✅ Valid token sets a JwtPrincipal with the verified claims")
+    void testValidToken_SetsPrincipal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader("Authorization", "Bearer " + token(SECRET, 42L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        jwtFilter.doFilter(request, response, chain);
+
+        assertNotNull(chain.getRequest(), "Filter chain should continue");
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        JwtPrincipal principal = assertInstanceOf(JwtPrincipal.class, authentication.getPrincipal());
+        assertEquals(42L, principal.userId());
+        assertEquals("USER", principal.role());
+        assertEquals("customer@example.com", authentication.getName());
+        assertEquals("ROLE_USER", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    @DisplayName("❌ Token signed with another key is rejected with 401")
+    void testForeignSignature_Unauthorized() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader("Authorization", "Bearer " + token("another-secret-key-that-is-also-long-enough-123", 42L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        jwtFilter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest(), "Filter chain should stop");
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("✅ Cached token is accepted without parsing it again")
+    void testCachedToken_SkipsParsing() throws Exception {
+        String token = token(SECRET, 42L);
+        JwtUtil jwtUtil = spy(new JwtUtil(SECRET));
+        JwtFilter cachingFilter = new JwtFilter(jwtUtil, new VerifiedTokenCache<>(true, 100, 900, null));
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders/mine");
+            request.addHeader("Authorization", "Bearer " + token);
+            cachingFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+            JwtPrincipal principal = (JwtPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            assertEquals(42L, principal.userId());
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(jwtUtil, times(1)).parse(token);
+    }
+}
@@ -0,0 +1,120 @@
+package com.fooddelivery.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.common.idempotency.IdempotencyService;
+import com.fooddelivery.common.idempotency.InMemoryIdempotencyStore;
+import com.fooddelivery.order_service.model.Order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Idempotency-Key handling with the in-memory store.
+ */
+public class IdempotencyServiceTest {
+
+    private final IdempotencyService idempotencyService =
+            new IdempotencyService(new InMemoryIdempotencyStore(24, 1000), new ObjectMapper().findAndRegisterModules(), 5000);
+
+    private final Order request = new Order(null, 10L, 1L, 299.99, null, null, "CARD");
+
+    @Test
+    @DisplayName("🔁 Concurrent duplicates collapse onto one execution")
+    void testConcurrentDuplicatesCollapse() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ResponseEntity<?>> first = executor.submit(() -> idempotencyService.execute("orders:10", "key-1", request, () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return ResponseEntity.status(HttpStatus.CREATED).body(new Order(100L, 10L, 1L, 299.99, null, "PAYMENT_INITIATED", "CARD"));
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<ResponseEntity<?>> duplicate = executor.submit(() -> idempotencyService.execute("orders:10", "key-1", request, () -> {
+                executions.incrementAndGet();
+                return ResponseEntity.status(HttpStatus.CREATED).body("should not run");
+            }));
+            Thread.sleep(100); // Let the duplicate reach the in-flight wait
+            release.countDown();
+
+            assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+            ResponseEntity<?> replayed = duplicate.get(5, TimeUnit.SECONDS);
+            assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+            assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+            assertTrue(replayed.getBody().toString().contains("\"id\":100"));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("🔁 Server errors are not stored, so the same key can be retried")
+    void testServerErrorIsNotStored() {
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyService.execute("orders:10", "key-2", request, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("restaurant-service is temporarily unavailable.");
+        });
+        ResponseEntity<?> retried = idempotencyService.execute("orders:10", "key-2", request, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body("placed");
+        });
+
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("⏳ Rate-limited responses are not stored, so the same key can be retried after Retry-After")
+    void testTooManyRequestsIsNotStored() {
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyService.execute("orders:10", "key-4", request, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Too many orders. Retry in 3s.");
+        });
+        ResponseEntity<?> retried = idempotencyService.execute("orders:10", "key-4", request, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body("placed");
+        });
+
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("🔒 Keys are scoped per caller")
+    void testKeysAreScopedPerCaller() {
+        idempotencyService.execute("orders:10", "key-3", request, () -> ResponseEntity.ok("customer 10"));
+        ResponseEntity<?> other = idempotencyService.execute("orders:11", "key-3", request, () -> ResponseEntity.ok("customer 11"));
+
+        assertEquals("customer 11", other.getBody());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
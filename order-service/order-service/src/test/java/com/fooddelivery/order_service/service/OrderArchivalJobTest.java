@@ -0,0 +1,123 @@
+package com.fooddelivery.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.order_service.archive.OrderArchive;
+import com.fooddelivery.order_service.event.OrdersArchivedEvent;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.repository.OrderRepository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for moving old orders from the order table to the archive.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OrderArchivalJobTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OrderArchive archive;
+    private OrderArchivalJob job;
+    private final LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        archive = new OrderArchive(new ObjectMapper().findAndRegisterModules(), directory.toString(), 2, 60_000);
+        ReflectionTestUtils.invokeMethod(archive, "init");
+
+        job = new OrderArchivalJob(orderRepository, archive,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher);
+        ReflectionTestUtils.setField(job, "entityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(job, "statuses", List.of("DELIVERED", "PAYMENT_FAILED", "CANCELLED"));
+        ReflectionTestUtils.setField(job, "maxPerSegment", 1000);
+        ReflectionTestUtils.setField(job, "deleteBatchSize", 2);
+    }
+
+    private static Order order(long id, long version) {
+        return new Order(id, 10L, 1L, 40.0, LocalDateTime.now().minusYears(1), "DELIVERED", "CARD", version);
+    }
+
+    @Test
+    @DisplayName("🗄️ Old orders are copied to a sealed segment, then deleted from the table in batches")
+    void testArchiveOlderThan() throws Exception {
+        // Arrange
+        when(orderRepository.streamArchivable(anyCollection(), eq(cutoff), any(Pageable.class)))
+                .thenReturn(Stream.of(order(1, 0), order(2, 0), order(3, 0)));
+        when(orderRepository.lockAllById(List.of(1L, 2L))).thenReturn(List.of(order(1, 0), order(2, 0)));
+        when(orderRepository.lockAllById(List.of(3L))).thenReturn(List.of(order(3, 0)));
+
+        // Act
+        long moved = job.archiveOlderThan(cutoff);
+
+        // Assert
+        assertEquals(3, moved);
+        verify(orderRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(orderRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(eventPublisher).publishEvent(new OrdersArchivedEvent(List.of(1L, 2L)));
+        assertEquals(1, archive.segments().size());
+        assertEquals(2L, archive.find(2L).orElseThrow().getId());
+    }
+
+    @Test
+    @DisplayName("✋ Orders changed after they were copied stay in the table")
+    void testChangedOrdersAreKept() throws Exception {
+        // Arrange: order 2 was updated between the copy and the delete
+        when(orderRepository.streamArchivable(anyCollection(), eq(cutoff), any(Pageable.class)))
+                .thenReturn(Stream.of(order(1, 0), order(2, 0)));
+        when(orderRepository.lockAllById(List.of(1L, 2L))).thenReturn(List.of(order(1, 0), order(2, 1)));
+
+        // Act
+        long moved = job.archiveOlderThan(cutoff);
+
+        // Assert
+        assertEquals(1, moved);
+        verify(orderRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(eventPublisher).publishEvent(new OrdersArchivedEvent(List.of(1L)));
+    }
+
+    @Test
+    @DisplayName("💤 Nothing to archive leaves no segment behind")
+    void testNothingToArchive() throws Exception {
+        // Arrange
+        when(orderRepository.streamArchivable(anyCollection(), eq(cutoff), any(Pageable.class))).thenReturn(Stream.empty());
+
+        // Act
+        long moved = job.archiveOlderThan(cutoff);
+
+        // Assert
+        assertEquals(0, moved);
+        assertTrue(archive.segments().isEmpty());
+        verify(orderRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+}
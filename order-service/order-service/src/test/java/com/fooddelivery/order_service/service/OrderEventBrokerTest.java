@@ -0,0 +1,162 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for routing, Last-Event-ID resume and slow-subscriber handling in the order event stream.
+ */
+public class OrderEventBrokerTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    private final OrderEventBroker broker = new OrderEventBroker(8, 100, 60_000, 10, null) {
+        @Override
+        SseEmitter createEmitter() {
+            return new RecordingEmitter();
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdown();
+    }
+
+    @Test
+    @DisplayName("📡 Customers only get their own orders, admins get everything")
+    void testRoutingByCustomer() {
+        RecordingEmitter customer = (RecordingEmitter) broker.subscribe(10L, null);
+        RecordingEmitter admin = (RecordingEmitter) broker.subscribe(null, null);
+
+        broker.onOrderChanged(statusChanged(1L, 10L, "DISPATCHED"));
+        broker.onOrderChanged(statusChanged(2L, 11L, "DISPATCHED"));
+
+        waitFor(() -> admin.orderEvents().size() == 2);
+        waitFor(() -> customer.orderEvents().size() == 1);
+        assertTrue(customer.orderEvents().get(0).contains("orderId=1"));
+    }
+
+    @Test
+    @DisplayName("🔁 Reconnecting with Last-Event-ID replays only the missed events")
+    void testResumeFromLastEventId() {
+        RecordingEmitter first = (RecordingEmitter) broker.subscribe(10L, null);
+        broker.onOrderChanged(statusChanged(1L, 10L, "PAYMENT_INITIATED"));
+        waitFor(() -> first.orderEvents().size() == 1);
+        String lastEventId = first.lastEventId();
+
+        // Missed while disconnected
+        broker.onOrderChanged(statusChanged(1L, 10L, "DISPATCHED"));
+        broker.onOrderChanged(statusChanged(2L, 11L, "DISPATCHED"));
+
+        RecordingEmitter resumed = (RecordingEmitter) broker.subscribe(10L, lastEventId);
+        waitFor(() -> resumed.orderEvents().size() == 1);
+        assertTrue(resumed.orderEvents().get(0).contains("DISPATCHED"));
+        assertFalse(resumed.frames().stream().anyMatch(f -> f.contains(OrderEventBroker.RESET_EVENT)));
+    }
+
+    @Test
+    @DisplayName("♻️ An unknown Last-Event-ID gets a reset event instead of a replay")
+    void testResetForUnknownEventId() {
+        broker.onOrderChanged(statusChanged(1L, 10L, "DISPATCHED"));
+
+        RecordingEmitter resumed = (RecordingEmitter) broker.subscribe(10L, "previous-instance-42");
+
+        waitFor(() -> resumed.frames().stream().anyMatch(f -> f.contains("event:" + OrderEventBroker.RESET_EVENT)));
+        assertTrue(resumed.orderEvents().isEmpty());
+    }
+
+    @Test
+    @DisplayName("🐢 A stalled subscriber is disconnected without holding up the others")
+    void testSlowSubscriberIsDropped() {
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter stalled = (RecordingEmitter) broker.subscribe(null, null);
+        stalled.blockOn(unblock);
+        RecordingEmitter healthy = (RecordingEmitter) broker.subscribe(null, null);
+
+        try {
+            // More events than the stalled subscriber's 8-slot buffer holds; paced so the healthy one keeps up
+            for (int i = 1; i <= 20; i++) {
+                broker.onOrderChanged(statusChanged((long) i, 10L, "DISPATCHED"));
+                int sent = i;
+                waitFor(() -> healthy.orderEvents().size() == sent);
+            }
+
+            assertEquals(1, broker.subscriberCount(), "Only the healthy subscriber should remain");
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    private static OrderChangedEvent statusChanged(Long orderId, Long customerId, String status) {
+        return new OrderChangedEvent(orderId, customerId, 1L, 100.0, null, status, ChangeType.STATUS_CHANGED);
+    }
+
+    private static void waitFor(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5s");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Captures each sent event as text instead of writing it to a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate;
+
+        void blockOn(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            frames.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        List<String> frames() {
+            return frames;
+        }
+
+        List<String> orderEvents() {
+            return frames.stream().filter(f -> f.contains("event:" + OrderEventBroker.ORDER_EVENT + "\n")).toList();
+        }
+
+        String lastEventId() {
+            Matcher matcher = EVENT_ID.matcher(orderEvents().get(orderEvents().size() - 1));
+            assertTrue(matcher.find());
+            return matcher.group(1);
+        }
+    }
+}
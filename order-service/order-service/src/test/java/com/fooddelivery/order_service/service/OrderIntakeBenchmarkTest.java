@@ -0,0 +1,109 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.archive.OrderArchive;
+import com.fooddelivery.order_service.dto.PaymentRequest;
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.fooddelivery.order_service.feign.PaymentServiceClient;
+import com.fooddelivery.order_service.feign.RestaurantServiceClient;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderOutbox;
+import com.fooddelivery.order_service.repository.OrderOutboxRepository;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import com.fooddelivery.order_service.repository.OrderSagaRepository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Throughput comparison between the synchronous placeOrder path and the accept-then-process path.
+ * Payment-service latency is simulated with a fixed delay; the number of request threads plays
+ * the role of the Tomcat / Hikari pool that the synchronous path keeps busy during that delay.
+ *
+ * Disabled by default. Run with: mvn test -Dtest=OrderIntakeBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OrderIntakeBenchmarkTest {
+
+    private static final int REQUEST_THREADS = 16;
+    private static final int ORDERS = 800;
+    private static final long PAYMENT_LATENCY_MS = 50;
+
+    @Test
+    @DisplayName("⏱️ Sync placeOrder vs async acceptOrder throughput")
+    void compareIntakeThroughput() throws Exception {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        OrderOutboxRepository orderOutboxRepository = mock(OrderOutboxRepository.class);
+        RestaurantServiceClient restaurantServiceClient = mock(RestaurantServiceClient.class);
+        PaymentServiceClient paymentServiceClient = mock(PaymentServiceClient.class);
+
+        AtomicLong ids = new AtomicLong();
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order.getId() == null) {
+                order.setId(ids.incrementAndGet());
+            }
+            return order;
+        });
+        ConcurrentLinkedQueue<OrderOutbox> outbox = new ConcurrentLinkedQueue<>();
+        when(orderOutboxRepository.save(any(OrderOutbox.class))).thenAnswer(invocation -> {
+            outbox.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(restaurantServiceClient.getRestaurantById(anyLong()))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(PAYMENT_LATENCY_MS);
+            return new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK);
+        });
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        OrderService orderService = new OrderService(orderRepository, paymentServiceClient, restaurantServiceClient,
+                orderOutboxRepository, event -> { }, mock(OrderArchive.class), mock(OrderSagaRepository.class), transactionTemplate);
+        OrderIntakeService intakeService = new OrderIntakeService(orderService, orderRepository, orderOutboxRepository,
+                transactionTemplate);
+
+        double syncRate = run("sync placeOrder", orderService::placeOrder);
+        double asyncRate = run("async acceptOrder", intakeService::acceptOrder);
+
+        System.out.printf("Accepted orders/sec: sync=%.0f async=%.0f (x%.1f), outbox backlog=%d%n",
+                syncRate, asyncRate, asyncRate / syncRate, outbox.size());
+    }
+
+    private double run(String label, Consumer<Order> intake) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(REQUEST_THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(ORDERS);
+            for (int i = 0; i < ORDERS; i++) {
+                futures.add(pool.submit(() -> intake.accept(new Order(null, 10L, 1L, 299.99, null, null, "CARD"))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            double rate = ORDERS / seconds;
+            System.out.printf("%-18s %d orders in %.2fs -> %.0f orders/sec%n", label, ORDERS, seconds, rate);
+            return rate;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderOutbox;
+import com.fooddelivery.order_service.repository.OrderOutboxRepository;
+import com.fooddelivery.order_service.repository.OrderRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the accept-then-process intake path.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OrderIntakeServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    private OrderIntakeService orderIntakeService;
+
+    @BeforeEach
+    void setUp() {
+        // A TransactionTemplate over a mocked manager simply runs the callback
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        orderIntakeService = new OrderIntakeService(orderService, orderRepository, orderOutboxRepository, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("✅ Accept order saves it as PENDING with a PAYMENT_REQUESTED outbox entry")
+    void testAcceptOrder_WritesOrderAndOutbox() {
+        // Arrange
+        Order order = new Order(null, 10L, 1L, 299.99, null, null, "CARD");
+        when(orderService.validateRestaurant(1L)).thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order saved = invocation.getArgument(0);
+            saved.setId(100L);
+            return saved;
+        });
+
+        // Act
+        Order result = orderIntakeService.acceptOrder(order);
+
+        // Assert
+        assertEquals(100L, result.getId());
+        assertEquals("PENDING", result.getStatus());
+        assertNotNull(result.getOrderTime());
+
+        ArgumentCaptor<OrderOutbox> outboxCaptor = ArgumentCaptor.forClass(OrderOutbox.class);
+        verify(orderOutboxRepository, times(1)).save(outboxCaptor.capture());
+        assertEquals(100L, outboxCaptor.getValue().getOrderId());
+        assertEquals(OrderOutbox.EVENT_PAYMENT_REQUESTED, outboxCaptor.getValue().getEventType());
+        assertEquals(OrderOutbox.STATUS_PENDING, outboxCaptor.getValue().getStatus());
+
+        // Payment is never called on the request thread
+        verify(orderService, never()).requestPayment(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("❌ Accept order rejects closed restaurants without writing anything")
+    void testAcceptOrder_ClosedRestaurant() {
+        // Arrange
+        Order order = new Order(null, 10L, 1L, 299.99, null, null, "CARD");
+        when(orderService.validateRestaurant(1L))
+                .thenThrow(new IllegalArgumentException("Restaurant is currently closed or unavailable."));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> orderIntakeService.acceptOrder(order));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderOutboxRepository, never()).save(any(OrderOutbox.class));
+    }
+
+    @Test
+    @DisplayName("📦 Accept orders in a batch writes orders and outbox entries with saveAll")
+    void testAcceptOrders_Batch() {
+        // Arrange
+        List<Order> orders = List.of(
+                new Order(null, 10L, 1L, 100.0, null, null, "CARD"),
+                new Order(null, 10L, 1L, 200.0, null, null, "CARD"));
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> saved = invocation.getArgument(0);
+            long id = 100L;
+            for (Order order : saved) {
+                order.setId(id++);
+            }
+            return saved;
+        });
+
+        // Act
+        List<Order> result = orderIntakeService.acceptOrders(orders);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(order -> "PENDING".equals(order.getStatus())));
+        verify(orderService, times(1)).validateRestaurants(orders);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderOutbox>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+        verify(orderOutboxRepository, times(1)).saveAll(outboxCaptor.capture());
+        assertEquals(List.of(100L, 101L), outboxCaptor.getValue().stream().map(OrderOutbox::getOrderId).toList());
+        verify(orderService, never()).requestPayment(any(Order.class));
+    }
+}
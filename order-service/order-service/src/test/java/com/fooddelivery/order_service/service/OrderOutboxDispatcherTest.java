@@ -0,0 +1,175 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderOutbox;
+import com.fooddelivery.order_service.repository.OrderOutboxRepository;
+import com.fooddelivery.order_service.repository.OrderRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the background outbox dispatcher.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OrderOutboxDispatcherTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    private OrderOutboxDispatcher dispatcher;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        dispatcher = new OrderOutboxDispatcher(orderService, orderRepository, orderOutboxRepository, transactionTemplate);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 60L);
+
+        order = new Order(100L, 10L, 1L, 299.99, LocalDateTime.now(), "PENDING", "CARD");
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(order));
+        when(orderOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private OrderOutbox pendingEntry(int attempts) {
+        OrderOutbox entry = OrderOutbox.paymentRequested(100L);
+        entry.setId(1L);
+        entry.setAttempts(attempts);
+        return entry;
+    }
+
+    @Test
+    @DisplayName("✅ Dispatch initiates payment and marks order and outbox entry")
+    void testDispatch_Success() {
+        // Arrange
+        OrderOutbox entry = pendingEntry(0);
+        when(orderOutboxRepository.findDispatchable(eq(OrderOutbox.STATUS_PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+        when(orderService.requestPayment(order)).thenReturn("PAYMENT_INITIATED");
+        when(orderRepository.transitionStatus(eq(100L), anyCollection(), eq("PAYMENT_INITIATED"))).thenReturn(1);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(OrderOutbox.STATUS_PROCESSED, entry.getStatus());
+        assertEquals(1, entry.getAttempts());
+        assertNotNull(entry.getProcessedAt());
+        verify(orderRepository, times(1)).transitionStatus(eq(100L), anyCollection(), eq("PAYMENT_INITIATED"));
+        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals("PAYMENT_INITIATED", order.getStatus());
+        verify(orderService, times(1)).publishChange(order, ChangeType.STATUS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("🔁 Dispatch schedules a retry when payment-service throws")
+    void testDispatch_RetryOnError() {
+        // Arrange
+        OrderOutbox entry = pendingEntry(0);
+        when(orderOutboxRepository.findDispatchable(eq(OrderOutbox.STATUS_PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+        when(orderService.requestPayment(order)).thenThrow(new RuntimeException("Simulated Payment Service Failure"));
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(OrderOutbox.STATUS_PENDING, entry.getStatus());
+        assertEquals("Simulated Payment Service Failure", entry.getLastError());
+        assertTrue(entry.getAvailableAt().isAfter(LocalDateTime.now()));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyCollection(), anyString());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("❌ Dispatch gives up after max attempts and marks PAYMENT_ERROR")
+    void testDispatch_GivesUpAfterMaxAttempts() {
+        // Arrange
+        OrderOutbox entry = pendingEntry(2);
+        when(orderOutboxRepository.findDispatchable(eq(OrderOutbox.STATUS_PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+        when(orderService.requestPayment(order)).thenThrow(new RuntimeException("Simulated Payment Service Failure"));
+        when(orderRepository.transitionStatus(eq(100L), anyCollection(), eq("PAYMENT_ERROR"))).thenReturn(1);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(OrderOutbox.STATUS_FAILED, entry.getStatus());
+        verify(orderRepository, times(1)).transitionStatus(eq(100L), anyCollection(), eq("PAYMENT_ERROR"));
+        // Same recovery as the sync path: the saga takes over the payment retries
+        verify(orderService, times(1)).startPaymentRetrySaga(order);
+    }
+
+    @Test
+    @DisplayName("🚫 Dispatch closes the entry without charging an order that was cancelled meanwhile")
+    void testDispatch_SkipsOrderNoLongerPayable() {
+        // Arrange
+        order.setStatus("CANCELLED");
+        OrderOutbox entry = pendingEntry(0);
+        when(orderOutboxRepository.findDispatchable(eq(OrderOutbox.STATUS_PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(OrderOutbox.STATUS_PROCESSED, entry.getStatus());
+        assertNotNull(entry.getProcessedAt());
+        verify(orderService, never()).requestPayment(any(Order.class));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyCollection(), anyString());
+        assertEquals("CANCELLED", order.getStatus());
+    }
+
+    @Test
+    @DisplayName("⏸️ Dispatch defers without using an attempt when the payment circuit is open")
+    void testDispatch_DeferredWhenCircuitOpen() {
+        // Arrange
+        OrderOutbox entry = pendingEntry(2);
+        when(orderOutboxRepository.findDispatchable(eq(OrderOutbox.STATUS_PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(entry));
+        when(orderService.requestPayment(order))
+                .thenThrow(new DependencyUnavailableException("payment-service", new RuntimeException("circuit open")));
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(OrderOutbox.STATUS_PENDING, entry.getStatus());
+        assertEquals(2, entry.getAttempts(), "The rejected call should not count as an attempt");
+        assertTrue(entry.getAvailableAt().isAfter(LocalDateTime.now().minusSeconds(1)));
+        // Only a PENDING order is moved to PAYMENT_DEFERRED; one already deferred is left as is
+        verify(orderRepository, times(1)).transitionStatus(100L, Set.of("PENDING"), "PAYMENT_DEFERRED");
+    }
+}
@@ -0,0 +1,242 @@
+package com.fooddelivery.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderSaga;
+import com.fooddelivery.order_service.model.OrderSaga.Step;
+import com.fooddelivery.order_service.repository.OrderRepository;
+import com.fooddelivery.order_service.repository.OrderSagaRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the order placement saga.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OrderSagaOrchestratorTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderSagaRepository orderSagaRepository;
+
+    private OrderSagaOrchestrator orchestrator;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        orchestrator = new OrderSagaOrchestrator(orderService, orderRepository, orderSagaRepository,
+                transactionTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(orchestrator, "batchSize", 10);
+        ReflectionTestUtils.setField(orchestrator, "maxAttempts", 3);
+        ReflectionTestUtils.setField(orchestrator, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(orchestrator, "maxBackoffSeconds", 300L);
+        ReflectionTestUtils.setField(orchestrator, "deferredRetrySeconds", 30L);
+
+        order = new Order(100L, 10L, 1L, 299.99, LocalDateTime.now(), "PENDING", "CARD");
+        when(orderRepository.findById(100L)).thenReturn(Optional.of(order));
+        when(orderRepository.transitionStatus(eq(100L), anyCollection(), anyString())).thenReturn(1);
+        when(orderSagaRepository.save(any(OrderSaga.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderSagaRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orchestrator.shutdown();
+    }
+
+    private OrderSaga claimedSaga(Step step, int attempts) {
+        OrderSaga saga = OrderSaga.start(100L, step);
+        saga.setId(1L);
+        saga.setAttempts(attempts);
+        return saga;
+    }
+
+    private static ResponseEntity<String> paymentResponse(String status) {
+        return new ResponseEntity<>("{\"orderId\":100,\"amount\":299.99,\"status\":\"" + status + "\"}", HttpStatus.CREATED);
+    }
+
+    @Test
+    @DisplayName("🚀 Starting a saga saves the order as PENDING with a saga at VALIDATE_RESTAURANT, without remote calls")
+    void testStart() {
+        Order newOrder = new Order(null, 10L, 1L, 299.99, null, null, "CARD");
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            orders.forEach(o -> o.setId(100L));
+            return orders;
+        });
+
+        Order started = orchestrator.start(newOrder);
+
+        assertEquals("PENDING", started.getStatus());
+        assertNotNull(started.getOrderTime());
+        verify(orderSagaRepository).saveAll(argThat((Iterable<OrderSaga> sagas) -> {
+            OrderSaga saga = sagas.iterator().next();
+            return saga.getOrderId().equals(100L) && saga.getStep() == Step.VALIDATE_RESTAURANT;
+        }));
+        verify(orderService).publishChange(started, ChangeType.CREATED);
+        verify(orderService, never()).requestPayment(any());
+    }
+
+    @Test
+    @DisplayName("✅ A claimed saga validates, pays and confirms the order in one run")
+    void testPoll_HappyPath() {
+        OrderSaga saga = claimedSaga(Step.VALIDATE_RESTAURANT, 0);
+        when(orderSagaRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(saga))
+                .thenReturn(List.of());
+        when(orderService.requestPayment(order)).thenReturn("PAYMENT_INITIATED");
+        when(orderService.fetchPaymentOutcome(order)).thenReturn(paymentResponse("SUCCESS"));
+
+        orchestrator.poll();
+
+        assertEquals(OrderSaga.STATUS_COMPLETED, saga.getStatus());
+        assertEquals(Step.CONFIRM_PAYMENT, saga.getStep());
+        assertNotNull(saga.getFinishedAt());
+        verify(orderService).validateRestaurant(1L);
+        verify(orderRepository).transitionStatus(eq(100L), anyCollection(), eq("PAYMENT_INITIATED"));
+        verify(orderRepository).transitionStatus(eq(100L), anyCollection(), eq("CONFIRMED"));
+        verify(orderService, times(2)).publishChange(order, ChangeType.STATUS_CHANGED);
+    }
+
+    @Test
+    @DisplayName("🚫 A closed restaurant compensates by cancelling the order, before any payment")
+    void testValidationFails_Compensates() {
+        OrderSaga saga = claimedSaga(Step.VALIDATE_RESTAURANT, 1);
+        when(orderService.validateRestaurant(1L)).thenThrow(new IllegalArgumentException("Restaurant is currently closed or unavailable."));
+
+        orchestrator.advance(saga);
+
+        assertEquals(OrderSaga.STATUS_COMPENSATED, saga.getStatus());
+        assertEquals("Restaurant is currently closed or unavailable.", saga.getLastError());
+        verify(orderRepository).transitionStatus(eq(100L), anyCollection(), eq("CANCELLED"));
+        verify(orderService, never()).requestPayment(any());
+    }
+
+    @Test
+    @DisplayName("💳 A failed payment cancels the order")
+    void testPaymentFailed_Compensates() {
+        OrderSaga saga = claimedSaga(Step.CONFIRM_PAYMENT, 1);
+        when(orderService.fetchPaymentOutcome(order)).thenReturn(paymentResponse("FAILED"));
+
+        orchestrator.advance(saga);
+
+        assertEquals(OrderSaga.STATUS_COMPENSATED, saga.getStatus());
+        verify(orderRepository).transitionStatus(eq(100L), anyCollection(), eq("CANCELLED"));
+    }
+
+    @Test
+    @DisplayName("🙅 A declined payment ends the saga as DECLINED with the order at PAYMENT_FAILED")
+    void testPaymentDeclined() {
+        OrderSaga saga = claimedSaga(Step.INITIATE_PAYMENT, 1);
+        when(orderService.requestPayment(order)).thenReturn("PAYMENT_FAILED");
+
+        orchestrator.advance(saga);
+
+        assertEquals(OrderSaga.STATUS_DECLINED, saga.getStatus());
+        assertNotNull(saga.getFinishedAt());
+        verify(orderRepository).transitionStatus(eq(100L), anyCollection(), eq("PAYMENT_FAILED"));
+        verify(orderRepository, never()).transitionStatus(eq(100L), anyCollection(), eq("CANCELLED"));
+    }
+
+    @Test
+    @DisplayName("🔁 A failing step is retried with exponential backoff")
+    void testStepFails_Backoff() {
+        OrderSaga saga = claimedSaga(Step.INITIATE_PAYMENT, 2);
+        when(orderService.requestPayment(order)).thenThrow(new RuntimeException("Connection reset"));
+
+        LocalDateTime before = LocalDateTime.now();
+        orchestrator.advance(saga);
+
+        assertEquals(OrderSaga.STATUS_RUNNING, saga.getStatus());
+        assertEquals(Step.INITIATE_PAYMENT, saga.getStep());
+        assertEquals("Connection reset", saga.getLastError());
+        // 2^2 seconds after the second attempt
+        assertFalse(saga.getNextAttemptAt().isBefore(before.plusSeconds(4)));
+        assertTrue(saga.getNextAttemptAt().isBefore(before.plusSeconds(6)));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyCollection(), anyString());
+    }
+
+    @Test
+    @DisplayName("⏸️ A fast-fail from the circuit breaker waits without using up an attempt")
+    void testDependencyUnavailable_Deferred() {
+        OrderSaga saga = claimedSaga(Step.INITIATE_PAYMENT, 2);
+        when(orderService.requestPayment(order)).thenThrow(new DependencyUnavailableException("payment-service", new RuntimeException("open")));
+
+        LocalDateTime before = LocalDateTime.now();
+        orchestrator.advance(saga);
+
+        assertEquals(OrderSaga.STATUS_RUNNING, saga.getStatus());
+        assertEquals(1, saga.getAttempts());
+        assertFalse(saga.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+    }
+
+    @Test
+    @DisplayName("🛑 After max attempts the saga fails and the order is marked PAYMENT_ERROR")
+    void testMaxAttempts_Fails() {
+        OrderSaga saga = claimedSaga(Step.INITIATE_PAYMENT, 3);
+        when(orderService.requestPayment(order)).thenThrow(new RuntimeException("Connection reset"));
+
+        orchestrator.advance(saga);
+
+        assertEquals(OrderSaga.STATUS_FAILED, saga.getStatus());
+        verify(orderRepository).transitionStatus(eq(100L), anyCollection(), eq("PAYMENT_ERROR"));
+    }
+
+    @Test
+    @DisplayName("🗑️ A saga whose order was cancelled meanwhile is aborted without remote calls")
+    void testCancelledOrder_Aborted() {
+        order.setStatus("CANCELLED");
+        OrderSaga saga = claimedSaga(Step.INITIATE_PAYMENT, 1);
+
+        orchestrator.advance(saga);
+
+        assertEquals(OrderSaga.STATUS_ABORTED, saga.getStatus());
+        verify(orderService, never()).requestPayment(any());
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyCollection(), anyString());
+    }
+
+    @Test
+    @DisplayName("⏱️ Claiming counts an attempt and leases the saga")
+    void testClaimBatch_Leases() {
+        OrderSaga saga = claimedSaga(Step.VALIDATE_RESTAURANT, 0);
+        when(orderSagaRepository.findDue(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(saga));
+
+        LocalDateTime before = LocalDateTime.now();
+        List<OrderSaga> claimed = orchestrator.claimBatch();
+
+        assertEquals(1, claimed.size());
+        assertEquals(1, saga.getAttempts());
+        assertFalse(saga.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+    }
+}
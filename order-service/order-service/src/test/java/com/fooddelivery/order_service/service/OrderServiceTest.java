@@ -1,13 +1,27 @@
 // order-service/src/test/java/com/fooddelivery/order_service/service/OrderServiceTest.java
 package com.fooddelivery.order_service.service;
 
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
+import com.fooddelivery.order_service.archive.OrderArchive;
+import com.fooddelivery.order_service.dto.BulkStatusUpdateResult;
 import com.fooddelivery.order_service.dto.PaymentRequest;
+import com.fooddelivery.order_service.dto.EnrichedOrder;
 import com.fooddelivery.order_service.dto.RestaurantDto;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.feign.DependencyUnavailableException;
 import com.fooddelivery.order_service.feign.PaymentServiceClient;
 import com.fooddelivery.order_service.feign.RestaurantServiceClient;
 import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.model.OrderOutbox;
+import com.fooddelivery.order_service.model.OrderSaga;
+import com.fooddelivery.order_service.model.OrderStatus;
+import com.fooddelivery.order_service.repository.OrderOutboxRepository;
 import com.fooddelivery.order_service.repository.OrderRepository;
+import com.fooddelivery.order_service.repository.OrderSagaRepository;
 
+import feign.FeignException;
+import feign.Request;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,11 +30,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -43,6 +68,22 @@ public class OrderServiceTest {
     @Mock
     private RestaurantServiceClient restaurantServiceClient;
 
+    @Mock
+    private OrderOutboxRepository orderOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    @Mock
+    private OrderSagaRepository orderSagaRepository;
+
+    // A TransactionTemplate over a mocked manager simply runs the callback
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private OrderService orderService; // Injects mocks into orderService
 
@@ -87,7 +128,7 @@ public class OrderServiceTest {
                 });
 
         // Mock successful payment initiation response
-        when(paymentServiceClient.processPayment(any(PaymentRequest.class)))
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString()))
                 .thenReturn(new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK));
 
         // Second save: simulate database saving the order with PAYMENT_INITIATED status
@@ -112,7 +153,7 @@ public class OrderServiceTest {
         // Verify interactions
         verify(restaurantServiceClient, times(1)).getRestaurantById(restaurantId); // Restaurant validated
         verify(orderRepository, times(2)).save(any(Order.class)); // Called twice: initial save and status update
-        verify(paymentServiceClient, times(1)).processPayment(any(PaymentRequest.class)); // Payment initiated
+        verify(paymentServiceClient, times(1)).processPayment(any(PaymentRequest.class), eq("order-" + orderId)); // Payment initiated once per order key
     }
 
     /**
@@ -144,7 +185,7 @@ public class OrderServiceTest {
         // Verify that orderRepository.save was NOT called
         verify(orderRepository, never()).save(any(Order.class));
         // Verify that paymentServiceClient.processPayment was NOT called
-        verify(paymentServiceClient, never()).processPayment(any(PaymentRequest.class));
+        verify(paymentServiceClient, never()).processPayment(any(PaymentRequest.class), anyString());
         verify(restaurantServiceClient, times(1)).getRestaurantById(99L); // Restaurant validation attempted
     }
 
@@ -178,7 +219,7 @@ public class OrderServiceTest {
         assertEquals("Restaurant is currently closed or unavailable.", exception.getMessage());
 
         verify(orderRepository, never()).save(any(Order.class));
-        verify(paymentServiceClient, never()).processPayment(any(PaymentRequest.class));
+        verify(paymentServiceClient, never()).processPayment(any(PaymentRequest.class), anyString());
         verify(restaurantServiceClient, times(1)).getRestaurantById(1L);
     }
 
@@ -223,7 +264,7 @@ public class OrderServiceTest {
                 });
 
         // Mock payment service to throw a RuntimeException, simulating a failure
-        when(paymentServiceClient.processPayment(any(PaymentRequest.class)))
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString()))
                 .thenThrow(new RuntimeException("Simulated Payment Service Failure"));
 
         // Second save: simulate database saving the order with PAYMENT_ERROR status
@@ -242,7 +283,69 @@ public class OrderServiceTest {
         // Verify interactions
         verify(restaurantServiceClient, times(1)).getRestaurantById(restaurantId);
         verify(orderRepository, times(2)).save(any(Order.class)); // Called twice: initial save and status update to PAYMENT_ERROR
-        verify(paymentServiceClient, times(1)).processPayment(any(PaymentRequest.class));
+        verify(paymentServiceClient, times(1)).processPayment(any(PaymentRequest.class), anyString());
+        // A saga retries the payment in the background
+        verify(orderSagaRepository).save(argThat(saga -> orderId.equals(saga.getOrderId())
+                && saga.getStep() == OrderSaga.Step.INITIATE_PAYMENT && OrderSaga.STATUS_RUNNING.equals(saga.getStatus())));
+    }
+
+    /**
+     * Tests the scenario where the payment circuit breaker or bulkhead rejects the call.
+     * Expects the order to be "PAYMENT_DEFERRED" and queued in the outbox instead of failing.
+     */
+    @Test
+    @DisplayName("⏸️ Should defer payment when payment-service is shedding load")
+    void testPlaceOrder_PaymentDeferred() {
+        // Arrange
+        Order initialOrder = new Order(null, 12L, 1L, 149.0, null, null, "CARD");
+        when(restaurantServiceClient.getRestaurantById(1L))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order saved = invocation.getArgument(0);
+            saved.setId(300L);
+            return saved;
+        });
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString()))
+                .thenThrow(new DependencyUnavailableException("payment-service", new RuntimeException("circuit open")));
+
+        // Act
+        Order result = orderService.placeOrder(initialOrder);
+
+        // Assert
+        assertEquals("PAYMENT_DEFERRED", result.getStatus());
+        verify(orderOutboxRepository, times(1)).save(argThat(entry -> entry.getOrderId().equals(300L)
+                && OrderOutbox.STATUS_PENDING.equals(entry.getStatus())));
+    }
+
+    /**
+     * Tests that the payment outcome is read back, never posted again.
+     */
+    @Test
+    @DisplayName("🔎 Payment outcome is read without posting the payment again")
+    void testFetchPaymentOutcome_ReadsPayment() {
+        Order order = new Order(300L, 12L, 1L, 149.0, null, "PAYMENT_INITIATED", "CARD");
+        when(paymentServiceClient.getPaymentForOrder(300L)).thenReturn(ResponseEntity.ok("{\"status\":\"COMPLETED\"}"));
+
+        ResponseEntity<String> result = orderService.fetchPaymentOutcome(order);
+
+        assertEquals("{\"status\":\"COMPLETED\"}", result.getBody());
+        verify(paymentServiceClient, never()).processPayment(any(PaymentRequest.class), anyString());
+    }
+
+    /**
+     * Tests that a payment payment-service hasn't recorded yet comes back as 404 rather than an exception.
+     */
+    @Test
+    @DisplayName("⏳ Payment outcome is 404 while payment-service has no payment")
+    void testFetchPaymentOutcome_NotRecordedYet() {
+        Order order = new Order(300L, 12L, 1L, 149.0, null, "PAYMENT_INITIATED", "CARD");
+        Request request = Request.create(Request.HttpMethod.GET, "/payments/orders/300", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(paymentServiceClient.getPaymentForOrder(300L))
+                .thenThrow(new FeignException.NotFound("Not Found", request, null, Map.of()));
+
+        ResponseEntity<String> result = orderService.fetchPaymentOutcome(order);
+
+        assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
     }
 
 
@@ -283,35 +386,49 @@ public class OrderServiceTest {
         // Assert
         assertFalse(result.isPresent(), "Order should not be found");
         verify(orderRepository, times(1)).findById(999L);
+        verify(orderArchive, times(1)).find(999L);
     }
 
     /**
-     * Tests updating an existing order's status.
+     * Tests that an order moved out of the table by the archival job is still found.
      */
     @Test
-    @DisplayName("🔁 Should update order status when order exists")
-    void testUpdateOrderStatus() {
+    @DisplayName("🗄️ Get order by ID - Falls back to the archive")
+    void testGetOrderById_Archived() {
         // Arrange
-        Order existing = new Order();
-        existing.setId(999L);
-        existing.setCustomerId(1L);
-        existing.setRestaurantId(1L);
-        existing.setTotalAmount(100.0);
-        existing.setOrderTime(LocalDateTime.now());
-        existing.setStatus("PENDING");
-        existing.setPaymentMethod("CARD");
+        Order archived = new Order(5L, 10L, 1L, 80.0, LocalDateTime.now().minusYears(1), "DELIVERED", "CARD");
+        when(orderRepository.findById(5L)).thenReturn(Optional.empty());
+        when(orderArchive.find(5L)).thenReturn(Optional.of(archived));
 
-        when(orderRepository.findById(999L)).thenReturn(Optional.of(existing));
-        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // Act
+        Optional<Order> result = orderService.getOrderById(5L);
+
+        // Assert
+        assertEquals(Optional.of(archived), result);
+    }
+
+    /**
+     * Tests moving an order to the next status with a single conditional UPDATE.
+     */
+    @Test
+    @DisplayName("🔁 Should update order status with one conditional UPDATE")
+    void testUpdateOrderStatus() {
+        // Arrange
+        Order delivered = new Order(999L, 1L, 1L, 100.0, LocalDateTime.now(), "DELIVERED", "CARD");
+        when(orderRepository.transitionStatus(eq(999L), anyCollection(), eq("DELIVERED"))).thenReturn(1);
+        when(orderRepository.findById(999L)).thenReturn(Optional.of(delivered));
 
         // Act
-        Optional<Order> updatedOptional = orderService.updateOrderStatus(999L, "DELIVERED");
+        Optional<Order> updatedOptional = orderService.updateOrderStatus(999L, "delivered");
 
         // Assert
         assertTrue(updatedOptional.isPresent(), "Updated order should be present");
         assertEquals("DELIVERED", updatedOptional.get().getStatus(), "Order status should be updated to DELIVERED");
-        verify(orderRepository, times(1)).findById(999L);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        // Only an order that is out for delivery may be marked delivered
+        verify(orderRepository).transitionStatus(999L, Set.of("DISPATCHED"), "DELIVERED");
+        verify(orderRepository, never()).save(any(Order.class));
+        // The order stream hears about the change
+        verify(eventPublisher).publishEvent(OrderChangedEvent.of(delivered, ChangeType.STATUS_CHANGED));
     }
 
     /**
@@ -321,6 +438,7 @@ public class OrderServiceTest {
     @DisplayName("❌ Should not update order status when order does not exist")
     void testUpdateOrderStatus_NotFound() {
         // Arrange
+        when(orderRepository.transitionStatus(eq(999L), anyCollection(), anyString())).thenReturn(0);
         when(orderRepository.findById(999L)).thenReturn(Optional.empty());
 
         // Act
@@ -328,10 +446,77 @@ public class OrderServiceTest {
 
         // Assert
         assertFalse(updatedOptional.isPresent(), "Updated order should not be present if original not found");
-        verify(orderRepository, times(1)).findById(999L);
         verify(orderRepository, never()).save(any(Order.class)); // Save should not be called
     }
 
+    /**
+     * Tests that a transition the lifecycle doesn't allow is rejected.
+     */
+    @Test
+    @DisplayName("🚫 Should reject a status transition the lifecycle does not allow")
+    void testUpdateOrderStatus_IllegalTransition() {
+        // Arrange: the UPDATE matches nothing because a PENDING order can't be delivered
+        Order pending = new Order(999L, 1L, 1L, 100.0, LocalDateTime.now(), "PENDING", "CARD");
+        when(orderRepository.transitionStatus(eq(999L), anyCollection(), eq("DELIVERED"))).thenReturn(0);
+        when(orderRepository.findById(999L)).thenReturn(Optional.of(pending));
+
+        // Act & Assert
+        InvalidStatusTransitionException e = assertThrows(InvalidStatusTransitionException.class,
+                () -> orderService.updateOrderStatus(999L, "DELIVERED"));
+        assertEquals("PENDING", e.getCurrentStatus());
+        assertEquals("DELIVERED", e.getTargetStatus());
+    }
+
+    /**
+     * Tests that repeating a transition the order already made is a no-op rather than a conflict.
+     */
+    @Test
+    @DisplayName("🔁 Repeating a transition the order already made is a no-op")
+    void testUpdateOrderStatus_AlreadyInTargetStatus() {
+        // Arrange
+        Order dispatched = new Order(999L, 1L, 1L, 100.0, LocalDateTime.now(), "DISPATCHED", "CARD");
+        when(orderRepository.transitionStatus(eq(999L), anyCollection(), eq("DISPATCHED"))).thenReturn(0);
+        when(orderRepository.findById(999L)).thenReturn(Optional.of(dispatched));
+
+        // Act
+        Optional<Order> result = orderService.updateOrderStatus(999L, "DISPATCHED");
+
+        // Assert
+        assertEquals("DISPATCHED", result.orElseThrow().getStatus());
+    }
+
+    /**
+     * Tests that an unknown status is rejected without touching the database.
+     */
+    @Test
+    @DisplayName("❌ Should reject a status outside the order lifecycle")
+    void testUpdateOrderStatus_UnknownStatus() {
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrderStatus(999L, "TELEPORTED"));
+        verifyNoInteractions(orderRepository);
+    }
+
+    /**
+     * Tests the bulk transition: one batched UPDATE for all distinct IDs.
+     */
+    @Test
+    @DisplayName("📦 Bulk status update runs as one batched UPDATE")
+    void testUpdateOrderStatuses() {
+        // Arrange: two of the three orders are in a status that can be dispatched
+        when(orderRepository.transitionStatuses(anyCollection(), anyCollection(), eq("DISPATCHED"))).thenReturn(2);
+
+        // Act
+        BulkStatusUpdateResult result = orderService.updateOrderStatuses(List.of(1L, 2L, 3L, 2L), "DISPATCHED");
+
+        // Assert
+        assertEquals("DISPATCHED", result.getStatus());
+        assertEquals(3, result.getRequested());
+        assertEquals(2, result.getUpdated());
+        assertEquals(1, result.getSkipped());
+        verify(orderRepository, times(1)).transitionStatuses(
+                eq(Set.of(1L, 2L, 3L)), eq(Set.of("PAYMENT_INITIATED", "CONFIRMED", "PREPARING")), eq("DISPATCHED"));
+        verify(orderRepository, never()).findById(anyLong());
+    }
+
     /**
      * Tests updating an entire order object.
      */
@@ -347,8 +532,10 @@ public class OrderServiceTest {
         existing.setOrderTime(LocalDateTime.of(2023, 1, 1, 10, 0));
         existing.setStatus("PENDING");
         existing.setPaymentMethod("CREDIT_CARD");
+        existing.setVersion(4L);
 
-        Order updatedDetails = new Order(1L, 101L, 201L, 60.0, existing.getOrderTime(), "DELIVERED", "PAYPAL");
+        Order updatedDetails = new Order(1L, 101L, 201L, 60.0, existing.getOrderTime(), "PENDING", "PAYPAL");
+        updatedDetails.setVersion(4L);
 
         when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0)); // Return the argument passed
@@ -360,7 +547,7 @@ public class OrderServiceTest {
         assertTrue(result.isPresent());
         assertEquals(1L, result.get().getId());
         assertEquals(60.0, result.get().getTotalAmount());
-        assertEquals("DELIVERED", result.get().getStatus());
+        assertEquals("PENDING", result.get().getStatus());
         assertEquals("PAYPAL", result.get().getPaymentMethod());
 
         verify(orderRepository, times(1)).findById(1L);
@@ -375,6 +562,7 @@ public class OrderServiceTest {
     void testUpdateOrder_NotFound() {
         // Arrange
         Order updatedDetails = new Order(99L, 101L, 201L, 60.0, LocalDateTime.now(), "DELIVERED", "PAYPAL");
+        updatedDetails.setVersion(0L);
         when(orderRepository.findById(99L)).thenReturn(Optional.empty());
 
         // Act
@@ -386,6 +574,59 @@ public class OrderServiceTest {
         verify(orderRepository, never()).save(any(Order.class));
     }
 
+    /**
+     * Tests that a full update based on an outdated version is rejected.
+     */
+    @Test
+    @DisplayName("🔒 Reject a full update carrying a stale version")
+    void testUpdateOrder_StaleVersion() {
+        // Arrange
+        Order existing = new Order(1L, 101L, 201L, 50.0, LocalDateTime.now(), "PAYMENT_INITIATED", "CREDIT_CARD");
+        existing.setVersion(3L);
+        Order updatedDetails = new Order(1L, 101L, 201L, 60.0, null, "CANCELLED", "CREDIT_CARD");
+        updatedDetails.setVersion(2L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderService.updateOrder(1L, updatedDetails));
+        assertEquals(50.0, existing.getTotalAmount(), "Stale update must not be applied");
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    /**
+     * Tests that a full update without a version is rejected, since it can't be checked for concurrent writes.
+     */
+    @Test
+    @DisplayName("🔒 Reject a full update without a version")
+    void testUpdateOrder_MissingVersion() {
+        // Arrange
+        Order updatedDetails = new Order(1L, 101L, 201L, 60.0, null, "PENDING", "CREDIT_CARD");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrder(1L, updatedDetails));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    /**
+     * Tests that a full update can't move the order to another status around the lifecycle checks.
+     */
+    @Test
+    @DisplayName("🚫 Reject a full update that changes the status")
+    void testUpdateOrder_StatusChangeRejected() {
+        // Arrange
+        Order existing = new Order(1L, 101L, 201L, 50.0, LocalDateTime.now(), "PENDING", "CREDIT_CARD");
+        existing.setVersion(3L);
+        Order updatedDetails = new Order(1L, 101L, 201L, 60.0, null, "DELIVERED", "CREDIT_CARD");
+        updatedDetails.setVersion(3L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrder(1L, updatedDetails));
+        assertEquals("PENDING", existing.getStatus());
+        assertEquals(50.0, existing.getTotalAmount(), "Rejected update must not be applied");
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
     /**
      * Tests deleting an order by ID.
      */
@@ -393,14 +634,390 @@ public class OrderServiceTest {
     @DisplayName("🗑️ Delete order by ID")
     void testDeleteOrder() {
         // Arrange
-        doNothing().when(orderRepository).deleteById(1L);
+        Order order = new Order(1L, 10L, 1L, 100.0, LocalDateTime.now(), "CANCELLED", "CARD");
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
 
         // Act
         orderService.deleteOrder(1L);
 
         // Assert
-        verify(orderRepository, times(1)).deleteById(1L);
+        verify(orderRepository, times(1)).delete(order);
+        verify(eventPublisher, times(1)).publishEvent(OrderChangedEvent.of(order, ChangeType.DELETED));
+    }
+
+    /**
+     * Tests that keyset pagination picks the right query for the first and following pages.
+     */
+    @Test
+    @DisplayName("📄 Get orders page uses keyset queries")
+    void testGetOrdersPage() {
+        // Arrange
+        Order newest = new Order(20L, 1L, 1L, 10.0, LocalDateTime.now(), "PENDING", "CARD");
+        Order older = new Order(10L, 1L, 1L, 10.0, LocalDateTime.now(), "PENDING", "CARD");
+        when(orderRepository.findAllByOrderByIdDesc(any(Pageable.class))).thenReturn(List.of(newest));
+        when(orderRepository.findByIdLessThanOrderByIdDesc(eq(20L), any(Pageable.class))).thenReturn(List.of(older));
+
+        // Act
+        List<Order> firstPage = orderService.getOrdersPage(null, 1);
+        List<Order> secondPage = orderService.getOrdersPage(20L, 1);
+
+        // Assert
+        assertEquals(20L, firstPage.get(0).getId());
+        assertEquals(10L, secondPage.get(0).getId());
+        verify(orderRepository, never()).findAll();
+        verify(orderRepository, times(1)).findByIdLessThanOrderByIdDesc(eq(20L), argThat(page -> page.getPageSize() == 1));
+    }
+
+    @Test
+    @DisplayName("📄 Customer and restaurant history pages use keyset queries")
+    void testGetOrdersForCustomerAndRestaurant() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime cursorTime = LocalDateTime.of(2024, 1, 15, 12, 0);
+        Order order = new Order(10L, 1L, 2L, 10.0, cursorTime, "PENDING", "CARD");
+        when(orderRepository.findByCustomerIdAndIdLessThanOrderByIdDesc(eq(1L), eq(20L), any(Pageable.class))).thenReturn(List.of(order));
+        when(orderRepository.findByRestaurantInRange(eq(2L), eq(from), eq(to), any(Pageable.class))).thenReturn(List.of(order));
+        when(orderRepository.findByRestaurantInRangeBefore(eq(2L), eq(from), eq(cursorTime), eq(11L), any(Pageable.class))).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(1, orderService.getOrdersForCustomer(1L, 20L, 25).size());
+        assertEquals(1, orderService.getOrdersForRestaurant(2L, from, to, null, null, 25).size());
+        assertTrue(orderService.getOrdersForRestaurant(2L, from, to, cursorTime, 11L, 25).isEmpty());
+        verify(orderRepository, never()).findByCustomerIdOrderByIdDesc(anyLong(), any(Pageable.class));
+        verify(orderRepository, times(1)).findByRestaurantInRangeBefore(eq(2L), eq(from), eq(cursorTime), eq(11L),
+                argThat(page -> page.getPageSize() == 25));
+    }
+
+    @Test
+    @DisplayName("📦 Place orders in a batch validates all restaurants in one lookup and saves in bulk")
+    void testPlaceOrders_Batch() {
+        // Arrange
+        List<Order> orders = List.of(
+                new Order(null, 10L, 1L, 100.0, null, null, "CARD"),
+                new Order(null, 10L, 1L, 200.0, null, null, "CARD"),
+                new Order(null, 10L, 2L, 300.0, null, null, "UPI"));
+        when(restaurantServiceClient.getRestaurantsByIds(List.of(1L, 2L))).thenReturn(List.of(
+                new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"),
+                new RestaurantDto(2L, "Testaurant", "Pune", "Indian", "ACTIVE")));
+        List<OrderOutbox> fallbacks = stubBatchInsert(500L);
+        when(orderRepository.transitionStatuses(Set.of(500L, 501L, 502L), OrderStatus.PAYMENT_INITIATED.sources(), "PAYMENT_INITIATED"))
+                .thenReturn(3);
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString()))
+                .thenReturn(new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK));
+
+        // Act
+        List<Order> result = orderService.placeOrders(orders);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertTrue(result.stream().allMatch(order -> "PAYMENT_INITIATED".equals(order.getStatus())));
+        verify(restaurantServiceClient, times(1)).getRestaurantsByIds(List.of(1L, 2L)); // One batch lookup for both restaurants
+        verify(restaurantServiceClient, never()).getRestaurantById(anyLong());
+        verify(orderRepository, times(1)).saveAll(anyList()); // Batched insert; outcomes are conditional UPDATEs
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyCollection(), anyString());
+        verify(paymentServiceClient, times(3)).processPayment(any(PaymentRequest.class), anyString());
+        // The fallback outbox entries are closed once the outcomes are written
+        assertTrue(fallbacks.stream().allMatch(entry -> OrderOutbox.STATUS_PROCESSED.equals(entry.getStatus())));
+    }
+
+    @Test
+    @DisplayName("🧵 Batch payments are requested outside any transaction")
+    void testPlaceOrders_PaymentOutsideTransaction() {
+        // Arrange
+        List<Order> orders = List.of(
+                new Order(null, 10L, 1L, 100.0, null, null, "CARD"),
+                new Order(null, 10L, 1L, 200.0, null, null, "CARD"));
+        when(restaurantServiceClient.getRestaurantsByIds(List.of(1L)))
+                .thenReturn(List.of(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE")));
+        stubBatchInsert(510L);
+        when(orderRepository.transitionStatuses(anyCollection(), anyCollection(), anyString())).thenReturn(2);
+        List<Integer> openTransactions = new ArrayList<>();
+        int[] open = {0};
+        doAnswer(invocation -> {
+            open[0]++;
+            try {
+                return invocation.callRealMethod();
+            } finally {
+                open[0]--;
+            }
+        }).when(transactionTemplate).execute(any());
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString())).thenAnswer(invocation -> {
+            openTransactions.add(open[0]);
+            return new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK);
+        });
+
+        // Act
+        orderService.placeOrders(orders);
+
+        // Assert: inserted in one transaction, outcomes written in another, nothing open around the calls
+        assertEquals(List.of(0, 0), openTransactions);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("🔒 Batch order cancelled while its payment was in flight keeps its status")
+    void testPlaceOrders_CancelledWhilePaying() {
+        // Arrange: the second order is cancelled between the insert and the outcome
+        List<Order> orders = List.of(
+                new Order(null, 10L, 1L, 100.0, null, null, "CARD"),
+                new Order(null, 10L, 1L, 200.0, null, null, "CARD"),
+                new Order(null, 10L, 1L, 300.0, null, null, "CARD"));
+        when(restaurantServiceClient.getRestaurantsByIds(List.of(1L)))
+                .thenReturn(List.of(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE")));
+        List<OrderOutbox> fallbacks = stubBatchInsert(520L);
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), eq("order-520")))
+                .thenReturn(new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK));
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), eq("order-521")))
+                .thenReturn(new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK));
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), eq("order-522")))
+                .thenThrow(new DependencyUnavailableException("payment-service", new RuntimeException("circuit open")));
+        when(orderRepository.transitionStatuses(Set.of(520L, 521L), OrderStatus.PAYMENT_INITIATED.sources(), "PAYMENT_INITIATED"))
+                .thenReturn(1);
+        when(orderRepository.findByIdInAndStatus(Set.of(520L, 521L), "PAYMENT_INITIATED"))
+                .thenReturn(List.of(new Order(520L, 10L, 1L, 100.0, LocalDateTime.now(), "PAYMENT_INITIATED", "CARD")));
+        when(orderRepository.findById(521L))
+                .thenReturn(Optional.of(new Order(521L, 10L, 1L, 200.0, LocalDateTime.now(), "CANCELLED", "CARD")));
+        when(orderRepository.transitionStatus(522L, OrderStatus.PAYMENT_DEFERRED.sources(), "PAYMENT_DEFERRED")).thenReturn(1);
+
+        // Act
+        List<Order> result = orderService.placeOrders(orders);
+
+        // Assert
+        assertEquals(List.of("PAYMENT_INITIATED", "CANCELLED", "PAYMENT_DEFERRED"),
+                result.stream().map(Order::getStatus).toList());
+        assertEquals(OrderOutbox.STATUS_PROCESSED, fallbacks.get(0).getStatus());
+        assertEquals(OrderOutbox.STATUS_PROCESSED, fallbacks.get(1).getStatus());
+        // The deferred order's fallback entry carries its retry
+        assertEquals(OrderOutbox.STATUS_PENDING, fallbacks.get(2).getStatus());
+        verify(eventPublisher, never()).publishEvent(OrderChangedEvent.of(result.get(1), ChangeType.STATUS_CHANGED));
+    }
+
+    /**
+     * Stubs the batch insert: orders get consecutive IDs from firstId, and their fallback outbox entries
+     * are handed back by findAllById.
+     *
+     * @return The fallback entries, in order.
+     */
+    @SuppressWarnings("unchecked")
+    private List<OrderOutbox> stubBatchInsert(long firstId) {
+        when(orderRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> saved = invocation.getArgument(0);
+            long id = firstId;
+            for (Order order : saved) {
+                order.setId(id++);
+            }
+            return saved;
+        });
+        List<OrderOutbox> fallbacks = new ArrayList<>();
+        when(orderOutboxRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<OrderOutbox> entries = invocation.getArgument(0);
+            long id = firstId;
+            for (OrderOutbox entry : entries) {
+                entry.setId(id++);
+            }
+            fallbacks.addAll(entries);
+            return entries;
+        });
+        when(orderOutboxRepository.findAllById(anyIterable())).thenAnswer(invocation -> fallbacks);
+        return fallbacks;
+    }
+
+    @Test
+    @DisplayName("❌ Batch validation rejects a restaurant the batch lookup didn't return")
+    void testValidateRestaurants_Missing() {
+        // Arrange
+        List<Order> orders = List.of(
+                new Order(null, 10L, 1L, 100.0, null, null, "CARD"),
+                new Order(null, 10L, 99L, 200.0, null, null, "CARD"));
+        when(restaurantServiceClient.getRestaurantsByIds(List.of(1L, 99L)))
+                .thenReturn(List.of(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE")));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> orderService.validateRestaurants(orders));
+        assertEquals("Restaurant not found.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("🍽️ Enriched orders page resolves all of its restaurants in one batch lookup")
+    void testGetEnrichedOrdersPage() {
+        // Arrange
+        List<Order> page = List.of(
+                new Order(3L, 10L, 1L, 100.0, LocalDateTime.now(), "DELIVERED", "CARD"),
+                new Order(2L, 11L, 2L, 200.0, LocalDateTime.now(), "PENDING", "UPI"),
+                new Order(1L, 12L, 1L, 300.0, LocalDateTime.now(), "CANCELLED", "CARD"));
+        when(orderRepository.findAllByOrderByIdDesc(any(Pageable.class))).thenReturn(page);
+        when(restaurantServiceClient.getRestaurantsByIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE")));
+
+        // Act
+        List<EnrichedOrder> result = orderService.getEnrichedOrdersPage(null, 3);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertSame(page.get(0), result.get(0).getOrder());
+        assertEquals("Testaurant", result.get(0).getRestaurantName());
+        assertEquals("Indian", result.get(2).getRestaurantCuisine());
+        assertNull(result.get(1).getRestaurantName(), "Unknown restaurants are left blank");
+        verify(restaurantServiceClient, times(1)).getRestaurantsByIds(anyCollection());
+        verify(restaurantServiceClient, never()).getRestaurantById(anyLong());
+    }
+
+    @Test
+    @DisplayName("🛟 Enriched orders page still lists the orders when restaurant-service is down")
+    void testGetEnrichedOrdersPage_RestaurantServiceDown() {
+        // Arrange
+        when(orderRepository.findAllByOrderByIdDesc(any(Pageable.class)))
+                .thenReturn(List.of(new Order(1L, 10L, 1L, 100.0, LocalDateTime.now(), "DELIVERED", "CARD")));
+        when(restaurantServiceClient.getRestaurantsByIds(anyCollection()))
+                .thenThrow(new DependencyUnavailableException("restaurant-service", new RuntimeException("Simulated outage")));
+
+        // Act
+        List<EnrichedOrder> result = orderService.getEnrichedOrdersPage(null, 50);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getRestaurantName());
+    }
+
+    @Test
+    @DisplayName("⏰ Scheduled order is placed and paid once it is due")
+    void testPlaceScheduledOrder() {
+        // Arrange: the first read sees SCHEDULED, the read after the claim sees PENDING
+        Order scheduled = new Order(400L, 10L, 1L, 250.0, LocalDateTime.now().minusDays(1), "SCHEDULED", "CARD");
+        Order claimed = new Order(400L, 10L, 1L, 250.0, LocalDateTime.now().minusDays(1), "PENDING", "CARD");
+        when(orderRepository.findById(400L)).thenReturn(Optional.of(scheduled), Optional.of(claimed));
+        when(restaurantServiceClient.getRestaurantById(1L))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(orderRepository.transitionStatus(400L, Set.of("SCHEDULED"), "PENDING")).thenReturn(1);
+        when(orderRepository.transitionStatus(400L, OrderStatus.PAYMENT_INITIATED.sources(), "PAYMENT_INITIATED")).thenReturn(1);
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString()))
+                .thenReturn(new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Optional<Order> result = orderService.placeScheduledOrder(400L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("PAYMENT_INITIATED", result.get().getStatus());
+        verify(eventPublisher).publishEvent(OrderChangedEvent.of(result.get(), ChangeType.STATUS_CHANGED));
+        // The fallback outbox entry is closed once the outcome is written
+        verify(orderOutboxRepository, atLeastOnce()).save(argThat(entry -> entry.getOrderId().equals(400L)
+                && OrderOutbox.STATUS_PROCESSED.equals(entry.getStatus())));
+    }
+
+    @Test
+    @DisplayName("🧵 Scheduled order's payment is requested outside any transaction")
+    void testPlaceScheduledOrder_PaymentOutsideTransaction() {
+        // Arrange
+        Order scheduled = new Order(404L, 10L, 1L, 250.0, LocalDateTime.now().minusDays(1), "SCHEDULED", "CARD");
+        Order claimed = new Order(404L, 10L, 1L, 250.0, LocalDateTime.now().minusDays(1), "PENDING", "CARD");
+        when(orderRepository.findById(404L)).thenReturn(Optional.of(scheduled), Optional.of(claimed));
+        when(restaurantServiceClient.getRestaurantById(1L))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(orderRepository.transitionStatus(eq(404L), anyCollection(), anyString())).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        List<Integer> openTransactions = new ArrayList<>();
+        int[] open = {0};
+        doAnswer(invocation -> {
+            open[0]++;
+            try {
+                return invocation.callRealMethod();
+            } finally {
+                open[0]--;
+            }
+        }).when(transactionTemplate).execute(any());
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString())).thenAnswer(invocation -> {
+            openTransactions.add(open[0]);
+            return new ResponseEntity<>("Payment initiated successfully", HttpStatus.OK);
+        });
+
+        // Act
+        orderService.placeScheduledOrder(404L);
+
+        // Assert: claimed in one transaction, outcome written in another, nothing open around the call
+        assertEquals(List.of(0), openTransactions);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("⏸️ Scheduled order's deferred payment reuses its fallback outbox entry")
+    void testPlaceScheduledOrder_PaymentDeferred() {
+        // Arrange
+        Order scheduled = new Order(405L, 10L, 1L, 250.0, LocalDateTime.now().minusDays(1), "SCHEDULED", "CARD");
+        Order claimed = new Order(405L, 10L, 1L, 250.0, LocalDateTime.now().minusDays(1), "PENDING", "CARD");
+        when(orderRepository.findById(405L)).thenReturn(Optional.of(scheduled), Optional.of(claimed));
+        when(restaurantServiceClient.getRestaurantById(1L))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(orderRepository.transitionStatus(eq(405L), anyCollection(), anyString())).thenReturn(1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentServiceClient.processPayment(any(PaymentRequest.class), anyString()))
+                .thenThrow(new DependencyUnavailableException("payment-service", new RuntimeException("circuit open")));
+
+        // Act
+        Optional<Order> result = orderService.placeScheduledOrder(405L);
+
+        // Assert: one entry, still pending, for the dispatcher to retry
+        assertEquals("PAYMENT_DEFERRED", result.orElseThrow().getStatus());
+        ArgumentCaptor<OrderOutbox> saved = ArgumentCaptor.forClass(OrderOutbox.class);
+        verify(orderOutboxRepository, times(2)).save(saved.capture());
+        assertSame(saved.getAllValues().get(0), saved.getAllValues().get(1));
+        assertEquals(OrderOutbox.STATUS_PENDING, saved.getValue().getStatus());
+    }
+
+    @Test
+    @DisplayName("🚫 Scheduled order whose restaurant closed is cancelled without payment")
+    void testPlaceScheduledOrder_RestaurantClosed() {
+        // Arrange
+        Order scheduled = new Order(401L, 10L, 1L, 250.0, LocalDateTime.now(), "SCHEDULED", "CARD");
+        Order cancelled = new Order(401L, 10L, 1L, 250.0, LocalDateTime.now(), "CANCELLED", "CARD");
+        when(orderRepository.findById(401L)).thenReturn(Optional.of(scheduled), Optional.of(cancelled));
+        when(restaurantServiceClient.getRestaurantById(1L))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "CLOSED"));
+        when(orderRepository.transitionStatus(401L, Set.of("SCHEDULED"), "CANCELLED")).thenReturn(1);
+
+        // Act
+        Optional<Order> result = orderService.placeScheduledOrder(401L);
+
+        // Assert
+        assertEquals("CANCELLED", result.orElseThrow().getStatus());
+        verifyNoInteractions(paymentServiceClient);
+        verify(eventPublisher).publishEvent(OrderChangedEvent.of(cancelled, ChangeType.STATUS_CHANGED));
+    }
+
+    @Test
+    @DisplayName("🔒 Scheduled order cancelled meanwhile is never charged")
+    void testPlaceScheduledOrder_LostClaim() {
+        // Arrange: the customer cancels between the read and the conditional UPDATE
+        Order scheduled = new Order(402L, 10L, 1L, 250.0, LocalDateTime.now(), "SCHEDULED", "CARD");
+        when(orderRepository.findById(402L)).thenReturn(Optional.of(scheduled));
+        when(restaurantServiceClient.getRestaurantById(1L))
+                .thenReturn(new RestaurantDto(1L, "Testaurant", "Pune", "Indian", "ACTIVE"));
+        when(orderRepository.transitionStatus(402L, Set.of("SCHEDULED"), "PENDING")).thenReturn(0);
+
+        // Act
+        Optional<Order> result = orderService.placeScheduledOrder(402L);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(paymentServiceClient);
+        verify(orderRepository, never()).save(any(Order.class));
+    }
 
-        
+    @Test
+    @DisplayName("⏸️ Scheduled order stays scheduled while restaurant-service is shedding load")
+    void testPlaceScheduledOrder_RestaurantServiceUnavailable() {
+        // Arrange
+        Order scheduled = new Order(403L, 10L, 1L, 250.0, LocalDateTime.now(), "SCHEDULED", "CARD");
+        when(orderRepository.findById(403L)).thenReturn(Optional.of(scheduled));
+        when(restaurantServiceClient.getRestaurantById(1L))
+                .thenThrow(new DependencyUnavailableException("restaurant-service", new RuntimeException("circuit open")));
+
+        // Act & Assert: the caller retries later
+        assertThrows(DependencyUnavailableException.class, () -> orderService.placeScheduledOrder(403L));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyCollection(), anyString());
     }
 }
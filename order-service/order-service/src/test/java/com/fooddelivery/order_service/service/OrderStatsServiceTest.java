@@ -0,0 +1,167 @@
+package com.fooddelivery.order_service.service;
+
+import com.fooddelivery.order_service.archive.OrderArchive;
+import com.fooddelivery.order_service.dto.OrderStats;
+import com.fooddelivery.order_service.dto.OrderStatsRow;
+import com.fooddelivery.order_service.event.OrderChangedEvent;
+import com.fooddelivery.order_service.event.OrderChangedEvent.ChangeType;
+import com.fooddelivery.order_service.event.OrdersArchivedEvent;
+import com.fooddelivery.order_service.model.Order;
+import com.fooddelivery.order_service.repository.OrderRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the incrementally maintained order analytics.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class OrderStatsServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    private OrderStatsService statsService;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new OrderStatsService(orderRepository, orderArchive, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        now = LocalDateTime.now();
+    }
+
+    private OrderChangedEvent event(Long orderId, Long restaurantId, double amount, String status, ChangeType type) {
+        return new OrderChangedEvent(orderId, 10L, restaurantId, amount, now, status, type);
+    }
+
+    @Test
+    @DisplayName("🏗️ Rebuild aggregates the whole table per status, restaurant and hour")
+    void testRebuild() {
+        // Arrange
+        when(orderRepository.streamStatsRows()).thenReturn(Stream.of(
+                new OrderStatsRow(1L, 1L, 100.0, now, "DELIVERED"),
+                new OrderStatsRow(2L, 1L, 50.5, now, "CONFIRMED"),
+                new OrderStatsRow(3L, 2L, 80.0, now.minusHours(2), "CANCELLED")));
+        assertFalse(statsService.getStats(24, 10).isReady());
+
+        // Act
+        assertTrue(statsService.rebuild());
+        OrderStats stats = statsService.getStats(3, 10);
+
+        // Assert
+        assertTrue(stats.isReady());
+        assertEquals(3, stats.getTotalOrders());
+        assertEquals(new BigDecimal("150.50"), stats.getTotalRevenue(), "Cancelled orders add no revenue");
+        assertEquals(1L, stats.getOrdersByStatus().get("CANCELLED"));
+        assertEquals(1L, stats.getRestaurants().get(0).getRestaurantId(), "Highest revenue first");
+        assertEquals(2, stats.getRestaurants().get(0).getOrders());
+        assertEquals(3, stats.getHourly().size(), "Empty hours are included");
+        assertEquals(1, stats.getHourly().get(0).getOrders());
+        assertEquals(0, stats.getHourly().get(1).getOrders());
+        assertEquals(2, stats.getHourly().get(2).getOrders());
+        assertEquals(now.truncatedTo(ChronoUnit.HOURS), stats.getHourly().get(2).getHour());
+    }
+
+    @Test
+    @DisplayName("🔁 Status changes, updates and deletes replace an order's earlier contribution")
+    void testIncrementalUpdates() {
+        // Act
+        statsService.onOrderChanged(event(1L, 1L, 100.0, "PENDING", ChangeType.CREATED));
+        statsService.onOrderChanged(event(1L, 1L, 100.0, "CANCELLED", ChangeType.STATUS_CHANGED));
+        statsService.onOrderChanged(event(2L, 1L, 40.0, "PENDING", ChangeType.CREATED));
+        statsService.onOrderChanged(event(2L, 3L, 45.0, "CONFIRMED", ChangeType.UPDATED));
+        statsService.onOrderChanged(event(4L, 3L, 10.0, "PENDING", ChangeType.CREATED));
+        statsService.onOrderChanged(event(4L, 3L, 10.0, "PENDING", ChangeType.DELETED));
+
+        // Assert
+        OrderStats stats = statsService.getStats(1, 10);
+        assertEquals(2, stats.getTotalOrders());
+        assertEquals(new BigDecimal("45.00"), stats.getTotalRevenue());
+        assertEquals(1L, stats.getOrdersByStatus().get("CANCELLED"));
+        assertEquals(1L, stats.getOrdersByStatus().get("CONFIRMED"));
+        assertFalse(stats.getOrdersByStatus().containsKey("PENDING"), "Statuses no order is in any more are dropped");
+        assertEquals(3L, stats.getRestaurants().get(0).getRestaurantId());
+        assertEquals(1, stats.getRestaurants().get(0).getOrders());
+        assertEquals(new BigDecimal("0.00"), stats.getRestaurants().get(1).getRevenue());
+    }
+
+    @Test
+    @DisplayName("⏱️ Changes that arrive during the rebuild win over the rows it read")
+    void testEventsDuringRebuildWin() {
+        // Arrange: the row was read before the status change committed
+        when(orderRepository.streamStatsRows()).thenAnswer(invocation -> {
+            statsService.onOrderChanged(event(1L, 1L, 100.0, "CANCELLED", ChangeType.STATUS_CHANGED));
+            statsService.onOrderChanged(event(2L, 1L, 20.0, "PENDING", ChangeType.DELETED));
+            return Stream.of(new OrderStatsRow(1L, 1L, 100.0, now, "PENDING"),
+                    new OrderStatsRow(2L, 1L, 20.0, now, "PENDING"));
+        });
+
+        // Act
+        assertTrue(statsService.rebuild());
+
+        // Assert
+        OrderStats stats = statsService.getStats(1, 10);
+        assertEquals(1, stats.getTotalOrders());
+        assertEquals(1L, stats.getOrdersByStatus().get("CANCELLED"));
+        assertEquals(new BigDecimal("0.00"), stats.getTotalRevenue());
+    }
+
+    @Test
+    @DisplayName("🗄️ Archived orders are counted once, and archiving live orders keeps their counts")
+    void testArchivedOrders() {
+        // Arrange: order 2 is in both places (archived, but the delete hasn't happened yet)
+        OrderArchive.Segment segment = new OrderArchive.Segment(Path.of("orders-1.seg"), 2, 2L, new long[]{1L}, new long[]{0L, 100L});
+        when(orderArchive.segments()).thenReturn(List.of(segment));
+        doAnswer(invocation -> {
+            Consumer<Order> consumer = invocation.getArgument(1);
+            consumer.accept(new Order(1L, 10L, 1L, 30.0, now, "DELIVERED", "CARD"));
+            consumer.accept(new Order(2L, 10L, 1L, 20.0, now, "DELIVERED", "CARD"));
+            return null;
+        }).when(orderArchive).read(eq(segment), any());
+        when(orderRepository.streamStatsRows()).thenReturn(Stream.of(new OrderStatsRow(2L, 1L, 20.0, now, "DELIVERED")));
+
+        // Act
+        assertTrue(statsService.rebuild());
+        statsService.onOrdersArchived(new OrdersArchivedEvent(List.of(2L)));
+
+        // Assert
+        OrderStats stats = statsService.getStats(1, 10);
+        assertEquals(2, stats.getTotalOrders());
+        assertEquals(new BigDecimal("50.00"), stats.getTotalRevenue());
+    }
+
+    @Test
+    @DisplayName("❌ A failed rebuild leaves the stats not ready so it can be retried")
+    void testRebuildFailure() {
+        // Arrange
+        when(orderRepository.streamStatsRows()).thenThrow(new RuntimeException("Simulated database outage"));
+
+        // Act & Assert
+        assertFalse(statsService.rebuild());
+        assertFalse(statsService.getStats(24, 10).isReady());
+    }
+}
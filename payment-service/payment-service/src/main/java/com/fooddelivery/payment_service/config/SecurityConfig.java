@@ -31,12 +31,13 @@ public class SecurityConfig {
 
     @Bean
     public WebSecurityCustomizer webSecurityCustomizer() {
-        log.debug("Configuring WebSecurity to ignore Swagger and Actuator paths.");
+        log.debug("Configuring WebSecurity to ignore Swagger and actuator health paths.");
         return (web) -> web.ignoring().requestMatchers(
                 "/swagger-ui.html",
                 "/swagger-ui/**",
                 "/v3/api-docs/**",
-                "/actuator/**"
+                "/actuator/health",
+                "/actuator/health/**"
         );
     }
 
@@ -47,6 +48,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/payments/**").authenticated()
+                        // Metrics and the rest of actuator expose internals; only health is public
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -2,6 +2,8 @@
 // payment-service/src/main/java/com/fooddelivery/payment_service/controller/PaymentController.java
 package com.fooddelivery.payment_service.controller;
 
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
+import com.fooddelivery.common.idempotency.IdempotencyService;
 import com.fooddelivery.payment_service.dto.PaymentRequest;
 import com.fooddelivery.payment_service.dto.PaymentResponse;
 import com.fooddelivery.payment_service.dto.StripeRequestDto;
@@ -12,8 +14,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,16 +28,27 @@ public class PaymentController {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * POST /payments – Stripe payment (legacy direct processing)
+     * With an Idempotency-Key header, retries of the same payment return the first result instead of charging again.
      */
     @PostMapping
-    public ResponseEntity<PaymentResponse> processPayment(@Valid @RequestBody PaymentRequest paymentRequest) {
+    public ResponseEntity<?> processPayment(@Valid @RequestBody PaymentRequest paymentRequest,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                            Principal principal) {
+        String caller = principal != null ? principal.getName() : "anonymous";
+        return idempotencyService.execute("payments:" + caller, idempotencyKey, paymentRequest,
+                () -> processStripePayment(paymentRequest));
+    }
+
+    private ResponseEntity<PaymentResponse> processStripePayment(PaymentRequest paymentRequest) {
         log.info("🔁 Processing Stripe payment for Order ID: {}", paymentRequest.getOrderId());
         try {
             PaymentResponse response = paymentService.processStripePayment(paymentRequest);
@@ -90,26 +105,55 @@ public class PaymentController {
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Payment not found"));
     }
 
+    /**
+     * GET /payments/orders/{orderId} – Latest payment of an order
+     * Lets order-service follow a payment's status without posting the payment again.
+     */
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<?> getPaymentForOrder(@PathVariable Long orderId) {
+        log.info("🔍 Fetching payment for order ID: {}", orderId);
+        return paymentService.getLatestPaymentForOrder(orderId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("No payment for order " + orderId));
+    }
+
     /**
      * PUT /payments/{id} – Update full payment
+     * Include the version from the last read; a stale one gets 409 instead of overwriting a newer change.
+     * A missing version or a changed status gets 400; status moves go through PATCH /payments/{id}/status.
      */
     @PutMapping("/{id}")
     public ResponseEntity<?> updatePayment(@PathVariable Long id, @Valid @RequestBody Payment payment) {
         log.info("🔁 Updating payment ID: {}", id);
-        return paymentService.updatePayment(id, payment)
-                .<ResponseEntity<?>>map(ResponseEntity::ok)
-                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Payment not found"));
+        try {
+            return paymentService.updatePayment(id, payment)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Payment not found"));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("⚠️ Payment ID {} was modified concurrently", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Payment " + id + " was modified by another request. Reload it and try again.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
      * PATCH /payments/{id}/status – Update payment status
+     * Illegal moves (e.g. REFUNDED → COMPLETED) or a status changed concurrently get 409.
      */
     @PatchMapping("/{id}/status")
     public ResponseEntity<?> updatePaymentStatus(@PathVariable Long id, @RequestBody String status) {
         log.info("🔧 Updating status for payment ID {}: {}", id, status);
-        return paymentService.updatePaymentStatus(id, status)
-                .<ResponseEntity<?>>map(ResponseEntity::ok)
-                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Payment not found"));
+        try {
+            return paymentService.updatePaymentStatus(id, status)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Payment not found"));
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -26,4 +26,6 @@ public class PaymentRequest {
 
     @NotBlank(message = "Stripe token is required")
     private String stripeToken;
+
+    private String paymentMethod; // Optional, e.g. CARD or UPI; payments without one are recorded as STRIPE_CARD
 }
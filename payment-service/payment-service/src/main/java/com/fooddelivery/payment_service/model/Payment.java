@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (50 ids per sequence round trip)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
     private Long id; // Unique identifier for the payment
 
     private Long orderId; // ID of the order associated with this payment
@@ -28,7 +30,17 @@ public class Payment {
 
     private String paymentMethod; // e.g., CREDIT_CARD, DEBIT_CARD, UPI, WALLET
 
+    // Optimistic lock: full updates carrying a stale version are rejected instead of overwriting a newer write.
+    // The column default backfills existing rows when ddl-auto adds it.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Note: Customer ID and Restaurant ID could be denormalized here or fetched via
     // inter-service communication if needed. For simplicity, we'll keep it focused
     // on the payment itself for now.
+
+    public Payment(Long id, Long orderId, Double amount, LocalDateTime paymentDate, String status, String paymentMethod) {
+        this(id, orderId, amount, paymentDate, status, paymentMethod, null);
+    }
 }
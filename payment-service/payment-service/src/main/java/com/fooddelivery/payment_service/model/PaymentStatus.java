@@ -0,0 +1,70 @@
+package com.fooddelivery.payment_service.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lifecycle of a payment and the transitions allowed between states.
+ * Payment.status stays a plain string column; this enum only validates moves between its values.
+ *
+ * PENDING → INITIATED → COMPLETED → REFUNDED, with FAILED reachable before completion and
+ * SUCCESS accepted as the admin console's name for COMPLETED.
+ */
+public enum PaymentStatus {
+    PENDING,
+    INITIATED,
+    COMPLETED,
+    SUCCESS,
+    FAILED,
+    REFUNDED;
+
+    private static final Map<PaymentStatus, Set<PaymentStatus>> NEXT = new EnumMap<>(PaymentStatus.class);
+    // Reverse of NEXT as status names, ready to bind into "status IN (:from)"
+    private static final Map<PaymentStatus, Set<String>> SOURCES = new EnumMap<>(PaymentStatus.class);
+
+    static {
+        NEXT.put(PENDING, EnumSet.of(INITIATED, COMPLETED, SUCCESS, FAILED));
+        NEXT.put(INITIATED, EnumSet.of(COMPLETED, SUCCESS, FAILED));
+        // A failed payment can be retried
+        NEXT.put(FAILED, EnumSet.of(PENDING));
+        NEXT.put(COMPLETED, EnumSet.of(REFUNDED));
+        NEXT.put(SUCCESS, EnumSet.of(REFUNDED));
+        NEXT.put(REFUNDED, EnumSet.noneOf(PaymentStatus.class));
+
+        for (PaymentStatus target : values()) {
+            Set<String> sources = new LinkedHashSet<>();
+            NEXT.forEach((from, targets) -> {
+                if (targets.contains(target)) {
+                    sources.add(from.name());
+                }
+            });
+            SOURCES.put(target, Collections.unmodifiableSet(sources));
+        }
+    }
+
+    /**
+     * @param status A status string as stored on the payment (case-insensitive).
+     * @return The matching status, or empty if it is not part of the lifecycle.
+     */
+    public static Optional<PaymentStatus> parse(String status) {
+        if (status == null) {
+            return Optional.empty();
+        }
+        // PATCH /payments/{id}/status takes the raw body, which JSON clients send quoted
+        String normalized = status.replace("\"", "").trim().toUpperCase();
+        return Arrays.stream(values()).filter(s -> s.name().equals(normalized)).findFirst();
+    }
+
+    /**
+     * @return Names of the statuses a payment may be in to move to this one.
+     */
+    public Set<String> sources() {
+        return SOURCES.get(this);
+    }
+}
@@ -2,14 +2,34 @@ package com.fooddelivery.payment_service.repository;
 
 import com.fooddelivery.payment_service.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Optional;
+
 // @Repository annotation is technically optional for interfaces extending JpaRepository,
 // but it clearly indicates the component's role.
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // Spring Data JPA automatically provides CRUD methods (save, findById, findAll, deleteById, etc.)
     // You can add custom query methods here if needed, e.g.:
-    // Optional<Payment> findByOrderId(Long orderId);
     // List<Payment> findByStatus(String status);
+
+    // Latest payment of an order; a failed payment that was retried leaves older rows behind.
+    // Ordered by paymentDate because pooled sequence ids from different instances aren't in insert order.
+    Optional<Payment> findFirstByOrderIdOrderByPaymentDateDescIdDesc(Long orderId);
+
+    /**
+     * Moves one payment to {@code to} only if it is currently in one of {@code from}, in a single UPDATE.
+     * Bumps the version so a concurrent full update based on the old row is rejected.
+     *
+     * @return 1 if the payment was moved, 0 if it is missing or in a status outside {@code from}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.status IN :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") Collection<String> from, @Param("to") String to);
 }
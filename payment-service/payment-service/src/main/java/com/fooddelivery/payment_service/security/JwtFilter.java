@@ -1,5 +1,7 @@
 package com.fooddelivery.payment_service.security;
 
+import com.fooddelivery.common.security.VerifiedToken;
+import com.fooddelivery.common.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
@@ -20,6 +22,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -29,8 +32,13 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final String secret;
+    private final VerifiedTokenCache<VerifiedToken> tokenCache;
+
+    public JwtFilter(@Value("${jwt.secret}") String secret, VerifiedTokenCache<VerifiedToken> tokenCache) {
+        this.secret = secret;
+        this.tokenCache = tokenCache;
+    }
 
     /**
      * This method determines whether this JWT filter should be applied to the current request.
@@ -52,7 +60,8 @@ public class JwtFilter extends OncePerRequestFilter {
                path.startsWith("/swagger-ui/") ||    // Swagger UI resources (CSS, JS)
                path.equals("/v3/api-docs") ||       // Exact path for the main OpenAPI JSON definition
                path.startsWith("/v3/api-docs/") ||   // OpenAPI JSON sub-paths (e.g., /v3/api-docs/swagger-config)
-               path.startsWith("/actuator/");         // Actuator endpoints (if enabled and public)
+               path.equals("/actuator/health") ||   // Health checks are public; other actuator endpoints need a token
+               path.startsWith("/actuator/health/");
     }
 
     @Override
@@ -61,7 +70,7 @@ public class JwtFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         // This block will only be executed for paths that shouldNotFilter returns 'false' for.
-        // Public paths (Swagger, Actuator) will bypass this method entirely.
+        // Public paths (Swagger, actuator health) will bypass this method entirely.
 
         String authHeader = request.getHeader("Authorization");
         logger.debug("Authorization header: {}", authHeader != null ? "Present" : "Missing");
@@ -75,28 +84,35 @@ public class JwtFilter extends OncePerRequestFilter {
         try {
             String token = authHeader.substring(7);
 
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secret.getBytes())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            logger.debug("JWT parsed successfully for subject: {}", claims.getSubject());
-
-            String username = claims.getSubject();
-
-            List<?> rolesRaw = claims.get("roles", List.class);
-            List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-            if (rolesRaw != null) {
-                authorities = rolesRaw.stream()
-                        // Ensure each role string is properly cast and then converted to SimpleGrantedAuthority
-                        // Assuming roles in JWT are simple strings like "ADMIN", "USER" (not "ROLE_ADMIN")
-                        // If your Auth Service emits roles like "ADMIN", "USER", use "ROLE_" prefix here.
-                        // If it emits "ROLE_ADMIN", "ROLE_USER", then just use `new SimpleGrantedAuthority((String) role)`
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + ((String) role).toUpperCase()))
-                        .collect(Collectors.toList());
+            // Tokens seen before skip signature verification and claims parsing
+            VerifiedToken verified = tokenCache.get(token);
+            if (verified == null) {
+                Claims claims = Jwts.parserBuilder()
+                        .setSigningKey(secret.getBytes())
+                        .build()
+                        .parseClaimsJws(token)
+                        .getBody();
+
+                logger.debug("JWT parsed successfully for subject: {}", claims.getSubject());
+
+                List<?> rolesRaw = claims.get("roles", List.class);
+                List<SimpleGrantedAuthority> authorities = Collections.emptyList();
+                if (rolesRaw != null) {
+                    authorities = rolesRaw.stream()
+                            // Ensure each role string is properly cast and then converted to SimpleGrantedAuthority
+                            // Assuming roles in JWT are simple strings like "ADMIN", "USER" (not "ROLE_ADMIN")
+                            // If your Auth Service emits roles like "ADMIN", "USER", use "ROLE_" prefix here.
+                            // If it emits "ROLE_ADMIN", "ROLE_USER", then just use `new SimpleGrantedAuthority((String) role)`
+                            .map(role -> new SimpleGrantedAuthority("ROLE_" + ((String) role).toUpperCase()))
+                            .collect(Collectors.toList());
+                }
+                Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+                verified = tokenCache.put(token, new VerifiedToken(claims.getSubject(), authorities), expiresAt);
             }
 
+            String username = verified.username();
+            List<SimpleGrantedAuthority> authorities = verified.authorities();
+
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(username, null, authorities);
@@ -2,6 +2,7 @@
 // payment-service/src/main/java/com/fooddelivery/payment_service/service/PaymentService.java
 package com.fooddelivery.payment_service.service;
 
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
 import com.fooddelivery.payment_service.dto.PaymentRequest;
 import com.fooddelivery.payment_service.dto.PaymentResponse;
 import com.fooddelivery.payment_service.dto.StripeRequestDto;
@@ -29,6 +30,15 @@ public interface PaymentService {
      */
     Optional<Payment> getPaymentById(Long id);
 
+    /**
+     * Retrieves the most recent payment recorded for an order, so callers can follow its status
+     * without repeating the payment request.
+     *
+     * @param orderId The ID of the order.
+     * @return An Optional containing the latest Payment for the order, or empty if none was recorded.
+     */
+    Optional<Payment> getLatestPaymentForOrder(Long orderId);
+
     /**
      * Retrieves all payments.
      *
@@ -37,11 +47,13 @@ public interface PaymentService {
     List<Payment> getAllPayments();
 
     /**
-     * Updates an existing payment's details.
+     * Updates an existing payment's details. The status is left to updatePaymentStatus.
      *
      * @param id The ID of the payment to update.
      * @param updatedPayment The Payment object containing the updated details.
      * @return An Optional containing the updated Payment if found and updated, or empty if not found.
+     * @throws IllegalArgumentException if the update has no version or tries to change the status.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the update carries a stale version.
      */
     Optional<Payment> updatePayment(Long id, Payment updatedPayment);
 
@@ -55,10 +67,14 @@ public interface PaymentService {
 
     /**
      * Updates the status of a specific payment.
+     * Runs as a single conditional UPDATE validated against {@link com.fooddelivery.payment_service.model.PaymentStatus};
+     * repeating a transition the payment has already made is a no-op.
      *
      * @param paymentId The ID of the payment whose status is to be updated.
      * @param newStatus The new status to set (e.g., "COMPLETED", "FAILED", "REFUNDED").
      * @return An Optional containing the updated Payment if found, or empty if not.
+     * @throws IllegalArgumentException if the status is not part of the payment lifecycle.
+     * @throws InvalidStatusTransitionException if the payment's current status can't move to the new one.
      */
     Optional<Payment> updatePaymentStatus(Long paymentId, String newStatus);
 
@@ -2,10 +2,12 @@
 // // payment-service/src/main/java/com/fooddelivery/payment_service/service/PaymentServiceImpl.java
 package com.fooddelivery.payment_service.service;
 
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
 import com.fooddelivery.payment_service.dto.PaymentRequest;
 import com.fooddelivery.payment_service.dto.PaymentResponse;
 import com.fooddelivery.payment_service.dto.StripeRequestDto;
 import com.fooddelivery.payment_service.model.Payment;
+import com.fooddelivery.payment_service.model.PaymentStatus;
 import com.fooddelivery.payment_service.repository.PaymentRepository;
 import com.stripe.Stripe;
 import com.stripe.model.checkout.Session;
@@ -14,6 +16,7 @@ import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -67,16 +70,27 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional
     public Optional<Payment> updatePayment(Long id, Payment updatedPayment) {
         log.info("🔄 Attempting to update payment with ID: {}", id);
+        if (updatedPayment.getVersion() == null) {
+            throw new IllegalArgumentException("A payment update must carry the version of the payment it was based on.");
+        }
         return paymentRepository.findById(id).map(existingPayment -> {
+            // The version from the caller's last read must still be current, or someone else changed the payment since
+            if (!updatedPayment.getVersion().equals(existingPayment.getVersion())) {
+                log.warn("⚠️ Stale update for payment ID: {} (version {} but current is {})",
+                        id, updatedPayment.getVersion(), existingPayment.getVersion());
+                throw new ObjectOptimisticLockingFailureException(Payment.class, id);
+            }
+            // Status only moves through updatePaymentStatus, which checks the payment lifecycle
+            if (updatedPayment.getStatus() != null && !updatedPayment.getStatus().isEmpty()
+                    && !updatedPayment.getStatus().equals(existingPayment.getStatus())) {
+                throw new IllegalArgumentException("Payment status can't be changed by a full update; use PATCH /payments/"
+                        + id + "/status instead.");
+            }
             existingPayment.setOrderId(updatedPayment.getOrderId());
             existingPayment.setAmount(updatedPayment.getAmount());
             existingPayment.setPaymentMethod(updatedPayment.getPaymentMethod());
 
-            if (updatedPayment.getStatus() != null && !updatedPayment.getStatus().isEmpty()) {
-                existingPayment.setStatus(updatedPayment.getStatus());
-            }
-
-            log.info("✅ Payment updated. ID: {}, New Status: {}", id, existingPayment.getStatus());
+            log.info("✅ Payment updated. ID: {}", id);
             return paymentRepository.save(existingPayment);
         });
     }
@@ -98,24 +112,55 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional
     public Optional<Payment> updatePaymentStatus(Long paymentId, String newStatus) {
         log.info("🔧 Updating payment status. ID: {}, New Status: {}", paymentId, newStatus);
-        return paymentRepository.findById(paymentId).map(payment -> {
-            payment.setStatus(newStatus);
-            return paymentRepository.save(payment);
-        });
+        PaymentStatus target = PaymentStatus.parse(newStatus)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown payment status: " + newStatus));
+
+        // One conditional UPDATE: only matches while the payment is in a status allowed to precede the new one
+        int updated = paymentRepository.transitionStatus(paymentId, target.sources(), target.name());
+        Optional<Payment> payment = paymentRepository.findById(paymentId);
+        if (updated == 0 && payment.isPresent() && !target.name().equals(payment.get().getStatus())) {
+            log.warn("⚠️ Payment ID: {} cannot move from {} to {}", paymentId, payment.get().getStatus(), target);
+            throw new InvalidStatusTransitionException("Payment", paymentId, payment.get().getStatus(), target.name());
+        }
+        return payment;
     }
 
     @Override
+    @Transactional
     public PaymentResponse processStripePayment(PaymentRequest paymentRequest) {
         log.info("💰 Simulating Stripe payment for order ID: {}", paymentRequest.getOrderId());
 
         // Simulate Stripe charge logic (replace with actual Stripe charge API if needed)
-        return new PaymentResponse(
+        PaymentResponse response = new PaymentResponse(
                 paymentRequest.getOrderId(),
                 paymentRequest.getAmount(),
                 "SUCCESS",
                 "dummy-transaction-id",
                 "Payment processed successfully"
         );
+        recordPayment(paymentRequest, response.getStatus());
+        return response;
+    }
+
+    // Keeps the outcome so GET /payments/orders/{orderId} can report it; later moves go through updatePaymentStatus
+    private void recordPayment(PaymentRequest paymentRequest, String status) {
+        Long orderId;
+        try {
+            orderId = Long.valueOf(paymentRequest.getOrderId());
+        } catch (NumberFormatException e) {
+            log.warn("⚠️ Not recording payment for non-numeric order ID: {}", paymentRequest.getOrderId());
+            return;
+        }
+        String paymentMethod = paymentRequest.getPaymentMethod() != null && !paymentRequest.getPaymentMethod().isBlank()
+                ? paymentRequest.getPaymentMethod() : "STRIPE_CARD";
+        paymentRepository.save(new Payment(null, orderId, paymentRequest.getAmount().doubleValue(),
+                LocalDateTime.now(), status, paymentMethod));
+    }
+
+    @Override
+    public Optional<Payment> getLatestPaymentForOrder(Long orderId) {
+        log.info("🔍 Fetching latest payment for order ID: {}", orderId);
+        return paymentRepository.findFirstByOrderIdOrderByPaymentDateDescIdDesc(orderId);
     }
 
     @Override
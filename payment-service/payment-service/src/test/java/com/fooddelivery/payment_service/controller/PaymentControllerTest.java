@@ -2,6 +2,8 @@
 package com.fooddelivery.payment_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.common.idempotency.IdempotencyAutoConfiguration;
+import com.fooddelivery.common.idempotency.IdempotencyService;
 import com.fooddelivery.payment_service.config.TestSecurityConfig;
 import com.fooddelivery.payment_service.dto.PaymentRequest;
 import com.fooddelivery.payment_service.dto.PaymentResponse;
@@ -12,6 +14,7 @@ import com.fooddelivery.payment_service.service.PaymentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
@@ -39,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JwtFilter.class)
 )
 @Import(TestSecurityConfig.class)
+@ImportAutoConfiguration(IdempotencyAutoConfiguration.class)
 class PaymentControllerTest {
 
     @Autowired
@@ -109,7 +113,7 @@ class PaymentControllerTest {
     @Test
     @WithMockUser
     void testProcessPayment_InvalidInput() throws Exception {
-        PaymentRequest invalidRequest = new PaymentRequest(null, null, null, null); // Missing required fields
+        PaymentRequest invalidRequest = new PaymentRequest(null, null, null, null, null); // Missing required fields
 
         mockMvc.perform(post("/payments")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -120,7 +124,41 @@ class PaymentControllerTest {
         verifyNoInteractions(paymentService);
     }
 
-    
+    // 🔁 POST /payments – retry with the same Idempotency-Key
+    @Test
+    @WithMockUser(username = "order-service")
+    void testProcessPayment_IdempotencyKeyChargesOnce() throws Exception {
+        PaymentRequest request = new PaymentRequest("101", new BigDecimal("50.00"), "inr", "tok_visa", "CARD");
+        when(paymentService.processStripePayment(any(PaymentRequest.class)))
+                .thenReturn(new PaymentResponse("101", new BigDecimal("50.00"), "SUCCESS", "ch_123", "Payment successful"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/payments")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request))
+                            .header(IdempotencyService.HEADER, "order-101")
+                            .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.transactionId").value("ch_123"));
+        }
+
+        verify(paymentService, times(1)).processStripePayment(any(PaymentRequest.class));
+    }
+
+    // 🔍 GET /payments/orders/{orderId} – latest payment of an order
+    @Test
+    @WithMockUser(username = "order-service")
+    void testGetPaymentForOrder() throws Exception {
+        when(paymentService.getLatestPaymentForOrder(101L)).thenReturn(Optional.of(testPayment));
+        when(paymentService.getLatestPaymentForOrder(102L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/payments/orders/101"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        mockMvc.perform(get("/payments/orders/102"))
+                .andExpect(status().isNotFound());
+    }
+
     // testProcessPayment_Authenticated
     // testProcessPayment_Unauthenticated
     // testGetAllPayments_Authenticated
@@ -1,5 +1,8 @@
 package com.fooddelivery.payment_service.service;
 
+import com.fooddelivery.common.exception.InvalidStatusTransitionException;
+import com.fooddelivery.payment_service.dto.PaymentRequest;
+import com.fooddelivery.payment_service.dto.PaymentResponse;
 import com.fooddelivery.payment_service.model.Payment;
 import com.fooddelivery.payment_service.repository.PaymentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,11 +12,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -106,10 +112,35 @@ class PaymentServiceTest {
         verify(paymentRepository, times(1)).findAll();
     }
 
+    @Test
+    void testProcessStripePayment_recordsPaymentForOrder() {
+        ArgumentCaptor<Payment> paymentCaptor = ArgumentCaptor.forClass(Payment.class);
+        when(paymentRepository.save(paymentCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PaymentResponse response = paymentService.processStripePayment(
+                new PaymentRequest("101", new BigDecimal("50.00"), "inr", "tok_visa", "UPI"));
+
+        assertEquals("SUCCESS", response.getStatus());
+        Payment recorded = paymentCaptor.getValue();
+        assertEquals(101L, recorded.getOrderId());
+        assertEquals(50.0, recorded.getAmount());
+        assertEquals("SUCCESS", recorded.getStatus());
+        assertEquals("UPI", recorded.getPaymentMethod());
+    }
+
+    @Test
+    void testGetLatestPaymentForOrder() {
+        when(paymentRepository.findFirstByOrderIdOrderByPaymentDateDescIdDesc(101L)).thenReturn(Optional.of(testPayment));
+
+        assertEquals(Optional.of(testPayment), paymentService.getLatestPaymentForOrder(101L));
+    }
+
     @Test
     void testUpdatePayment_found_updatesAllFields() {
         Payment existingPayment = new Payment(1L, 101L, 50.0, LocalDateTime.of(2023, 1, 15, 10, 30), "PENDING", "CREDIT_CARD");
-        Payment updatedDetails = new Payment(null, 200L, 75.5, null, "REFUNDED", "PAYPAL");
+        existingPayment.setVersion(2L);
+        Payment updatedDetails = new Payment(null, 200L, 75.5, null, "PENDING", "PAYPAL");
+        updatedDetails.setVersion(2L);
 
         when(paymentRepository.findById(1L)).thenReturn(Optional.of(existingPayment));
         // Simulate save returning the modified existing object
@@ -122,7 +153,7 @@ class PaymentServiceTest {
         assertEquals(1L, actualUpdatedPayment.getId()); // ID should remain the same
         assertEquals(200L, actualUpdatedPayment.getOrderId()); // Order ID updated
         assertEquals(75.5, actualUpdatedPayment.getAmount()); // Amount updated
-        assertEquals("REFUNDED", actualUpdatedPayment.getStatus()); // Status updated
+        assertEquals("PENDING", actualUpdatedPayment.getStatus()); // Status unchanged
         assertEquals("PAYPAL", actualUpdatedPayment.getPaymentMethod()); // Payment method updated
         // Ensure paymentDate was not explicitly overwritten if null in updatedDetails
         assertEquals(LocalDateTime.of(2023, 1, 15, 10, 30), actualUpdatedPayment.getPaymentDate());
@@ -134,6 +165,7 @@ class PaymentServiceTest {
     @Test
     void testUpdatePayment_notFound() {
         Payment updatedDetails = new Payment(null, 200L, 75.5, null, "REFUNDED", "PAYPAL");
+        updatedDetails.setVersion(0L);
         when(paymentRepository.findById(99L)).thenReturn(Optional.empty());
 
         Optional<Payment> result = paymentService.updatePayment(99L, updatedDetails);
@@ -145,29 +177,82 @@ class PaymentServiceTest {
 
     @Test
     void testUpdatePaymentStatus_found() {
-        Payment existingPayment = new Payment(1L, 101L, 50.0, LocalDateTime.now(), "PENDING", "CREDIT_CARD");
+        Payment completedPayment = new Payment(1L, 101L, 50.0, LocalDateTime.now(), "COMPLETED", "CREDIT_CARD");
         String newStatus = "COMPLETED";
 
-        when(paymentRepository.findById(1L)).thenReturn(Optional.of(existingPayment));
-        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentRepository.transitionStatus(eq(1L), anyCollection(), eq(newStatus))).thenReturn(1);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(completedPayment));
 
         Optional<Payment> result = paymentService.updatePaymentStatus(1L, newStatus);
 
         assertTrue(result.isPresent());
         assertEquals(newStatus, result.get().getStatus());
-        verify(paymentRepository, times(1)).findById(1L);
-        verify(paymentRepository, times(1)).save(existingPayment); // Verify save was called with the modified object
+        // One conditional UPDATE instead of a read-modify-write of the whole row
+        verify(paymentRepository, times(1)).transitionStatus(1L, Set.of("PENDING", "INITIATED"), newStatus);
+        verify(paymentRepository, never()).save(any(Payment.class));
     }
 
     @Test
     void testUpdatePaymentStatus_notFound() {
         String newStatus = "COMPLETED";
+        when(paymentRepository.transitionStatus(eq(99L), anyCollection(), eq(newStatus))).thenReturn(0);
         when(paymentRepository.findById(99L)).thenReturn(Optional.empty());
 
         Optional<Payment> result = paymentService.updatePaymentStatus(99L, newStatus);
 
         assertFalse(result.isPresent());
-        verify(paymentRepository, times(1)).findById(99L);
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void testUpdatePaymentStatus_illegalTransition() {
+        // A refunded payment can't be completed again, so the UPDATE matches nothing
+        Payment refundedPayment = new Payment(1L, 101L, 50.0, LocalDateTime.now(), "REFUNDED", "CREDIT_CARD");
+        when(paymentRepository.transitionStatus(eq(1L), anyCollection(), eq("COMPLETED"))).thenReturn(0);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(refundedPayment));
+
+        InvalidStatusTransitionException e = assertThrows(InvalidStatusTransitionException.class,
+                () -> paymentService.updatePaymentStatus(1L, "COMPLETED"));
+        assertEquals("REFUNDED", e.getCurrentStatus());
+    }
+
+    @Test
+    void testUpdatePaymentStatus_unknownStatus() {
+        assertThrows(IllegalArgumentException.class, () -> paymentService.updatePaymentStatus(1L, "LOST"));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void testUpdatePayment_staleVersion() {
+        Payment existingPayment = new Payment(1L, 101L, 50.0, LocalDateTime.now(), "COMPLETED", "CREDIT_CARD");
+        existingPayment.setVersion(4L);
+        Payment updatedDetails = new Payment(null, 101L, 50.0, null, "REFUNDED", "CREDIT_CARD");
+        updatedDetails.setVersion(3L);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(existingPayment));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> paymentService.updatePayment(1L, updatedDetails));
+        assertEquals("COMPLETED", existingPayment.getStatus());
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void testUpdatePayment_missingVersion() {
+        Payment updatedDetails = new Payment(null, 101L, 50.0, null, "COMPLETED", "CREDIT_CARD");
+
+        assertThrows(IllegalArgumentException.class, () -> paymentService.updatePayment(1L, updatedDetails));
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void testUpdatePayment_statusChangeRejected() {
+        Payment existingPayment = new Payment(1L, 101L, 50.0, LocalDateTime.now(), "FAILED", "CREDIT_CARD");
+        existingPayment.setVersion(4L);
+        Payment updatedDetails = new Payment(null, 101L, 50.0, null, "COMPLETED", "CREDIT_CARD");
+        updatedDetails.setVersion(4L);
+        when(paymentRepository.findById(1L)).thenReturn(Optional.of(existingPayment));
+
+        assertThrows(IllegalArgumentException.class, () -> paymentService.updatePayment(1L, updatedDetails));
+        assertEquals("FAILED", existingPayment.getStatus());
         verify(paymentRepository, never()).save(any(Payment.class));
     }
 
@@ -0,0 +1,69 @@
+package com.fooddelivery.restaurant_service.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The GET /restaurants response body, serialized once and kept as plain and gzipped bytes.
+ *
+ * The ETag is a hash of the JSON, so every instance serving the same catalog hands out the same ETag and
+ * a rebuild that changes nothing doesn't invalidate what clients have cached. The gzipped body has its
+ * own ETag, as a strong ETag identifies the exact bytes sent.
+ *
+ * The arrays are shared with every response and must never be modified.
+ *
+ * @param etag        Strong ETag of the plain JSON, quoted.
+ * @param gzipEtag    Strong ETag of the gzipped JSON, quoted.
+ * @param restaurants Number of restaurants in the catalog.
+ */
+public record CatalogSnapshot(String etag, String gzipEtag, byte[] json, byte[] gzipped, int restaurants) {
+
+    public static CatalogSnapshot of(byte[] json, int restaurants) {
+        String hash = hash(json);
+        return new CatalogSnapshot("\"" + hash + "\"", "\"" + hash + "-gzip\"", json, gzip(json), restaurants);
+    }
+
+    /**
+     * Whether an If-None-Match header names this version of the catalog, in either encoding. Uses the
+     * weak comparison If-None-Match calls for, so a W/ prefix added by a proxy still matches.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hash(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(json.length / 4, 64));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.fooddelivery.restaurant_service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the full restaurant list as a pre-serialized CatalogSnapshot, so GET /restaurants costs neither
+ * a query nor serialization.
+ *
+ * Every committed RestaurantChangedEvent bumps a generation counter; the next request rebuilds the
+ * snapshot once, and concurrent requests wait for that rebuild instead of starting their own. A change
+ * committing during a rebuild bumps the counter again, so the next request rebuilds once more instead of
+ * serving a list that may have missed it.
+ *
+ * Changes made through another instance don't reach this one's events, so snapshots are also rebuilt
+ * once they are restaurant.catalog.max-age-seconds old. Unchanged content keeps its ETag.
+ */
+@Component
+public class RestaurantCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantCatalog.class);
+
+    private record Entry(CatalogSnapshot snapshot, long generation, long builtAtNanos) {
+    }
+
+    private final RestaurantRepository restaurantRepository;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong generation = new AtomicLong();
+    // Not synchronized: the rebuild queries and serializes while holding it, which would pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Entry current;
+
+    @Value("${restaurant.catalog.max-age-seconds:60}")
+    private long maxAgeSeconds = 60;
+
+    public RestaurantCatalog(RestaurantRepository restaurantRepository, ObjectMapper objectMapper) {
+        this.restaurantRepository = restaurantRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return The current catalog, rebuilt first if a restaurant changed since it was serialized.
+     */
+    public CatalogSnapshot snapshot() {
+        Entry entry = current;
+        if (isFresh(entry)) {
+            return entry.snapshot();
+        }
+        rebuildLock.lock();
+        try {
+            entry = current;
+            if (isFresh(entry)) {
+                return entry.snapshot();
+            }
+            // Read before querying: a change committing after this point makes the result stale again
+            long rebuiltGeneration = generation.get();
+            long start = System.nanoTime();
+            List<Restaurant> restaurants = restaurantRepository.findAll(Sort.by("id"));
+            CatalogSnapshot snapshot = CatalogSnapshot.of(serialize(restaurants), restaurants.size());
+            current = new Entry(snapshot, rebuiltGeneration, System.nanoTime());
+            log.info("Rebuilt restaurant catalog: {} restaurants, {} bytes ({} gzipped), ETag {}, in {} ms.",
+                    snapshot.restaurants(), snapshot.json().length, snapshot.gzipped().length, snapshot.etag(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isFresh(Entry entry) {
+        return entry != null
+                && entry.generation() == generation.get()
+                && System.nanoTime() - entry.builtAtNanos() < TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+    }
+
+    private byte[] serialize(List<Restaurant> restaurants) {
+        try {
+            return objectMapper.writeValueAsBytes(restaurants);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the restaurant catalog", e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.fooddelivery.restaurant_service.changes;
+
+import com.fooddelivery.restaurant_service.dto.RestaurantChangeDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantChangesResponse;
+import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import com.fooddelivery.restaurant_service.exception.ChangeFeedExpiredException;
+import com.fooddelivery.restaurant_service.model.ChangeFeedState;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.model.RestaurantChange;
+import com.fooddelivery.restaurant_service.repository.ChangeFeedStateRepository;
+import com.fooddelivery.restaurant_service.repository.RestaurantChangeRepository;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed behind GET /restaurants/changes, so other services can keep a local copy of the restaurants
+ * by fetching only what changed since the version they last saw.
+ *
+ * Every create, update and delete gives the restaurant's row in restaurant_changes the next version, in
+ * the same transaction as the change itself. Versions are handed out under a lock on the single
+ * ChangeFeedState row that is held until commit, so they become visible in order: a consumer that has
+ * read up to version n never later finds a change below n it hasn't seen.
+ *
+ * Tombstones of deleted restaurants are purged after restaurant.changes.tombstone-retention-days.
+ * Consumers that fall further behind than that get ChangeFeedExpiredException and have to start over.
+ */
+@Service
+public class RestaurantChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantChangeLog.class);
+
+    private final RestaurantChangeRepository changeRepository;
+    private final ChangeFeedStateRepository stateRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${restaurant.changes.backfill-batch-size:1000}")
+    private int backfillBatchSize = 1000;
+
+    @Value("${restaurant.changes.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays = 30;
+
+    public RestaurantChangeLog(RestaurantChangeRepository changeRepository,
+                               ChangeFeedStateRepository stateRepository,
+                               RestaurantRepository restaurantRepository,
+                               TransactionTemplate transactionTemplate) {
+        this.changeRepository = changeRepository;
+        this.stateRepository = stateRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Creates the feed state row before any restaurant write can need it. Writers only ever lock the row;
+     * creating it from a write would let two first writes race on the insert and roll one of them back.
+     */
+    @PostConstruct
+    public void seedState() {
+        transactionTemplate.executeWithoutResult(status -> stateRepository.insertIfMissing(ChangeFeedState.ID));
+    }
+
+    /**
+     * Runs inside the transaction that published the event, so the change and its feed entry commit or
+     * roll back together.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        record(lockState(), List.of(event.restaurantId()), event.type() == ChangeType.DELETED);
+    }
+
+    /**
+     * Gives restaurants that predate the change feed their first version, so a consumer starting from
+     * since=0 sees every restaurant. Batches lock the feed state like any other write, so several instances
+     * starting at once never track the same restaurant twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int tracked = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                ChangeFeedState state = lockState();
+                List<Long> restaurantIds = changeRepository.findUntrackedRestaurantIds(backfillBatchSize);
+                record(state, restaurantIds, false);
+                return restaurantIds.size();
+            });
+            tracked += batch;
+        } while (batch == backfillBatchSize);
+        if (tracked > 0) {
+            log.info("Added {} existing restaurants to the change feed.", tracked);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${restaurant.changes.purge-interval-ms:3600000}",
+               initialDelayString = "${restaurant.changes.purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        transactionTemplate.executeWithoutResult(status -> {
+            ChangeFeedState state = lockState();
+            Long through = changeRepository.findLatestTombstoneVersionBefore(cutoff);
+            if (through == null) {
+                return;
+            }
+            int purged = changeRepository.deleteTombstonesThrough(through);
+            state.setPurgedThrough(Math.max(state.getPurgedThrough(), through));
+            log.info("Purged {} restaurant tombstones up to change version {}.", purged, through);
+        });
+    }
+
+    /**
+     * Reads up to limit changes after since in one snapshot, along with the current state of every
+     * restaurant that wasn't deleted.
+     *
+     * @param since The nextSince of the previous page, or 0 to start from the beginning.
+     * @throws ChangeFeedExpiredException if tombstones after since have already been purged.
+     */
+    @Transactional(readOnly = true)
+    public RestaurantChangesResponse changesSince(long since, int limit) {
+        ChangeFeedState state = stateRepository.findById(ChangeFeedState.ID)
+                .orElseGet(() -> new ChangeFeedState(ChangeFeedState.ID, 0, 0));
+        if (since > 0 && since < state.getPurgedThrough()) {
+            throw new ChangeFeedExpiredException("Changes before version " + state.getPurgedThrough()
+                    + " are no longer kept; resync from since=0.");
+        }
+        List<RestaurantChange> changes = changeRepository.findByVersionGreaterThanOrderByVersionAsc(since, PageRequest.of(0, limit + 1));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        List<Long> liveIds = changes.stream().filter(change -> !change.isDeleted()).map(RestaurantChange::getRestaurantId).toList();
+        Map<Long, Restaurant> restaurants = liveIds.isEmpty() ? Map.of()
+                : restaurantRepository.findAllById(liveIds).stream().collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+
+        List<RestaurantChangeDTO> entries = new ArrayList<>(changes.size());
+        for (RestaurantChange change : changes) {
+            Restaurant restaurant = change.isDeleted() ? null : restaurants.get(change.getRestaurantId());
+            entries.add(new RestaurantChangeDTO(change.getVersion(), change.getRestaurantId(), restaurant == null,
+                    restaurant == null ? null : toDto(restaurant)));
+        }
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getVersion();
+        return new RestaurantChangesResponse(entries, nextSince, hasMore, Math.max(state.getLastVersion(), nextSince));
+    }
+
+    // The row exists from startup on (see seedState)
+    private ChangeFeedState lockState() {
+        return stateRepository.lockById(ChangeFeedState.ID)
+                .orElseThrow(() -> new IllegalStateException("The change feed state row is missing; it is created at startup."));
+    }
+
+    private void record(ChangeFeedState state, Collection<Long> restaurantIds, boolean deleted) {
+        if (restaurantIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long version = state.getLastVersion();
+        List<RestaurantChange> changes = new ArrayList<>(restaurantIds.size());
+        for (Long restaurantId : restaurantIds) {
+            changes.add(new RestaurantChange(restaurantId, ++version, deleted, now));
+        }
+        state.setLastVersion(version);
+        changeRepository.saveAll(changes);
+    }
+
+    private static RestaurantDTO toDto(Restaurant restaurant) {
+        return new RestaurantDTO(restaurant.getId(), restaurant.getName(), restaurant.getLocation(),
+                restaurant.getCuisine(), restaurant.getStatus(), restaurant.getLatitude(), restaurant.getLongitude(),
+                restaurant.getOwnerId());
+    }
+}
@@ -1,12 +1,20 @@
 
 package com.fooddelivery.restaurant_service.controller;
 
+import com.fooddelivery.restaurant_service.catalog.CatalogSnapshot;
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.dto.RestaurantChangesResponse;
 import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
 import com.fooddelivery.restaurant_service.model.Restaurant;
 import com.fooddelivery.restaurant_service.service.RestaurantService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +27,17 @@ import java.util.Optional;
 public class RestaurantController {
 
     private static final Logger log = LoggerFactory.getLogger(RestaurantController.class);
+    static final int MAX_BATCH_SIZE = 500;
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // Deepest result reachable by paging; ranking keeps (page + 1) * size hits in memory
+    static final int MAX_SEARCH_WINDOW = 10_000;
+    static final int DEFAULT_NEARBY_LIMIT = 20;
+    static final int MAX_NEARBY_LIMIT = 100;
+    // Larger radii would scan rings of grid cells far beyond any delivery area
+    static final double MAX_NEARBY_RADIUS_KM = 50;
+    static final int DEFAULT_CHANGES_LIMIT = 100;
+    static final int MAX_CHANGES_LIMIT = 1000;
     private final RestaurantService restaurantService;
 
     public RestaurantController(RestaurantService restaurantService) {
@@ -27,13 +46,116 @@ public class RestaurantController {
 
     // --- Existing endpoints ---
 
+    // ✅ Served from a pre-serialized (and pre-gzipped) snapshot; 304 without any work when the ETag still matches
     @GetMapping
-    public ResponseEntity<List<Restaurant>> getAllRestaurants() {
-        List<Restaurant> restaurants = restaurantService.getAllRestaurants();
-        log.info("Get all restaurants API called, found {} restaurants.", restaurants.size());
+    public ResponseEntity<byte[]> getAllRestaurants(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CatalogSnapshot catalog = restaurantService.getCatalog();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? catalog.gzipEtag() : catalog.etag();
+        if (catalog.matches(ifNoneMatch)) {
+            log.info("Get all restaurants API called, catalog {} not modified.", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        log.info("Get all restaurants API called, serving {} restaurants.", catalog.restaurants());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache()) // Clients keep the body but revalidate with If-None-Match
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            // Tomcat doesn't compress responses that already carry a Content-Encoding
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(catalog.gzipped());
+        }
+        return response.body(catalog.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // ✅ Batch lookup for callers enriching many orders at once: one findAllById query, unknown IDs are skipped
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getRestaurantsByIds(@RequestParam List<Long> ids) {
+        return batchLookup(ids);
+    }
+
+    // ✅ Same lookup with the IDs in the body, for lists too long for a query string
+    @PostMapping("/batch")
+    public ResponseEntity<?> getRestaurantsByIdsInBody(@RequestBody List<Long> ids) {
+        return batchLookup(ids);
+    }
+
+    private ResponseEntity<?> batchLookup(List<Long> ids) {
+        if (ids == null || ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("A batch lookup may list at most " + MAX_BATCH_SIZE + " restaurant IDs.");
+        }
+        List<Restaurant> restaurants = restaurantService.getRestaurantsByIds(ids);
+        log.info("Batch restaurant lookup for {} IDs found {} restaurants.", ids.size(), restaurants.size());
         return ResponseEntity.ok(restaurants);
     }
 
+    // ✅ Ranked full-text search with prefix matching, exact cuisine/location filters and facet counts
+    @GetMapping("/search")
+    public ResponseEntity<?> searchRestaurants(@RequestParam(required = false) String q,
+                                               @RequestParam(required = false) String cuisine,
+                                               @RequestParam(required = false) String location,
+                                               @RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "" + DEFAULT_SEARCH_PAGE_SIZE) int size) {
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("page must be 0 or more and size between 1 and " + MAX_SEARCH_PAGE_SIZE + ".");
+        }
+        if ((long) (page + 1) * size > MAX_SEARCH_WINDOW) {
+            return ResponseEntity.badRequest().body("Only the first " + MAX_SEARCH_WINDOW + " results can be paged through; refine the search.");
+        }
+        RestaurantSearchResponse response = restaurantService.searchRestaurants(q, cuisine, location, page, size);
+        log.info("Restaurant search for '{}' found {} matches.", q, response.getTotal());
+        return ResponseEntity.ok(response);
+    }
+
+    // ✅ Closest restaurants to a point, from the in-memory grid instead of a table scan
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyRestaurants(@RequestParam double lat,
+                                                  @RequestParam double lon,
+                                                  @RequestParam(defaultValue = "5") double radiusKm,
+                                                  @RequestParam(defaultValue = "" + DEFAULT_NEARBY_LIMIT) int limit) {
+        if (!(Math.abs(lat) <= 90 && Math.abs(lon) <= 180)) {
+            return ResponseEntity.badRequest().body("lat must be within [-90, 90] and lon within [-180, 180].");
+        }
+        if (!(radiusKm > 0 && radiusKm <= MAX_NEARBY_RADIUS_KM) || limit < 1 || limit > MAX_NEARBY_LIMIT) {
+            return ResponseEntity.badRequest().body("radiusKm must be above 0 and at most " + MAX_NEARBY_RADIUS_KM
+                    + ", limit between 1 and " + MAX_NEARBY_LIMIT + ".");
+        }
+        List<NearbyRestaurant> restaurants = restaurantService.findNearbyRestaurants(lat, lon, radiusKm, limit);
+        log.info("Nearby restaurant lookup within {} km found {} restaurants.", radiusKm, restaurants.size());
+        return ResponseEntity.ok(restaurants);
+    }
+
+    // ✅ Incremental sync: changes (including deletions) after the given version, oldest first
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(@RequestParam(defaultValue = "0") long since,
+                                        @RequestParam(defaultValue = "" + DEFAULT_CHANGES_LIMIT) int limit) {
+        if (since < 0 || limit < 1 || limit > MAX_CHANGES_LIMIT) {
+            return ResponseEntity.badRequest().body("since must be 0 or more and limit between 1 and " + MAX_CHANGES_LIMIT + ".");
+        }
+        RestaurantChangesResponse response = restaurantService.getChanges(since, limit);
+        log.info("Restaurant changes after version {} returned {} changes, next since {}.", since, response.getChanges().size(), response.getNextSince());
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Restaurant> createRestaurant(@Valid @RequestBody RestaurantDTO restaurantDTO) {
@@ -67,7 +189,10 @@ public class RestaurantController {
             restaurant.getName(),
             restaurant.getLocation(),
             restaurant.getCuisine(),
-            restaurant.getStatus()
+            restaurant.getStatus(),
+            restaurant.getLatitude(),
+            restaurant.getLongitude(),
+            restaurant.getOwnerId()
         );
 
         return ResponseEntity.ok(dto);
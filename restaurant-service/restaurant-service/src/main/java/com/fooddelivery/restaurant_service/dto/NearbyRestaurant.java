@@ -0,0 +1,30 @@
+package com.fooddelivery.restaurant_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A GET /restaurants/nearby result, closest first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRestaurant {
+
+    private Long id;
+
+    private String name;
+
+    private String location;
+
+    private String cuisine;
+
+    private String status;
+
+    private double latitude;
+
+    private double longitude;
+
+    private double distanceKm; // ✅ Great-circle distance from the requested point
+}
@@ -0,0 +1,22 @@
+package com.fooddelivery.restaurant_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of GET /restaurants/changes: the restaurant as it is now, or a tombstone.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantChangeDTO {
+
+    private long version;
+
+    private Long restaurantId;
+
+    private boolean deleted; // ✅ Tombstone: drop the restaurant from the local copy
+
+    private RestaurantDTO restaurant; // ✅ Current state; null for tombstones
+}
@@ -0,0 +1,24 @@
+package com.fooddelivery.restaurant_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of the restaurant change feed, oldest change first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantChangesResponse {
+
+    private List<RestaurantChangeDTO> changes;
+
+    private long nextSince; // ✅ Pass as since= on the next call
+
+    private boolean hasMore; // ✅ More changes are waiting; call again right away
+
+    private long latestVersion; // ✅ Highest version committed when this page was read
+}
@@ -1,6 +1,10 @@
 
 package com.fooddelivery.restaurant_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,4 +27,28 @@ public class RestaurantDTO {
     private String cuisine;
 
     private String status; // ✅ Add status for availability (OPEN, CLOSED, etc.)
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude; // ✅ Optional; leaving both coordinates out keeps the current ones on update
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    private Long ownerId; // ✅ Owner's user ID; only taken on create, which is admin-only
+
+    public RestaurantDTO(Long id, String name, String location, String cuisine, String status) {
+        this(id, name, location, cuisine, status, null, null, null);
+    }
+
+    public RestaurantDTO(Long id, String name, String location, String cuisine, String status, Double latitude, Double longitude) {
+        this(id, name, location, cuisine, status, latitude, longitude, null);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Latitude and longitude must be given together")
+    public boolean isCoordinatesComplete() {
+        return (latitude == null) == (longitude == null);
+    }
 }
@@ -0,0 +1,30 @@
+package com.fooddelivery.restaurant_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of GET /restaurants/search results, best match first, with facet counts over all matches.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantSearchResponse {
+
+    private List<RestaurantDTO> restaurants; // ✅ The requested page of matches
+
+    private long total; // ✅ Number of matches across all pages
+
+    private int page; // ✅ Zero-based page number
+
+    private int size; // ✅ Requested page size
+
+    // ✅ Matches per cuisine, ignoring the cuisine filter so the other cuisines stay selectable
+    private Map<String, Long> cuisineFacets;
+
+    private Map<String, Long> statusFacets; // ✅ Matches per status (e.g., ACTIVE, CLOSED)
+}
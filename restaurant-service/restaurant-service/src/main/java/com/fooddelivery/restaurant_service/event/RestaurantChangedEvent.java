@@ -0,0 +1,21 @@
+package com.fooddelivery.restaurant_service.event;
+
+import com.fooddelivery.restaurant_service.model.Restaurant;
+
+/**
+ * Published by RestaurantServiceImpl whenever a restaurant is created, updated or deleted.
+ * Listeners that talk to other services should use @TransactionalEventListener so they only
+ * react once the change has been committed.
+ *
+ * @param restaurantId The ID of the affected restaurant.
+ * @param type         What happened to the restaurant.
+ * @param restaurant   The restaurant state after the change, or null for DELETED.
+ */
+public record RestaurantChangedEvent(Long restaurantId, ChangeType type, Restaurant restaurant) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
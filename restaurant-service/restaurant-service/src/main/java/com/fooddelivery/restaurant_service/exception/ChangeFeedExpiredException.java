@@ -0,0 +1,12 @@
+package com.fooddelivery.restaurant_service.exception;
+
+/**
+ * The requested change feed position is older than the oldest tombstone still kept, so deletions
+ * may have been missed. The consumer has to start over from since=0.
+ */
+public class ChangeFeedExpiredException extends RuntimeException {
+
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
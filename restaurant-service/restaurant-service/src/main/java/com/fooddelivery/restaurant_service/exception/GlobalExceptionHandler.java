@@ -21,6 +21,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    // Change feed position too old: the consumer has to resync from since=0
+    @ExceptionHandler(ChangeFeedExpiredException.class)
+    public ResponseEntity<String> handleChangeFeedExpiredException(ChangeFeedExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE).body(ex.getMessage());
+    }
+
     // Specific handler for validation exceptions (@Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
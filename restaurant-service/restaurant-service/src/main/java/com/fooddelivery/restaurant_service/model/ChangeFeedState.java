@@ -0,0 +1,27 @@
+package com.fooddelivery.restaurant_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row that hands out change feed versions. Writers lock it for the rest of their
+ * transaction, so versions commit in the order they were handed out.
+ */
+@Entity
+@Table(name = "restaurant_change_feed")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedState {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long lastVersion; // ✅ Highest version handed out so far
+
+    private long purgedThrough; // ✅ Tombstones up to this version are gone; consumers behind it must resync
+}
@@ -14,7 +14,9 @@ import lombok.NoArgsConstructor;
 public class Restaurant {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_seq")
+    @SequenceGenerator(name = "restaurant_seq", sequenceName = "restaurant_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -29,4 +31,20 @@ public class Restaurant {
     // ✅ Add this field
     @Column(nullable = false)
     private String status="ACTIVE";  // Example: "OPEN", "CLOSED", "ACTIVE"
+
+    // ✅ Coordinates for nearby search and courier pickup; null until the restaurant has been placed on the map
+    private Double latitude;
+
+    private Double longitude;
+
+    // ✅ User ID of the owner's account, so order-service can let the owner read the restaurant's orders; null if unassigned
+    private Long ownerId;
+
+    public Restaurant(Long id, String name, String location, String cuisine, String status) {
+        this(id, name, location, cuisine, status, null, null, null);
+    }
+
+    public Restaurant(Long id, String name, String location, String cuisine, String status, Double latitude, Double longitude) {
+        this(id, name, location, cuisine, status, latitude, longitude, null);
+    }
 }
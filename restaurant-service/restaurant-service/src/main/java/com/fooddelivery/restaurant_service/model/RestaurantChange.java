@@ -0,0 +1,34 @@
+package com.fooddelivery.restaurant_service.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A restaurant's entry in the change feed. Only the latest change per restaurant is kept, so the table
+ * never grows beyond one row per restaurant (plus tombstones until they are purged).
+ */
+@Entity
+@Table(name = "restaurant_changes",
+       indexes = @Index(name = "idx_restaurant_changes_version", columnList = "version", unique = true))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantChange {
+
+    @Id
+    private Long restaurantId;
+
+    // ✅ Position in the feed; every create, update and delete gets a higher one
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private boolean deleted; // ✅ Tombstone: consumers should drop the restaurant
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,30 @@
+package com.fooddelivery.restaurant_service.repository;
+
+import com.fooddelivery.restaurant_service.model.ChangeFeedState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ChangeFeedStateRepository extends JpaRepository<ChangeFeedState, Long> {
+
+    /**
+     * Creates the feed state row unless it already exists. Safe to run from several instances at once.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO restaurant_change_feed (id, last_version, purged_through) VALUES (:id, 0, 0)",
+           nativeQuery = true)
+    int insertIfMissing(@Param("id") Long id);
+
+    /**
+     * Locks the feed state until the transaction ends. Every transaction that hands out versions or purges
+     * tombstones goes through this lock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ChangeFeedState s WHERE s.id = :id")
+    Optional<ChangeFeedState> lockById(@Param("id") Long id);
+}
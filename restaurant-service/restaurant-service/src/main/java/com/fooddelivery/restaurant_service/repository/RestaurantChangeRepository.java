@@ -0,0 +1,28 @@
+package com.fooddelivery.restaurant_service.repository;
+
+import com.fooddelivery.restaurant_service.model.RestaurantChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RestaurantChangeRepository extends JpaRepository<RestaurantChange, Long> {
+
+    List<RestaurantChange> findByVersionGreaterThanOrderByVersionAsc(long version, Pageable pageable);
+
+    // Restaurants created before the change feed existed, lowest ID first
+    @Query(value = "SELECT r.id FROM restaurants r LEFT JOIN restaurant_changes c ON c.restaurant_id = r.id "
+            + "WHERE c.restaurant_id IS NULL ORDER BY r.id LIMIT :limit", nativeQuery = true)
+    List<Long> findUntrackedRestaurantIds(@Param("limit") int limit);
+
+    @Query("SELECT MAX(c.version) FROM RestaurantChange c WHERE c.deleted = true AND c.changedAt < :cutoff")
+    Long findLatestTombstoneVersionBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM RestaurantChange c WHERE c.deleted = true AND c.version <= :version")
+    int deleteTombstonesThrough(@Param("version") long version);
+}
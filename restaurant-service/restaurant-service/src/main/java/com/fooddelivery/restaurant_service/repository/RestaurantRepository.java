@@ -1,7 +1,12 @@
 package com.fooddelivery.restaurant_service.repository;
 
 import com.fooddelivery.restaurant_service.model.Restaurant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
+
+    // Restaurants that can be placed on the map, for loading the nearby index
+    Page<Restaurant> findByLatitudeIsNotNullAndLongitudeIsNotNull(Pageable pageable);
 }
@@ -0,0 +1,276 @@
+package com.fooddelivery.restaurant_service.search;
+
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid of restaurant coordinates, behind GET /restaurants/nearby.
+ *
+ * The map is cut into square cells of restaurant.geo.cell-size-degrees, and each cell holds an array of
+ * the restaurants inside it. A nearby lookup scans rings of cells outwards from the requested point,
+ * keeping the closest restaurants found so far, and stops as soon as no unscanned cell can hold anything
+ * closer than the furthest of them, or the rings have passed the radius. Restaurants without coordinates
+ * are not indexed.
+ *
+ * Like RestaurantSearchIndex, the grid is loaded once the application is ready and then follows the
+ * RestaurantChangedEvents of committed changes. Writes are serialized and replace a cell's array instead
+ * of modifying it, so lookups never block and never see a half-updated cell.
+ */
+@Component
+public class RestaurantGeoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantGeoIndex.class);
+
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final Place[] EMPTY = new Place[0];
+
+    // Closest first, ties broken by ID so results are stable
+    private static final Comparator<NearbyRestaurant> NEAREST = Comparator.comparingDouble(NearbyRestaurant::getDistanceKm)
+            .thenComparing(NearbyRestaurant::getId);
+
+    /**
+     * What the grid keeps per restaurant: enough to answer a lookup without going to the database.
+     */
+    private record Place(Long id, String name, String location, String cuisine, String status,
+                         double latitude, double longitude, long cell) {
+    }
+
+    private final RestaurantRepository restaurantRepository;
+    private final double cellDegrees;
+
+    // Cell key → restaurants in that cell; replaced, never modified
+    private final Map<Long, Place[]> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Place> places = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    @Value("${restaurant.search.build-batch-size:1000}")
+    private int buildBatchSize = 1000;
+
+    public RestaurantGeoIndex(RestaurantRepository restaurantRepository,
+                              @Value("${restaurant.geo.cell-size-degrees:0.01}") double cellDegrees) {
+        this.restaurantRepository = restaurantRepository;
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Loads every restaurant with coordinates, reading the table in pages before touching the grid.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        List<Restaurant> restaurants = new ArrayList<>();
+        Pageable pageable = PageRequest.of(0, buildBatchSize, Sort.by("id"));
+        Page<Restaurant> page;
+        do {
+            page = restaurantRepository.findByLatitudeIsNotNullAndLongitudeIsNotNull(pageable);
+            restaurants.addAll(page.getContent());
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        // Restaurants changed while the table was being read were indexed from their events and are newer
+        indexAll(restaurants, false);
+        log.info("Indexed {} restaurants for nearby search in {} ms across {} cells.",
+                size(), (System.nanoTime() - start) / 1_000_000, cells.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            remove(event.restaurantId());
+        } else if (event.restaurant() != null) {
+            index(event.restaurant());
+        }
+    }
+
+    /**
+     * Adds a restaurant to the grid, moves it, or drops it if it no longer has coordinates.
+     */
+    public void index(Restaurant restaurant) {
+        indexAll(List.of(restaurant));
+    }
+
+    /**
+     * Indexes many restaurants at once; every affected cell is rewritten once. The last entry wins if a
+     * restaurant is listed more than once.
+     */
+    public void indexAll(Collection<Restaurant> restaurants) {
+        indexAll(restaurants, true);
+    }
+
+    private void indexAll(Collection<Restaurant> restaurants, boolean replace) {
+        Map<Long, Restaurant> latest = new LinkedHashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant != null && restaurant.getId() != null) {
+                latest.put(restaurant.getId(), restaurant);
+            }
+        }
+        synchronized (writeLock) {
+            Map<Long, Set<Long>> removed = new HashMap<>();
+            Map<Long, List<Place>> added = new HashMap<>();
+            for (Restaurant restaurant : latest.values()) {
+                Place previous = places.get(restaurant.getId());
+                if (previous != null && !replace) {
+                    continue;
+                }
+                Place next = toPlace(restaurant);
+                if (previous != null) {
+                    removed.computeIfAbsent(previous.cell(), cell -> new HashSet<>()).add(previous.id());
+                    places.remove(previous.id());
+                }
+                if (next != null) {
+                    added.computeIfAbsent(next.cell(), cell -> new ArrayList<>()).add(next);
+                    places.put(next.id(), next);
+                }
+            }
+            rewriteCells(removed, added);
+        }
+    }
+
+    public void remove(Long restaurantId) {
+        synchronized (writeLock) {
+            Place previous = places.remove(restaurantId);
+            if (previous != null) {
+                rewriteCells(Map.of(previous.cell(), Set.of(previous.id())), Map.of());
+            }
+        }
+    }
+
+    public int size() {
+        return places.size();
+    }
+
+    /**
+     * Finds the restaurants closest to a point.
+     *
+     * @param radiusKm Restaurants further away than this are not considered.
+     * @param limit    The most restaurants to return.
+     * @return Up to limit restaurants within radiusKm, closest first.
+     */
+    public List<NearbyRestaurant> nearby(double latitude, double longitude, double radiusKm, int limit) {
+        long centre = cellOf(latitude, longitude);
+        int centreRow = (int) (centre >>> 32);
+        int centreCol = (int) centre;
+        // Every point in ring r + 1 is at least r cell widths away from anywhere in the centre cell
+        double cosLatitude = Math.max(Math.cos(Math.toRadians(Math.min(Math.abs(latitude) + cellDegrees, 90))), 0.01);
+        double ringKm = cellDegrees * KM_PER_DEGREE * cosLatitude;
+        int maxRing = (int) Math.ceil(radiusKm / ringKm) + 1;
+
+        // Furthest first, so the head is the one to drop when a closer restaurant turns up
+        PriorityQueue<NearbyRestaurant> nearest = new PriorityQueue<>(limit + 1, NEAREST.reversed());
+        for (int ring = 0; ring <= maxRing; ring++) {
+            scanRing(centreRow, centreCol, ring, latitude, longitude, radiusKm, limit, nearest);
+            if (nearest.size() == limit && nearest.peek().getDistanceKm() <= ring * ringKm) {
+                break;
+            }
+        }
+        List<NearbyRestaurant> result = new ArrayList<>(nearest);
+        result.sort(NEAREST);
+        return result;
+    }
+
+    private void scanRing(int centreRow, int centreCol, int ring, double latitude, double longitude,
+                          double radiusKm, int limit, PriorityQueue<NearbyRestaurant> nearest) {
+        for (int row = centreRow - ring; row <= centreRow + ring; row++) {
+            boolean edgeRow = row == centreRow - ring || row == centreRow + ring;
+            int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+            for (int col = centreCol - ring; col <= centreCol + ring; col += step) {
+                Place[] members = cells.get(cellKey(row, col));
+                if (members == null) {
+                    continue;
+                }
+                for (Place place : members) {
+                    double distanceKm = distanceKm(latitude, longitude, place.latitude(), place.longitude());
+                    if (distanceKm > radiusKm
+                            || (nearest.size() == limit && distanceKm > nearest.peek().getDistanceKm())) {
+                        continue;
+                    }
+                    nearest.add(new NearbyRestaurant(place.id(), place.name(), place.location(), place.cuisine(),
+                            place.status(), place.latitude(), place.longitude(), distanceKm));
+                    if (nearest.size() > limit) {
+                        nearest.poll();
+                    }
+                }
+            }
+        }
+    }
+
+    // Guarded by writeLock
+    private void rewriteCells(Map<Long, Set<Long>> removed, Map<Long, List<Place>> added) {
+        Set<Long> touched = new HashSet<>(removed.keySet());
+        touched.addAll(added.keySet());
+        for (Long cell : touched) {
+            Set<Long> gone = removed.getOrDefault(cell, Set.of());
+            List<Place> joined = added.getOrDefault(cell, List.of());
+            Place[] current = cells.getOrDefault(cell, EMPTY);
+            List<Place> next = new ArrayList<>(current.length + joined.size());
+            for (Place place : current) {
+                if (!gone.contains(place.id())) {
+                    next.add(place);
+                }
+            }
+            next.addAll(joined);
+            if (next.isEmpty()) {
+                cells.remove(cell);
+            } else {
+                cells.put(cell, next.toArray(EMPTY));
+            }
+        }
+    }
+
+    private Place toPlace(Restaurant restaurant) {
+        Double latitude = restaurant.getLatitude();
+        Double longitude = restaurant.getLongitude();
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return new Place(restaurant.getId(), restaurant.getName(), restaurant.getLocation(), restaurant.getCuisine(),
+                restaurant.getStatus(), latitude, longitude, cellOf(latitude, longitude));
+    }
+
+    long cellOf(double latitude, double longitude) {
+        int row = (int) Math.floor((latitude + 90) / cellDegrees);
+        int col = (int) Math.floor((longitude + 180) / cellDegrees);
+        return cellKey(row, col);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Haversine distance between two points in kilometres.
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,542 @@
+package com.fooddelivery.restaurant_service.search;
+
+import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over restaurant name, cuisine and location, behind GET /restaurants/search.
+ *
+ * Every indexed restaurant gets a dense ordinal, and each word maps to the sorted array of ordinals of the
+ * restaurants containing it. The words are kept in a sorted dictionary, so a query token matches every
+ * word it is a prefix of with one range scan ("piz" finds "pizza" and "pizzeria"). A restaurant has to
+ * match every token of the query, which is an intersection of those arrays, smallest first. Only the
+ * restaurants left over are looked at: they are ranked by the summed score of their best field per token
+ * (name counts more than cuisine, cuisine more than location, and a whole word twice as much as a prefix),
+ * ties broken by name, then ID.
+ *
+ * The index is loaded from the database once the application is ready and then kept current from the
+ * RestaurantChangedEvents that RestaurantServiceImpl publishes, once their transaction has committed.
+ * Every instance holds its own copy, so changes made through another instance are not visible here.
+ *
+ * Writes are serialized and replace posting arrays instead of modifying them, so searches never block.
+ * A search running during a write may still find a restaurant through a word it just lost (it is checked
+ * against its current words and dropped), or miss it for a word it just gained.
+ */
+@Component
+public class RestaurantSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RestaurantSearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int[] NONE = new int[0];
+
+    /**
+     * Indexed fields and how much a match in each counts toward the rank.
+     */
+    enum Field {
+        NAME(3),
+        CUISINE(2),
+        LOCATION(1);
+
+        final int weight;
+
+        Field(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * What the index keeps per restaurant: the values returned in results, their normalized forms and
+     * the words of each field, indexed by Field ordinal.
+     */
+    private record Doc(int ordinal, Long id, String name, String location, String cuisine, String status,
+                       String sortName, String cuisineKey, String locationKey, String[][] words) {
+
+        /**
+         * @return The score for one query token: the weight of the best field with a word starting with
+         *         the token, doubled if that word is the whole token, or 0 if no word starts with it.
+         */
+        int score(String token) {
+            int best = 0;
+            for (Field field : Field.values()) {
+                for (String word : words[field.ordinal()]) {
+                    if (word.startsWith(token)) {
+                        best = Math.max(best, field.weight * (word.length() == token.length() ? 2 : 1));
+                    }
+                }
+            }
+            return best;
+        }
+
+        Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>();
+            for (String[] fieldWords : words) {
+                terms.addAll(Arrays.asList(fieldWords));
+            }
+            return terms;
+        }
+    }
+
+    private record Hit(Doc doc, int score) {
+    }
+
+    // Best match first
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.doc().sortName())
+            .thenComparing(hit -> hit.doc().id());
+
+    private final RestaurantRepository restaurantRepository;
+
+    // Word → ordinals of the restaurants with that word in any field, ascending
+    private final ConcurrentSkipListMap<String, int[]> terms = new ConcurrentSkipListMap<>();
+    // Whole normalized location → ordinals, for the exact location= filter
+    private final Map<String, int[]> byLocation = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    // Restaurants by ordinal, null once deleted; reassigned (and so republished) after every write
+    private volatile Doc[] docs = new Doc[1024];
+    private int nextOrdinal; // Guarded by writeLock
+    private final Object writeLock = new Object();
+
+    @Value("${restaurant.search.build-batch-size:1000}")
+    private int buildBatchSize = 1000;
+
+    public RestaurantSearchIndex(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    /**
+     * Loads every restaurant into the index. The table is read in pages outside the write lock and then
+     * indexed in one batch, so each posting array is written once instead of once per page.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        List<Restaurant> restaurants = new ArrayList<>();
+        Pageable pageable = PageRequest.of(0, buildBatchSize, Sort.by("id"));
+        Page<Restaurant> page;
+        do {
+            page = restaurantRepository.findAll(pageable);
+            restaurants.addAll(page.getContent());
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        // Restaurants changed while the table was being read were indexed from their events and are newer
+        indexAll(restaurants, false);
+        log.info("Indexed {} restaurants for search in {} ms.", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            remove(event.restaurantId());
+        } else if (event.restaurant() != null) {
+            index(event.restaurant());
+        }
+    }
+
+    /**
+     * Adds a restaurant to the index, or replaces what was indexed for it before.
+     */
+    public void index(Restaurant restaurant) {
+        indexAll(List.of(restaurant));
+    }
+
+    /**
+     * Adds or replaces several restaurants, rewriting each affected posting array once for the whole batch.
+     */
+    public void indexAll(Collection<Restaurant> restaurants) {
+        indexAll(restaurants, true);
+    }
+
+    private void indexAll(Collection<Restaurant> restaurants, boolean replace) {
+        Map<Long, Restaurant> latest = new LinkedHashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            if (restaurant != null && restaurant.getId() != null) {
+                latest.put(restaurant.getId(), restaurant);
+            }
+        }
+        synchronized (writeLock) {
+            if (!replace) {
+                latest.keySet().removeAll(ordinals.keySet());
+            }
+            Map<String, PostingChange> termChanges = new HashMap<>();
+            Map<String, PostingChange> locationChanges = new HashMap<>();
+            Doc[] current = docs;
+            for (Restaurant restaurant : latest.values()) {
+                Integer existing = ordinals.get(restaurant.getId());
+                int ordinal = existing != null ? existing : nextOrdinal++;
+                if (ordinal >= current.length) {
+                    current = Arrays.copyOf(current, Math.max(current.length * 2, ordinal + 1));
+                }
+                Doc previous = current[ordinal];
+                Doc doc = toDoc(ordinal, restaurant);
+                current[ordinal] = doc;
+                ordinals.put(doc.id(), ordinal);
+
+                Set<String> oldTerms = previous != null ? previous.terms() : Set.of();
+                Set<String> newTerms = doc.terms();
+                for (String term : newTerms) {
+                    if (!oldTerms.contains(term)) {
+                        termChanges.computeIfAbsent(term, t -> new PostingChange()).added.add(ordinal);
+                    }
+                }
+                for (String term : oldTerms) {
+                    if (!newTerms.contains(term)) {
+                        termChanges.computeIfAbsent(term, t -> new PostingChange()).removed.add(ordinal);
+                    }
+                }
+                if (previous == null || !previous.locationKey().equals(doc.locationKey())) {
+                    locationChanges.computeIfAbsent(doc.locationKey(), k -> new PostingChange()).added.add(ordinal);
+                    if (previous != null) {
+                        locationChanges.computeIfAbsent(previous.locationKey(), k -> new PostingChange()).removed.add(ordinal);
+                    }
+                }
+            }
+            docs = current;
+            termChanges.forEach((term, change) -> change.applyTo(terms, term));
+            locationChanges.forEach((location, change) -> change.applyTo(byLocation, location));
+        }
+    }
+
+    /**
+     * Drops a restaurant from the index; unknown IDs are ignored.
+     */
+    public void remove(Long restaurantId) {
+        synchronized (writeLock) {
+            Integer ordinal = ordinals.remove(restaurantId);
+            if (ordinal == null) {
+                return;
+            }
+            Doc[] current = docs;
+            Doc previous = current[ordinal];
+            current[ordinal] = null;
+            docs = current;
+            for (String term : previous.terms()) {
+                PostingChange change = new PostingChange();
+                change.removed.add(ordinal);
+                change.applyTo(terms, term);
+            }
+            PostingChange change = new PostingChange();
+            change.removed.add(ordinal);
+            change.applyTo(byLocation, previous.locationKey());
+        }
+    }
+
+    /**
+     * @return The number of indexed restaurants.
+     */
+    public int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Finds restaurants matching all of the query's words (each as a prefix) and the optional filters.
+     *
+     * @param query    Free text matched against name, cuisine and location; blank matches everything.
+     * @param cuisine  Optional exact cuisine (case- and accent-insensitive).
+     * @param location Optional exact location (case- and accent-insensitive).
+     * @param page     Zero-based page number.
+     * @param size     Page size.
+     * @return The requested page, ranked best match first, with cuisine and status facet counts.
+     */
+    public RestaurantSearchResponse search(String query, String cuisine, String location, int page, int size) {
+        List<String> tokens = tokenize(query);
+        String cuisineKey = isBlank(cuisine) ? null : normalize(cuisine);
+        String locationKey = isBlank(location) ? null : normalize(location);
+        Doc[] snapshot = docs;
+        int[] candidates = candidates(tokens, locationKey);
+        int candidateCount = candidates != null ? candidates.length : snapshot.length;
+
+        // Keep only the best (page + 1) * size hits instead of sorting every match
+        int window = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(window, 1024) + 1, RANKING.reversed());
+        Map<String, long[]> cuisineCounts = new HashMap<>();
+        Map<String, long[]> statusCounts = new HashMap<>();
+        long total = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int ordinal = candidates != null ? candidates[i] : i;
+            Doc doc = ordinal < snapshot.length ? snapshot[ordinal] : null;
+            if (doc == null || (locationKey != null && !locationKey.equals(doc.locationKey()))) {
+                continue;
+            }
+            int score = score(doc, tokens);
+            if (score < 0) {
+                continue;
+            }
+            // Cuisine facets ignore the cuisine filter, so the other cuisines can still be offered
+            cuisineCounts.computeIfAbsent(String.valueOf(doc.cuisine()), k -> new long[1])[0]++;
+            if (cuisineKey != null && !cuisineKey.equals(doc.cuisineKey())) {
+                continue;
+            }
+            statusCounts.computeIfAbsent(String.valueOf(doc.status()), k -> new long[1])[0]++;
+            total++;
+            Hit hit = new Hit(doc, score);
+            if (best.size() < window) {
+                best.offer(hit);
+            } else if (RANKING.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.offer(hit);
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<RestaurantDTO> restaurants = new ArrayList<>(size);
+        for (int i = page * size; i < ranked.size(); i++) {
+            Doc doc = ranked.get(i).doc();
+            restaurants.add(new RestaurantDTO(doc.id(), doc.name(), doc.location(), doc.cuisine(), doc.status()));
+        }
+        return new RestaurantSearchResponse(restaurants, total, page, size, byCount(cuisineCounts), byCount(statusCounts));
+    }
+
+    /**
+     * Intersects the postings of every token (each the union over the words it prefixes) and of the location
+     * filter, smallest first. The cuisine filter is checked per restaurant instead, because the cuisine facets
+     * count the restaurants of every cuisine.
+     *
+     * @return Ordinals that may match, ascending; null if nothing narrows the search down.
+     */
+    private int[] candidates(List<String> tokens, String locationKey) {
+        List<int[]> postings = new ArrayList<>(tokens.size() + 1);
+        for (String token : tokens) {
+            postings.add(union(terms.subMap(token, true, token + Character.MAX_VALUE, false).values()));
+        }
+        if (locationKey != null) {
+            postings.add(byLocation.getOrDefault(locationKey, NONE));
+        }
+        if (postings.isEmpty()) {
+            return null;
+        }
+        postings.sort(Comparator.comparingInt(ordinalList -> ordinalList.length));
+        int[] result = postings.get(0);
+        for (int i = 1; i < postings.size() && result.length > 0; i++) {
+            result = intersect(result, postings.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @return The summed token scores, or -1 if the restaurant does not (or no longer) match every token.
+     */
+    private static int score(Doc doc, List<String> tokens) {
+        int score = 0;
+        for (String token : tokens) {
+            int tokenScore = doc.score(token);
+            if (tokenScore == 0) {
+                return -1;
+            }
+            score += tokenScore;
+        }
+        return score;
+    }
+
+    private static int[] union(Collection<int[]> ordinalLists) {
+        if (ordinalLists.isEmpty()) {
+            return NONE;
+        }
+        if (ordinalLists.size() == 1) {
+            return ordinalLists.iterator().next();
+        }
+        int length = 0;
+        for (int[] ordinalList : ordinalLists) {
+            length += ordinalList.length;
+        }
+        int[] all = new int[length];
+        int offset = 0;
+        for (int[] ordinalList : ordinalLists) {
+            System.arraycopy(ordinalList, 0, all, offset, ordinalList.length);
+            offset += ordinalList.length;
+        }
+        Arrays.sort(all);
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (i == 0 || all[i] != all[i - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return Arrays.copyOf(all, distinct);
+    }
+
+    /**
+     * Intersects two ascending ordinal arrays; a much smaller one is looked up in the larger by binary search.
+     */
+    static int[] intersect(int[] smaller, int[] larger) {
+        int[] result = new int[Math.min(smaller.length, larger.length)];
+        int count = 0;
+        if ((long) smaller.length * 16 < larger.length) {
+            int from = 0;
+            for (int ordinal : smaller) {
+                int index = Arrays.binarySearch(larger, from, larger.length, ordinal);
+                if (index >= 0) {
+                    result[count++] = ordinal;
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+                if (from >= larger.length) {
+                    break;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < smaller.length && j < larger.length) {
+                if (smaller[i] < larger[j]) {
+                    i++;
+                } else if (smaller[i] > larger[j]) {
+                    j++;
+                } else {
+                    result[count++] = smaller[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static Doc toDoc(int ordinal, Restaurant restaurant) {
+        String[][] words = new String[Field.values().length][];
+        words[Field.NAME.ordinal()] = tokenize(restaurant.getName()).toArray(String[]::new);
+        words[Field.CUISINE.ordinal()] = tokenize(restaurant.getCuisine()).toArray(String[]::new);
+        words[Field.LOCATION.ordinal()] = tokenize(restaurant.getLocation()).toArray(String[]::new);
+        return new Doc(ordinal, restaurant.getId(), restaurant.getName(), restaurant.getLocation(),
+                restaurant.getCuisine(), restaurant.getStatus(), normalize(restaurant.getName()),
+                normalize(restaurant.getCuisine()), normalize(restaurant.getLocation()), words);
+    }
+
+    /**
+     * Ordinals to add to and remove from one posting array, applied as a single copy-and-merge.
+     */
+    private static final class PostingChange {
+
+        private final IntList added = new IntList();
+        private final IntList removed = new IntList();
+
+        void applyTo(Map<String, int[]> postings, String key) {
+            int[] current = postings.getOrDefault(key, NONE);
+            int[] add = added.sorted();
+            int[] remove = removed.sorted();
+            int[] updated = new int[current.length + add.length];
+            int count = 0;
+            int a = 0;
+            int r = 0;
+            for (int ordinal : current) {
+                while (r < remove.length && remove[r] < ordinal) {
+                    r++;
+                }
+                if (r < remove.length && remove[r] == ordinal) {
+                    continue;
+                }
+                while (a < add.length && add[a] < ordinal) {
+                    updated[count++] = add[a++];
+                }
+                if (a < add.length && add[a] == ordinal) {
+                    a++; // Already there
+                }
+                updated[count++] = ordinal;
+            }
+            while (a < add.length) {
+                updated[count++] = add[a++];
+            }
+            if (count == 0) {
+                postings.remove(key);
+            } else {
+                postings.put(key, count == updated.length ? updated : Arrays.copyOf(updated, count));
+            }
+        }
+    }
+
+    /**
+     * Growable list of primitive ints.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] sorted() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Splits text into distinct lower-case words without accents ("Café Déjà-Vu" → "cafe", "deja", "vu").
+     */
+    static List<String> tokenize(String text) {
+        if (isBlank(text)) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : NON_WORD.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        String unaccented = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(unaccented).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    private static Map<String, Long> byCount(Map<String, long[]> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()[0]));
+        return sorted;
+    }
+}
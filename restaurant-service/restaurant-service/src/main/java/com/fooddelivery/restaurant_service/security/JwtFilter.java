@@ -1,5 +1,7 @@
 package com.fooddelivery.restaurant_service.security;
 
+import com.fooddelivery.common.security.VerifiedToken;
+import com.fooddelivery.common.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
@@ -16,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,8 +28,13 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
 
-    @Value("${jwt.secret}") // Inject secret from application.properties
-    private String secret;
+    private final String secret;
+    private final VerifiedTokenCache<VerifiedToken> tokenCache;
+
+    public JwtFilter(@Value("${jwt.secret}") String secret, VerifiedTokenCache<VerifiedToken> tokenCache) {
+        this.secret = secret;
+        this.tokenCache = tokenCache;
+    }
 
     /**
      * This method determines whether this JWT filter should be applied to the current request.
@@ -68,28 +76,35 @@ public class JwtFilter extends OncePerRequestFilter {
         try {
             String token = authHeader.substring(7); // Extract the token after "Bearer "
 
-            // Parse the JWT token to get claims
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secret.getBytes()) // Use the injected secret key
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            logger.debug("JWT parsed successfully for subject: {}", claims.getSubject());
-
-            String username = claims.getSubject(); // Subject of the JWT is typically the username/email
-
-            // Extract roles claim. Assuming roles are stored as a List of strings in the 'roles' claim.
-            // Default to an empty list if no roles claim is present.
-            List<?> rolesRaw = claims.get("roles", List.class);
-            List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-            if (rolesRaw != null) {
-                authorities = rolesRaw.stream()
-                        // Ensure "ROLE_" prefix for Spring Security's role checks
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + ((String) role).toUpperCase()))
-                        .collect(Collectors.toList());
+            // Tokens seen before skip signature verification and claims parsing
+            VerifiedToken verified = tokenCache.get(token);
+            if (verified == null) {
+                // Parse the JWT token to get claims
+                Claims claims = Jwts.parserBuilder()
+                        .setSigningKey(secret.getBytes()) // Use the injected secret key
+                        .build()
+                        .parseClaimsJws(token)
+                        .getBody();
+
+                logger.debug("JWT parsed successfully for subject: {}", claims.getSubject());
+
+                // Extract roles claim. Assuming roles are stored as a List of strings in the 'roles' claim.
+                // Default to an empty list if no roles claim is present.
+                List<?> rolesRaw = claims.get("roles", List.class);
+                List<SimpleGrantedAuthority> authorities = Collections.emptyList();
+                if (rolesRaw != null) {
+                    authorities = rolesRaw.stream()
+                            // Ensure "ROLE_" prefix for Spring Security's role checks
+                            .map(role -> new SimpleGrantedAuthority("ROLE_" + ((String) role).toUpperCase()))
+                            .collect(Collectors.toList());
+                }
+                Instant expiresAt = claims.getExpiration() != null ? claims.getExpiration().toInstant() : null;
+                verified = tokenCache.put(token, new VerifiedToken(claims.getSubject(), authorities), expiresAt);
             }
 
+            String username = verified.username(); // Subject of the JWT is typically the username/email
+            List<SimpleGrantedAuthority> authorities = verified.authorities();
+
             // If username is present and no authentication is currently set in the context
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 // Create an Authentication object
@@ -0,0 +1,120 @@
+package com.fooddelivery.restaurant_service.service;
+
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes restaurant cache invalidations to every registered order-service instance after a
+ * restaurant update or delete commits, so a closed restaurant stops taking orders without
+ * waiting for the order-service cache TTL to expire.
+ *
+ * Calls are fire-and-forget on a background thread; a failed push only means the order-service
+ * falls back to its TTL.
+ */
+@Service
+public class OrderCacheInvalidationNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderCacheInvalidationNotifier.class);
+
+    private final ObjectProvider<DiscoveryClient> discoveryClientProvider;
+    private final RestTemplate restTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${order-service.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order-service.invalidation.service-id:order-service}")
+    private String orderServiceId;
+
+    // Used when the change was not triggered by an HTTP request carrying a bearer token
+    @Value("${order-service.invalidation.jwt-token:}")
+    private String fallbackJwtToken;
+
+    public OrderCacheInvalidationNotifier(ObjectProvider<DiscoveryClient> discoveryClientProvider,
+                                          RestTemplateBuilder restTemplateBuilder) {
+        this.discoveryClientProvider = discoveryClientProvider;
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(2))
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (!enabled || event.type() == ChangeType.CREATED) {
+            return; // New restaurants cannot be stale in any cache
+        }
+        // Resolve the token on the request thread; the request is gone once the task runs
+        String authHeader = currentAuthorizationHeader();
+        executor.execute(() -> pushInvalidation(event.restaurantId(), authHeader));
+    }
+
+    private void pushInvalidation(Long restaurantId, String authHeader) {
+        DiscoveryClient discoveryClient = discoveryClientProvider.getIfAvailable();
+        if (discoveryClient == null) {
+            log.debug("No DiscoveryClient available; skipping cache invalidation for restaurant ID: {}", restaurantId);
+            return;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (authHeader != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authHeader);
+        }
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        List<ServiceInstance> instances = discoveryClient.getInstances(orderServiceId);
+        for (ServiceInstance instance : instances) {
+            String url = instance.getUri() + "/internal/restaurant-cache/" + restaurantId + "/invalidate";
+            try {
+                restTemplate.exchange(url, HttpMethod.POST, request, Void.class);
+                log.info("Invalidated restaurant ID {} in order-service cache at {}", restaurantId, instance.getUri());
+            } catch (Exception e) {
+                log.warn("Failed to invalidate restaurant ID {} at {}: {}", restaurantId, instance.getUri(), e.getMessage());
+            }
+        }
+    }
+
+    private String currentAuthorizationHeader() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (header != null && header.startsWith("Bearer ")) {
+                return header;
+            }
+        }
+        return fallbackJwtToken == null || fallbackJwtToken.isEmpty() ? null : "Bearer " + fallbackJwtToken;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
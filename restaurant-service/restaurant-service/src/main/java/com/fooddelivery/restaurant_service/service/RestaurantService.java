@@ -1,14 +1,24 @@
 package com.fooddelivery.restaurant_service.service;
 
+import com.fooddelivery.restaurant_service.catalog.CatalogSnapshot;
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.dto.RestaurantChangesResponse;
 import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
 import com.fooddelivery.restaurant_service.model.Restaurant;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RestaurantService {
     List<Restaurant> getAllRestaurants();
+    CatalogSnapshot getCatalog();
     Restaurant createRestaurant(RestaurantDTO dto);
     Restaurant getRestaurantById(Long id);
+    List<Restaurant> getRestaurantsByIds(Collection<Long> ids);
     Restaurant updateRestaurant(Long id, RestaurantDTO dto);
     boolean deleteRestaurant(Long id);
+    RestaurantSearchResponse searchRestaurants(String query, String cuisine, String location, int page, int size);
+    List<NearbyRestaurant> findNearbyRestaurants(double latitude, double longitude, double radiusKm, int limit);
+    RestaurantChangesResponse getChanges(long since, int limit);
 }
@@ -1,24 +1,54 @@
 package com.fooddelivery.restaurant_service.service;
 
+import com.fooddelivery.restaurant_service.catalog.CatalogSnapshot;
+import com.fooddelivery.restaurant_service.catalog.RestaurantCatalog;
+import com.fooddelivery.restaurant_service.changes.RestaurantChangeLog;
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.dto.RestaurantChangesResponse;
 import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
 import com.fooddelivery.restaurant_service.exception.ResourceNotFoundException;
 import com.fooddelivery.restaurant_service.model.Restaurant;
 import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+import com.fooddelivery.restaurant_service.search.RestaurantGeoIndex;
+import com.fooddelivery.restaurant_service.search.RestaurantSearchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class RestaurantServiceImpl implements RestaurantService {
 
     private static final Logger log = LoggerFactory.getLogger(RestaurantServiceImpl.class);
     private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RestaurantSearchIndex searchIndex;
+    private final RestaurantGeoIndex geoIndex;
+    private final RestaurantCatalog catalog;
+    private final RestaurantChangeLog changeLog;
 
-    public RestaurantServiceImpl(RestaurantRepository restaurantRepository) {
+    public RestaurantServiceImpl(RestaurantRepository restaurantRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 RestaurantSearchIndex searchIndex,
+                                 RestaurantGeoIndex geoIndex,
+                                 RestaurantCatalog catalog,
+                                 RestaurantChangeLog changeLog) {
         this.restaurantRepository = restaurantRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.catalog = catalog;
+        this.changeLog = changeLog;
     }
 
     @Override
@@ -27,14 +57,28 @@ public class RestaurantServiceImpl implements RestaurantService {
         return restaurantRepository.findAll();
     }
 
+    /**
+     * The same list as getAllRestaurants, already serialized; only queried again after a change.
+     */
     @Override
+    public CatalogSnapshot getCatalog() {
+        return catalog.snapshot();
+    }
+
+    @Override
+    @Transactional
     public Restaurant createRestaurant(RestaurantDTO dto) {
         log.info("Creating restaurant: {}", dto.getName());
         Restaurant restaurant = new Restaurant();
         restaurant.setName(dto.getName());
         restaurant.setLocation(dto.getLocation());
         restaurant.setCuisine(dto.getCuisine());
-        return restaurantRepository.save(restaurant);
+        restaurant.setLatitude(dto.getLatitude());
+        restaurant.setLongitude(dto.getLongitude());
+        restaurant.setOwnerId(dto.getOwnerId());
+        Restaurant saved = restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(saved.getId(), ChangeType.CREATED, saved));
+        return saved;
     }
 
     @Override
@@ -44,6 +88,21 @@ public class RestaurantServiceImpl implements RestaurantService {
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
     }
 
+    /**
+     * Loads many restaurants with a single IN query. IDs that don't exist are left out of the
+     * result instead of failing the whole lookup.
+     */
+    @Override
+    public List<Restaurant> getRestaurantsByIds(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.removeIf(Objects::isNull);
+        log.info("Fetching {} restaurants by ID", distinctIds.size());
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        return restaurantRepository.findAllById(distinctIds);
+    }
+
     @Override
     @Transactional
     public Restaurant updateRestaurant(Long id, RestaurantDTO dto) {
@@ -53,7 +112,17 @@ public class RestaurantServiceImpl implements RestaurantService {
         restaurant.setName(dto.getName());
         restaurant.setLocation(dto.getLocation());
         restaurant.setCuisine(dto.getCuisine());
-        return restaurantRepository.save(restaurant);
+        if (dto.getStatus() != null && !dto.getStatus().isBlank()) {
+            restaurant.setStatus(dto.getStatus()); // e.g., close or reopen the restaurant
+        }
+        if (dto.getLatitude() != null && dto.getLongitude() != null) {
+            restaurant.setLatitude(dto.getLatitude()); // e.g., the restaurant moved or was placed on the map
+            restaurant.setLongitude(dto.getLongitude());
+        }
+        // ownerId is left alone: updates are open to non-admins, who must not be able to claim a restaurant
+        Restaurant saved = restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id, ChangeType.UPDATED, saved));
+        return saved;
     }
 
     @Override
@@ -64,6 +133,37 @@ public class RestaurantServiceImpl implements RestaurantService {
             throw new ResourceNotFoundException("Restaurant not found with id: " + id);
         }
         restaurantRepository.deleteById(id);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id, ChangeType.DELETED, null));
         return true;
     }
+
+    /**
+     * Served from the in-memory search index, which follows create/update/delete through
+     * RestaurantChangedEvent once the change has committed.
+     */
+    @Override
+    public RestaurantSearchResponse searchRestaurants(String query, String cuisine, String location, int page, int size) {
+        log.info("Searching restaurants for q='{}', cuisine='{}', location='{}', page {} of size {}", query, cuisine, location, page, size);
+        return searchIndex.search(query, cuisine, location, page, size);
+    }
+
+    /**
+     * Served from the in-memory grid of restaurant coordinates; restaurants without coordinates
+     * are never returned.
+     */
+    @Override
+    public List<NearbyRestaurant> findNearbyRestaurants(double latitude, double longitude, double radiusKm, int limit) {
+        log.info("Finding up to {} restaurants within {} km of ({}, {})", limit, radiusKm, latitude, longitude);
+        return geoIndex.nearby(latitude, longitude, radiusKm, limit);
+    }
+
+    /**
+     * Changes are recorded by RestaurantChangeLog from the RestaurantChangedEvents published above,
+     * inside the same transaction.
+     */
+    @Override
+    public RestaurantChangesResponse getChanges(long since, int limit) {
+        log.info("Fetching up to {} restaurant changes after version {}", limit, since);
+        return changeLog.changesSince(since, limit);
+    }
 }
@@ -0,0 +1,111 @@
+package com.fooddelivery.restaurant_service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RestaurantCatalogTest {
+
+    private RestaurantRepository restaurantRepository;
+    private RestaurantCatalog catalog;
+    private List<Restaurant> restaurants;
+
+    @BeforeEach
+    void setUp() {
+        restaurantRepository = mock(RestaurantRepository.class);
+        restaurants = new ArrayList<>(List.of(
+                new Restaurant(1L, "KFC", "Delhi", "Fast Food", "OPEN"),
+                new Restaurant(2L, "Domino's", "Mumbai", "Pizza", "CLOSED")));
+        when(restaurantRepository.findAll(any(Sort.class))).thenAnswer(invocation -> List.copyOf(restaurants));
+        catalog = new RestaurantCatalog(restaurantRepository, new ObjectMapper());
+    }
+
+    private static RestaurantChangedEvent changed(Long id) {
+        return new RestaurantChangedEvent(id, ChangeType.UPDATED, null);
+    }
+
+    @Test
+    void testSnapshotIsBuiltOnceAndReused() throws IOException {
+        CatalogSnapshot first = catalog.snapshot();
+        CatalogSnapshot second = catalog.snapshot();
+
+        assertSame(first, second);
+        verify(restaurantRepository, times(1)).findAll(any(Sort.class));
+        assertEquals(2, first.restaurants());
+        String json = new String(first.json());
+        assertTrue(json.startsWith("[{\"id\":1,\"name\":\"KFC\""));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(first.gzipped()))) {
+            assertEquals(json, new String(gzip.readAllBytes()));
+        }
+    }
+
+    @Test
+    void testChangeRebuildsWithNewEtag() {
+        CatalogSnapshot before = catalog.snapshot();
+        restaurants.add(new Restaurant(3L, "Subway", "Pune", "Healthy", "OPEN"));
+        catalog.onRestaurantChanged(changed(3L));
+
+        CatalogSnapshot after = catalog.snapshot();
+
+        assertEquals(3, after.restaurants());
+        assertNotEquals(before.etag(), after.etag());
+        verify(restaurantRepository, times(2)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void testExpiredSnapshotKeepsEtagIfUnchanged() {
+        // Changes made through other instances are only picked up once the snapshot expires
+        ReflectionTestUtils.setField(catalog, "maxAgeSeconds", 0L);
+        CatalogSnapshot before = catalog.snapshot();
+
+        CatalogSnapshot after = catalog.snapshot();
+
+        assertNotSame(before, after);
+        assertEquals(before.etag(), after.etag());
+        assertTrue(after.matches(before.etag()));
+    }
+
+    @Test
+    void testChangeDuringRebuildTriggersAnotherRebuild() {
+        // A restaurant is saved after the rebuild read the generation but before its query ran
+        when(restaurantRepository.findAll(any(Sort.class))).thenAnswer(invocation -> {
+            catalog.onRestaurantChanged(changed(1L));
+            return List.copyOf(restaurants);
+        }).thenAnswer(invocation -> List.copyOf(restaurants));
+
+        catalog.snapshot();
+        catalog.snapshot();
+        catalog.snapshot();
+
+        verify(restaurantRepository, times(2)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void testMatchesIfNoneMatch() {
+        CatalogSnapshot snapshot = catalog.snapshot();
+
+        assertTrue(snapshot.matches(snapshot.etag()));
+        assertTrue(snapshot.matches("\"other\", W/" + snapshot.gzipEtag()));
+        assertTrue(snapshot.matches("*"));
+        assertFalse(snapshot.matches("\"other\""));
+        assertFalse(snapshot.matches(null));
+        assertNotEquals(snapshot.etag(), snapshot.gzipEtag());
+    }
+}
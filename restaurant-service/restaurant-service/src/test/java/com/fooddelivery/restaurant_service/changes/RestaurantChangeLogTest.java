@@ -0,0 +1,175 @@
+package com.fooddelivery.restaurant_service.changes;
+
+import com.fooddelivery.restaurant_service.dto.RestaurantChangesResponse;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import com.fooddelivery.restaurant_service.exception.ChangeFeedExpiredException;
+import com.fooddelivery.restaurant_service.model.ChangeFeedState;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.model.RestaurantChange;
+import com.fooddelivery.restaurant_service.repository.ChangeFeedStateRepository;
+import com.fooddelivery.restaurant_service.repository.RestaurantChangeRepository;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RestaurantChangeLogTest {
+
+    @Mock
+    private RestaurantChangeRepository changeRepository;
+
+    @Mock
+    private ChangeFeedStateRepository stateRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private RestaurantChangeLog changeLog;
+    private ChangeFeedState state;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new RestaurantChangeLog(changeRepository, stateRepository, restaurantRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        state = new ChangeFeedState(ChangeFeedState.ID, 41, 0);
+        when(stateRepository.lockById(ChangeFeedState.ID)).thenReturn(Optional.of(state));
+        when(stateRepository.findById(ChangeFeedState.ID)).thenReturn(Optional.of(state));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RestaurantChange> savedChanges() {
+        ArgumentCaptor<List<RestaurantChange>> captor = ArgumentCaptor.forClass(List.class);
+        verify(changeRepository, atLeastOnce()).saveAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private static RestaurantChange change(Long restaurantId, long version, boolean deleted) {
+        return new RestaurantChange(restaurantId, version, deleted, LocalDateTime.now());
+    }
+
+    @Test
+    void testEveryChangeGetsTheNextVersion() {
+        changeLog.onRestaurantChanged(new RestaurantChangedEvent(7L, ChangeType.UPDATED, null));
+        changeLog.onRestaurantChanged(new RestaurantChangedEvent(8L, ChangeType.DELETED, null));
+
+        List<RestaurantChange> saved = savedChanges();
+        assertEquals(42, saved.get(0).getVersion());
+        assertFalse(saved.get(0).isDeleted());
+        assertEquals(43, saved.get(1).getVersion());
+        assertTrue(saved.get(1).isDeleted(), "Deletes leave a tombstone");
+        assertEquals(43, state.getLastVersion());
+    }
+
+    @Test
+    void testFeedStateSeededAtStartup() {
+        changeLog.seedState();
+
+        verify(stateRepository).insertIfMissing(ChangeFeedState.ID);
+    }
+
+    @Test
+    void testWritesNeverCreateTheFeedState() {
+        when(stateRepository.lockById(ChangeFeedState.ID)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class,
+                () -> changeLog.onRestaurantChanged(new RestaurantChangedEvent(7L, ChangeType.CREATED, null)));
+        verify(stateRepository, never()).save(any(ChangeFeedState.class));
+        verify(changeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testChangesSince_PageWithTombstones() {
+        when(changeRepository.findByVersionGreaterThanOrderByVersionAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                change(1L, 11, false), change(2L, 12, true), change(3L, 13, false)));
+        when(restaurantRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(
+                new Restaurant(1L, "KFC", "Delhi", "Fast Food", "OPEN")));
+
+        RestaurantChangesResponse response = changeLog.changesSince(10, 5);
+
+        assertEquals(3, response.getChanges().size());
+        assertEquals("KFC", response.getChanges().get(0).getRestaurant().getName());
+        assertTrue(response.getChanges().get(1).isDeleted());
+        assertNull(response.getChanges().get(1).getRestaurant());
+        assertTrue(response.getChanges().get(2).isDeleted(), "A restaurant that is gone is reported as deleted");
+        assertEquals(13, response.getNextSince());
+        assertFalse(response.isHasMore());
+        assertEquals(41, response.getLatestVersion());
+    }
+
+    @Test
+    void testChangesSince_HasMore() {
+        when(changeRepository.findByVersionGreaterThanOrderByVersionAsc(eq(0L), argThat(page -> page.getPageSize() == 3)))
+                .thenReturn(List.of(change(1L, 1, true), change(2L, 2, true), change(3L, 3, true)));
+
+        RestaurantChangesResponse response = changeLog.changesSince(0, 2);
+
+        assertEquals(2, response.getChanges().size());
+        assertEquals(2, response.getNextSince());
+        assertTrue(response.isHasMore());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    void testChangesSince_NothingNew() {
+        when(changeRepository.findByVersionGreaterThanOrderByVersionAsc(eq(41L), any(Pageable.class))).thenReturn(List.of());
+
+        RestaurantChangesResponse response = changeLog.changesSince(41, 100);
+
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals(41, response.getNextSince());
+    }
+
+    @Test
+    void testChangesSince_BehindPurgedTombstones() {
+        state.setPurgedThrough(20);
+
+        assertThrows(ChangeFeedExpiredException.class, () -> changeLog.changesSince(19, 100));
+        assertDoesNotThrow(() -> changeLog.changesSince(0, 100), "Starting over is always possible");
+        assertDoesNotThrow(() -> changeLog.changesSince(20, 100));
+    }
+
+    @Test
+    void testPurgeTombstones() {
+        when(changeRepository.findLatestTombstoneVersionBefore(any(LocalDateTime.class))).thenReturn(30L);
+        when(changeRepository.deleteTombstonesThrough(30L)).thenReturn(4);
+
+        changeLog.purgeTombstones();
+
+        assertEquals(30, state.getPurgedThrough());
+        verify(changeRepository).deleteTombstonesThrough(30L);
+    }
+
+    @Test
+    void testBackfillTracksExistingRestaurantsInBatches() {
+        ReflectionTestUtils.setField(changeLog, "backfillBatchSize", 2);
+        when(changeRepository.findUntrackedRestaurantIds(2)).thenReturn(List.of(1L, 2L), List.of(5L));
+
+        changeLog.backfill();
+
+        List<RestaurantChange> saved = savedChanges();
+        assertEquals(List.of(1L, 2L, 5L), saved.stream().map(RestaurantChange::getRestaurantId).toList());
+        assertEquals(List.of(42L, 43L, 44L), saved.stream().map(RestaurantChange::getVersion).toList());
+        verify(changeRepository, times(2)).findUntrackedRestaurantIds(2);
+    }
+}
@@ -2,9 +2,15 @@
 package com.fooddelivery.restaurant_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.restaurant_service.catalog.CatalogSnapshot;
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.dto.RestaurantChangeDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantChangesResponse;
 import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
 import com.fooddelivery.restaurant_service.model.Restaurant;
 import com.fooddelivery.restaurant_service.service.RestaurantService;
+import com.fooddelivery.restaurant_service.exception.ChangeFeedExpiredException;
 import com.fooddelivery.restaurant_service.exception.ResourceNotFoundException;
 import com.fooddelivery.restaurant_service.config.TestSecurityConfig;
 import com.fooddelivery.restaurant_service.security.JwtFilter;
@@ -16,10 +22,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -47,19 +57,54 @@ public class RestaurantControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @Test
-    public void testGetAllRestaurants_Authenticated() throws Exception {
+    private CatalogSnapshot catalog() throws Exception {
         Restaurant r1 = new Restaurant(1L, "KFC", "Delhi", "Fast Food", "OPEN");
         Restaurant r2 = new Restaurant(2L, "Domino's", "Mumbai", "Pizza", "CLOSED");
+        return CatalogSnapshot.of(objectMapper.writeValueAsBytes(Arrays.asList(r1, r2)), 2);
+    }
 
-        when(restaurantService.getAllRestaurants()).thenReturn(Arrays.asList(r1, r2));
+    @Test
+    public void testGetAllRestaurants_Authenticated() throws Exception {
+        CatalogSnapshot catalog = catalog();
+        when(restaurantService.getCatalog()).thenReturn(catalog);
 
         mockMvc.perform(get("/restaurants")
                         .with(user("testuser").roles("USER")))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, catalog.etag()))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].name").value("KFC"))
                 .andExpect(jsonPath("$[1].name").value("Domino's"));
+
+        verify(restaurantService, never()).getAllRestaurants();
+    }
+
+    @Test
+    public void testGetAllRestaurants_Gzipped() throws Exception {
+        CatalogSnapshot catalog = catalog();
+        when(restaurantService.getCatalog()).thenReturn(catalog);
+
+        mockMvc.perform(get("/restaurants")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, catalog.gzipEtag()))
+                .andExpect(content().bytes(catalog.gzipped()));
+    }
+
+    @Test
+    public void testGetAllRestaurants_NotModified() throws Exception {
+        CatalogSnapshot catalog = catalog();
+        when(restaurantService.getCatalog()).thenReturn(catalog);
+
+        mockMvc.perform(get("/restaurants")
+                        .header(HttpHeaders.IF_NONE_MATCH, catalog.etag())
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, catalog.etag()))
+                .andExpect(content().bytes(new byte[0]));
     }
 
     @Test
@@ -139,4 +184,172 @@ public class RestaurantControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Restaurant not found with id: 300"));
     }
+
+    @Test
+    public void testGetRestaurantsByIds_SkipsUnknownIds() throws Exception {
+        Restaurant r1 = new Restaurant(1L, "KFC", "Delhi", "Fast Food", "OPEN");
+        Restaurant r3 = new Restaurant(3L, "Burger King", "Bangalore", "Burgers", "OPEN");
+
+        when(restaurantService.getRestaurantsByIds(List.of(1L, 2L, 3L))).thenReturn(Arrays.asList(r1, r3));
+
+        mockMvc.perform(get("/restaurants")
+                        .param("ids", "1,2,3")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(3));
+
+        verify(restaurantService, never()).getAllRestaurants();
+    }
+
+    @Test
+    public void testGetRestaurantsByIds_InBody() throws Exception {
+        Restaurant r1 = new Restaurant(1L, "KFC", "Delhi", "Fast Food", "OPEN");
+
+        when(restaurantService.getRestaurantsByIds(List.of(1L, 2L))).thenReturn(List.of(r1));
+
+        mockMvc.perform(post("/restaurants/batch")
+                        .with(user("testuser").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("KFC"));
+    }
+
+    @Test
+    public void testGetRestaurantsByIds_TooMany() throws Exception {
+        List<Long> ids = Collections.nCopies(RestaurantController.MAX_BATCH_SIZE + 1, 1L);
+
+        mockMvc.perform(post("/restaurants/batch")
+                        .with(user("testuser").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isBadRequest());
+
+        verify(restaurantService, never()).getRestaurantsByIds(any());
+    }
+
+    @Test
+    public void testSearchRestaurants() throws Exception {
+        RestaurantSearchResponse response = new RestaurantSearchResponse(
+                List.of(new RestaurantDTO(1L, "Pizza Hut", "Delhi", "Pizza", "ACTIVE")), 1, 0, 20,
+                Map.of("Pizza", 1L), Map.of("ACTIVE", 1L));
+        when(restaurantService.searchRestaurants("piz", null, "Delhi", 0, 20)).thenReturn(response);
+
+        mockMvc.perform(get("/restaurants/search")
+                        .param("q", "piz")
+                        .param("location", "Delhi")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.restaurants[0].name").value("Pizza Hut"))
+                .andExpect(jsonPath("$.cuisineFacets.Pizza").value(1))
+                .andExpect(jsonPath("$.statusFacets.ACTIVE").value(1));
+    }
+
+    @Test
+    public void testSearchRestaurants_InvalidPaging() throws Exception {
+        mockMvc.perform(get("/restaurants/search")
+                        .param("size", String.valueOf(RestaurantController.MAX_SEARCH_PAGE_SIZE + 1))
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/restaurants/search")
+                        .param("page", "1000")
+                        .param("size", "100")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isBadRequest());
+
+        verify(restaurantService, never()).searchRestaurants(any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testGetNearbyRestaurants() throws Exception {
+        NearbyRestaurant nearby = new NearbyRestaurant(1L, "KFC", "Delhi", "Fast Food", "OPEN", 28.61, 77.21, 0.4);
+        when(restaurantService.findNearbyRestaurants(28.6, 77.2, 5, 20)).thenReturn(List.of(nearby));
+
+        mockMvc.perform(get("/restaurants/nearby")
+                        .param("lat", "28.6")
+                        .param("lon", "77.2")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("KFC"))
+                .andExpect(jsonPath("$[0].distanceKm").value(0.4));
+    }
+
+    @Test
+    public void testGetNearbyRestaurants_InvalidParameters() throws Exception {
+        mockMvc.perform(get("/restaurants/nearby")
+                        .param("lat", "91")
+                        .param("lon", "77.2")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/restaurants/nearby")
+                        .param("lat", "28.6")
+                        .param("lon", "77.2")
+                        .param("radiusKm", String.valueOf(RestaurantController.MAX_NEARBY_RADIUS_KM + 1))
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isBadRequest());
+
+        verify(restaurantService, never()).findNearbyRestaurants(anyDouble(), anyDouble(), anyDouble(), anyInt());
+    }
+
+    @Test
+    public void testCreateRestaurant_CoordinatesMustComeTogether() throws Exception {
+        RestaurantDTO dto = new RestaurantDTO(null, "Burger King", "Bangalore", "Burgers", "OPEN", 12.97, null);
+
+        mockMvc.perform(post("/restaurants")
+                        .with(user("adminuser").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.coordinatesComplete").value("Latitude and longitude must be given together"));
+
+        verify(restaurantService, never()).createRestaurant(any());
+    }
+
+    @Test
+    public void testGetChanges() throws Exception {
+        RestaurantChangesResponse response = new RestaurantChangesResponse(List.of(
+                new RestaurantChangeDTO(11, 1L, false, new RestaurantDTO(1L, "KFC", "Delhi", "Fast Food", "OPEN")),
+                new RestaurantChangeDTO(12, 2L, true, null)), 12, false, 12);
+        when(restaurantService.getChanges(10, RestaurantController.DEFAULT_CHANGES_LIMIT)).thenReturn(response);
+
+        mockMvc.perform(get("/restaurants/changes")
+                        .param("since", "10")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].restaurant.name").value("KFC"))
+                .andExpect(jsonPath("$.changes[1].deleted").value(true))
+                .andExpect(jsonPath("$.nextSince").value(12))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    public void testGetChanges_InvalidParameters() throws Exception {
+        mockMvc.perform(get("/restaurants/changes")
+                        .param("since", "-1")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/restaurants/changes")
+                        .param("limit", String.valueOf(RestaurantController.MAX_CHANGES_LIMIT + 1))
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isBadRequest());
+
+        verify(restaurantService, never()).getChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    public void testGetChanges_Expired() throws Exception {
+        when(restaurantService.getChanges(3, RestaurantController.DEFAULT_CHANGES_LIMIT))
+                .thenThrow(new ChangeFeedExpiredException("Changes before version 20 are no longer kept; resync from since=0."));
+
+        mockMvc.perform(get("/restaurants/changes")
+                        .param("since", "3")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isGone());
+    }
 }
@@ -0,0 +1,112 @@
+package com.fooddelivery.restaurant_service.search;
+
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Nearby lookup latency over 500k synthetic restaurants spread around twelve city centres, compared with
+ * scanning every restaurant for each lookup.
+ *
+ * Disabled by default. Run with:
+ * mvn test -Dtest=RestaurantGeoBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RestaurantGeoBenchmarkTest {
+
+    private static final int RESTAURANTS = 500_000;
+    private static final int QUERIES = 10_000;
+    private static final int LIMIT = 20;
+
+    // Delhi, Mumbai, Pune, Bangalore, Chennai, Hyderabad, Kolkata, Ahmedabad, Jaipur, Lucknow, Goa, Kochi
+    private static final double[][] CITIES = {{28.61, 77.21}, {19.08, 72.88}, {18.52, 73.86}, {12.97, 77.59},
+            {13.08, 80.27}, {17.39, 78.49}, {22.57, 88.36}, {23.02, 72.57}, {26.91, 75.79}, {26.85, 80.95},
+            {15.50, 73.83}, {9.93, 76.27}};
+
+    @Test
+    void benchmarkNearby() {
+        Random random = new Random(42);
+        List<Restaurant> restaurants = new ArrayList<>(RESTAURANTS);
+        for (long id = 1; id <= RESTAURANTS; id++) {
+            double[] point = aroundCity(random);
+            restaurants.add(new Restaurant(id, "Restaurant " + id, "City", "Indian", "ACTIVE", point[0], point[1]));
+        }
+        RestaurantGeoIndex index = new RestaurantGeoIndex(mock(RestaurantRepository.class), 0.01);
+        long start = System.nanoTime();
+        index.indexAll(restaurants);
+        System.out.printf("Indexed %d restaurants in %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        double[][] queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = aroundCity(random);
+        }
+        measure("nearby, 5 km, city", index, queries, 5);
+        measure("nearby, 50 km, city", index, queries, 50);
+        double[][] remote = {{21.0, 79.0}, {24.0, 85.0}, {30.0, 70.0}};
+        measure("nearby, 50 km, empty area", index, remote, 50);
+
+        start = System.nanoTime();
+        int scanned = 0;
+        for (int i = 0; i < 20; i++) {
+            scanned += scan(restaurants, queries[i], 5).size();
+        }
+        System.out.printf("%-26s %10.0f µs/lookup%n", "linear scan baseline", (System.nanoTime() - start) / 1_000.0 / 20);
+
+        for (int i = 0; i < 20; i++) {
+            List<Long> expected = scan(restaurants, queries[i], 5).stream().map(Restaurant::getId).toList();
+            List<Long> actual = index.nearby(queries[i][0], queries[i][1], 5, LIMIT).stream().map(NearbyRestaurant::getId).toList();
+            assertEquals(expected, actual);
+        }
+        System.out.printf("(%d restaurants returned by the baseline)%n", scanned);
+    }
+
+    private static void measure(String label, RestaurantGeoIndex index, double[][] queries, double radiusKm) {
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            long found = 0;
+            for (double[] query : queries) {
+                found += index.nearby(query[0], query[1], radiusKm, LIMIT).size();
+            }
+            if (round == 1) {
+                double micros = (System.nanoTime() - start) / 1_000.0 / queries.length;
+                System.out.printf("%-26s %10.1f µs/lookup, %.1f results on average%n", label, micros, (double) found / queries.length);
+            }
+        }
+    }
+
+    private static List<Restaurant> scan(List<Restaurant> restaurants, double[] query, double radiusKm) {
+        List<Restaurant> within = new ArrayList<>();
+        List<Double> distances = new ArrayList<>();
+        for (Restaurant restaurant : restaurants) {
+            double distanceKm = RestaurantGeoIndex.distanceKm(query[0], query[1], restaurant.getLatitude(), restaurant.getLongitude());
+            if (distanceKm <= radiusKm) {
+                within.add(restaurant);
+                distances.add(distanceKm);
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < within.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> distances.get(a).equals(distances.get(b))
+                ? within.get(a).getId().compareTo(within.get(b).getId())
+                : Double.compare(distances.get(a), distances.get(b)));
+        return order.stream().limit(LIMIT).map(within::get).toList();
+    }
+
+    // Denser towards the centre, up to about 25 km out
+    private static double[] aroundCity(Random random) {
+        double[] city = CITIES[random.nextInt(CITIES.length)];
+        return new double[]{city[0] + random.nextGaussian() * 0.08, city[1] + random.nextGaussian() * 0.08};
+    }
+}
@@ -0,0 +1,124 @@
+package com.fooddelivery.restaurant_service.search;
+
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RestaurantGeoIndexTest {
+
+    private RestaurantRepository restaurantRepository;
+    private RestaurantGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        restaurantRepository = mock(RestaurantRepository.class);
+        index = new RestaurantGeoIndex(restaurantRepository, 0.01);
+        // Around Connaught Place, Delhi: 1 is closest, 3 is about 1.7 km away, 4 about 12 km
+        index.index(place(1L, "Pizza Hut", 28.6315, 77.2167));
+        index.index(place(2L, "Spice Garden", 28.6280, 77.2200));
+        index.index(place(3L, "Punjabi Dhaba", 28.6400, 77.2300));
+        index.index(place(4L, "Dwarka Diner", 28.5920, 77.0460));
+        index.index(new Restaurant(5L, "Unmapped Cafe", "Delhi", "Cafe", "ACTIVE"));
+    }
+
+    private static Restaurant place(Long id, String name, double latitude, double longitude) {
+        return new Restaurant(id, name, "Delhi", "Indian", "ACTIVE", latitude, longitude);
+    }
+
+    private static List<Long> ids(List<NearbyRestaurant> restaurants) {
+        return restaurants.stream().map(NearbyRestaurant::getId).toList();
+    }
+
+    @Test
+    void testNearestFirstWithinRadius() {
+        List<NearbyRestaurant> nearby = index.nearby(28.6315, 77.2167, 5, 10);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(nearby));
+        assertEquals(0.0, nearby.get(0).getDistanceKm(), 1e-9);
+        assertEquals(1.7, nearby.get(2).getDistanceKm(), 0.1);
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(index.nearby(28.6315, 77.2167, 20, 10)));
+        assertEquals(4, index.size(), "Restaurants without coordinates are not indexed");
+    }
+
+    @Test
+    void testLimit() {
+        assertEquals(List.of(1L, 2L), ids(index.nearby(28.6315, 77.2167, 5, 2)));
+        assertTrue(index.nearby(19.0760, 72.8777, 50, 10).isEmpty());
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        // 1 moves next to the Dwarka diner, 2 loses its coordinates, 3 is deleted
+        index.onRestaurantChanged(new RestaurantChangedEvent(1L, ChangeType.UPDATED, place(1L, "Pizza Hut", 28.5925, 77.0465)));
+        index.onRestaurantChanged(new RestaurantChangedEvent(2L, ChangeType.UPDATED,
+                new Restaurant(2L, "Spice Garden", "Delhi", "Indian", "ACTIVE")));
+        index.onRestaurantChanged(new RestaurantChangedEvent(3L, ChangeType.DELETED, null));
+
+        assertTrue(index.nearby(28.6315, 77.2167, 5, 10).isEmpty());
+        assertEquals(List.of(4L, 1L), ids(index.nearby(28.5920, 77.0460, 5, 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (long id = 100; id < 3_100; id++) {
+            restaurants.add(place(id, "R" + id, 28.4 + random.nextDouble() * 0.5, 76.9 + random.nextDouble() * 0.5));
+        }
+        RestaurantGeoIndex fresh = new RestaurantGeoIndex(restaurantRepository, 0.01);
+        fresh.indexAll(restaurants);
+
+        for (int i = 0; i < 50; i++) {
+            double latitude = 28.4 + random.nextDouble() * 0.5;
+            double longitude = 76.9 + random.nextDouble() * 0.5;
+            double radiusKm = 0.5 + random.nextDouble() * 5;
+            List<Long> expected = restaurants.stream()
+                    .filter(r -> RestaurantGeoIndex.distanceKm(latitude, longitude, r.getLatitude(), r.getLongitude()) <= radiusKm)
+                    .sorted(Comparator.comparingDouble((Restaurant r) ->
+                            RestaurantGeoIndex.distanceKm(latitude, longitude, r.getLatitude(), r.getLongitude())))
+                    .limit(15)
+                    .map(Restaurant::getId)
+                    .toList();
+            assertEquals(expected, ids(fresh.nearby(latitude, longitude, radiusKm, 15)));
+        }
+    }
+
+    @Test
+    void testBuildKeepsNewerIndexedRestaurants() {
+        RestaurantGeoIndex fresh = new RestaurantGeoIndex(restaurantRepository, 0.01);
+        ReflectionTestUtils.setField(fresh, "buildBatchSize", 1);
+        when(restaurantRepository.findByLatitudeIsNotNullAndLongitudeIsNotNull(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            // Restaurant 1 moves while the first page is being read
+            fresh.index(place(1L, "Pizza Hut", 28.5925, 77.0465));
+            List<Restaurant> content = pageable.getPageNumber() == 0
+                    ? List.of(place(1L, "Pizza Hut", 28.6315, 77.2167))
+                    : List.of(place(2L, "Spice Garden", 28.6280, 77.2200));
+            return new PageImpl<>(content, pageable, 2);
+        });
+
+        fresh.build();
+
+        assertEquals(2, fresh.size());
+        verify(restaurantRepository, times(2)).findByLatitudeIsNotNullAndLongitudeIsNotNull(any(Pageable.class));
+        assertEquals(List.of(2L), ids(fresh.nearby(28.6315, 77.2167, 1, 10)));
+    }
+}
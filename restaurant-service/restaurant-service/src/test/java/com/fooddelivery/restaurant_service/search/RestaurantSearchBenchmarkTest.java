@@ -0,0 +1,98 @@
+package com.fooddelivery.restaurant_service.search;
+
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Search latency over 1M synthetic restaurants, compared with what GET /restaurants plus filtering in the
+ * browser costs: a linear scan over every restaurant for each search.
+ *
+ * Disabled by default. Needs a few GB of heap; run with:
+ * mvn test -Dtest=RestaurantSearchBenchmarkTest -Dbenchmark=true -DargLine=-Xmx4g
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RestaurantSearchBenchmarkTest {
+
+    private static final int RESTAURANTS = 1_000_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 100;
+
+    private static final String[] ADJECTIVES = {"Golden", "Spicy", "Royal", "Little", "Urban", "Happy", "Green", "Smoky",
+            "Crispy", "Blue", "Rustic", "Sunny", "Hungry", "Silver", "Lucky", "Tandoori"};
+    private static final String[] NOUNS = {"Kitchen", "Bistro", "Dhaba", "Grill", "Diner", "Cafe", "Palace", "Corner",
+            "Express", "House", "Garden", "Table", "Wok", "Oven", "Bowl", "Shack"};
+    private static final String[] CUISINES = {"Indian", "Chinese", "Italian", "Pizza", "Burgers", "Thai", "Mexican",
+            "Japanese", "South Indian", "Mughlai", "Bakery", "Desserts"};
+    private static final String[] CITIES = {"Delhi", "Mumbai", "Pune", "Bangalore", "Chennai", "Hyderabad", "Kolkata",
+            "Ahmedabad", "Jaipur", "Lucknow", "Goa", "Kochi"};
+    private static final String[] STATUSES = {"ACTIVE", "ACTIVE", "ACTIVE", "CLOSED"};
+
+    @Test
+    void benchmarkSearch() {
+        Random random = new Random(42);
+        List<Restaurant> restaurants = new ArrayList<>(RESTAURANTS);
+        for (long id = 1; id <= RESTAURANTS; id++) {
+            restaurants.add(new Restaurant(id,
+                    pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + pick(random, NOUNS),
+                    pick(random, CITIES), pick(random, CUISINES), pick(random, STATUSES)));
+        }
+
+        RestaurantSearchIndex index = new RestaurantSearchIndex(mock(RestaurantRepository.class));
+        long start = System.nanoTime();
+        index.indexAll(restaurants);
+        System.out.printf("Indexed %d restaurants in %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        measure("selective query", () -> index.search("golden wok", "Chinese", "Pune", 0, 20));
+        measure("prefix query", () -> index.search("tand gri", null, null, 0, 20));
+        measure("filters only", () -> index.search(null, "Thai", "Goa", 0, 20));
+        measure("broad query, page 10", () -> index.search("kitchen", null, null, 10, 20));
+        measure("linear scan baseline", () -> scan(restaurants, "golden", "wok"));
+
+        assertTrue(index.search("golden wok", null, null, 0, 20).getTotal() > 0);
+    }
+
+    private static void measure(String label, Supplier<?> search) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            search.get();
+        }
+        long start = System.nanoTime();
+        Object result = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            result = search.get();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+        long matches = result instanceof RestaurantSearchResponse response ? response.getTotal() : (Long) result;
+        System.out.printf("%-22s %10.0f µs/search, %d matches%n", label, micros, matches);
+    }
+
+    private static long scan(List<Restaurant> restaurants, String... words) {
+        long matches = 0;
+        for (Restaurant restaurant : restaurants) {
+            String text = (restaurant.getName() + " " + restaurant.getCuisine() + " " + restaurant.getLocation()).toLowerCase();
+            boolean all = true;
+            for (String word : words) {
+                all &= text.contains(word);
+            }
+            if (all) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,121 @@
+package com.fooddelivery.restaurant_service.search;
+
+import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent.ChangeType;
+import com.fooddelivery.restaurant_service.model.Restaurant;
+import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RestaurantSearchIndexTest {
+
+    private RestaurantRepository restaurantRepository;
+    private RestaurantSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        restaurantRepository = mock(RestaurantRepository.class);
+        index = new RestaurantSearchIndex(restaurantRepository);
+        index.index(new Restaurant(1L, "Pizza Hut", "Delhi", "Pizza", "ACTIVE"));
+        index.index(new Restaurant(2L, "Domino's Pizzeria", "Mumbai", "Pizza", "ACTIVE"));
+        index.index(new Restaurant(3L, "Spice Garden", "Delhi", "Indian", "CLOSED"));
+        index.index(new Restaurant(4L, "Café Déjà Vu", "Pune", "French", "ACTIVE"));
+        index.index(new Restaurant(5L, "Punjabi Dhaba", "Delhi", "Indian", "ACTIVE"));
+    }
+
+    private static List<Long> ids(RestaurantSearchResponse response) {
+        return response.getRestaurants().stream().map(RestaurantDTO::getId).toList();
+    }
+
+    @Test
+    void testPrefixMatchRankedByField() {
+        // Both have "pizza" as their cuisine, but only 1 has it in its name as well
+        RestaurantSearchResponse response = index.search("pizza", null, null, 0, 10);
+
+        assertEquals(List.of(1L, 2L), ids(response));
+        assertEquals(2, response.getTotal());
+        assertEquals(List.of(2L), ids(index.search("pizzer", null, null, 0, 10)));
+    }
+
+    @Test
+    void testEveryTokenMustMatch() {
+        assertEquals(List.of(3L), ids(index.search("indian spi", null, null, 0, 10)));
+        assertEquals(List.of(5L, 3L), ids(index.search("delhi ind", null, null, 0, 10)),
+                "Ties are broken by name");
+        assertTrue(index.search("pizza pune", null, null, 0, 10).getRestaurants().isEmpty());
+    }
+
+    @Test
+    void testAccentAndCaseInsensitive() {
+        assertEquals(List.of(4L), ids(index.search("CAFE deja", null, null, 0, 10)));
+        assertEquals(List.of(4L), ids(index.search(null, "french", "PUNE", 0, 10)));
+    }
+
+    @Test
+    void testFiltersAndFacets() {
+        RestaurantSearchResponse response = index.search(null, "Indian", "Delhi", 0, 10);
+
+        assertEquals(List.of(5L, 3L), ids(response));
+        // Cuisine facets ignore the cuisine filter but respect the location filter
+        assertEquals(Map.of("Indian", 2L, "Pizza", 1L), response.getCuisineFacets());
+        assertEquals(Map.of("ACTIVE", 1L, "CLOSED", 1L), response.getStatusFacets());
+    }
+
+    @Test
+    void testPagination() {
+        RestaurantSearchResponse first = index.search("", null, null, 0, 2);
+        RestaurantSearchResponse last = index.search("", null, null, 2, 2);
+
+        assertEquals(5, first.getTotal());
+        assertEquals(List.of(4L, 2L), ids(first), "Without a query, results are ordered by name");
+        assertEquals(List.of(3L), ids(last));
+        assertTrue(index.search("", null, null, 3, 2).getRestaurants().isEmpty());
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        Restaurant renamed = new Restaurant(1L, "Burger Hut", "Delhi", "Burgers", "ACTIVE");
+        index.onRestaurantChanged(new RestaurantChangedEvent(1L, ChangeType.UPDATED, renamed));
+
+        assertEquals(List.of(2L), ids(index.search("pizza", null, null, 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("hut", null, null, 0, 10)), "Terms the restaurant kept stay indexed");
+        assertEquals(List.of(1L), ids(index.search(null, "burgers", null, 0, 10)));
+
+        index.onRestaurantChanged(new RestaurantChangedEvent(1L, ChangeType.DELETED, null));
+
+        assertTrue(index.search("hut", null, null, 0, 10).getRestaurants().isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void testBuildLoadsEveryPage() {
+        RestaurantSearchIndex fresh = new RestaurantSearchIndex(restaurantRepository);
+        ReflectionTestUtils.setField(fresh, "buildBatchSize", 1);
+        when(restaurantRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable pageable = invocation.getArgument(0);
+            List<Restaurant> content = pageable.getPageNumber() == 0
+                    ? List.of(new Restaurant(1L, "Pizza Hut", "Delhi", "Pizza", "ACTIVE"))
+                    : List.of(new Restaurant(2L, "Spice Garden", "Delhi", "Indian", "ACTIVE"));
+            return new PageImpl<>(content, pageable, 2);
+        });
+
+        fresh.build();
+
+        assertEquals(2, fresh.size());
+        verify(restaurantRepository, times(2)).findAll(any(Pageable.class));
+        assertEquals(List.of(2L), ids(fresh.search("spice", null, null, 0, 10)));
+    }
+}
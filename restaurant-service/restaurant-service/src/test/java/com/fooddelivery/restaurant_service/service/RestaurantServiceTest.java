@@ -1,10 +1,19 @@
 
 package com.fooddelivery.restaurant_service.service;
 
+import com.fooddelivery.restaurant_service.catalog.CatalogSnapshot;
+import com.fooddelivery.restaurant_service.catalog.RestaurantCatalog;
+import com.fooddelivery.restaurant_service.changes.RestaurantChangeLog;
+import com.fooddelivery.restaurant_service.dto.NearbyRestaurant;
+import com.fooddelivery.restaurant_service.dto.RestaurantChangesResponse;
 import com.fooddelivery.restaurant_service.dto.RestaurantDTO;
+import com.fooddelivery.restaurant_service.dto.RestaurantSearchResponse;
+import com.fooddelivery.restaurant_service.event.RestaurantChangedEvent;
 import com.fooddelivery.restaurant_service.exception.ResourceNotFoundException;
 import com.fooddelivery.restaurant_service.model.Restaurant;
 import com.fooddelivery.restaurant_service.repository.RestaurantRepository;
+import com.fooddelivery.restaurant_service.search.RestaurantGeoIndex;
+import com.fooddelivery.restaurant_service.search.RestaurantSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -12,10 +21,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +40,21 @@ class RestaurantServiceTest {
     @Mock
     private RestaurantRepository restaurantRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RestaurantSearchIndex searchIndex;
+
+    @Mock
+    private RestaurantGeoIndex geoIndex;
+
+    @Mock
+    private RestaurantCatalog catalog;
+
+    @Mock
+    private RestaurantChangeLog changeLog;
+
     @InjectMocks
     private RestaurantServiceImpl restaurantService;
 
@@ -48,6 +77,19 @@ class RestaurantServiceTest {
         verify(restaurantRepository).save(any(Restaurant.class));
     }
 
+    @Test
+    void testOwnerIsSetOnCreateOnly() {
+        when(restaurantRepository.save(any(Restaurant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        RestaurantDTO owned = new RestaurantDTO(null, "KFC", "Delhi", "Fast Food", "OPEN", null, null, 55L);
+
+        assertEquals(55L, restaurantService.createRestaurant(owned).getOwnerId());
+
+        restaurant.setOwnerId(55L);
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        RestaurantDTO claim = new RestaurantDTO(null, "KFC", "Delhi", "Fast Food", null, null, null, 99L);
+        assertEquals(55L, restaurantService.updateRestaurant(1L, claim).getOwnerId());
+    }
+
     @Test
     void testGetAllRestaurants() {
         when(restaurantRepository.findAll()).thenReturn(List.of(restaurant));
@@ -57,6 +99,15 @@ class RestaurantServiceTest {
         assertEquals("KFC", list.get(0).getName());
     }
 
+    @Test
+    void testGetCatalog_UsesSnapshot() {
+        CatalogSnapshot snapshot = CatalogSnapshot.of("[]".getBytes(), 0);
+        when(catalog.snapshot()).thenReturn(snapshot);
+
+        assertSame(snapshot, restaurantService.getCatalog());
+        verifyNoInteractions(restaurantRepository);
+    }
+
     @Test
     void testGetRestaurantById_found() {
         when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
@@ -71,6 +122,22 @@ class RestaurantServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> restaurantService.getRestaurantById(99L));
     }
 
+    @Test
+    void testGetRestaurantsByIds_singleQueryForDistinctIds() {
+        when(restaurantRepository.findAllById(anyIterable())).thenReturn(List.of(restaurant));
+        List<Restaurant> result = restaurantService.getRestaurantsByIds(Arrays.asList(1L, 1L, null, 2L));
+
+        assertEquals(1, result.size());
+        verify(restaurantRepository).findAllById(argThat(ids -> List.of(1L, 2L).equals(new ArrayList<>((Collection<Long>) ids))));
+        verify(restaurantRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetRestaurantsByIds_empty() {
+        assertTrue(restaurantService.getRestaurantsByIds(List.of()).isEmpty());
+        verifyNoInteractions(restaurantRepository);
+    }
+
     @Test
     void testUpdateRestaurant_success() {
         Restaurant updated = new Restaurant(1L, "Updated", "Mumbai", "Indian", "CLOSED");
@@ -98,4 +165,65 @@ class RestaurantServiceTest {
         when(restaurantRepository.existsById(99L)).thenReturn(false);
         assertThrows(ResourceNotFoundException.class, () -> restaurantService.deleteRestaurant(99L));
     }
+
+    @Test
+    void testUpdateAndDelete_publishChangeEvents() {
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(restaurantRepository.save(any(Restaurant.class))).thenReturn(restaurant);
+        when(restaurantRepository.existsById(1L)).thenReturn(true);
+
+        restaurantService.updateRestaurant(1L, new RestaurantDTO(null, "KFC", "Delhi", "Fast Food", "CLOSED"));
+        restaurantService.deleteRestaurant(1L);
+
+        ArgumentCaptor<RestaurantChangedEvent> captor = ArgumentCaptor.forClass(RestaurantChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals(RestaurantChangedEvent.ChangeType.UPDATED, captor.getAllValues().get(0).type());
+        assertEquals("CLOSED", captor.getAllValues().get(0).restaurant().getStatus());
+        assertEquals(RestaurantChangedEvent.ChangeType.DELETED, captor.getAllValues().get(1).type());
+        assertEquals(1L, captor.getAllValues().get(1).restaurantId());
+    }
+
+    @Test
+    void testSearchRestaurants_UsesIndex() {
+        RestaurantSearchResponse response = new RestaurantSearchResponse(
+                List.of(dto), 1, 0, 20, Map.of("Fast Food", 1L), Map.of("OPEN", 1L));
+        when(searchIndex.search("kf", null, "Delhi", 0, 20)).thenReturn(response);
+
+        assertSame(response, restaurantService.searchRestaurants("kf", null, "Delhi", 0, 20));
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    void testUpdateRestaurant_coordinatesKeptWhenOmitted() {
+        restaurant.setLatitude(28.61);
+        restaurant.setLongitude(77.21);
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(restaurantRepository.save(any(Restaurant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Restaurant kept = restaurantService.updateRestaurant(1L, new RestaurantDTO(null, "KFC", "Delhi", "Fast Food", null));
+        assertEquals(28.61, kept.getLatitude());
+
+        Restaurant moved = restaurantService.updateRestaurant(1L,
+                new RestaurantDTO(null, "KFC", "Delhi", "Fast Food", null, 28.63, 77.22));
+        assertEquals(28.63, moved.getLatitude());
+        assertEquals(77.22, moved.getLongitude());
+    }
+
+    @Test
+    void testFindNearbyRestaurants_UsesGeoIndex() {
+        List<NearbyRestaurant> nearby = List.of(
+                new NearbyRestaurant(1L, "KFC", "Delhi", "Fast Food", "OPEN", 28.61, 77.21, 0.4));
+        when(geoIndex.nearby(28.6, 77.2, 5, 20)).thenReturn(nearby);
+
+        assertSame(nearby, restaurantService.findNearbyRestaurants(28.6, 77.2, 5, 20));
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    void testGetChanges_UsesChangeLog() {
+        RestaurantChangesResponse response = new RestaurantChangesResponse(List.of(), 5, false, 5);
+        when(changeLog.changesSince(5, 100)).thenReturn(response);
+
+        assertSame(response, restaurantService.getChanges(5, 100));
+    }
 }
@@ -0,0 +1,17 @@
+package com.fooddelivery.common.config;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Guards for running a service on virtual threads: a cap on concurrent requests and a log of pinned
+ * threads. Picked up by every service that depends on service-common, and only active when
+ * spring.threads.virtual.enabled=true.
+ */
+@AutoConfiguration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Import({ConcurrencyLimitFilter.class, VirtualThreadPinningMonitor.class})
+public class VirtualThreadsAutoConfiguration {
+}
@@ -0,0 +1,41 @@
+package com.fooddelivery.common.exception;
+
+/**
+ * Thrown when an order, payment or other stateful resource can't move to the requested status from the
+ * one it is currently in, either because its lifecycle doesn't allow it or because another update got
+ * there first.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    private final String resource;
+    private final Long id;
+    private final String currentStatus;
+    private final String targetStatus;
+
+    /**
+     * @param resource What is being moved, as it should read in the message (e.g., "Order" or "Payment").
+     */
+    public InvalidStatusTransitionException(String resource, Long id, String currentStatus, String targetStatus) {
+        super(resource + " " + id + " cannot move from " + currentStatus + " to " + targetStatus + ".");
+        this.resource = resource;
+        this.id = id;
+        this.currentStatus = currentStatus;
+        this.targetStatus = targetStatus;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public String getTargetStatus() {
+        return targetStatus;
+    }
+}
@@ -0,0 +1,57 @@
+package com.fooddelivery.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the IdempotencyService behind each service's Idempotency-Key handling, with the store picked
+ * by idempotency.store: "memory" (default, per instance) or "db" (the idempotency_record table, shared by
+ * all instances).
+ *
+ * The db store adds this package to the auto-configuration packages, so the service's own JPA setup
+ * picks up IdempotencyRecord and its repository next to the service's entities; that's why it has to
+ * run before the JPA auto-configurations.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class,
+                   before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@ConditionalOnClass(name = {"com.fasterxml.jackson.databind.ObjectMapper", "org.springframework.http.ResponseEntity"})
+public class IdempotencyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyService idempotencyService(IdempotencyStore store, ObjectMapper objectMapper,
+                                                 @Value("${idempotency.in-flight-wait-ms:15000}") long inFlightWaitMs) {
+        return new IdempotencyService(store, objectMapper, inFlightWaitMs);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(IdempotencyStore.class)
+    @ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public InMemoryIdempotencyStore inMemoryIdempotencyStore(@Value("${idempotency.ttl-hours:24}") long ttlHours,
+                                                             @Value("${idempotency.max-entries:100000}") long maxEntries) {
+        return new InMemoryIdempotencyStore(ttlHours, maxEntries);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "idempotency.store", havingValue = "db")
+    @AutoConfigurationPackage(basePackageClasses = IdempotencyRecord.class)
+    static class JpaStoreConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(IdempotencyStore.class)
+        public JpaIdempotencyStore jpaIdempotencyStore(IdempotencyRecordRepository repository,
+                                                       @Value("${idempotency.ttl-hours:24}") long ttlHours) {
+            return new JpaIdempotencyStore(repository, ttlHours);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fooddelivery.common.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored response for an Idempotency-Key, used when idempotency.store=db.
+ */
+@Entity
+@Table(name = "idempotency_record",
+       indexes = @Index(name = "idx_idempotency_record_expires_at", columnList = "expiresAt"))
+@Data // Lombok: Generates getters, setters, toString, equals, and hashCode
+@NoArgsConstructor // Lombok: Generates a no-argument constructor
+@AllArgsConstructor // Lombok: Generates a constructor with all fields
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 320)
+    private String idempotencyKey; // Caller scope plus the client's Idempotency-Key
+
+    @Column(length = 64)
+    private String fingerprint; // SHA-256 of the original request body
+
+    private int status; // HTTP status of the stored response
+
+    private String contentType; // Content type of the stored response body
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String body; // Serialized response body
+
+    private LocalDateTime createdAt; // When the first request completed
+
+    private LocalDateTime expiresAt; // After this the key may be reused
+}
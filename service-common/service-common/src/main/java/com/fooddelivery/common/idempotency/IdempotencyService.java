@@ -0,0 +1,169 @@
+package com.fooddelivery.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fooddelivery.common.idempotency.IdempotencyStore.StoredResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key.
+ * The first request with a key runs normally and its response is stored; later requests with the
+ * same key get the stored response back without running again. Concurrent duplicates wait for the
+ * first execution and share its response instead of running in parallel.
+ *
+ * 5xx and 429 responses and exceptions are not stored, so the client can retry them with the same key.
+ * Reusing a key for a different request body is rejected with 422.
+ *
+ * Registered by IdempotencyAutoConfiguration; idempotency.in-flight-wait-ms bounds how long a duplicate
+ * waits for the first execution.
+ */
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final long inFlightWaitMs;
+    // Executions currently running on this instance, so concurrent duplicates collapse onto one
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore store,
+                              ObjectMapper objectMapper,
+                              long inFlightWaitMs) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.inFlightWaitMs = inFlightWaitMs;
+    }
+
+    /**
+     * @param scope Who the key belongs to (e.g., "orders:42" or "payments:order-service"), so two callers can't replay each other's responses.
+     * @param key The client's Idempotency-Key header, or null to just run the action.
+     * @param request The request body, fingerprinted to detect a key reused for another request.
+     * @param action Produces the response the first time the key is seen.
+     * @return The fresh or replayed response.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters.");
+        }
+        String storeKey = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        StoredResponse stored = store.get(storeKey);
+        if (stored != null) {
+            return replay(storeKey, stored, fingerprint);
+        }
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(storeKey, execution);
+        if (existing != null) {
+            return awaitDuplicate(storeKey, existing, fingerprint);
+        }
+        try {
+            // The first execution may have finished between the store lookup and claiming the key
+            stored = store.get(storeKey);
+            if (stored != null) {
+                execution.complete(stored);
+                return replay(storeKey, stored, fingerprint);
+            }
+
+            ResponseEntity<?> response = action.get();
+            StoredResponse result = toStored(response, fingerprint);
+            if (!response.getStatusCode().is5xxServerError() && response.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                store.put(storeKey, result);
+            }
+            execution.complete(result);
+            return response;
+        } catch (RuntimeException e) {
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(storeKey, execution);
+        }
+    }
+
+    private ResponseEntity<?> awaitDuplicate(String storeKey, CompletableFuture<StoredResponse> existing, String fingerprint) {
+        log.info("Request with {} {} is already in flight. Waiting for its response.", HEADER, storeKey);
+        try {
+            return replay(storeKey, existing.get(inFlightWaitMs, TimeUnit.MILLISECONDS), fingerprint);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("A request with this " + HEADER + " is still in progress.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a duplicate request", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ResponseEntity<?> replay(String storeKey, StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            log.warn("{} {} reused with a different request body.", HEADER, storeKey);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(HEADER + " was already used for a different request.");
+        }
+        log.info("Replaying stored response for {} {}.", HEADER, storeKey);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            builder.contentType(MediaType.parseMediaType(stored.contentType()));
+        }
+        return builder.body(stored.body());
+    }
+
+    private StoredResponse toStored(ResponseEntity<?> response, String fingerprint) {
+        Object body = response.getBody();
+        if (body == null) {
+            return new StoredResponse(fingerprint, response.getStatusCode().value(), null, null);
+        }
+        if (body instanceof String text) {
+            return new StoredResponse(fingerprint, response.getStatusCode().value(), MediaType.TEXT_PLAIN_VALUE, text);
+        }
+        return new StoredResponse(fingerprint, response.getStatusCode().value(), MediaType.APPLICATION_JSON_VALUE, toJson(body));
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+}
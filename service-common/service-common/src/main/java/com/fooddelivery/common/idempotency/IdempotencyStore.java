@@ -0,0 +1,33 @@
+package com.fooddelivery.common.idempotency;
+
+/**
+ * Storage for the responses of requests sent with an Idempotency-Key.
+ * Selected with idempotency.store: "memory" (default, per instance) or "db" (shared by all instances).
+ */
+public interface IdempotencyStore {
+
+    /**
+     * A response as it was sent the first time, replayed verbatim for later requests with the same key.
+     *
+     * @param fingerprint SHA-256 of the original request body, to detect a key reused for another request.
+     * @param status The HTTP status code.
+     * @param contentType The response content type, or null if there was no body.
+     * @param body The serialized response body, or null.
+     */
+    record StoredResponse(String fingerprint, int status, String contentType, String body) {
+    }
+
+    /**
+     * @param key The caller-scoped idempotency key.
+     * @return The stored response, or null if the key is unknown or has expired.
+     */
+    StoredResponse get(String key);
+
+    /**
+     * Stores the response for a key until idempotency.ttl-hours have passed.
+     *
+     * @param key The caller-scoped idempotency key.
+     * @param response The response to replay for later requests with this key.
+     */
+    void put(String key, StoredResponse response);
+}
@@ -0,0 +1,32 @@
+package com.fooddelivery.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Default IdempotencyStore: a bounded Caffeine cache that forgets keys after idempotency.ttl-hours.
+ * Keys are only known to the instance that served the first request.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, StoredResponse> cache;
+
+    public InMemoryIdempotencyStore(long ttlHours, long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+    }
+
+    @Override
+    public StoredResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, StoredResponse response) {
+        cache.put(key, response);
+    }
+}
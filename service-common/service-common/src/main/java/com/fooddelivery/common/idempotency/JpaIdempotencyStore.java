@@ -0,0 +1,50 @@
+package com.fooddelivery.common.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyStore backed by the idempotency_record table, so a key is honoured by every instance
+ * and survives restarts. Expired rows are purged in the background.
+ */
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaIdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final long ttlHours;
+
+    public JpaIdempotencyStore(IdempotencyRecordRepository repository, long ttlHours) {
+        this.repository = repository;
+        this.ttlHours = ttlHours;
+    }
+
+    @Override
+    public StoredResponse get(String key) {
+        return repository.findById(key)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> new StoredResponse(record.getFingerprint(), record.getStatus(),
+                        record.getContentType(), record.getBody()))
+                .orElse(null);
+    }
+
+    @Override
+    public void put(String key, StoredResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(new IdempotencyRecord(key, response.fingerprint(), response.status(),
+                response.contentType(), response.body(), now, now.plusHours(ttlHours)));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records.", purged);
+        }
+    }
+}
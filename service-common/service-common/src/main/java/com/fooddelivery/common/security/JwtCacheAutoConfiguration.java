@@ -0,0 +1,27 @@
+package com.fooddelivery.common.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers the VerifiedTokenCache used by each service's JWT filter. The bean is declared with a
+ * wildcard, so a service injects it as the VerifiedTokenCache of whatever its filter caches.
+ */
+@AutoConfiguration
+@ConditionalOnClass(name = "com.github.benmanes.caffeine.cache.Caffeine")
+public class JwtCacheAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(VerifiedTokenCache.class)
+    public VerifiedTokenCache<?> verifiedTokenCache(@Value("${jwt.cache.enabled:true}") boolean enabled,
+                                                    @Value("${jwt.cache.max-size:10000}") long maxSize,
+                                                    @Value("${jwt.cache.max-ttl-seconds:900}") long maxTtlSeconds,
+                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new VerifiedTokenCache<>(enabled, maxSize, maxTtlSeconds, meterRegistry.getIfAvailable());
+    }
+}
@@ -0,0 +1,18 @@
+package com.fooddelivery.common.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * What a JWT filter needs to rebuild the Authentication of a cached token without parsing it again.
+ *
+ * @param username The token subject.
+ * @param authorities The authorities granted by the token's "roles" claim.
+ */
+public record VerifiedToken(String username, List<SimpleGrantedAuthority> authorities) {
+
+    public VerifiedToken {
+        authorities = List.copyOf(authorities);
+    }
+}
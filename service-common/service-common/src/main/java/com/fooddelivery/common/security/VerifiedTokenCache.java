@@ -0,0 +1,110 @@
+package com.fooddelivery.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of already verified bearer tokens, keyed by the SHA-256 digest of the token.
+ * A client repeating the same token skips signature verification and claims parsing in the service's
+ * JWT filter. Entries expire at the token's own "exp" (capped at jwt.cache.max-ttl-seconds), so a
+ * cached token is never accepted after it would have been rejected as expired.
+ *
+ * Disabled with jwt.cache.enabled=false. Hit and miss counts are published as "cache.*" metrics
+ * with cache=jwt-tokens. Registered by JwtCacheAutoConfiguration.
+ *
+ * @param <T> What the filter keeps per token: order-service its JwtPrincipal, the other services a VerifiedToken.
+ */
+public class VerifiedTokenCache<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private record Entry<T>(T value, long expiresAtMillis) {
+    }
+
+    private final Cache<String, Entry<T>> cache; // null when disabled
+    private final long maxTtlMillis;
+
+    public VerifiedTokenCache(boolean enabled, long maxSize, long maxTtlSeconds, @Nullable MeterRegistry meterRegistry) {
+        this.maxTtlMillis = TimeUnit.SECONDS.toMillis(maxTtlSeconds);
+        if (!enabled) {
+            this.cache = null;
+            log.info("Verified-token cache disabled.");
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry<T>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry<T> entry, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAtMillis() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry<T> entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry<T> entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt-tokens");
+        }
+    }
+
+    /**
+     * @param token The compact JWT, without the "Bearer " prefix.
+     * @return What was cached for the token, or null on a miss or when the cache is disabled.
+     */
+    @Nullable
+    public T get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        Entry<T> entry = cache.getIfPresent(digest(token));
+        return entry != null ? entry.value() : null;
+    }
+
+    /**
+     * Remembers a token that has just passed signature and expiry verification.
+     *
+     * @param token The compact JWT, without the "Bearer " prefix.
+     * @param value What the filter built from the token's claims.
+     * @param expiresAt The token's "exp" claim, or null if it has none.
+     * @return The value, so callers can cache and use it in one step (also when the cache is disabled).
+     */
+    public T put(String token, T value, @Nullable Instant expiresAt) {
+        if (cache != null) {
+            long latest = System.currentTimeMillis() + maxTtlMillis;
+            long expiresAtMillis = expiresAt != null ? Math.min(expiresAt.toEpochMilli(), latest) : latest;
+            cache.put(digest(token), new Entry<>(value, expiresAtMillis));
+        }
+        return value;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 // src/pages/AdminOrders.js
 import React, { useEffect, useState } from "react";
+import { subscribeToOrderEvents } from "../utils/orderStream";
 
 function AdminOrders() {
   const [orders, setOrders] = useState([]);
@@ -30,6 +31,25 @@ function AdminOrders() {
     fetchOrders();
   }, []);
 
+  // Live status updates instead of re-fetching the whole list
+  useEffect(() => {
+    return subscribeToOrderEvents(
+      token,
+      (event) => {
+        if (event.type !== "STATUS_CHANGED") {
+          fetchOrders();
+          return;
+        }
+        setOrders((current) =>
+          current.map((order) =>
+            order.id === event.orderId ? { ...order, status: event.status } : order
+          )
+        );
+      },
+      fetchOrders
+    );
+  }, []);
+
   // Handle status update
   const handleUpdate = async () => {
     try {
@@ -42,6 +62,7 @@ function AdminOrders() {
         body: JSON.stringify(editOrder),
       });
 
+      if (response.status === 409) throw new Error("Order was changed elsewhere. Reload and try again.");
       if (!response.ok) throw new Error("Failed to update order");
 
       setMessage("✅ Order updated successfully");
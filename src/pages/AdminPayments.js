@@ -42,6 +42,7 @@ function AdminPayments() {
     setFormData({
       paymentMethod: payment.paymentMethod || "",
       status: payment.status || "",
+      version: payment.version, // lets the server reject the edit if the payment changed meanwhile
     });
   };
 
@@ -59,6 +60,7 @@ function AdminPayments() {
         body: JSON.stringify(formData),
       });
 
+      if (response.status === 409) throw new Error("Payment was changed elsewhere. Reload and try again.");
       if (!response.ok) throw new Error("Failed to update payment");
 
       setMessage("✅ Payment updated!");
@@ -1,5 +1,6 @@
 // src/pages/Orders.js
 import React, { useEffect, useState } from "react";
+import { subscribeToOrderEvents } from "../utils/orderStream";
 
 function Orders() {
   const [orders, setOrders] = useState([]);
@@ -9,7 +10,7 @@ function Orders() {
 
   const fetchOrders = async () => {
     try {
-      const response = await fetch("http://localhost:8080/orders/orders", {
+      const response = await fetch("http://localhost:8080/orders/orders/mine", {
         headers: {
           "Authorization": `Bearer ${localStorage.getItem("token")}`,
         },
@@ -26,6 +27,25 @@ function Orders() {
     fetchOrders();
   }, []);
 
+  // Live status updates instead of re-fetching the whole list
+  useEffect(() => {
+    return subscribeToOrderEvents(
+      localStorage.getItem("token"),
+      (event) => {
+        if (event.type !== "STATUS_CHANGED") {
+          fetchOrders();
+          return;
+        }
+        setOrders((current) =>
+          current.map((order) =>
+            order.id === event.orderId ? { ...order, status: event.status } : order
+          )
+        );
+      },
+      fetchOrders
+    );
+  }, []);
+
   const handleDelete = async (id) => {
     try {
       const response = await fetch(`http://localhost:8080/orders/orders/${id}`, {
@@ -65,9 +85,11 @@ function Orders() {
           totalAmount: parseFloat(editingOrder.totalAmount),
           status: editingOrder.status,
           customerId: editingOrder.customerId,
+          version: editingOrder.version, // lets the server reject the edit if the order changed meanwhile
         }),
       });
 
+      if (response.status === 409) throw new Error("Order was changed elsewhere. Reload and try again.");
       if (!response.ok) throw new Error("Failed to update order");
 
       setMessage("✅ Order updated!");
@@ -1,4 +1,4 @@
-import React, { useState } from "react";
+import React, { useRef, useState } from "react";
 
 function PlaceOrder() {
   const [order, setOrder] = useState({
@@ -9,6 +9,10 @@ function PlaceOrder() {
   });
 
   const [message, setMessage] = useState("");
+  const [submitting, setSubmitting] = useState(false);
+  // One Idempotency-Key per order: double-clicks and retries after an error reuse it,
+  // so order-service places the order at most once. A new key is drawn after success.
+  const idempotencyKey = useRef(crypto.randomUUID());
 
   const handleOrderChange = (e) => {
     setOrder({ ...order, [e.target.name]: e.target.value });
@@ -32,6 +36,8 @@ function PlaceOrder() {
 
   const handleSubmit = async (e) => {
     e.preventDefault();
+    if (submitting) return;
+    setSubmitting(true);
 
     try {
       const response = await fetch("http://localhost:8080/orders/orders", {
@@ -39,6 +45,7 @@ function PlaceOrder() {
         headers: {
           Authorization: `Bearer ${localStorage.getItem("token")}`,
           "Content-Type": "application/json",
+          "Idempotency-Key": idempotencyKey.current,
         },
         body: JSON.stringify({
           restaurantId: parseInt(order.restaurantId),
@@ -54,6 +61,7 @@ function PlaceOrder() {
       if (!response.ok) throw new Error("Failed to place order");
 
       setMessage("✅ Order placed successfully!");
+      idempotencyKey.current = crypto.randomUUID();
       setOrder({
         restaurantId: "",
         totalAmount: "",
@@ -62,6 +70,8 @@ function PlaceOrder() {
       });
     } catch (err) {
       setMessage("❌ Error: " + err.message);
+    } finally {
+      setSubmitting(false);
     }
   };
 
@@ -128,7 +138,9 @@ function PlaceOrder() {
         <button type="button" onClick={addItem}>Add Another Item</button>
         <br /><br />
 
-        <button type="submit">Place Order</button>
+        <button type="submit" disabled={submitting}>
+          {submitting ? "Placing Order..." : "Place Order"}
+        </button>
       </form>
     </div>
   );
@@ -0,0 +1,61 @@
+// src/utils/orderStream.js
+// Live order updates from GET /orders/stream (Server-Sent Events).
+// EventSource can't send the Authorization header, so the stream is read with fetch instead.
+// Reconnects after drops and resumes from the last event it saw via Last-Event-ID.
+
+const STREAM_URL = "http://localhost:8080/orders/orders/stream";
+const RETRY_MS = 3000;
+
+export function subscribeToOrderEvents(token, onOrderEvent, onReset) {
+  const controller = new AbortController();
+  let lastEventId = null;
+
+  const handleFrame = (frame) => {
+    let id = null;
+    let event = "message";
+    let data = "";
+    for (const line of frame.split("\n")) {
+      if (line.startsWith(":")) continue; // keep-alive comment
+      const colon = line.indexOf(":");
+      const field = colon === -1 ? line : line.slice(0, colon);
+      const value = colon === -1 ? "" : line.slice(colon + 1).replace(/^ /, "");
+      if (field === "id") id = value;
+      else if (field === "event") event = value;
+      else if (field === "data") data += (data ? "\n" : "") + value;
+    }
+    if (id) lastEventId = id;
+    if (event === "order" && data) onOrderEvent(JSON.parse(data));
+    else if (event === "reset") onReset();
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const headers = { Authorization: `Bearer ${token}` };
+        if (lastEventId) headers["Last-Event-ID"] = lastEventId;
+        const response = await fetch(STREAM_URL, { headers, signal: controller.signal });
+        if (!response.ok) throw new Error(`Order stream failed: ${response.status}`);
+
+        const reader = response.body.getReader();
+        const decoder = new TextDecoder();
+        let buffer = "";
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, "\n");
+          let end;
+          while ((end = buffer.indexOf("\n\n")) !== -1) {
+            handleFrame(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+          }
+        }
+      } catch (err) {
+        if (controller.signal.aborted) return;
+      }
+      await new Promise((resolve) => setTimeout(resolve, RETRY_MS));
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+}
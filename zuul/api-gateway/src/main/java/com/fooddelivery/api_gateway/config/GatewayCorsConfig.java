@@ -36,7 +36,9 @@ config.setAllowedOrigins(Arrays.asList("http://localhost:3000")); // ✅ only on
 
 config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
 
-config.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "Origin"));
+config.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "Origin", "Idempotency-Key", "Last-Event-ID"));
+
+config.setExposedHeaders(Arrays.asList("Idempotent-Replayed", "Retry-After"));
 
 config.setAllowCredentials(true); // ✅ required for cookies or Authorization header
 